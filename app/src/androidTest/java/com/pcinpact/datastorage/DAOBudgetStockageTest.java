@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.CommentaireItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class DAOBudgetStockageTest {
+    private static final String BDD_TEST = "test_budget.db";
+    private static final int NB_ARTICLES = 40;
+    private static final int TAILLE_CONTENU = 20000;
+    private static final int NB_COMMENTAIRES = 20;
+    private static final long TIMESTAMP = 1700000000L;
+
+    private Context monContext;
+    private DAO monDAO;
+
+    @Before
+    public void initialiser() {
+        monContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        monContext.deleteDatabase(BDD_TEST);
+        monDAO = new DAO(monContext, BDD_TEST);
+
+        // Contenus peu compressibles : place occupée significative
+        Random monAleatoire = new Random(42);
+        ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+        for (int i = 1; i <= NB_ARTICLES; i++) {
+            StringBuilder monContenu = new StringBuilder("<p>");
+            while (monContenu.length() < TAILLE_CONTENU) {
+                monContenu.append(Long.toHexString(monAleatoire.nextLong())).append(' ');
+            }
+            ArticleItem monArticle = new ArticleItem();
+            monArticle.setId(i);
+            monArticle.setTitre("budget " + i);
+            monArticle.setSousTitre("sous-titre");
+            // Article 1 = le plus ancien
+            monArticle.setTimeStampPublication(TIMESTAMP + i);
+            monArticle.setContenu(monContenu.append("</p>").toString());
+            monArticle.setURLseo("https://next.ink/" + i);
+            monArticle.setParseurLastCommentId(-1);
+            mesArticles.add(monArticle);
+
+            ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+            for (int c = 0; c < NB_COMMENTAIRES; c++) {
+                CommentaireItem unCommentaire = new CommentaireItem();
+                unCommentaire.setId(i * 100 + c);
+                unCommentaire.setIdArticle(i);
+                unCommentaire.setAuteur("auteur");
+                unCommentaire.setTimeStampPublication(TIMESTAMP + c);
+                unCommentaire.setCommentaire("<p>commentaire " + Long.toHexString(monAleatoire.nextLong()) + "</p>");
+                mesCommentaires.add(unCommentaire);
+            }
+            monDAO.enregistrerCommentairesSiNouveaux(mesCommentaires);
+        }
+        monDAO.enregistrerArticles(mesArticles);
+    }
+
+    @After
+    public void nettoyer() {
+        monDAO.close();
+        monContext.deleteDatabase(BDD_TEST);
+    }
+
+    /**
+     * Budget dépassé : les articles les moins récemment utilisés sont supprimés avec leurs commentaires,
+     * les articles épinglés et récemment lus sont conservés
+     */
+    @Test
+    public void testSupprimerArticlesHorsBudget() {
+        // Articles les plus anciens : 1 lu récemment, 2 épinglé
+        monDAO.marquerArticleLu(1);
+        monDAO.epinglerArticle(2, true);
+        assertTrue(monDAO.chargerArticle(2).isEpingle());
+
+        long monBudget = monDAO.getTailleUtilisee() / 2;
+        int nbSupprimes = monDAO.supprimerArticlesHorsBudget(monBudget);
+
+        assertTrue(nbSupprimes > 0);
+        assertTrue(monDAO.getTailleUtilisee() <= monBudget);
+        assertEquals(NB_ARTICLES - nbSupprimes, monDAO.chargerResumesArticlesTriParDate().size());
+        assertEquals(1, monDAO.chargerArticle(1).getId());
+        assertEquals(2, monDAO.chargerArticle(2).getId());
+        // Les autres articles sont supprimés du plus ancien au plus récent
+        for (int i = 3; i <= NB_ARTICLES; i++) {
+            boolean isSupprime = (i < 3 + nbSupprimes);
+            assertEquals(isSupprime ? 0 : i, monDAO.chargerArticle(i).getId());
+            assertEquals(isSupprime ? 0 : NB_COMMENTAIRES, monDAO.compterCommentaires(i));
+        }
+    }
+
+    /**
+     * Budget respecté ou uniquement des articles épinglés : aucune suppression
+     */
+    @Test
+    public void testSupprimerArticlesHorsBudgetEpingles() {
+        assertEquals(0, monDAO.supprimerArticlesHorsBudget(Long.MAX_VALUE));
+
+        for (int i = 1; i <= NB_ARTICLES; i++) {
+            monDAO.epinglerArticle(i, true);
+        }
+        assertEquals(0, monDAO.supprimerArticlesHorsBudget(0));
+        assertEquals(NB_ARTICLES, monDAO.chargerResumesArticlesTriParDate().size());
+    }
+
+    /**
+     * Suppression des articles obsolètes : les articles épinglés sont conservés
+     */
+    @Test
+    public void testSupprimerArticlesAvantEpingles() {
+        monDAO.epinglerArticle(1, true);
+        monDAO.supprimerArticlesAvant(TIMESTAMP + NB_ARTICLES);
+
+        assertEquals(2, monDAO.chargerResumesArticlesTriParDate().size());
+        assertEquals(1, monDAO.chargerArticle(1).getId());
+        assertEquals(NB_COMMENTAIRES, monDAO.compterCommentaires(1));
+        assertEquals(NB_ARTICLES, monDAO.chargerArticle(NB_ARTICLES).getId());
+    }
+}
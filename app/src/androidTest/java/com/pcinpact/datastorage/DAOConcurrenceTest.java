@@ -0,0 +1,323 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.CommentaireItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class DAOConcurrenceTest {
+    private static final String BDD_TEST = "test_concurrence.db";
+    private static final String BDD_TEST_COMMENTAIRES = BDD_TEST + "_commentaires";
+    private static final int NB_ECRIVAINS = 8;
+    private static final int NB_LECTEURS = 4;
+    private static final int NB_LOTS = 20;
+    private static final int TAILLE_LOT = 10;
+    private static final int NB_COMMENTAIRES = 3;
+    private static final int NB_LOTS_RETENTION = 5;
+    private static final int NB_COMMENTAIRES_RETENTION = 30;
+    private static final int RETENTION_NB_COMMENTAIRES = 10;
+
+    private Context monContext;
+    private DAO monDAO;
+
+    @Before
+    public void initialiser() {
+        monContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        monContext.deleteDatabase(BDD_TEST);
+        monContext.deleteDatabase(BDD_TEST_COMMENTAIRES);
+        monDAO = new DAO(monContext, BDD_TEST);
+    }
+
+    @After
+    public void nettoyer() {
+        monDAO.close();
+        monContext.deleteDatabase(BDD_TEST);
+        monContext.deleteDatabase(BDD_TEST_COMMENTAIRES);
+    }
+
+    /**
+     * Appels simultanés => une unique instance
+     */
+    @Test
+    public void testInstanceUnique() throws Exception {
+        ExecutorService mesThreads = Executors.newFixedThreadPool(16);
+        CountDownLatch monDepart = new CountDownLatch(1);
+        List<Future<DAO>> mesInstances = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            mesInstances.add(mesThreads.submit(() -> {
+                monDepart.await();
+                return DAO.getInstance(monContext);
+            }));
+        }
+        monDepart.countDown();
+        for (Future<DAO> uneInstance : mesInstances) {
+            assertSame(mesInstances.get(0).get(), uneInstance.get());
+        }
+        mesThreads.shutdown();
+    }
+
+    /**
+     * Ingestion parallèle (articles, commentaires, compteurs) pendant des lectures continues : aucune écriture perdue
+     */
+    @Test
+    public void testIngestionParallele() throws Exception {
+        ingestionParallele();
+    }
+
+    /**
+     * Idem avec les commentaires dans une BDD séparée, puis remise à zéro de ce fichier
+     */
+    @Test
+    public void testIngestionParalleleBDDCommentairesSeparee() throws Exception {
+        monDAO.close();
+        monDAO = new DAO(monContext, BDD_TEST, true);
+        ingestionParallele();
+        assertTrue(monContext.getDatabasePath(BDD_TEST_COMMENTAIRES).exists());
+
+        monDAO.viderCommentaires();
+        assertEquals(0, monDAO.compterCommentaires(idArticle(0, 0)));
+        assertEquals(NB_ECRIVAINS * NB_LOTS * TAILLE_LOT, monDAO.chargerResumesArticlesTriParDate().size());
+    }
+
+    /**
+     * Suppression des commentaires les plus anciens pendant l'ingestion, commentaires dans une BDD séparée (deux verrous) :
+     * pas d'interblocage avec les écritures des articles et des commentaires, aucun commentaire perdu ou compté deux fois
+     */
+    @Test
+    public void testRetentionCommentairesParallele() throws Exception {
+        monDAO.close();
+        monDAO = new DAO(monContext, BDD_TEST, true);
+
+        ExecutorService mesThreads = Executors.newFixedThreadPool(NB_ECRIVAINS + 1);
+        CountDownLatch monDepart = new CountDownLatch(1);
+        AtomicBoolean isFini = new AtomicBoolean(false);
+
+        List<Future<?>> mesEcrivains = new ArrayList<>();
+        for (int t = 0; t < NB_ECRIVAINS; t++) {
+            final int numero = t;
+            mesEcrivains.add(mesThreads.submit((Callable<Void>) () -> {
+                monDepart.await();
+                ecrireCommentairesRetention(numero);
+                return null;
+            }));
+        }
+        Future<Integer> maRetention = mesThreads.submit(() -> {
+            monDepart.await();
+            int nbPassages = 0;
+            while (!isFini.get()) {
+                monDAO.supprimerCommentairesAnciens(RETENTION_NB_COMMENTAIRES);
+                nbPassages++;
+            }
+            return nbPassages;
+        });
+
+        monDepart.countDown();
+        for (Future<?> unEcrivain : mesEcrivains) {
+            unEcrivain.get(2, TimeUnit.MINUTES);
+        }
+        isFini.set(true);
+        assertTrue(maRetention.get(1, TimeUnit.MINUTES) > 0);
+        mesThreads.shutdown();
+
+        // Dernier passage : seuls les plus récents sont conservés, les autres sont comptés comme supprimés
+        monDAO.supprimerCommentairesAnciens(RETENTION_NB_COMMENTAIRES);
+        for (int t = 0; t < NB_ECRIVAINS; t++) {
+            for (int i = 0; i < NB_LOTS_RETENTION * TAILLE_LOT; i++) {
+                int idArticle = idArticle(t, i);
+                assertEquals(RETENTION_NB_COMMENTAIRES, monDAO.compterCommentaires(idArticle));
+                assertEquals(NB_COMMENTAIRES_RETENTION - RETENTION_NB_COMMENTAIRES, monDAO.compterCommentairesOublies(idArticle));
+                assertEquals(idArticle * 100 + NB_COMMENTAIRES_RETENTION - RETENTION_NB_COMMENTAIRES, monDAO.chargerIdCommentaireAuRang(idArticle, 0));
+            }
+        }
+    }
+
+    private void ingestionParallele() throws Exception {
+        ExecutorService mesThreads = Executors.newFixedThreadPool(NB_ECRIVAINS + NB_LECTEURS);
+        CountDownLatch monDepart = new CountDownLatch(1);
+        AtomicBoolean isFini = new AtomicBoolean(false);
+
+        List<Future<?>> mesEcrivains = new ArrayList<>();
+        for (int t = 0; t < NB_ECRIVAINS; t++) {
+            final int numero = t;
+            mesEcrivains.add(mesThreads.submit((Callable<Void>) () -> {
+                monDepart.await();
+                ecrire(numero);
+                return null;
+            }));
+        }
+        List<Future<Integer>> mesLecteurs = new ArrayList<>();
+        for (int t = 0; t < NB_LECTEURS; t++) {
+            mesLecteurs.add(mesThreads.submit(() -> {
+                monDepart.await();
+                int nbLectures = 0;
+                while (!isFini.get()) {
+                    for (ArticleItem unArticle : monDAO.chargerResumesArticlesTriParDate()) {
+                        // Article lu pendant son écriture : jamais partiellement enregistré
+                        assertTrue(unArticle.getTitre().startsWith("stress"));
+                    }
+                    int idArticle = idArticle(nbLectures % NB_ECRIVAINS, nbLectures % (NB_LOTS * TAILLE_LOT));
+                    int idLu = monDAO.chargerArticle(idArticle).getId();
+                    assertTrue(idLu == 0 || idLu == idArticle);
+                    monDAO.rechercher("stress");
+                    nbLectures++;
+                }
+                return nbLectures;
+            }));
+        }
+
+        monDepart.countDown();
+        for (Future<?> unEcrivain : mesEcrivains) {
+            unEcrivain.get(2, TimeUnit.MINUTES);
+        }
+        isFini.set(true);
+        for (Future<Integer> unLecteur : mesLecteurs) {
+            assertTrue(unLecteur.get(1, TimeUnit.MINUTES) > 0);
+        }
+        mesThreads.shutdown();
+
+        // Toutes les écritures sont présentes
+        assertEquals(NB_ECRIVAINS * NB_LOTS * TAILLE_LOT, monDAO.chargerResumesArticlesTriParDate().size());
+        for (int t = 0; t < NB_ECRIVAINS; t++) {
+            for (int i = 0; i < NB_LOTS * TAILLE_LOT; i++) {
+                int idArticle = idArticle(t, i);
+                ArticleItem unArticle = monDAO.chargerArticle(idArticle);
+                assertEquals("stress v2 " + idArticle, unArticle.getTitre());
+                assertEquals(NB_COMMENTAIRES, unArticle.getNbCommentaires());
+                assertEquals(idCommentaire(idArticle, NB_COMMENTAIRES - 1), unArticle.getParseurLastCommentId());
+                assertEquals(idArticle % 2 == 0, unArticle.isLu());
+                assertEquals(NB_COMMENTAIRES, monDAO.compterCommentaires(idArticle));
+            }
+        }
+        // Nombre maximum de résultats atteint
+        assertEquals(50, monDAO.rechercher("stress").size());
+    }
+
+    /**
+     * Ecritures d'un thread : chaque lot est enregistré deux fois (ajout puis MàJ), avec ses commentaires et compteurs
+     */
+    private void ecrire(final int unNumero) {
+        for (int lot = 0; lot < NB_LOTS; lot++) {
+            for (String uneVersion : new String[]{"v1", "v2"}) {
+                ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+                for (int i = 0; i < TAILLE_LOT; i++) {
+                    mesArticles.add(article(idArticle(unNumero, lot * TAILLE_LOT + i), uneVersion));
+                }
+                monDAO.enregistrerArticles(mesArticles);
+            }
+
+            for (int i = 0; i < TAILLE_LOT; i++) {
+                int idArticle = idArticle(unNumero, lot * TAILLE_LOT + i);
+                ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+                for (int c = 0; c < NB_COMMENTAIRES; c++) {
+                    CommentaireItem unCommentaire = new CommentaireItem();
+                    unCommentaire.setId(idCommentaire(idArticle, c));
+                    unCommentaire.setIdArticle(idArticle);
+                    unCommentaire.setAuteur("auteur");
+                    unCommentaire.setTimeStampPublication(idArticle);
+                    unCommentaire.setCommentaire("<p>commentaire " + c + "</p>");
+                    mesCommentaires.add(unCommentaire);
+                }
+                monDAO.enregistrerCommentairesSiNouveaux(mesCommentaires);
+                monDAO.updateNbCommentairesArticle(idArticle, NB_COMMENTAIRES);
+                monDAO.setIdDernierCommentaireParseur(idArticle, idCommentaire(idArticle, NB_COMMENTAIRES - 1));
+                if (idArticle % 2 == 0) {
+                    monDAO.marquerArticleLu(idArticle);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ecritures d'un thread : articles (ajout puis MàJ) puis leurs commentaires, quelques-uns à la fois
+     */
+    private void ecrireCommentairesRetention(final int unNumero) {
+        for (int lot = 0; lot < NB_LOTS_RETENTION; lot++) {
+            for (String uneVersion : new String[]{"v1", "v2"}) {
+                ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+                for (int i = 0; i < TAILLE_LOT; i++) {
+                    mesArticles.add(article(idArticle(unNumero, lot * TAILLE_LOT + i), uneVersion));
+                }
+                monDAO.enregistrerArticles(mesArticles);
+            }
+
+            for (int i = 0; i < TAILLE_LOT; i++) {
+                int idArticle = idArticle(unNumero, lot * TAILLE_LOT + i);
+                for (int debut = 0; debut < NB_COMMENTAIRES_RETENTION; debut += RETENTION_NB_COMMENTAIRES / 2) {
+                    ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+                    for (int c = debut; c < debut + RETENTION_NB_COMMENTAIRES / 2; c++) {
+                        CommentaireItem unCommentaire = new CommentaireItem();
+                        unCommentaire.setId(idArticle * 100 + c);
+                        unCommentaire.setIdArticle(idArticle);
+                        unCommentaire.setAuteur("auteur");
+                        unCommentaire.setTimeStampPublication(idArticle);
+                        unCommentaire.setCommentaire("<p>commentaire " + c + "</p>");
+                        mesCommentaires.add(unCommentaire);
+                    }
+                    monDAO.enregistrerCommentairesSiNouveaux(mesCommentaires);
+                    monDAO.updateNbCommentairesArticle(idArticle, debut + mesCommentaires.size());
+                }
+            }
+        }
+    }
+
+    private static int idArticle(final int unNumero, final int unIndice) {
+        return unNumero * 100000 + unIndice + 1;
+    }
+
+    private static int idCommentaire(final int idArticle, final int unIndice) {
+        return idArticle * 10 + unIndice;
+    }
+
+    private static ArticleItem article(final int unId, final String uneVersion) {
+        ArticleItem monArticle = new ArticleItem();
+        monArticle.setId(unId);
+        monArticle.setTitre("stress " + uneVersion + " " + unId);
+        monArticle.setSousTitre("sous-titre");
+        monArticle.setTimeStampPublication(1700000000L + unId);
+        monArticle.setContenu("<p>contenu " + uneVersion + "</p>");
+        monArticle.setURLseo("https://next.ink/" + unId);
+        monArticle.setParseurLastCommentId(-1);
+        return monArticle;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.pcinpact.items.ArticleItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class DAOMigrationTest {
+    private static final String BDD_TEST = "test_migration.db";
+    private static final int NB_ARTICLES = 500;
+    private static final int NB_COMMENTAIRES = 40;
+    private static final int TAILLE_CONTENU = 4000;
+    private static final int ID_ARTICLE = 7;
+    private static final long TIMESTAMP = 1700000000L;
+    /**
+     * Durée maximale d'une migration (ouverture de la BDD comprise)
+     */
+    private static final long DUREE_MAX_MS = 10000;
+
+    private Context monContext;
+    private DAO monDAO;
+
+    @Before
+    public void initialiser() {
+        monContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        monContext.deleteDatabase(BDD_TEST);
+    }
+
+    @After
+    public void nettoyer() {
+        if (monDAO != null) {
+            monDAO.close();
+        }
+        monContext.deleteDatabase(BDD_TEST);
+    }
+
+    /**
+     * BDD de PC INpact : recréée vierge
+     */
+    @Test
+    public void testMigrationVersion9() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(monContext.getDatabasePath(BDD_TEST), null);
+        creerSchemaVersion10(db);
+        remplir(db);
+        db.execSQL("CREATE TABLE cacheImage (id INTEGER PRIMARY KEY)");
+        db.setVersion(9);
+        db.close();
+
+        ouvrirEtMesurer();
+        assertEquals(0, monDAO.chargerResumesArticlesTriParDate().size());
+        assertEquals(0, DatabaseUtils.longForQuery(monDAO.getReadableDatabase(), "SELECT COUNT(*) FROM sqlite_master WHERE name='cacheImage'", null));
+    }
+
+    /**
+     * Migration depuis la version 10
+     */
+    @Test
+    public void testMigrationVersion10() {
+        verifierMigration(10);
+    }
+
+    /**
+     * Migration depuis la version 11
+     */
+    @Test
+    public void testMigrationVersion11() {
+        verifierMigration(11);
+    }
+
+    /**
+     * Migration depuis la version 12
+     */
+    @Test
+    public void testMigrationVersion12() {
+        verifierMigration(12);
+    }
+
+    /**
+     * Migration depuis la version 13
+     */
+    @Test
+    public void testMigrationVersion13() {
+        verifierMigration(13);
+    }
+
+    /**
+     * Migration depuis la version 14 (indexation plein texte de l'existant)
+     */
+    @Test
+    public void testMigrationVersion14() {
+        verifierMigration(14);
+    }
+
+    /**
+     * Migration depuis la version 15
+     */
+    @Test
+    public void testMigrationVersion15() {
+        verifierMigration(15);
+    }
+
+    /**
+     * Migration depuis la version 16
+     */
+    @Test
+    public void testMigrationVersion16() {
+        verifierMigration(16);
+    }
+
+    /**
+     * Crée une BDD remplie dans une version donnée, l'ouvre avec le DAO puis vérifie les données migrées
+     *
+     * @param uneVersion version de la BDD existante
+     */
+    private void verifierMigration(final int uneVersion) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(monContext.getDatabasePath(BDD_TEST), null);
+        creerSchemaVersion10(db);
+        remplir(db);
+        // Versions suivantes : migrations testées par les tests des versions précédentes
+        MigrationsBDD.migrer(db, 10, uneVersion);
+        db.setVersion(uneVersion);
+        db.close();
+
+        ouvrirEtMesurer();
+
+        assertEquals(NB_ARTICLES, monDAO.chargerResumesArticlesTriParDate().size());
+        ArticleItem monArticle = monDAO.chargerArticle(ID_ARTICLE);
+        assertEquals("Migration " + ID_ARTICLE, monArticle.getTitre());
+        assertEquals(NB_COMMENTAIRES, monArticle.getNbCommentaires());
+        assertEquals(ID_ARTICLE, monArticle.getIndiceDernierCommLu());
+        assertTrue(monArticle.isLu());
+        assertFalse(monArticle.isEpingle());
+        assertTrue(monArticle.getContenu().startsWith("<p>Contenu " + ID_ARTICLE));
+        assertEquals(NB_COMMENTAIRES, monDAO.compterCommentaires(ID_ARTICLE));
+        assertEquals(0, monDAO.compterCommentairesOublies(ID_ARTICLE));
+        // Articles et commentaires présents dans l'index de recherche
+        assertFalse(monDAO.rechercher("migration").isEmpty());
+        assertFalse(monDAO.rechercher("avis").isEmpty());
+    }
+
+    /**
+     * Ouverture de la BDD par le DAO (migration) dans le temps imparti
+     */
+    private void ouvrirEtMesurer() {
+        long debut = System.nanoTime();
+        monDAO = new DAO(monContext, BDD_TEST);
+        monDAO.chargerResumesArticlesTriParDate();
+        long duree = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut);
+
+        assertEquals(DAO.BDD_VERSION, monDAO.getReadableDatabase().getVersion());
+        assertTrue("Migration en " + duree + " ms", duree < DUREE_MAX_MS);
+    }
+
+    /**
+     * Schéma de la version 10 (première version de Next)
+     *
+     * @param db BDD vierge
+     */
+    private static void creerSchemaVersion10(final SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE articles (id INTEGER NOT NULL PRIMARY KEY, titre TEXT NOT NULL, soustitre TEXT, timestamp INTEGER NOT NULL, urlillustration TEXT, contenu TEXT, nbcomms INTEGER, isabonne BOOLEAN, islu BOOLEAN, iscontenuabonnedl BOOLEAN, dernierCommentaireLu INTEGER, urlseo TEXT);");
+        db.execSQL("CREATE TABLE commentaires (id INTEGER NOT NULL PRIMARY KEY, idarticle INTEGER NOT NULL REFERENCES articles(id), auteur TEXT, timestamp INTEGER, contenu TEXT);");
+        db.execSQL("CREATE TABLE refresh (idarticle INTEGER PRIMARY KEY, timestamp INTEGER);");
+    }
+
+    /**
+     * Articles et commentaires (colonnes de la version 10)
+     *
+     * @param db BDD
+     */
+    private static void remplir(final SQLiteDatabase db) {
+        StringBuilder monTexte = new StringBuilder();
+        while (monTexte.length() < TAILLE_CONTENU) {
+            monTexte.append("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ");
+        }
+
+        db.beginTransaction();
+        try {
+            SQLiteStatement monArticle = db.compileStatement("INSERT INTO articles (id, titre, soustitre, timestamp, urlillustration, contenu, nbcomms, isabonne, islu, iscontenuabonnedl, dernierCommentaireLu, urlseo) VALUES (?, ?, 'sous-titre', ?, NULL, ?, ?, 0, ?, 0, ?, ?)");
+            SQLiteStatement monCommentaire = db.compileStatement("INSERT INTO commentaires (id, idarticle, auteur, timestamp, contenu) VALUES (?, ?, 'auteur', ?, ?)");
+            for (int i = 1; i <= NB_ARTICLES; i++) {
+                monArticle.bindLong(1, i);
+                monArticle.bindString(2, "Migration " + i);
+                monArticle.bindLong(3, TIMESTAMP + i);
+                monArticle.bindString(4, "<p>Contenu " + i + " " + monTexte + "</p>");
+                monArticle.bindLong(5, NB_COMMENTAIRES);
+                monArticle.bindLong(6, i % 2);
+                monArticle.bindLong(7, i);
+                monArticle.bindString(8, "https://next.ink/" + i);
+                monArticle.executeInsert();
+
+                for (int c = 0; c < NB_COMMENTAIRES; c++) {
+                    monCommentaire.bindLong(1, (long) i * 1000 + c);
+                    monCommentaire.bindLong(2, i);
+                    monCommentaire.bindLong(3, TIMESTAMP + c);
+                    monCommentaire.bindString(4, "<p>Mon avis numéro " + c + " sur l'article " + i + "</p>");
+                    monCommentaire.executeInsert();
+                }
+            }
+            monArticle.close();
+            monCommentaire.close();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
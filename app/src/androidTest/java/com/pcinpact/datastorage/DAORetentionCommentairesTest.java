@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.CommentaireItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class DAORetentionCommentairesTest {
+    private static final String BDD_TEST = "test_retention.db";
+    private static final int NB_ARTICLES = 3;
+    private static final int NB_COMMENTAIRES = 200;
+    private static final int NB_COMMENTAIRES_MAX = 100;
+    private static final long TIMESTAMP = 1700000000L;
+
+    private Context monContext;
+    private DAO monDAO;
+
+    @Before
+    public void initialiser() {
+        monContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        monContext.deleteDatabase(BDD_TEST);
+        monDAO = new DAO(monContext, BDD_TEST);
+
+        ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+        for (int i = 1; i <= NB_ARTICLES; i++) {
+            ArticleItem monArticle = new ArticleItem();
+            monArticle.setId(i);
+            monArticle.setTitre("retention " + i);
+            monArticle.setSousTitre("sous-titre");
+            monArticle.setTimeStampPublication(TIMESTAMP + i);
+            monArticle.setContenu("<p>contenu</p>");
+            monArticle.setURLseo("https://next.ink/" + i);
+            monArticle.setParseurLastCommentId(-1);
+            mesArticles.add(monArticle);
+
+            ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+            for (int c = 0; c < NB_COMMENTAIRES; c++) {
+                mesCommentaires.add(commentaire(i, c));
+            }
+            monDAO.enregistrerCommentairesSiNouveaux(mesCommentaires);
+        }
+        monDAO.enregistrerArticles(mesArticles);
+    }
+
+    @After
+    public void nettoyer() {
+        monDAO.close();
+        monContext.deleteDatabase(BDD_TEST);
+    }
+
+    /**
+     * Seuls les commentaires les plus récents, ceux proches du dernier commentaire lu et ceux des articles épinglés
+     * sont conservés ; les rangs des commentaires conservés ne changent pas
+     */
+    @Test
+    public void testSupprimerCommentairesAnciens() {
+        // Article 2 : lu jusqu'au 80ème commentaire, article 3 : épinglé
+        monDAO.setIndiceDernierCommentaireLu(2, 80);
+        monDAO.epinglerArticle(3, true);
+
+        // Article 1 : 100 supprimés, article 2 : les 30 précédant la marge avant le dernier commentaire lu
+        assertEquals(130, monDAO.supprimerCommentairesAnciens(NB_COMMENTAIRES_MAX));
+
+        assertEquals(100, monDAO.compterCommentairesOublies(1));
+        assertEquals(100, monDAO.compterCommentaires(1));
+        assertEquals(30, monDAO.compterCommentairesOublies(2));
+        assertEquals(170, monDAO.compterCommentaires(2));
+        assertEquals(0, monDAO.compterCommentairesOublies(3));
+        assertEquals(NB_COMMENTAIRES, monDAO.compterCommentaires(3));
+
+        // Premier commentaire conservé, numéroté selon son rang dans le fil complet
+        CommentaireItem monCommentaire = monDAO.chargerPageCommentaires(2, 0, monDAO.compterCommentairesOublies(2), 1).get(0);
+        assertEquals(2030, monCommentaire.getId());
+        assertEquals(31, monCommentaire.getNumeroAffichage());
+
+        // Rien de plus à supprimer
+        assertEquals(0, monDAO.supprimerCommentairesAnciens(NB_COMMENTAIRES_MAX));
+    }
+
+    /**
+     * Première page retéléchargée après une suppression (synchronisation de la liste des articles) : les commentaires
+     * supprimés ne sont pas réenregistrés, le nombre total de commentaires reste exact
+     */
+    @Test
+    public void testRetelechargementPremierePage() {
+        assertEquals(NB_COMMENTAIRES - NB_COMMENTAIRES_MAX, monDAO.supprimerCommentairesAnciens(NB_COMMENTAIRES_MAX) / NB_ARTICLES);
+
+        // Première page du site puis un nouveau commentaire
+        ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            mesCommentaires.add(commentaire(1, c));
+        }
+        mesCommentaires.add(commentaire(1, NB_COMMENTAIRES));
+        monDAO.enregistrerCommentairesSiNouveaux(mesCommentaires);
+
+        assertEquals(NB_COMMENTAIRES + 1, monDAO.compterCommentaires(1) + monDAO.compterCommentairesOublies(1));
+        assertEquals(1000 + NB_COMMENTAIRES - NB_COMMENTAIRES_MAX, monDAO.chargerIdCommentaireAuRang(1, 0));
+
+        // Le nettoyage suivant ne compte pas deux fois les mêmes commentaires
+        assertEquals(1, monDAO.supprimerCommentairesAnciens(NB_COMMENTAIRES_MAX));
+        assertEquals(NB_COMMENTAIRES + 1, monDAO.compterCommentaires(1) + monDAO.compterCommentairesOublies(1));
+    }
+
+    /**
+     * Option "tous les commentaires" et effacement des commentaires
+     */
+    @Test
+    public void testSupprimerCommentairesAnciensSansLimite() {
+        assertEquals(0, monDAO.supprimerCommentairesAnciens(0));
+        assertEquals(NB_COMMENTAIRES, monDAO.compterCommentaires(1));
+
+        monDAO.supprimerCommentairesAnciens(NB_COMMENTAIRES_MAX);
+        monDAO.viderCommentaires();
+        assertEquals(0, monDAO.compterCommentairesOublies(1));
+    }
+
+    private static CommentaireItem commentaire(final int idArticle, final int unIndice) {
+        CommentaireItem unCommentaire = new CommentaireItem();
+        unCommentaire.setId(idArticle * 1000 + unIndice);
+        unCommentaire.setIdArticle(idArticle);
+        unCommentaire.setAuteur("auteur");
+        unCommentaire.setTimeStampPublication(TIMESTAMP + unIndice);
+        unCommentaire.setCommentaire("<p>commentaire " + unIndice + "</p>");
+        return unCommentaire;
+    }
+}
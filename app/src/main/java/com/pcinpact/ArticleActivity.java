@@ -31,10 +31,13 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.andremion.counterfab.CounterFab;
+import com.pcinpact.datastorage.AsyncDAO;
 import com.pcinpact.datastorage.DAO;
 import com.pcinpact.items.ArticleItem;
 import com.pcinpact.utils.Constantes;
 
+import java.util.ArrayList;
+
 /**
  * Affichage d'un article.
  *
@@ -46,14 +49,22 @@ public class ArticleActivity extends AppCompatActivity {
      */
     private int articleId = 0;
     /**
-     * Accès BDD
+     * Accès BDD (requêtes exécutées via monAsyncDAO)
      */
     private DAO monDAO;
+    /**
+     * Accès asynchrone à la BDD
+     */
+    private AsyncDAO monAsyncDAO;
     /**
      * Viewpager2 pour le slide des articles
      */
     private ViewPager2 monViewPager2;
     private ArticlePagerAdapter pagerAdapter;
+    /**
+     * Bouton pour épingler l'article
+     */
+    private MenuItem monBoutonEpingle;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -84,15 +95,23 @@ public class ArticleActivity extends AppCompatActivity {
         }
 
         // Lien sur BDD
-        monDAO = DAO.getInstance(getApplicationContext());
+        monAsyncDAO = AsyncDAO.getInstance(getApplicationContext());
+        monDAO = monAsyncDAO.getDAO();
 
         // ViewPager2 (pour le slide des articles)
         monViewPager2 = findViewById(R.id.article_viewpager2);
-        pagerAdapter = new ArticlePagerAdapter(this, getApplicationContext());
+        pagerAdapter = new ArticlePagerAdapter(this);
         monViewPager2.setAdapter(pagerAdapter);
 
-        // Définition de l'article demandé !
-        monViewPager2.setCurrentItem(pagerAdapter.getPosition(articleId));
+        // Chargement des articles
+        monAsyncDAO.lire(monDAO::chargerResumesArticlesTriParDate, (ArrayList<ArticleItem> desArticles) -> {
+            if (desArticles == null) {
+                return;
+            }
+            pagerAdapter.setArticles(desArticles);
+            // Définition de l'article demandé !
+            monViewPager2.setCurrentItem(pagerAdapter.getPosition(articleId), false);
+        });
 
         // Bouton des commentaires
         genererBadgeCommentaires();
@@ -127,6 +146,10 @@ public class ArticleActivity extends AppCompatActivity {
             shareItem.setVisible(false);
         }
 
+        // Bouton pour épingler l'article
+        monBoutonEpingle = menu.findItem(R.id.action_pin);
+        majBoutonEpingle();
+
         // Configuration du slider
         monViewPager2.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
             @Override
@@ -135,16 +158,23 @@ public class ArticleActivity extends AppCompatActivity {
 
             @Override
             public void onPageSelected(int position) {
+                // Articles pas encore chargés
+                if (position >= pagerAdapter.getItemCount()) {
+                    return;
+                }
                 // Récupération de l'article
                 ArticleItem unArticle = pagerAdapter.getArticle(position);
                 // Mise à jour de l'article concerné
                 articleId = unArticle.getId();
 
                 // Marquer l'article comme lu en BDD
-                monDAO.marquerArticleLu(articleId);
+                final int idArticleLu = articleId;
+                monAsyncDAO.ecrire(() -> monDAO.marquerArticleLu(idArticleLu));
 
                 // Bouton des commentaires
                 genererBadgeCommentaires();
+                // Bouton pour épingler l'article
+                majBoutonEpingle();
             }
 
             @Override
@@ -163,32 +193,58 @@ public class ArticleActivity extends AppCompatActivity {
             Intent intentDebug = new Intent(getApplicationContext(), DebugActivity.class);
             intentDebug.putExtra("ARTICLE_ID", articleId);
             startActivity(intentDebug);
+        } else if (id == R.id.action_pin) {
+            // (Dés)épingler l'article
+            final int idArticleEpingle = articleId;
+            final boolean isEpingle = !pItem.isChecked();
+            pItem.setChecked(isEpingle);
+            monAsyncDAO.ecrire(() -> monDAO.epinglerArticle(idArticleEpingle, isEpingle));
         } else if (id == R.id.action_share) {
             // Chargement de l'article concerné
-            ArticleItem monArticle = monDAO.chargerArticle(articleId);
-
-            // DEBUG
-            if (Constantes.DEBUG) {
-                Log.i("ArticleActivity", "onOptionsItemSelected() - Intent " + articleId + " / " + monArticle.getURLseo());
-            }
-
-            // Création de l'intent
-            Intent monIntent = new Intent(Intent.ACTION_SEND);
-            monIntent.setType("text/plain");
-            monIntent.putExtra(Intent.EXTRA_TEXT, monArticle.getURLseo());
-            try {
-                startActivity(monIntent);
-            } catch (ActivityNotFoundException e) {
+            final int idArticlePartage = articleId;
+            monAsyncDAO.lire(() -> monDAO.chargerArticle(idArticlePartage), (ArticleItem monArticle) -> {
+                if (monArticle == null) {
+                    return;
+                }
                 // DEBUG
                 if (Constantes.DEBUG) {
-                    Log.e("ArticleActivity", "onOptionsItemSelected() - Impossible de lancer l'intent pour " + articleId, e);
+                    Log.i("ArticleActivity", "onOptionsItemSelected() - Intent " + idArticlePartage + " / " + monArticle.getURLseo());
                 }
-            }
+
+                // Création de l'intent
+                Intent monIntent = new Intent(Intent.ACTION_SEND);
+                monIntent.setType("text/plain");
+                monIntent.putExtra(Intent.EXTRA_TEXT, monArticle.getURLseo());
+                try {
+                    startActivity(monIntent);
+                } catch (ActivityNotFoundException e) {
+                    // DEBUG
+                    if (Constantes.DEBUG) {
+                        Log.e("ArticleActivity", "onOptionsItemSelected() - Impossible de lancer l'intent pour " + idArticlePartage, e);
+                    }
+                }
+            });
         }
 
         return super.onOptionsItemSelected(pItem);
     }
 
+    /**
+     * Etat du bouton pour épingler l'article actuel
+     */
+    private void majBoutonEpingle() {
+        if (monBoutonEpingle == null) {
+            return;
+        }
+        final int idArticleEpingle = articleId;
+        monAsyncDAO.lire(() -> monDAO.chargerArticle(idArticleEpingle), (ArticleItem monArticle) -> {
+            // Article toujours affiché
+            if (monArticle != null && idArticleEpingle == articleId) {
+                monBoutonEpingle.setChecked(monArticle.isEpingle());
+            }
+        });
+    }
+
     /**
      * Piloter le bouton pour voir les commentaires
      */
@@ -200,8 +256,13 @@ public class ArticleActivity extends AppCompatActivity {
             intentComms.putExtra("ARTICLE_ID", articleId);
             startActivity(intentComms);
         });
-        // Nombre de commentaires non lus
-        ArticleItem monArticle = monDAO.chargerArticle(articleId);
-        counterFab.setCount(monArticle.getNbCommentairesNonLus());
+        // Nombre de commentaires non lus (calculé par la BDD, sans charger l'article)
+        final int idArticleBadge = articleId;
+        monAsyncDAO.lire(() -> monDAO.compterCommentairesNonLus(idArticleBadge), (Integer nbNonLus) -> {
+            // Article toujours affiché
+            if (nbNonLus != null && idArticleBadge == articleId) {
+                counterFab.setCount(nbNonLus);
+            }
+        });
     }
 }
\ No newline at end of file
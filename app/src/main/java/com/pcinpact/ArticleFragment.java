@@ -31,9 +31,11 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.pcinpact.adapters.ItemsAdapter;
-import com.pcinpact.datastorage.DAO;
+import com.pcinpact.datastorage.AsyncDAO;
 import com.pcinpact.items.ArticleItem;
 import com.pcinpact.items.ContenuArticleItem;
+import com.pcinpact.parseur.AsyncContenuParseur;
+import com.pcinpact.parseur.ParsageContenuInterface;
 import com.pcinpact.utils.Constantes;
 
 import java.util.ArrayList;
@@ -41,10 +43,12 @@ import java.util.ArrayList;
 /**
  * Contenu d'article, utilisé pour le slider
  */
-public class ArticleFragment extends Fragment {
+public class ArticleFragment extends Fragment implements ParsageContenuInterface {
     private int idArticle;
     private Context monContext;
     private LayoutInflater monLayoutInflater;
+    private ContenuArticleItem monCAI;
+    private ItemsAdapter monItemsAdapter;
 
     /**
      * Passage de toutes les valeurs requises
@@ -76,35 +80,76 @@ public class ArticleFragment extends Fragment {
         // Listview qui contiendra l'article
         ListView monListView = maView.findViewById(R.id.contenuArticle);
 
-        // Chargement de la DB
-        DAO monDAO = DAO.getInstance(monContext);
-        ArticleItem monArticle = monDAO.chargerArticle(idArticle);
-        String monContenu = monArticle.getContenu();
-
         // Stockage en ArrayList pour l'itemAdapter
         ArrayList<ContenuArticleItem> monAR = new ArrayList<>();
 
-        // Création de mon CAI
-        ContenuArticleItem monCAI = new ContenuArticleItem();
+        // Création de mon CAI (contenu affiché une fois chargé depuis la BDD)
+        monCAI = new ContenuArticleItem();
         monCAI.setIdArticle(idArticle);
+        monCAI.setContenu("");
+        // Ajout du CAI
+        monAR.add(monCAI);
+
+        // MàJ de l'affichage
+        monItemsAdapter = new ItemsAdapter(monContext, monLayoutInflater, monAR);
+        monListView.setAdapter(monItemsAdapter);
+
+        // Chargement de la DB
+        AsyncDAO monAsyncDAO = AsyncDAO.getInstance(monContext);
+        monAsyncDAO.lire(() -> monAsyncDAO.getDAO().chargerArticle(idArticle), this::afficherArticle);
+    }
+
+    /**
+     * Affichage de l'article chargé depuis la BDD
+     *
+     * @param monArticle article
+     */
+    private void afficherArticle(ArticleItem monArticle) {
+        // Le fragment n'est plus affiché
+        if (!isAdded() || monArticle == null) {
+            return;
+        }
+        String monContenu = monArticle.getContenu();
+
+        // Contenu stocké brut lors de la synchronisation => parsage à la première lecture
+        if (monArticle.isParsageRequis()) {
+            if (Constantes.DEBUG) {
+                Log.w("ArticleFragment", "afficherArticle() - Article à parser");
+            }
+            monCAI.setContenu(getString(R.string.articleParsageEnCours));
 
+            ArrayList<Integer> monId = new ArrayList<>();
+            monId.add(idArticle);
+            AsyncContenuParseur monParseur = new AsyncContenuParseur(monContext, monId, this);
+            monParseur.run(true);
+        }
         // Gestion de l'absence de contenu
-        if ("".equals(monContenu)) {
+        else if ("".equals(monContenu)) {
             if (Constantes.DEBUG) {
-                Log.w("ArticleFragment", "onViewCreated() - Article vide");
+                Log.w("ArticleFragment", "afficherArticle() - Article vide");
             }
             monCAI.setContenu(getString(R.string.articleVideErreurHTML));
         } else {
             if (Constantes.DEBUG) {
-                Log.w("ArticleFragment", "onViewCreated() - Article non vide");
+                Log.w("ArticleFragment", "afficherArticle() - Article non vide");
             }
             monCAI.setContenu(monContenu);
         }
-        // Ajout du CAI
-        monAR.add(monCAI);
+        monItemsAdapter.notifyDataSetChanged();
+    }
 
-        // MàJ de l'affichage
-        ItemsAdapter monItemsAdapter = new ItemsAdapter(monContext, monLayoutInflater, monAR);
-        monListView.setAdapter(monItemsAdapter);
+    @Override
+    public void parsageContenuFini(int unIdArticle, String unContenu) {
+        // Le fragment n'est plus affiché
+        if (!isAdded() || monCAI == null) {
+            return;
+        }
+
+        if ("".equals(unContenu)) {
+            monCAI.setContenu(getString(R.string.articleVideErreurHTML));
+        } else {
+            monCAI.setContenu(unContenu);
+        }
+        monItemsAdapter.notifyDataSetChanged();
     }
 }
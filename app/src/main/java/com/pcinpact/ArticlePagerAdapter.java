@@ -19,7 +19,6 @@
 package com.pcinpact;
 
 
-import android.content.Context;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -27,7 +26,6 @@ import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
 import androidx.viewpager2.adapter.FragmentStateAdapter;
 
-import com.pcinpact.datastorage.DAO;
 import com.pcinpact.items.ArticleItem;
 import com.pcinpact.utils.Constantes;
 
@@ -35,16 +33,22 @@ import java.util.ArrayList;
 
 public class ArticlePagerAdapter extends FragmentStateAdapter {
     /**
-     * Les articles
+     * Les articles (chargés de manière asynchrone)
      */
-    private final ArrayList<ArticleItem> mesArticles;
+    private ArrayList<ArticleItem> mesArticles = new ArrayList<>();
 
-    public ArticlePagerAdapter(FragmentActivity fa, Context unContext) {
+    public ArticlePagerAdapter(FragmentActivity fa) {
         super(fa);
+    }
 
-        Context monContext = unContext.getApplicationContext();
-        DAO monDAO = DAO.getInstance(monContext);
-        mesArticles = monDAO.chargerArticlesTriParDate();
+    /**
+     * MàJ de la liste des articles
+     *
+     * @param desArticles articles triés par date de publication
+     */
+    void setArticles(ArrayList<ArticleItem> desArticles) {
+        mesArticles = desArticles;
+        notifyDataSetChanged();
     }
 
     @NonNull
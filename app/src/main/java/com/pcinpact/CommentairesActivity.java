@@ -36,6 +36,8 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.pcinpact.adapters.ItemsAdapter;
+import com.pcinpact.datastorage.AsyncDAO;
+import com.pcinpact.datastorage.CommentairesPagines;
 import com.pcinpact.datastorage.DAO;
 import com.pcinpact.items.ArticleItem;
 import com.pcinpact.items.CommentaireItem;
@@ -55,9 +57,9 @@ import java.util.concurrent.TimeUnit;
  */
 public class CommentairesActivity extends AppCompatActivity implements RefreshDisplayInterface {
     /**
-     * Les commentaires
+     * Les commentaires (chargés par pages depuis la BDD)
      */
-    private ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+    private CommentairesPagines mesCommentaires;
     /**
      * ID de l'article
      */
@@ -67,17 +69,25 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
      */
     private int indiceDernierCommentaireLu;
     /**
-     * ID du dernier commentaire connu pour l'article
+     * ID du dernier commentaire connu pour l'article (MàJ depuis le thread d'écriture de la BDD)
      */
-    private int idDernierCommentaireArticle;
+    private volatile int idDernierCommentaireArticle;
+    /**
+     * Nombre de commentaires les plus anciens supprimés de la BDD (MàJ depuis les threads de la BDD)
+     */
+    private volatile int nbCommentairesOublies;
     /**
      * ItemAdapter
      */
     private ItemsAdapter monItemsAdapter;
     /**
-     * accès à la BDD
+     * accès à la BDD (requêtes exécutées via monAsyncDAO)
      */
     private DAO monDAO;
+    /**
+     * Accès asynchrone à la BDD
+     */
+    private AsyncDAO monAsyncDAO;
     /**
      * téléchargement en cours ?
      */
@@ -152,10 +162,6 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
         buttonDl10Commentaires.setTextColor(Color.BLACK);
         monListView.addFooterView(buttonDl10Commentaires);
 
-        // Adapter pour l'affichage des données
-        monItemsAdapter = new ItemsAdapter(getApplicationContext(), getLayoutInflater(), new ArrayList<>());
-        monListView.setAdapter(monItemsAdapter);
-
         // ID de l'article concerné
         try {
             idArticle = getIntent().getExtras().getInt("ARTICLE_ID");
@@ -169,28 +175,44 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
         }
 
         // J'active la BDD
-        monDAO = DAO.getInstance(getApplicationContext());
-        // Je charge mes commentaires
-        mesCommentaires.addAll(monDAO.chargerCommentairesTriParID(idArticle));
+        monAsyncDAO = AsyncDAO.getInstance(getApplicationContext());
+        monDAO = monAsyncDAO.getDAO();
 
-        // Je récupère l'ID du dernier commentaire connu pour cet article
-        ArticleItem monArticle = monDAO.chargerArticle(idArticle);
-        idDernierCommentaireArticle = monArticle.getParseurLastCommentId();
-
-        // MàJ de l'affichage
+        // Adapter pour l'affichage des données : commentaires lus par pages au fil du défilement
+        monItemsAdapter = new ItemsAdapter(getApplicationContext(), getLayoutInflater(), new ArrayList<>());
+        mesCommentaires = new CommentairesPagines(monAsyncDAO, idArticle, getString(R.string.commentairesChargement), monItemsAdapter::notifyDataSetChanged);
         monItemsAdapter.updateListeItems(mesCommentaires);
-        // Je fait remarquer que le contenu à changé
-        monItemsAdapter.notifyDataSetChanged();
+        monListView.setAdapter(monItemsAdapter);
 
-        /*
-         * Réouverture au dernier commentaire lu
-         */
+        // Réouverture au dernier commentaire lu
         reouverture = Constantes.getOptionBoolean(getApplicationContext(), R.string.idOptionPositionCommentaire, R.bool.defautOptionPositionCommentaire);
-        if (reouverture) {
-            // Réaffichage du dernier commentaire (a-t-il été lu ?)
-            indiceDernierCommentaireLu = monArticle.getIndiceDernierCommLu() - 1;
-            monListView.setSelection(indiceDernierCommentaireLu);
-        }
+        // Pas d'enregistrement de la position tant que les commentaires ne sont pas affichés
+        indiceDernierCommentaireLu = Integer.MAX_VALUE;
+
+        // Je récupère l'article (ID du dernier commentaire connu, dernier commentaire lu)
+        monAsyncDAO.lire(() -> monDAO.chargerArticle(idArticle), (ArticleItem monArticle) -> {
+            if (monArticle == null) {
+                return;
+            }
+            idDernierCommentaireArticle = monArticle.getParseurLastCommentId();
+
+            // Nombre de commentaires (les pages affichées sont chargées par l'adapter)
+            monAsyncDAO.lire(() -> {
+                nbCommentairesOublies = monDAO.compterCommentairesOublies(idArticle);
+                return monDAO.compterCommentaires(idArticle);
+            }, (Integer nbCommentaires) -> {
+                if (nbCommentaires == null) {
+                    return;
+                }
+                mesCommentaires.actualiser(nbCommentairesOublies, nbCommentaires);
+
+                // Réaffichage du dernier commentaire (a-t-il été lu ?)
+                indiceDernierCommentaireLu = monArticle.getIndiceDernierCommLu() - 1;
+                if (reouverture) {
+                    monListView.setSelection(indiceDernierCommentaireLu);
+                }
+            });
+        });
 
         // MàJ de la date de dernier refresh
         majDateRefresh();
@@ -213,6 +235,7 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
         }
 
         // Quelle est la page à charger (actuelle si pas 10 commentaires, sinon la prochaine)
+        // Le nombre de commentaires inclut ceux supprimés de la BDD : les pages du site restent alignées
         int maPage = (indiceDernierCommentaire / Constantes.NB_COMMENTAIRES_PAR_PAGE) + 1;
 
         // Création de l'URL
@@ -314,7 +337,7 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
                     /*
                      * Enregistrement de l'id du dernier commentaire affiché
                      */
-                    monDAO.setIndiceDernierCommentaireLu(idArticle, lastVisibleItem);
+                    monAsyncDAO.ecrire(() -> monDAO.setIndiceDernierCommentaireLu(idArticle, lastVisibleItem));
                     // Mise à jour de la copie locale
                     indiceDernierCommentaireLu = lastVisibleItem;
                     // DEBUG
@@ -402,30 +425,47 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
         dlInProgress--;
 
         // Si téléchargement fini ou téléchargement de tous les commentaires
-        if (dlInProgress == 0 || isChargementTotal) {
-            // Chargement des commentaires triés
-            mesCommentaires = monDAO.chargerCommentairesTriParID(idArticle);
-        }
-
-        // Mise à jour de l'ID du dernier commentaire connu de l'article si nécessaire
-        int idDernierCommentaire = mesCommentaires.get(mesCommentaires.size() - 1).getId();
-        if (idDernierCommentaire > idDernierCommentaireArticle) {
-            monDAO.setIdDernierCommentaireParseur(idArticle, idDernierCommentaire);
-            idDernierCommentaireArticle = idDernierCommentaire;
-        }
+        final boolean rechargerCommentaires = (dlInProgress == 0 || isChargementTotal);
+        final boolean isTelechargementFini = (dlInProgress == 0);
+        final int idDernierCommentaireConnu = idDernierCommentaireArticle;
+        // Date du refresh
+        final long dateRefresh = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        // Ecritures puis lecture du nombre de commentaires (après l'enregistrement des commentaires téléchargés)
+        monAsyncDAO.ecrireEtLire(() -> {
+            int idDernierCommentaire = monDAO.getMaxIdCommentaireTelecharge(idArticle);
+
+            // Mise à jour de l'ID du dernier commentaire connu de l'article si nécessaire
+            if (idDernierCommentaire > idDernierCommentaireConnu) {
+                monDAO.setIdDernierCommentaireParseur(idArticle, idDernierCommentaire);
+            }
 
-        // Si plus de téléchargement en cours
-        if (dlInProgress == 0) {
             // MàJ de la date de rafraichissement des commentaires de l'article
-            // Date du refresh
-            long dateRefresh = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
-            monDAO.enregistrerDateRefresh(idArticle, dateRefresh);
+            if (isTelechargementFini) {
+                monDAO.enregistrerDateRefresh(idArticle, dateRefresh);
+            }
+            idDernierCommentaireArticle = Math.max(idDernierCommentaireConnu, idDernierCommentaire);
+
+            // Seules les nouvelles pages seront lues par l'adapter
+            if (!rechargerCommentaires) {
+                return null;
+            }
+            nbCommentairesOublies = monDAO.compterCommentairesOublies(idArticle);
+            return monDAO.compterCommentaires(idArticle);
+        }, (Integer nbCommentaires) -> {
+            if (nbCommentaires != null) {
+                mesCommentaires.actualiser(nbCommentairesOublies, nbCommentaires);
+            }
 
-            // Mise à jour des données
-            monItemsAdapter.updateListeItems(mesCommentaires);
-            // Notification du changement pour un rafraichissement du contenu
-            monItemsAdapter.notifyDataSetChanged();
+            // Si plus de téléchargement en cours
+            if (isTelechargementFini) {
+                // Je MàJ la date du dernier refresh
+                majDateRefresh();
+            }
+        });
 
+        // Si plus de téléchargement en cours
+        if (isTelechargementFini) {
             // Arrêt du RefreshLayout
             monSwipeRefreshLayout.setRefreshing(false);
 
@@ -436,9 +476,6 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
             MenuItem monItem = monMenu.findItem(R.id.action_refresh);
             monItem.getIcon().setAlpha(255);
             monItem.setEnabled(true);
-
-            // Je MàJ la date du dernier refresh
-            majDateRefresh();
         }
     }
 
@@ -460,14 +497,24 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
             }
         }
         // Stockage en BDD des nouveaux commentaires
+        ArrayList<CommentaireItem> nouveauxCommentaires = new ArrayList<>();
+        int nbCommentaires = -1;
         for (Item unItem : desItems) {
             if (unItem instanceof CommentaireItem) {
-                monDAO.enregistrerCommentaireSiNouveau((CommentaireItem) unItem);
+                nouveauxCommentaires.add((CommentaireItem) unItem);
             } else {
-                // Mettre à jour le nombre total de commentaires
-                monDAO.updateNbCommentairesArticle(idArticle, ((ArticleItem) unItem).getNbCommentaires());
+                // Nombre total de commentaires
+                nbCommentaires = ((ArticleItem) unItem).getNbCommentaires();
             }
         }
+        final int nbTotalCommentaires = nbCommentaires;
+        monAsyncDAO.ecrire(() -> {
+            // Mettre à jour le nombre total de commentaires
+            if (nbTotalCommentaires != -1) {
+                monDAO.updateNbCommentairesArticle(idArticle, nbTotalCommentaires);
+            }
+            monDAO.enregistrerCommentairesSiNouveaux(nouveauxCommentaires);
+        });
 
         // Chargement de TOUS les commentaires ?
         if (isChargementTotal) {
@@ -483,9 +530,16 @@ public class CommentairesActivity extends AppCompatActivity implements RefreshDi
      */
     private void majDateRefresh() {
         // Date de dernier refresh
-        long dernierRefresh = monDAO.chargerDateRefresh(idArticle);
+        monAsyncDAO.lire(() -> monDAO.chargerDateRefresh(idArticle), this::afficherDateRefresh);
+    }
 
-        if (dernierRefresh == 0) {
+    /**
+     * Affichage de la date de dernière MàJ
+     *
+     * @param dernierRefresh date de dernière MàJ
+     */
+    private void afficherDateRefresh(Long dernierRefresh) {
+        if (dernierRefresh == null || dernierRefresh == 0) {
             // Jamais synchro...
             headerTextView.setText(getString(R.string.lastUpdateNever));
         } else {
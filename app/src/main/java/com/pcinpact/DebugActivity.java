@@ -27,6 +27,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.pcinpact.datastorage.AsyncDAO;
 import com.pcinpact.datastorage.CacheManager;
 import com.pcinpact.datastorage.DAO;
 import com.pcinpact.items.ArticleItem;
@@ -34,6 +35,7 @@ import com.pcinpact.items.CommentaireItem;
 import com.pcinpact.network.AccountCheckInterface;
 import com.pcinpact.network.AsyncAccountCheck;
 import com.pcinpact.utils.Constantes;
+import com.pcinpact.utils.Statistiques;
 
 import java.util.ArrayList;
 
@@ -56,7 +58,8 @@ public class DebugActivity extends AppCompatActivity implements AccountCheckInte
         }
 
         // Chargement du DAO
-        DAO monDAO = DAO.getInstance(getApplicationContext());
+        AsyncDAO monAsyncDAO = AsyncDAO.getInstance(getApplicationContext());
+        DAO monDAO = monAsyncDAO.getDAO();
 
         setContentView(R.layout.activity_debug);
 
@@ -111,6 +114,45 @@ public class DebugActivity extends AppCompatActivity implements AccountCheckInte
         // Forcer la couleur du texte (par défaut gris sur gris)
         buttonTesterConnexion.setTextColor(Color.BLACK);
 
+        /*
+         * Statistiques de performance
+         */
+        TextView textViewStatistiques = this.findViewById(R.id.debugTextViewStatistiques);
+        String mesStatistiques = getString(R.string.debugStatistiques) + "\n" + Statistiques.getRapport();
+        textViewStatistiques.setText(mesStatistiques);
+
+        /*
+         * Bouton : plans d'exécution des requêtes SQL
+         */
+        Button buttonPlansRequetes = this.findViewById(R.id.buttonPlansRequetes);
+        buttonPlansRequetes.setOnClickListener((View arg0) -> {
+            TextView textViewPlansRequetes = findViewById(R.id.debugTextViewPlansRequetes);
+            monAsyncDAO.lire(monDAO::analyserPlansRequetes, textViewPlansRequetes::setText);
+        });
+        // Forcer la couleur du texte (par défaut gris sur gris)
+        buttonPlansRequetes.setTextColor(Color.BLACK);
+
+        /*
+         * Occupation de la BDD & bouton de maintenance
+         */
+        TextView textViewBDD = this.findViewById(R.id.debugTextViewBDD);
+        monAsyncDAO.lire(monDAO::chargerDiagnostic, textViewBDD::setText);
+        Button buttonMaintenanceBDD = this.findViewById(R.id.buttonMaintenanceBDD);
+        buttonMaintenanceBDD.setOnClickListener((View arg0) -> {
+            monAsyncDAO.ecrireEtLire(() -> {
+                monDAO.maintenance();
+                return monDAO.chargerDiagnostic();
+            }, textViewBDD::setText);
+        });
+        // Forcer la couleur du texte (par défaut gris sur gris)
+        buttonMaintenanceBDD.setTextColor(Color.BLACK);
+
+        /*
+         * Répartition de l'espace de stockage (budget, articles, images)
+         */
+        TextView textViewStockage = this.findViewById(R.id.debugTextViewStockage);
+        monAsyncDAO.lire(() -> getString(R.string.debugStockage) + "\n" + CacheManager.chargerRepartitionStockage(getApplicationContext()), textViewStockage::setText);
+
         /*
          * Afficher le code source d'un article
          */
@@ -124,10 +166,19 @@ public class DebugActivity extends AppCompatActivity implements AccountCheckInte
             // Si j'ai un article
             if (articleId != 0) {
                 // Chargement de l'article
-                ArticleItem monArticle = monDAO.chargerArticle(articleId);
+                final int idArticle = articleId;
                 TextView maTextView = findViewById(R.id.debugTextViewHTML);
-
-                maTextView.setText(monArticle.getContenu());
+                monAsyncDAO.lire(() -> monDAO.chargerArticle(idArticle), (ArticleItem monArticle) -> {
+                    if (monArticle == null) {
+                        return;
+                    }
+                    // Contenu brut si le parsage n'a pas encore été fait
+                    if (monArticle.isParsageRequis()) {
+                        maTextView.setText(monArticle.getContenuBrut());
+                    } else {
+                        maTextView.setText(monArticle.getContenu());
+                    }
+                });
             }
 
             // ID de l'article concerné - Affichage des commentaires
@@ -135,23 +186,27 @@ public class DebugActivity extends AppCompatActivity implements AccountCheckInte
             // Si j'ai un article
             if (articleId != 0) {
                 // Chargement des commentaires
-                ArrayList<CommentaireItem> lesCommentaires = monDAO.chargerCommentairesTriParID(articleId);
+                final int idArticle = articleId;
                 TextView maTextView = findViewById(R.id.debugTextViewHTML);
-
-                StringBuilder monContenu = new StringBuilder();
-
-                for (CommentaireItem unComentaire : lesCommentaires) {
-                    monContenu.append("=====#");
-                    monContenu.append(unComentaire.getNumeroAffichage());
-                    monContenu.append(" ");
-                    monContenu.append(unComentaire.getAuteurDateCommentaire());
-                    monContenu.append("=====");
-                    monContenu.append("\n");
-                    monContenu.append(unComentaire.getCommentaire());
-                    monContenu.append("\n\n");
-                }
-
-                maTextView.setText(monContenu);
+                monAsyncDAO.lire(() -> monDAO.chargerCommentairesTriParID(idArticle), (ArrayList<CommentaireItem> lesCommentaires) -> {
+                    if (lesCommentaires == null) {
+                        return;
+                    }
+                    StringBuilder monContenu = new StringBuilder();
+
+                    for (CommentaireItem unComentaire : lesCommentaires) {
+                        monContenu.append("=====#");
+                        monContenu.append(unComentaire.getNumeroAffichage());
+                        monContenu.append(" ");
+                        monContenu.append(unComentaire.getAuteurDateCommentaire());
+                        monContenu.append("=====");
+                        monContenu.append("\n");
+                        monContenu.append(unComentaire.getCommentaire());
+                        monContenu.append("\n\n");
+                    }
+
+                    maTextView.setText(monContenu);
+                });
             }
         }
     }
@@ -24,6 +24,7 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Looper;
 import android.os.StrictMode;
 import android.util.Log;
 import android.view.KeyEvent;
@@ -39,25 +40,32 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.preference.PreferenceManager;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.pcinpact.adapters.ItemsAdapter;
+import com.pcinpact.adapters.ListeArticles;
 import com.pcinpact.datastorage.CacheManager;
+import com.pcinpact.datastorage.AsyncDAO;
 import com.pcinpact.datastorage.DAO;
+import com.pcinpact.datastorage.ModificationsArticles;
+import com.pcinpact.datastorage.ModificationsDAOInterface;
 import com.pcinpact.items.ArticleItem;
 import com.pcinpact.items.CommentaireItem;
 import com.pcinpact.items.Item;
-import com.pcinpact.items.SectionItem;
 import com.pcinpact.network.AccountCheckInterface;
 import com.pcinpact.network.AsyncAccountCheck;
 import com.pcinpact.network.AsyncHTMLDownloader;
 import com.pcinpact.network.RefreshDisplayInterface;
+import com.pcinpact.parseur.AsyncContenuParseur;
 import com.pcinpact.utils.Constantes;
 import com.pcinpact.utils.MyDateUtils;
+import com.pcinpact.utils.Recherche;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -65,19 +73,23 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Anael
  */
-public class ListeArticlesActivity extends AppCompatActivity implements RefreshDisplayInterface, OnItemClickListener, AccountCheckInterface {
+public class ListeArticlesActivity extends AppCompatActivity implements RefreshDisplayInterface, OnItemClickListener, AccountCheckInterface, ModificationsDAOInterface {
     /**
-     * Les articles
+     * Les items affichés (articles & sections)
      */
-    private ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+    private ArrayList<Item> mesItems = new ArrayList<>();
     /**
      * ItemAdapter
      */
     private ItemsAdapter monItemsAdapter;
     /**
-     * BDD
+     * BDD (requêtes exécutées via monAsyncDAO)
      */
     private DAO monDAO;
+    /**
+     * Accès asynchrone à la BDD
+     */
+    private AsyncDAO monAsyncDAO;
     /**
      * Nombre de DL en cours
      * [ 0, HTML_LISTE_ARTICLES, HTML_COMMENTAIRES ]
@@ -119,6 +131,18 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
      * Timestamp de la date jusqu'à laquelle télécharger les articles
      */
     private long timestampMinArticle;
+    /**
+     * Date de la dernière synchronisation (chargée avec la liste des articles)
+     */
+    private volatile long dateDernierRefresh;
+    /**
+     * Nb total de commentaires non lus (chargé avec la liste des articles)
+     */
+    private volatile int nbCommentairesNonLus;
+    /**
+     * Recherche affichée (null si liste complète des articles)
+     */
+    private String maRecherche = null;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -153,7 +177,7 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         dlInProgress = new int[3];
 
         // Mise en place de l'itemAdapter
-        monItemsAdapter = new ItemsAdapter(getApplicationContext(), getLayoutInflater(), new ArrayList<>());
+        monItemsAdapter = new ItemsAdapter(getApplicationContext(), getLayoutInflater(), mesItems);
         monListView.setAdapter(monItemsAdapter);
         monListView.setOnItemClickListener(this);
 
@@ -187,9 +211,12 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         });
 
         // J'active la BDD
-        monDAO = DAO.getInstance(getApplicationContext());
+        monAsyncDAO = AsyncDAO.getInstance(getApplicationContext());
+        monDAO = monAsyncDAO.getDAO();
         // Chargement des articles & MàJ de l'affichage
-        monItemsAdapter.updateListeItems(prepareAffichage());
+        rafraichirAffichage();
+        // Puis MàJ au fil des modifications des articles
+        monAsyncDAO.ajouterObservateur(this);
 
         // Gestion du changement d'options de l'application
         listenerOptions = (SharedPreferences sharedPreferences, String key) -> {
@@ -218,7 +245,10 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
             else if (key.equals(getResources().getString(R.string.idOptionDebugEffacerCache))) {
                 // Je vide ma liste d'articles...
                 nouveauChargementGUI(Constantes.HTML_LISTE_ARTICLES);
-                mesArticles.clear();
+                mesItems.clear();
+                if (maRecherche == null) {
+                    monItemsAdapter.notifyDataSetChanged();
+                }
                 // Lancement du refresh de l'affichage
                 finChargementGUI(Constantes.HTML_LISTE_ARTICLES);
             }
@@ -231,6 +261,10 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
             else if (key.equals(getResources().getString(R.string.idOptionNbJoursArticles))) {
                 calculerTimeStampMinArticle();
             }
+            // Compression du contenu des articles => conversion des articles déjà enregistrés
+            else if (key.equals(getResources().getString(R.string.idOptionCompressionContenu))) {
+                monAsyncDAO.ecrire(monDAO::recompresserContenus);
+            }
         };
         // Attachement du superviseur aux préférences
         PreferenceManager.getDefaultSharedPreferences(getApplicationContext()).registerOnSharedPreferenceChangeListener(listenerOptions);
@@ -248,6 +282,41 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         // Chargement du fichier XML
         inflater.inflate(R.menu.activity_liste_articles_actions, monMenu);
 
+        // Recherche dans les articles et commentaires
+        MenuItem boutonRecherche = menu.findItem(R.id.action_search);
+        SearchView maSearchView = (SearchView) boutonRecherche.getActionView();
+        maSearchView.setQueryHint(getString(R.string.rechercheIndice));
+        maSearchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                rechercher(query);
+                // Masquer le clavier
+                maSearchView.clearFocus();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                // Résultats au fil de la saisie
+                rechercher(newText);
+                return true;
+            }
+        });
+        boutonRecherche.setOnActionExpandListener(new MenuItem.OnActionExpandListener() {
+            @Override
+            public boolean onMenuItemActionExpand(MenuItem item) {
+                return true;
+            }
+
+            @Override
+            public boolean onMenuItemActionCollapse(MenuItem item) {
+                // Retour à la liste complète des articles
+                maRecherche = null;
+                afficherListeArticles(mesItems);
+                return true;
+            }
+        });
+
         // Suis-je en mode DEBUG ?
         Boolean modeDebug = Constantes.getOptionBoolean(getApplicationContext(), R.string.idOptionDebug, R.bool.defautOptionDebug);
 
@@ -284,9 +353,11 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         }
 
         // Si on a jamais synchronisé, lancer un téléchargement des articles
-        if (TimeUnit.SECONDS.toMillis(monDAO.chargerDateRefresh(Constantes.DB_REFRESH_ID_LISTE_ARTICLES)) == 0) {
-            prepareTelechargementListeArticles();
-        }
+        monAsyncDAO.lire(() -> monDAO.chargerDateRefresh(Constantes.DB_REFRESH_ID_LISTE_ARTICLES), (Long dateRefresh) -> {
+            if (dateRefresh != null && dateRefresh == 0) {
+                prepareTelechargementListeArticles();
+            }
+        });
 
         return true;
     }
@@ -307,7 +378,7 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         // Récupère l'article en question
         ArticleItem monArticle = (ArticleItem) monItemsAdapter.getItem(position);
         // Le marquer comme lu en BDD
-        monDAO.marquerArticleLu(monArticle.getId());
+        monAsyncDAO.ecrire(() -> monDAO.marquerArticleLu(monArticle.getId()));
 
         // Lance l'ouverture de l'article
         Intent monIntent = new Intent(getApplicationContext(), ArticleActivity.class);
@@ -334,12 +405,13 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         }
 
         // Recréation d'un itemAdapter - #229
-        monItemsAdapter = new ItemsAdapter(getApplicationContext(), getLayoutInflater(), mesArticles);
+        monItemsAdapter = new ItemsAdapter(getApplicationContext(), getLayoutInflater(), mesItems);
         monListView.setAdapter(monItemsAdapter);
-        // On le remet à l'endroit où on était
+        // On le remet à l'endroit où on était (liste tenue à jour par modificationsArticles())
         monListView.setSelection(dernierePosition);
-        // Je pousse la mise à jour de l'affichage
-        monItemsAdapter.updateListeItems(prepareAffichage());
+        if (maRecherche != null) {
+            rechercher(maRecherche);
+        }
 
         super.onRestart();
     }
@@ -417,6 +489,7 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
      */
     @Override
     protected void onDestroy() {
+        monAsyncDAO.retirerObservateur(this);
         try {
             // Détachement du listener pour la taille des textes
             PreferenceManager.getDefaultSharedPreferences(getApplicationContext()).unregisterOnSharedPreferenceChangeListener(listenerOptions);
@@ -479,16 +552,32 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
      * Télécharger la liste des articles et leur contenu (y compris le brief)
      */
     private void telechargeListeArticles() {
+        // Empreintes des articles déjà en BDD (leur contenu ne sera pas parsé à nouveau s'il n'a pas changé)
+        monAsyncDAO.lire(monDAO::chargerEmpreintesArticles, this::telechargeListeArticles);
+    }
+
+    /**
+     * Télécharger la liste des articles et leur contenu (y compris le brief), puis clore la vérification du compte
+     *
+     * @param mesEmpreintes empreintes des articles déjà en BDD
+     */
+    private void telechargeListeArticles(HashMap<Integer, Long> mesEmpreintes) {
+        // Parsage du contenu à la lecture des articles
+        boolean parsageDiffere = Constantes.getOptionBoolean(getApplicationContext(), R.string.idOptionParsageDiffere, R.bool.defautOptionParsageDiffere);
+
         AsyncHTMLDownloader monAHD;
         // Les articles
-        monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_LISTE_ARTICLES, Constantes.NEXT_URL_LISTE_ARTICLE + MyDateUtils.convertToDateISO8601(timestampMinArticle), 0, token);
+        monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_LISTE_ARTICLES, Constantes.NEXT_URL_LISTE_ARTICLE + MyDateUtils.convertToDateISO8601(timestampMinArticle), 0, token, mesEmpreintes, parsageDiffere);
         // Lancement du téléchargement
         launchAHD(monAHD, Constantes.HTML_LISTE_ARTICLES);
 
         // Le brief
-        monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_LISTE_ARTICLES, Constantes.NEXT_URL_LISTE_ARTICLE_BRIEF + MyDateUtils.convertToDateISO8601(timestampMinArticle), 0, token);
+        monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_LISTE_ARTICLES, Constantes.NEXT_URL_LISTE_ARTICLE_BRIEF + MyDateUtils.convertToDateISO8601(timestampMinArticle), 0, token, mesEmpreintes, parsageDiffere);
         // Lancement du1 téléchargement
         launchAHD(monAHD, Constantes.HTML_LISTE_ARTICLES);
+
+        // GUI : fin de la vérification du compte (après le lancement des téléchargements, l'animation ne s'arrête pas entre temps)
+        finChargementGUI(Constantes.HTML_LISTE_ARTICLES);
     }
 
     /**
@@ -523,98 +612,224 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
     public void downloadHTMLFini(String uneURL, ArrayList<? extends Item> desItems) {
         // Téléchargement du nombre de commentaires et des 10 premiers commentaires
         if (uneURL.startsWith(Constantes.NEXT_URL_COMMENTAIRES)) {
-            int idArticle = 0;
+            ArrayList<ArticleItem> mesNbCommentaires = new ArrayList<>();
+            ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
             for (Item unItem : desItems) {
                 // Nombre total de commentaires d'un article (entête Constantes.NEXT_URL_COMMENTAIRES_HEADER_NB_TOTAL)
                 if (unItem instanceof ArticleItem) {
-                    monDAO.updateNbCommentairesArticle(((ArticleItem) unItem).getId(), ((ArticleItem) unItem).getNbCommentaires());
+                    mesNbCommentaires.add((ArticleItem) unItem);
                 }
                 // Commentaires de l'article
                 else {
-                    monDAO.enregistrerCommentaireSiNouveau((CommentaireItem) unItem);
-                    idArticle = ((CommentaireItem) unItem).getIdArticle();
+                    mesCommentaires.add((CommentaireItem) unItem);
                 }
             }
-            // Enregistrer la date de téléchargement
-            if (idArticle != 0) {
-                long dateRefresh = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
-                monDAO.enregistrerDateRefresh(idArticle, dateRefresh);
-            }
-
-            // gestion du téléchargement GUI
-            finChargementGUI(Constantes.HTML_COMMENTAIRES);
+            final int idArticle = (mesCommentaires.isEmpty() ? 0 : mesCommentaires.get(mesCommentaires.size() - 1).getIdArticle());
+            monAsyncDAO.ecrire(() -> {
+                for (ArticleItem unArticle : mesNbCommentaires) {
+                    monDAO.updateNbCommentairesArticle(unArticle.getId(), unArticle.getNbCommentaires());
+                }
+                // Enregistrer la date de téléchargement
+                if (idArticle != 0) {
+                    long dateRefresh = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+                    monDAO.enregistrerDateRefresh(idArticle, dateRefresh);
+                }
+            });
+            // Enregistrement groupé des commentaires (BDD séparée : en parallèle des écritures des articles)
+            monAsyncDAO.ecrireCommentaires(() -> monDAO.enregistrerCommentairesSiNouveaux(mesCommentaires), () -> {
+                // gestion du téléchargement GUI
+                finChargementGUI(Constantes.HTML_COMMENTAIRES);
+            });
         }
         // Téléchargement d'articles ou du brief
         else {
-            for (ArticleItem unArticle : (ArrayList<ArticleItem>) desItems) {
-                // Récupérer les informations sur les commentaires en BDD
-                ArticleItem articleBdd = monDAO.chargerArticle(unArticle.getId());
-                unArticle.setNbCommentaires(articleBdd.getNbCommentaires());
-                unArticle.setIndiceDernierCommLu(articleBdd.getIndiceDernierCommLu());
-                unArticle.setLu(articleBdd.isLu());
-                // Enregistrer en BDD l'article
-                monDAO.enregistrerArticle(unArticle);
-
-                // Télécharger le nombre de commentaires de chaque article SAUF SI :
-                //   - L'API indique qu'il n'y a pas de commentaires (-1)
-                //   - On a déjà téléchargé l'ID du dernier commentaire indiqué par l'API
-                //   - L'ID du dernier commentaire indiqué par l'API n'a pas changé depuis la dernière synchro
-                int idDernierCommentaireApi = unArticle.getParseurLastCommentId();
-                int idDernierCommentaireTelecharge = monDAO.getMaxIdCommentaireTelecharge(unArticle.getId());
-                int idDernierCommentaireApiEnBdd = articleBdd.getParseurLastCommentId();
-                if (idDernierCommentaireApi != -1 && idDernierCommentaireApi != idDernierCommentaireTelecharge && idDernierCommentaireApi != idDernierCommentaireApiEnBdd) {
-                    AsyncHTMLDownloader monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_COMMENTAIRES, Constantes.NEXT_URL_COMMENTAIRES + unArticle.getId(), unArticle.getId(), token);
-                    // Lancement du téléchargement
-                    launchAHD(monAHD, Constantes.HTML_COMMENTAIRES);
-                } else {
-                    // DEBUG
-                    if (Constantes.DEBUG) {
-                        Log.d("ListeArticlesActivity", "downloadHTMLFini() -  " + unArticle.getId() + " : chargement des commentaires non requis : " + idDernierCommentaireTelecharge + " -> parseur " + idDernierCommentaireApi);
+            ArrayList<ArticleItem> mesArticles = (ArrayList<ArticleItem>) desItems;
+            monAsyncDAO.ecrireEtLire(() -> {
+                // ID du dernier commentaire connu en BDD, avant son écrasement par l'enregistrement
+                HashMap<Integer, Integer> idsDernierCommentaireBdd = monDAO.chargerIdDernierCommentaireParseur(mesArticles);
+                // Enregistrement groupé des articles en BDD (l'état de lecture est conservé par le DAO)
+                monDAO.enregistrerArticles(mesArticles);
+
+                // Articles dont les commentaires sont à télécharger
+                ArrayList<Integer> idArticlesCommentaires = new ArrayList<>();
+                for (ArticleItem unArticle : mesArticles) {
+                    // Télécharger le nombre de commentaires de chaque article SAUF SI :
+                    //   - L'API indique qu'il n'y a pas de commentaires (-1)
+                    //   - On a déjà téléchargé l'ID du dernier commentaire indiqué par l'API
+                    //   - L'ID du dernier commentaire indiqué par l'API n'a pas changé depuis la dernière synchro
+                    int idDernierCommentaireApi = unArticle.getParseurLastCommentId();
+                    int idDernierCommentaireTelecharge = monDAO.getMaxIdCommentaireTelecharge(unArticle.getId());
+                    Integer idDernierCommentaireApiEnBdd = idsDernierCommentaireBdd.get(unArticle.getId());
+                    if (idDernierCommentaireApiEnBdd == null) {
+                        idDernierCommentaireApiEnBdd = 0;
+                    }
+                    if (idDernierCommentaireApi != -1 && idDernierCommentaireApi != idDernierCommentaireTelecharge && idDernierCommentaireApi != idDernierCommentaireApiEnBdd) {
+                        idArticlesCommentaires.add(unArticle.getId());
+                    } else {
+                        // DEBUG
+                        if (Constantes.DEBUG) {
+                            Log.d("ListeArticlesActivity", "downloadHTMLFini() -  " + unArticle.getId() + " : chargement des commentaires non requis : " + idDernierCommentaireTelecharge + " -> parseur " + idDernierCommentaireApi);
+                        }
+                    }
+                }
+                return idArticlesCommentaires;
+            }, (ArrayList<Integer> idArticlesCommentaires) -> {
+                if (idArticlesCommentaires != null) {
+                    for (int idArticle : idArticlesCommentaires) {
+                        AsyncHTMLDownloader monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_COMMENTAIRES, Constantes.NEXT_URL_COMMENTAIRES + idArticle, idArticle, token);
+                        // Lancement du téléchargement
+                        launchAHD(monAHD, Constantes.HTML_COMMENTAIRES);
                     }
                 }
-            }
 
-            // gestion du téléchargement GUI
-            finChargementGUI(Constantes.HTML_LISTE_ARTICLES);
+                // gestion du téléchargement GUI
+                finChargementGUI(Constantes.HTML_LISTE_ARTICLES);
+            });
         }
     }
 
     /**
-     * Fournit une liste d'articles triés par date + sections.
-     *
-     * @return Liste d'articles
+     * Recharge la liste des articles depuis la BDD (hors thread UI) puis MàJ l'affichage
+     * Lecture sur le thread d'écriture : ordonnée avec les modifications publiées à modificationsArticles()
      */
-    private ArrayList<Item> prepareAffichage() {
-        ArrayList<Item> monRetour = new ArrayList<>();
-        String jourActuel = "";
+    private void rafraichirAffichage() {
+        monAsyncDAO.ecrireEtLire(this::prepareAffichage, this::afficherListeArticles);
+    }
 
-        // Chargement des articles depuis la BDD (triés par date de publication)
-        mesArticles = monDAO.chargerArticlesTriParDate();
-
-        for (ArticleItem article : mesArticles) {
-            // Si ce n'est pas la même journée que l'article précédent
-            if (!article.getDatePublication().equals(jourActuel)) {
-                // Je met à jour ma date
-                jourActuel = article.getDatePublication();
-                // J'ajoute un sectionItem
-                monRetour.add(new SectionItem(jourActuel));
-            }
+    /**
+     * MàJ l'affichage avec une liste d'articles préparée par prepareAffichage()
+     *
+     * @param desItems articles & sections
+     */
+    private void afficherListeArticles(ArrayList<Item> desItems) {
+        if (desItems == null) {
+            return;
+        }
+        mesItems = desItems;
 
-            // J'ajoute mon article
-            monRetour.add(article);
+        // Résultats de recherche affichés => la liste sera affichée à la fermeture de la recherche
+        if (maRecherche != null) {
+            return;
         }
 
-        // MàJ de la date de dernier refresh
-        long dernierRefresh = monDAO.chargerDateRefresh(Constantes.DB_REFRESH_ID_LISTE_ARTICLES);
+        afficherDateRefresh();
 
-        if (dernierRefresh == 0) {
+        // Je met à jour les données
+        monItemsAdapter.updateListeItems(mesItems);
+        // Je notifie le changement pour un rafraichissement du contenu
+        monItemsAdapter.notifyDataSetChanged();
+    }
+
+    /**
+     * MàJ de la date de dernier refresh affichée
+     */
+    private void afficherDateRefresh() {
+        if (dateDernierRefresh == 0) {
             // Jamais synchro...
             headerTextView.setText(getString(R.string.lastUpdateNever));
         } else {
-            String monTexte = getString(R.string.lastUpdate) + MyDateUtils.formatDate(Constantes.FORMAT_DATE_DERNIER_REFRESH, dernierRefresh);
+            String monTexte = getString(R.string.lastUpdate) + MyDateUtils.formatDate(Constantes.FORMAT_DATE_DERNIER_REFRESH, dateDernierRefresh);
+            // Commentaires non lus (même option que le "(+12)" de la liste)
+            boolean nbNouveauComm = Constantes.getOptionBoolean(getApplicationContext(), R.string.idOptionAfficherNbNouveauComm, R.bool.defautOptionAfficherNbNouveauComm);
+            if (nbNouveauComm && nbCommentairesNonLus > 0) {
+                monTexte += getString(R.string.nbCommentairesNonLus, nbCommentairesNonLus);
+            }
             // Une MàJ à déjà été faite
             headerTextView.setText(monTexte);
         }
+    }
+
+    /**
+     * MàJ en place de la liste des articles : seules les lignes des articles modifiés sont redessinées
+     *
+     * @param desModifications modifications des articles
+     */
+    @Override
+    public void modificationsArticles(ModificationsArticles desModifications) {
+        // Modification globale => rechargement complet
+        if (desModifications.isRechargementComplet()) {
+            rafraichirAffichage();
+            return;
+        }
+
+        ArrayList<Integer> mesPositions = new ArrayList<>();
+        boolean structureModifiee = ListeArticles.appliquer(mesItems, desModifications.getIdSupprimes(), desModifications.getArticles(), mesPositions);
+
+        // Total des commentaires non lus de l'en-tête
+        monAsyncDAO.lire(monDAO::compterCommentairesNonLusTotal, (Integer nbNonLus) -> {
+            if (nbNonLus == null) {
+                return;
+            }
+            nbCommentairesNonLus = nbNonLus;
+            if (maRecherche == null) {
+                afficherDateRefresh();
+            }
+        });
+
+        // Résultats de recherche affichés => la liste sera affichée à la fermeture de la recherche
+        if (maRecherche != null) {
+            return;
+        }
+        if (structureModifiee) {
+            // Lignes décalées
+            monItemsAdapter.notifyDataSetChanged();
+        } else {
+            // Lignes visibles uniquement (les autres seront dessinées lors du scroll)
+            int premiereLigne = monListView.getFirstVisiblePosition();
+            for (int unePosition : mesPositions) {
+                View maVue = monListView.getChildAt(unePosition - premiereLigne);
+                if (maVue != null) {
+                    monItemsAdapter.getView(unePosition, maVue, monListView);
+                }
+            }
+        }
+
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("ListeArticlesActivity", "modificationsArticles() - " + desModifications.getArticles().size() + " articles MàJ, " + desModifications.getIdSupprimes().size() + " supprimés" + (structureModifiee ? " => liste redessinée" : ""));
+        }
+    }
+
+    /**
+     * Lance une recherche plein texte (hors thread UI) puis affiche ses résultats
+     *
+     * @param uneSaisie saisie de l'utilisateur
+     */
+    private void rechercher(final String uneSaisie) {
+        // Saisie vide => liste complète des articles
+        if (Recherche.construireRequete(uneSaisie) == null) {
+            maRecherche = null;
+            afficherListeArticles(mesItems);
+            return;
+        }
+        maRecherche = uneSaisie;
+
+        monAsyncDAO.lire(() -> monDAO.rechercher(uneSaisie), (ArrayList<ArticleItem> desArticles) -> {
+            // Saisie modifiée entre temps : seul le dernier résultat est affiché
+            if (desArticles == null || !uneSaisie.equals(maRecherche)) {
+                return;
+            }
+            headerTextView.setText(getString(R.string.rechercheResultats, desArticles.size(), uneSaisie));
+
+            monItemsAdapter.updateListeItems(new ArrayList<>(desArticles));
+            monItemsAdapter.notifyDataSetChanged();
+            monListView.setSelection(0);
+        });
+    }
+
+    /**
+     * Fournit une liste d'articles triés par date + sections (requêtes BDD : à exécuter hors thread UI).
+     *
+     * @return Liste d'articles
+     */
+    private ArrayList<Item> prepareAffichage() {
+        // Chargement des articles depuis la BDD (triés par date de publication)
+        ArrayList<Item> monRetour = ListeArticles.construire(monDAO.chargerResumesArticlesTriParDate());
+
+        // Date de dernier refresh (affichée par afficherListeArticles())
+        dateDernierRefresh = monDAO.chargerDateRefresh(Constantes.DB_REFRESH_ID_LISTE_ARTICLES);
+        // Total des commentaires non lus (une seule requête d'agrégation)
+        nbCommentairesNonLus = monDAO.compterCommentairesNonLusTotal();
 
         return monRetour;
     }
@@ -662,15 +877,15 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
             if (Constantes.DEBUG) {
                 Log.w("ListeArticlesActivity", "finChargementGUI() - Rafraichissement liste articles");
             }
-            // MàJ de la date de rafraichissement de la liste des articles
+            // MàJ de la date de rafraichissement de la liste des articles (les articles sont MàJ par modificationsArticles())
             // Date du refresh
             long dateRefresh = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
-            monDAO.enregistrerDateRefresh(Constantes.DB_REFRESH_ID_LISTE_ARTICLES, dateRefresh);
-
-            // Je met à jour les données
-            monItemsAdapter.updateListeItems(prepareAffichage());
-            // Je notifie le changement pour un rafraichissement du contenu
-            monItemsAdapter.notifyDataSetChanged();
+            monAsyncDAO.ecrire(() -> monDAO.enregistrerDateRefresh(Constantes.DB_REFRESH_ID_LISTE_ARTICLES, dateRefresh), () -> {
+                dateDernierRefresh = dateRefresh;
+                if (maRecherche == null) {
+                    afficherDateRefresh();
+                }
+            });
         }
 
         // Si toutes les données sont téléchargées...
@@ -681,11 +896,6 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
                 Log.w("ListeArticlesActivity", "finChargementGUI() - Arrêt animation");
             }
 
-            // Je met à jour les données (mise à jour # commentaires)
-            monItemsAdapter.updateListeItems(prepareAffichage());
-            // Je notifie le changement pour un rafraichissement du contenu
-            monItemsAdapter.notifyDataSetChanged();
-
             // On stoppe l'animation du SwipeRefreshLayout
             monSwipeRefreshLayout.setRefreshing(false);
 
@@ -693,6 +903,20 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
             MenuItem monItem = monMenu.findItem(R.id.action_refresh);
             monItem.getIcon().setAlpha(255);
             monItem.setEnabled(true);
+
+            // Parsage en tâche de fond des articles stockés bruts, une fois l'interface au repos
+            Looper.myQueue().addIdleHandler(() -> {
+                monAsyncDAO.lire(monDAO::chargerIdArticlesAParser, (ArrayList<Integer> idArticles) -> {
+                    if (idArticles != null && !idArticles.isEmpty()) {
+                        AsyncContenuParseur monParseur = new AsyncContenuParseur(getApplicationContext(), idArticles, null);
+                        monParseur.run(false);
+                    }
+                });
+                // Puis maintenance de la BDD (espace libéré par le nettoyage du cache)
+                CacheManager.maintenanceBDD(getApplicationContext());
+                // Ne pas rappeler ce handler
+                return false;
+            });
         }
 
         // DEBUG
@@ -729,9 +953,7 @@ public class ListeArticlesActivity extends AppCompatActivity implements RefreshD
         /*
          * Téléchargement des articles (brief + standard)
          */
+        // GUI : fin de l'activité en cours une fois les téléchargements lancés (cf telechargeListeArticles(HashMap))
         telechargeListeArticles();
-
-        // GUI : fin de l'activité en cours...
-        finChargementGUI(Constantes.HTML_LISTE_ARTICLES);
     }
 }
@@ -53,7 +53,7 @@ import com.pcinpact.items.SectionItem;
 import com.pcinpact.parseur.TagHandler;
 import com.pcinpact.utils.Constantes;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import static android.net.NetworkCapabilities.TRANSPORT_WIFI;
 
@@ -74,7 +74,7 @@ public class ItemsAdapter extends BaseAdapter {
     /**
      * Items à afficher.
      */
-    private ArrayList<? extends Item> mesItems;
+    private List<? extends Item> mesItems;
 
     /**
      * Constructeur.
@@ -84,7 +84,7 @@ public class ItemsAdapter extends BaseAdapter {
      * @param desItems         items à afficher
      */
     public ItemsAdapter(final Context unContext, final LayoutInflater unLayoutInflater,
-                        final ArrayList<? extends Item> desItems) {
+                        final List<? extends Item> desItems) {
         /*
          * Cf issue #188 : une activité est requise pour que le layoutinflater puisse être associé à une activité =>
          * possibilité de lancer une autre apps
@@ -101,7 +101,7 @@ public class ItemsAdapter extends BaseAdapter {
      *
      * @param nouveauxItems liste d'items
      */
-    public void updateListeItems(final ArrayList<? extends Item> nouveauxItems) {
+    public void updateListeItems(final List<? extends Item> nouveauxItems) {
         mesItems = nouveauxItems;
     }
 
@@ -318,10 +318,11 @@ public class ItemsAdapter extends BaseAdapter {
                     boolean nbNouveauComm = Constantes.getOptionBoolean(monContext, R.string.idOptionAfficherNbNouveauComm, R.bool.defautOptionAfficherNbNouveauComm);
                     // Ssi commentaires déjà lus
                     if (nbNouveauComm && ai.getIndiceDernierCommLu() > 0) {
-                        // Affichage seulement si des nouveaux commentaires
-                        if (ai.getNbCommentairesNonLus() > 0) {
+                        // Affichage seulement si des nouveaux commentaires (nombre calculé par la BDD)
+                        int nbNonLus = ai.getNbCommentairesNonLus();
+                        if (nbNonLus > 0) {
                             // Insertion dans texte
-                            texteCommentaires += " (+" + ai.getNbCommentairesNonLus() + ")";
+                            texteCommentaires += " (+" + nbNonLus + ")";
                         }
                     }
 
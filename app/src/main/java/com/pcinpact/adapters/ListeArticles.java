@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.adapters;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.Item;
+import com.pcinpact.items.SectionItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Liste des articles affichée : articles triés par date de publication décroissante, précédés d'une section par jour.
+ * Construction complète, puis MàJ en place à partir des modifications publiées par AsyncDAO.
+ *
+ * @author Anael
+ */
+public final class ListeArticles {
+    /**
+     * Classe utilitaire
+     */
+    private ListeArticles() {
+    }
+
+    /**
+     * Construit la liste affichée
+     *
+     * @param desArticles articles triés par date de publication décroissante
+     * @return articles & sections
+     */
+    public static ArrayList<Item> construire(final List<ArticleItem> desArticles) {
+        ArrayList<Item> monRetour = new ArrayList<>(desArticles.size() + desArticles.size() / 4);
+        long jourActuel = Long.MIN_VALUE;
+
+        for (ArticleItem article : desArticles) {
+            // Si ce n'est pas la même journée que l'article précédent
+            if (article.getJourPublication() != jourActuel) {
+                // Je met à jour ma date
+                jourActuel = article.getJourPublication();
+                // J'ajoute un sectionItem
+                monRetour.add(new SectionItem(article.getDatePublication()));
+            }
+
+            // J'ajoute mon article
+            monRetour.add(article);
+        }
+        return monRetour;
+    }
+
+    /**
+     * Applique en place des modifications à la liste affichée
+     *
+     * @param desItems              articles & sections (modifiés en place)
+     * @param desIdSupprimes        ID des articles supprimés
+     * @param desArticles           articles ajoutés ou modifiés
+     * @param desPositionsModifiees positions des articles remplacés sur place (complétée)
+     * @return des lignes ont été ajoutées ou supprimées (positions décalées : desPositionsModifiees n'est plus significative)
+     */
+    public static boolean appliquer(final ArrayList<Item> desItems, final Collection<Integer> desIdSupprimes, final Collection<ArticleItem> desArticles, final List<Integer> desPositionsModifiees) {
+        boolean structureModifiee = false;
+
+        for (int idArticle : desIdSupprimes) {
+            int maPosition = getPosition(desItems, idArticle);
+            if (maPosition != -1) {
+                supprimer(desItems, maPosition);
+                structureModifiee = true;
+            }
+        }
+
+        for (ArticleItem unArticle : desArticles) {
+            int maPosition = getPosition(desItems, unArticle.getId());
+            if (maPosition != -1 && ((ArticleItem) desItems.get(maPosition)).getTimeStampPublication() == unArticle.getTimeStampPublication()) {
+                // Même place dans la liste => remplacement de la ligne
+                desItems.set(maPosition, unArticle);
+                desPositionsModifiees.add(maPosition);
+            } else {
+                // Nouvel article ou date de publication modifiée
+                if (maPosition != -1) {
+                    supprimer(desItems, maPosition);
+                }
+                inserer(desItems, unArticle);
+                structureModifiee = true;
+            }
+        }
+        return structureModifiee;
+    }
+
+    /**
+     * Position d'un article dans la liste affichée
+     *
+     * @param desItems  articles & sections
+     * @param idArticle ID de l'article
+     * @return position, -1 si absent
+     */
+    public static int getPosition(final List<Item> desItems, final int idArticle) {
+        for (int i = 0; i < desItems.size(); i++) {
+            Item unItem = desItems.get(i);
+            if (unItem.getType() == Item.TYPE_ARTICLE && ((ArticleItem) unItem).getId() == idArticle) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Supprime un article, ainsi que sa section si elle devient vide
+     *
+     * @param desItems    articles & sections
+     * @param unePosition position de l'article
+     */
+    private static void supprimer(final ArrayList<Item> desItems, final int unePosition) {
+        desItems.remove(unePosition);
+        boolean isSectionPrecedente = unePosition > 0 && desItems.get(unePosition - 1).getType() == Item.TYPE_SECTION;
+        boolean isFinSection = unePosition == desItems.size() || desItems.get(unePosition).getType() == Item.TYPE_SECTION;
+        if (isSectionPrecedente && isFinSection) {
+            desItems.remove(unePosition - 1);
+        }
+    }
+
+    /**
+     * Insère un article à sa place (date de publication décroissante), en créant sa section si nécessaire
+     *
+     * @param desItems  articles & sections
+     * @param unArticle article
+     */
+    private static void inserer(final ArrayList<Item> desItems, final ArticleItem unArticle) {
+        // Premier article publié avant le nouvel article
+        int maPosition = desItems.size();
+        for (int i = 0; i < desItems.size(); i++) {
+            Item unItem = desItems.get(i);
+            if (unItem.getType() == Item.TYPE_ARTICLE && ((ArticleItem) unItem).getTimeStampPublication() < unArticle.getTimeStampPublication()) {
+                maPosition = i;
+                break;
+            }
+        }
+
+        // Premier article d'une section du même jour
+        if (maPosition < desItems.size() && maPosition > 0 && desItems.get(maPosition - 1).getType() == Item.TYPE_SECTION && ((ArticleItem) desItems.get(maPosition)).getJourPublication() == unArticle.getJourPublication()) {
+            desItems.add(maPosition, unArticle);
+            return;
+        }
+        // Avant la section suivante
+        if (maPosition > 0 && desItems.get(maPosition - 1).getType() == Item.TYPE_SECTION) {
+            maPosition--;
+        }
+        // Dernier article d'une section du même jour
+        if (maPosition > 0 && ((ArticleItem) desItems.get(maPosition - 1)).getJourPublication() == unArticle.getJourPublication()) {
+            desItems.add(maPosition, unArticle);
+            return;
+        }
+        // Nouvelle section
+        desItems.add(maPosition, new SectionItem(unArticle.getDatePublication()));
+        desItems.add(maPosition + 1, unArticle);
+    }
+}
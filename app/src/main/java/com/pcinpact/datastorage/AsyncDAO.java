@@ -0,0 +1,262 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteException;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.pcinpact.utils.Constantes;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Accès asynchrone à la BDD : aucune requête SQLite n'est exécutée sur le thread UI.
+ * Les écritures sont sérialisées sur un unique thread, les lectures sont réparties sur un pool (WAL => lectures concurrentes).
+ * Si les commentaires sont dans une BDD séparée, leurs enregistrements en masse disposent de leur propre thread d'écriture.
+ * Les résultats sont renvoyés sur le thread UI.
+ * Les modifications des articles effectuées par chaque écriture sont publiées aux observateurs, avant le retour de l'écriture.
+ *
+ * @author Anael
+ */
+public final class AsyncDAO {
+    /**
+     * Nombre de threads de lecture
+     */
+    private static final int NB_LECTEURS = 2;
+    /**
+     * Thread unique d'écriture
+     */
+    private static final ExecutorService monEcrivain = Executors.newSingleThreadExecutor();
+    /**
+     * Thread d'écriture des commentaires (BDD séparée des commentaires)
+     */
+    private static final ExecutorService monEcrivainCommentaires = Executors.newSingleThreadExecutor();
+    /**
+     * Threads de lecture
+     */
+    private static final ExecutorService mesLecteurs = Executors.newFixedThreadPool(NB_LECTEURS);
+    /**
+     * Instance
+     */
+    private static AsyncDAO instanceOfAsyncDAO = null;
+
+    /**
+     * Retour sur le thread UI
+     */
+    private final Handler monHandlerUI;
+    /**
+     * Accès synchrone à la BDD
+     */
+    private final DAO monDAO;
+    /**
+     * Observateurs des modifications des articles
+     */
+    private final CopyOnWriteArrayList<ModificationsDAOInterface> mesObservateurs = new CopyOnWriteArrayList<>();
+
+    /**
+     * Accès asynchrone à la BDD
+     *
+     * @param unContext context de l'application
+     */
+    private AsyncDAO(final Context unContext) {
+        monDAO = DAO.getInstance(unContext);
+        monHandlerUI = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Fournit l'instance de l'accès asynchrone à la BDD
+     *
+     * @param unContext context de l'application
+     * @return accès asynchrone à la BDD
+     */
+    public static synchronized AsyncDAO getInstance(final Context unContext) {
+        if (instanceOfAsyncDAO == null) {
+            instanceOfAsyncDAO = new AsyncDAO(unContext.getApplicationContext());
+        }
+        return instanceOfAsyncDAO;
+    }
+
+    /**
+     * Accès synchrone à la BDD, à utiliser uniquement dans les requêtes passées à lire() / ecrire()
+     *
+     * @return DAO
+     */
+    public DAO getDAO() {
+        return monDAO;
+    }
+
+    /**
+     * Abonnement aux modifications des articles (à appeler sur le thread UI)
+     *
+     * @param unObservateur observateur (rappelé sur le thread UI)
+     */
+    public void ajouterObservateur(final ModificationsDAOInterface unObservateur) {
+        mesObservateurs.addIfAbsent(unObservateur);
+    }
+
+    /**
+     * Désabonnement des modifications des articles
+     *
+     * @param unObservateur observateur
+     */
+    public void retirerObservateur(final ModificationsDAOInterface unObservateur) {
+        mesObservateurs.remove(unObservateur);
+    }
+
+    /**
+     * Lecture asynchrone
+     *
+     * @param uneLecture requête (exécutée sur un thread de lecture)
+     * @param unRetour   retour sur le thread UI (peut être null)
+     * @param <T>        type du résultat
+     * @return Future de la requête (null si non lancée)
+     */
+    public <T> Future<T> lire(final Callable<T> uneLecture, final ResultatDAOInterface<T> unRetour) {
+        return soumettre(mesLecteurs, uneLecture, unRetour);
+    }
+
+    /**
+     * Ecriture asynchrone (sérialisée avec les autres écritures)
+     *
+     * @param uneEcriture requête (exécutée sur le thread d'écriture)
+     * @return Future de la requête (null si non lancée)
+     */
+    public Future<Void> ecrire(final Runnable uneEcriture) {
+        return ecrire(uneEcriture, null);
+    }
+
+    /**
+     * Ecriture asynchrone (sérialisée avec les autres écritures), suivie d'une action sur le thread UI
+     *
+     * @param uneEcriture requête (exécutée sur le thread d'écriture)
+     * @param unRetourUI  action sur le thread UI une fois l'écriture effectuée (peut être null)
+     * @return Future de la requête (null si non lancée)
+     */
+    public Future<Void> ecrire(final Runnable uneEcriture, final Runnable unRetourUI) {
+        return soumettre(monEcrivain, () -> {
+            uneEcriture.run();
+            return null;
+        }, (unRetourUI == null ? null : (Void v) -> unRetourUI.run()));
+    }
+
+    /**
+     * Ecriture asynchrone ne portant que sur les commentaires, suivie d'une action sur le thread UI
+     * BDD séparée des commentaires : exécutée en parallèle des écritures des articles, sans ordre avec celles-ci
+     * Sinon : identique à ecrire()
+     *
+     * @param uneEcriture requête (commentaires uniquement)
+     * @param unRetourUI  action sur le thread UI une fois l'écriture effectuée (peut être null)
+     * @return Future de la requête (null si non lancée)
+     */
+    public Future<Void> ecrireCommentaires(final Runnable uneEcriture, final Runnable unRetourUI) {
+        if (!monDAO.isBDDCommentairesSeparee()) {
+            return ecrire(uneEcriture, unRetourUI);
+        }
+        return soumettre(monEcrivainCommentaires, () -> {
+            uneEcriture.run();
+            return null;
+        }, (unRetourUI == null ? null : (Void v) -> unRetourUI.run()));
+    }
+
+    /**
+     * Ecriture asynchrone suivie d'une lecture devant voir le résultat de l'écriture (exécutées sur le thread d'écriture)
+     *
+     * @param uneRequete requête
+     * @param unRetour   retour sur le thread UI (peut être null)
+     * @param <T>        type du résultat
+     * @return Future de la requête (null si non lancée)
+     */
+    public <T> Future<T> ecrireEtLire(final Callable<T> uneRequete, final ResultatDAOInterface<T> unRetour) {
+        return soumettre(monEcrivain, uneRequete, unRetour);
+    }
+
+    /**
+     * Soumission d'une requête à un executor
+     *
+     * @param unExecutor executor
+     * @param uneRequete requête
+     * @param unRetour   retour sur le thread UI (peut être null)
+     * @param <T>        type du résultat
+     * @return Future de la requête (null si non lancée)
+     */
+    private <T> Future<T> soumettre(final ExecutorService unExecutor, final Callable<T> uneRequete, final ResultatDAOInterface<T> unRetour) {
+        try {
+            return unExecutor.submit(() -> {
+                T monResultat = null;
+                try {
+                    monResultat = uneRequete.call();
+                } catch (Exception e) {
+                    // DEBUG
+                    if (Constantes.DEBUG) {
+                        Log.e("AsyncDAO", "soumettre() - erreur lors de la requête", e);
+                    }
+                }
+                // Y compris après une erreur : les écritures déjà validées sont publiées
+                if (unExecutor == monEcrivain) {
+                    publierModifications();
+                }
+                if (unRetour != null) {
+                    final T leResultat = monResultat;
+                    monHandlerUI.post(() -> unRetour.resultatDAO(leResultat));
+                }
+                return monResultat;
+            });
+        } catch (RejectedExecutionException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("AsyncDAO", "soumettre() - RejectedExecutionException", e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Publie aux observateurs les modifications des articles effectuées par la dernière écriture (sur le thread d'écriture)
+     * Les résumés des articles sont chargés avant toute autre écriture => les modifications sont publiées dans l'ordre des écritures
+     */
+    private void publierModifications() {
+        ModificationsArticles mesModifications = monDAO.extraireModifications();
+        if (mesModifications == null || mesObservateurs.isEmpty()) {
+            return;
+        }
+        try {
+            monDAO.chargerModifications(mesModifications);
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("AsyncDAO", "publierModifications() - erreur SQL", e);
+            }
+            // Résumés non disponibles => rechargement de la liste par les observateurs
+            mesModifications.noterRechargement();
+        }
+        monHandlerUI.post(() -> {
+            for (ModificationsDAOInterface unObservateur : mesObservateurs) {
+                unObservateur.modificationsArticles(mesModifications);
+            }
+        });
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.utils.Statistiques;
+
+import java.util.Arrays;
+
+/**
+ * Cache LRU des articles chargés par DAO.chargerArticle(), par ID d'article.
+ * Capacité faible => tableaux d'int parcourus linéairement, sans objet par entrée ni boxing des ID.
+ * Toute écriture sur un article l'invalide (cf DAO). Une lecture commencée avant une invalidation n'est pas mise en cache.
+ *
+ * @author Anael
+ */
+final class CacheArticles {
+    /**
+     * ID des articles en cache (significatif si l'article correspondant est non null)
+     */
+    private final int[] mesIds;
+    /**
+     * Articles en cache
+     */
+    private final ArticleItem[] mesArticles;
+    /**
+     * Dernière utilisation de chaque entrée
+     */
+    private final long[] mesUtilisations;
+    /**
+     * Horloge des utilisations
+     */
+    private long monHorloge = 0;
+    /**
+     * Version des données, incrémentée à chaque invalidation
+     */
+    private int maVersion = 0;
+
+    /**
+     * Cache de quelques articles
+     *
+     * @param uneCapacite nombre maximum d'articles en cache
+     */
+    CacheArticles(final int uneCapacite) {
+        mesIds = new int[uneCapacite];
+        mesArticles = new ArticleItem[uneCapacite];
+        mesUtilisations = new long[uneCapacite];
+    }
+
+    /**
+     * Article en cache
+     *
+     * @param idArticle ID de l'article
+     * @return article, null si absent
+     */
+    synchronized ArticleItem get(final int idArticle) {
+        int maPosition = chercher(idArticle);
+        if (maPosition == -1) {
+            Statistiques.incrementer(Statistiques.CACHE_ARTICLES_ECHECS);
+            return null;
+        }
+        mesUtilisations[maPosition] = ++monHorloge;
+        Statistiques.incrementer(Statistiques.CACHE_ARTICLES_SUCCES);
+        return mesArticles[maPosition];
+    }
+
+    /**
+     * Version actuelle des données, à relever avant la lecture en BDD d'un article à mettre en cache
+     *
+     * @return version
+     */
+    synchronized int getVersion() {
+        return maVersion;
+    }
+
+    /**
+     * Met un article en cache (en remplaçant le moins récemment utilisé si besoin)
+     *
+     * @param idArticle     ID de l'article
+     * @param unArticle     article lu en BDD
+     * @param uneVersion    version relevée avant la lecture en BDD
+     */
+    synchronized void mettre(final int idArticle, final ArticleItem unArticle, final int uneVersion) {
+        // Données modifiées pendant la lecture : l'article lu est peut-être déjà obsolète
+        if (uneVersion != maVersion) {
+            return;
+        }
+        int maPosition = chercher(idArticle);
+        if (maPosition == -1) {
+            // Place libre, sinon le moins récemment utilisé
+            maPosition = 0;
+            for (int i = 0; i < mesArticles.length; i++) {
+                if (mesArticles[i] == null) {
+                    maPosition = i;
+                    break;
+                }
+                if (mesUtilisations[i] < mesUtilisations[maPosition]) {
+                    maPosition = i;
+                }
+            }
+        }
+        mesIds[maPosition] = idArticle;
+        mesArticles[maPosition] = unArticle;
+        mesUtilisations[maPosition] = ++monHorloge;
+    }
+
+    /**
+     * Invalide un article (à appeler après l'écriture en BDD)
+     *
+     * @param idArticle ID de l'article
+     */
+    synchronized void invalider(final int idArticle) {
+        maVersion++;
+        int maPosition = chercher(idArticle);
+        if (maPosition != -1) {
+            mesArticles[maPosition] = null;
+        }
+    }
+
+    /**
+     * Invalide tous les articles (à appeler après l'écriture en BDD)
+     */
+    synchronized void vider() {
+        maVersion++;
+        Arrays.fill(mesArticles, null);
+    }
+
+    /**
+     * Position d'un article dans le cache
+     *
+     * @param idArticle ID de l'article
+     * @return position, -1 si absent
+     */
+    private int chercher(final int idArticle) {
+        for (int i = 0; i < mesIds.length; i++) {
+            if (mesIds[i] == idArticle && mesArticles[i] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
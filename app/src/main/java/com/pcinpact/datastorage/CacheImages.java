@@ -0,0 +1,318 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.disklrucache.DiskLruCache;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.SafeKeyGenerator;
+import com.bumptech.glide.signature.ObjectKey;
+import com.pcinpact.utils.Constantes;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache disque des images (Glide), dans le même répertoire et au même format que le cache par défaut de Glide.
+ * Permet au nettoyage du cache (cf CacheManager) de supprimer les images des articles supprimés, de protéger celles des
+ * articles épinglés et de modifier la taille maximale sans redémarrer l'application.
+ * Les images téléchargées sont enregistrées telles quelles (DiskCacheStrategy.AUTOMATIC) : la clef d'une image est
+ * celle de son URL.
+ *
+ * @author Anael
+ */
+public final class CacheImages implements DiskCache {
+    /**
+     * Version et nombre de valeurs par entrée du journal (cf DiskLruCacheWrapper)
+     */
+    private static final int VERSION_JOURNAL = 1;
+    private static final int NB_VALEURS = 1;
+    /**
+     * Nombre de verrous d'écriture (une clef => un verrou)
+     */
+    private static final int NB_VERROUS = 16;
+    /**
+     * Images d'un contenu HTML (attribut src entre guillemets, cf NettoyeurHTML)
+     */
+    private static final Pattern PATTERN_IMAGE = Pattern.compile("<img\\s[^>]*?\\bsrc=\"([^\"]*)\"");
+
+    /**
+     * Instance du cache
+     */
+    private static CacheImages instanceOfCacheImages = null;
+
+    /**
+     * Répertoire du cache
+     */
+    private final File monRepertoire;
+    /**
+     * Noms des fichiers du cache
+     */
+    private final SafeKeyGenerator monGenerateurClefs = new SafeKeyGenerator();
+    /**
+     * Une seule écriture par clef (DiskLruCache.edit() retourne null sinon)
+     */
+    private final ReentrantLock[] mesVerrous = new ReentrantLock[NB_VERROUS];
+    /**
+     * Taille maximale (octets)
+     */
+    private long maTailleMax;
+    /**
+     * Cache, ouvert à la première utilisation (lecture du journal : hors thread UI)
+     */
+    private DiskLruCache monCache = null;
+
+    /**
+     * Cache disque des images
+     *
+     * @param unRepertoire répertoire du cache
+     * @param uneTailleMax taille maximale (octets)
+     */
+    CacheImages(final File unRepertoire, final long uneTailleMax) {
+        monRepertoire = unRepertoire;
+        maTailleMax = uneTailleMax;
+        for (int i = 0; i < NB_VERROUS; i++) {
+            mesVerrous[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Fournit l'instance du cache des images
+     *
+     * @param unContext context de l'application
+     * @return cache des images
+     */
+    public static synchronized CacheImages getInstance(final Context unContext) {
+        if (instanceOfCacheImages == null) {
+            Context monContext = unContext.getApplicationContext();
+            instanceOfCacheImages = new CacheImages(new File(monContext.getCacheDir(), DiskCache.Factory.DEFAULT_DISK_CACHE_DIR), CacheManager.getTailleMaxImages(monContext));
+        }
+        return instanceOfCacheImages;
+    }
+
+    /**
+     * Cache, ouvert si besoin
+     *
+     * @return DiskLruCache
+     * @throws IOException erreur de lecture du journal
+     */
+    private synchronized DiskLruCache getCache() throws IOException {
+        if (monCache == null) {
+            monCache = DiskLruCache.open(monRepertoire, VERSION_JOURNAL, NB_VALEURS, maTailleMax);
+        }
+        return monCache;
+    }
+
+    @Override
+    public File get(final Key key) {
+        try {
+            DiskLruCache.Value maValeur = getCache().get(monGenerateurClefs.getSafeKey(key));
+            if (maValeur != null) {
+                return maValeur.getFile(0);
+            }
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "get()", e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(final Key key, final Writer writer) {
+        String maClef = monGenerateurClefs.getSafeKey(key);
+        ReentrantLock monVerrou = mesVerrous[(maClef.hashCode() & Integer.MAX_VALUE) % NB_VERROUS];
+        monVerrou.lock();
+        try {
+            DiskLruCache monCacheOuvert = getCache();
+            // Déjà écrite
+            if (monCacheOuvert.get(maClef) != null) {
+                return;
+            }
+            DiskLruCache.Editor monEditeur = monCacheOuvert.edit(maClef);
+            if (monEditeur == null) {
+                throw new IllegalStateException("Écriture concurrente de " + maClef);
+            }
+            try {
+                if (writer.write(monEditeur.getFile(0))) {
+                    monEditeur.commit();
+                }
+            } finally {
+                monEditeur.abortUnlessCommitted();
+            }
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "put()", e);
+            }
+        } finally {
+            monVerrou.unlock();
+        }
+    }
+
+    @Override
+    public void delete(final Key key) {
+        try {
+            getCache().remove(monGenerateurClefs.getSafeKey(key));
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "delete()", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        try {
+            getCache().delete();
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "clear()", e);
+            }
+        } finally {
+            // Réouverture (cache vide) à la prochaine utilisation
+            monCache = null;
+        }
+    }
+
+    /**
+     * Supprime des images du cache
+     *
+     * @param desUrls URL des images
+     * @return nombre d'images supprimées
+     */
+    public int supprimer(final Collection<String> desUrls) {
+        int nbSupprimees = 0;
+        try {
+            DiskLruCache monCacheOuvert = getCache();
+            for (String uneUrl : desUrls) {
+                if (monCacheOuvert.remove(getClef(uneUrl))) {
+                    nbSupprimees++;
+                }
+            }
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "supprimer()", e);
+            }
+        }
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("CacheImages", "supprimer() - " + nbSupprimees + " images supprimées sur " + desUrls.size());
+        }
+        return nbSupprimees;
+    }
+
+    /**
+     * Marque des images comme les plus récemment utilisées : elles seront supprimées en dernier
+     *
+     * @param desUrls URL des images
+     */
+    public void utiliser(final Collection<String> desUrls) {
+        try {
+            DiskLruCache monCacheOuvert = getCache();
+            for (String uneUrl : desUrls) {
+                monCacheOuvert.get(getClef(uneUrl));
+            }
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "utiliser()", e);
+            }
+        }
+    }
+
+    /**
+     * Modifie la taille maximale, les images les moins récemment utilisées étant supprimées si besoin
+     *
+     * @param uneTailleMax taille maximale (octets)
+     */
+    public synchronized void setTailleMax(final long uneTailleMax) {
+        maTailleMax = uneTailleMax;
+        if (monCache != null) {
+            monCache.setMaxSize(uneTailleMax);
+        }
+    }
+
+    /**
+     * Taille maximale
+     *
+     * @return taille en octets
+     */
+    public synchronized long getTailleMax() {
+        return maTailleMax;
+    }
+
+    /**
+     * Taille des images du cache. A lancer hors thread UI.
+     *
+     * @return taille en octets
+     */
+    public long getTaille() {
+        try {
+            return getCache().size();
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CacheImages", "getTaille()", e);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Nom dans le cache d'une image téléchargée : clef de son URL (GlideUrl), sans signature
+     *
+     * @param uneUrl URL de l'image
+     * @return nom du fichier
+     */
+    String getClef(@NonNull final String uneUrl) {
+        return monGenerateurClefs.getSafeKey(new ObjectKey(uneUrl));
+    }
+
+    /**
+     * URL des images d'un contenu HTML, telles que transmises à l'ImageGetter
+     *
+     * @param unContenu contenu HTML
+     * @return URL des images
+     */
+    static ArrayList<String> extraireUrlsImages(final String unContenu) {
+        ArrayList<String> mesUrls = new ArrayList<>();
+        if (unContenu != null) {
+            Matcher monMatcher = PATTERN_IMAGE.matcher(unContenu);
+            while (monMatcher.find()) {
+                mesUrls.add(monMatcher.group(1).replace("&quot;", "\"").replace("&amp;", "&"));
+            }
+        }
+        return mesUrls;
+    }
+}
@@ -24,13 +24,12 @@ import android.util.Log;
 
 import com.bumptech.glide.Glide;
 import com.pcinpact.R;
-import com.pcinpact.items.ArticleItem;
 import com.pcinpact.utils.Constantes;
 import com.pcinpact.utils.MyDateUtils;
 
 import java.io.File;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Gestion du cache de l'application
@@ -54,27 +53,115 @@ public class CacheManager {
         Context monContext = unContext.getApplicationContext();
 
         // Connexion à la BDD
-        DAO monDAO = DAO.getInstance(monContext);
+        AsyncDAO monAsyncDAO = AsyncDAO.getInstance(monContext);
+        DAO monDAO = monAsyncDAO.getDAO();
 
         // Nombre de jours d'articles demandés par l'utilisateur
         int nbJours = Constantes.getOptionInt(monContext, R.string.idOptionNbJoursArticles, R.string.defautOptionNbJoursArticles);
         long timeStampMinArticle = MyDateUtils.timeStampDateActuelleMinus(nbJours);
 
-        // Chargement de tous les articles de la BDD
-        ArrayList<ArticleItem> mesArticles = monDAO.chargerArticlesTriParDate();
+        // Nombre de commentaires conservés par article (0 : tous)
+        int nbCommentairesMax = Constantes.getOptionInt(monContext, R.string.idOptionRetentionCommentaires, R.string.defautOptionRetentionCommentaires);
 
-        // Boucle sur les articles
-        for (ArticleItem unArticle : mesArticles) {
-            // Si il est trop vieux...
-            if (unArticle.getTimeStampPublication() < timeStampMinArticle) {
+        // Budget de stockage
+        long monBudget = getBudgetStockage(monContext);
+
+        // Suppression des articles trop vieux (et de leurs commentaires et images) en quelques requêtes, sur le thread d'écriture
+        // puis des commentaires les plus anciens des articles restants
+        // puis des articles les moins récemment lus jusqu'à respecter le budget (place non occupée par les images)
+        monAsyncDAO.ecrire(() -> {
+            CacheImages mesImages = CacheImages.getInstance(monContext);
+
+            monDAO.supprimerArticlesAvant(timeStampMinArticle);
+            monDAO.supprimerCommentairesAnciens(nbCommentairesMax);
+            // Images des articles épinglés : les plus récemment utilisées, supprimées en dernier par le cache des images
+            mesImages.utiliser(monDAO.chargerUrlsImagesEpingles());
+            monDAO.supprimerArticlesHorsBudget(partager(monBudget, mesImages.getTaille()));
+
+            // Part du budget non occupée par les articles, appliquée immédiatement et lue au prochain démarrage de Glide
+            long tailleMaxImages = partager(monBudget, monDAO.getTailleUtilisee());
+            mesImages.setTailleMax(tailleMaxImages);
+            Constantes.setOptionInt(monContext, R.string.idOptionTailleMaxImages, String.valueOf(tailleMaxImages / 1024));
+        });
+    }
+
+    /**
+     * Budget de stockage (articles, commentaires et images) défini par l'utilisateur
+     *
+     * @param unContext context application
+     * @return taille en octets
+     */
+    public static long getBudgetStockage(final Context unContext) {
+        return Constantes.getOptionInt(unContext, R.string.idOptionTailleStockage, R.string.defautOptionTailleStockage) * 1024L * 1024L;
+    }
+
+    /**
+     * Taille maximale du cache des images (CacheImages) : budget non occupé par les articles lors du dernier nettoyage
+     * du cache (cf nettoyerCache()). Ne lit que les préférences (ouverture du cache des images par Glide).
+     * Les images des articles supprimés sont supprimées avec eux, puis le cache supprime les images les moins récemment
+     * affichées, celles des articles épinglés en dernier.
+     *
+     * @param unContext context application
+     * @return taille en octets
+     */
+    public static long getTailleMaxImages(final Context unContext) {
+        long maTaille = Constantes.getOptionInt(unContext, R.string.idOptionTailleMaxImages, R.string.defautOptionTailleMaxImages) * 1024L;
+        // Cache jamais nettoyé : aucun article
+        if (maTaille == 0) {
+            maTaille = partager(getBudgetStockage(unContext), 0);
+        }
+        return maTaille;
+    }
+
+    /**
+     * Place disponible sur le budget, une part minimale (cf Constantes.PART_MIN_STOCKAGE) étant garantie aux articles
+     * comme aux images
+     *
+     * @param unBudget       budget de stockage (octets)
+     * @param uneTailleAutre place occupée par l'autre catégorie (octets)
+     * @return taille en octets
+     */
+    private static long partager(final long unBudget, final long uneTailleAutre) {
+        long tailleMin = unBudget / Constantes.PART_MIN_STOCKAGE;
+        return Math.max(tailleMin, Math.min(unBudget - tailleMin, unBudget - uneTailleAutre));
+    }
+
+    /**
+     * Répartition de la place occupée (budget, articles, images). A lancer hors thread UI.
+     *
+     * @param unContext context application
+     * @return une ligne par métrique
+     */
+    public static String chargerRepartitionStockage(final Context unContext) {
+        Context monContext = unContext.getApplicationContext();
+        DAO monDAO = AsyncDAO.getInstance(monContext).getDAO();
+        CacheImages mesImages = CacheImages.getInstance(monContext);
+
+        return String.format(Constantes.LOCALE, "Budget de stockage : %d Mo\n", getBudgetStockage(monContext) / 1024 / 1024)
+                + monDAO.chargerRepartitionStockage()
+                + String.format(Constantes.LOCALE, "Images : %d Ko (maximum : %d Ko)", mesImages.getTaille() / 1024, mesImages.getTailleMax() / 1024);
+    }
+
+    /**
+     * Maintenance de la BDD (espace libre, index), au plus une fois par Constantes.DELAI_MAINTENANCE_BDD.
+     * A lancer lorsque l'application est au repos : la maintenance est exécutée sur le thread d'écriture.
+     *
+     * @param unContext context application
+     */
+    public static void maintenanceBDD(final Context unContext) {
+        AsyncDAO monAsyncDAO = AsyncDAO.getInstance(unContext.getApplicationContext());
+        DAO monDAO = monAsyncDAO.getDAO();
+
+        monAsyncDAO.ecrire(() -> {
+            long maintenant = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            if (maintenant - monDAO.chargerDateRefresh(Constantes.DB_REFRESH_ID_MAINTENANCE) >= Constantes.DELAI_MAINTENANCE_BDD) {
                 // DEBUG
                 if (Constantes.DEBUG) {
-                    Log.w("CacheManager", "nettoyerCache() - suppression de " + unArticle.getTitre());
+                    Log.d("CacheManager", "maintenanceBDD()");
                 }
-                // Je le supprime
-                monDAO.supprimerArticle(unArticle.getId(), true);
+                monDAO.maintenance();
             }
-        }
+        });
     }
 
     /**
@@ -93,12 +180,12 @@ public class CacheManager {
             Context monContext = unContext.getApplicationContext();
 
             // Connexion sur la BDD
-            DAO monDAO = DAO.getInstance(monContext);
+            AsyncDAO monAsyncDAO = AsyncDAO.getInstance(monContext);
 
             /*
              * Vidage BDD
              */
-            monDAO.vider();
+            monAsyncDAO.ecrire(monAsyncDAO.getDAO()::vider);
 
             /*
              * Les images
@@ -139,12 +226,12 @@ public class CacheManager {
             Context monContext = unContext.getApplicationContext();
 
             // Connexion sur la BDD
-            DAO monDAO = DAO.getInstance(monContext);
+            AsyncDAO monAsyncDAO = AsyncDAO.getInstance(monContext);
 
             /*
              * Vidage BDD
              */
-            monDAO.viderCommentaires();
+            monAsyncDAO.ecrire(monAsyncDAO.getDAO()::viderCommentaires);
         } catch (Exception e) {
             // DEBUG
             if (Constantes.DEBUG) {
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.util.Log;
+
+import com.pcinpact.items.CommentaireItem;
+import com.pcinpact.items.Item;
+import com.pcinpact.network.AsyncHTMLDownloader;
+import com.pcinpact.network.RefreshDisplayInterface;
+import com.pcinpact.utils.Constantes;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Commentaires d'un article chargés par pages depuis la BDD, au fil du défilement.
+ * Pagination par clef (idarticle, id) : une page est lue à partir de l'ID du dernier commentaire de la page précédente.
+ * Seules les pages récemment affichées sont conservées en mémoire, quelle que soit la taille du fil de commentaires.
+ * Les commentaires les plus anciens supprimés de la BDD (cf DAO.supprimerCommentairesAnciens()) sont retéléchargés
+ * par pages du site lorsqu'ils sont affichés, et conservés en mémoire uniquement.
+ * <p>
+ * A utiliser depuis le thread UI uniquement (les requêtes sont exécutées via AsyncDAO).
+ *
+ * @author Anael
+ */
+public final class CommentairesPagines extends AbstractList<CommentaireItem> implements RefreshDisplayInterface {
+    /**
+     * Nombre de commentaires par page
+     */
+    static final int TAILLE_PAGE = 50;
+    /**
+     * Nombre de pages conservées en mémoire
+     */
+    static final int NB_PAGES_MAX = 5;
+    /**
+     * Distance (en commentaires) à la fin d'une page à partir de laquelle la page voisine est préchargée
+     */
+    private static final int MARGE_PRECHARGEMENT = 10;
+    /**
+     * Nombre de pages du site (commentaires supprimés de la BDD) conservées en mémoire
+     */
+    static final int NB_PAGES_SITE_MAX = 10;
+
+    /**
+     * Accès asynchrone à la BDD
+     */
+    private final AsyncDAO monAsyncDAO;
+    /**
+     * ID de l'article
+     */
+    private final int idArticle;
+    /**
+     * Texte affiché pour un commentaire en cours de chargement
+     */
+    private final String texteChargement;
+    /**
+     * Notification du chargement d'une page (MàJ de l'affichage)
+     */
+    private final Runnable maNotification;
+    /**
+     * Pages en mémoire (numéro de page => commentaires), de la moins à la plus récemment utilisée
+     */
+    private final LinkedHashMap<Integer, ArrayList<CommentaireItem>> mesPages = new LinkedHashMap<Integer, ArrayList<CommentaireItem>>(NB_PAGES_MAX + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ArrayList<CommentaireItem>> eldest) {
+            return size() > NB_PAGES_MAX;
+        }
+    };
+    /**
+     * ID du dernier commentaire de chaque page déjà lue (clef de la page suivante)
+     */
+    private final HashMap<Integer, Integer> mesIdFinPage = new HashMap<>();
+    /**
+     * Pages en cours de chargement
+     */
+    private final HashSet<Integer> mesPagesEnChargement = new HashSet<>();
+    /**
+     * Pages du site retéléchargées (numéro de page du site => commentaires), de la moins à la plus récemment utilisée
+     */
+    private final LinkedHashMap<Integer, ArrayList<CommentaireItem>> mesPagesSite = new LinkedHashMap<Integer, ArrayList<CommentaireItem>>(NB_PAGES_SITE_MAX + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ArrayList<CommentaireItem>> eldest) {
+            return size() > NB_PAGES_SITE_MAX;
+        }
+    };
+    /**
+     * Pages du site en cours de téléchargement (URL => numéro de page du site)
+     */
+    private final HashMap<String, Integer> mesPagesSiteEnChargement = new HashMap<>();
+    /**
+     * Nombre de commentaires les plus anciens supprimés de la BDD (rang du premier commentaire en BDD)
+     */
+    private int nbOublies = 0;
+    /**
+     * Nombre total de commentaires de l'article en BDD
+     */
+    private int nbCommentaires = 0;
+    /**
+     * Version des données (les chargements lancés avant une actualisation sont ignorés)
+     */
+    private int maVersion = 0;
+
+    /**
+     * Commentaires d'un article (vide tant que actualiser() n'a pas été appelé)
+     *
+     * @param unAsyncDAO      accès asynchrone à la BDD
+     * @param unIdArticle     ID de l'article
+     * @param unTexteChargement texte d'un commentaire en cours de chargement
+     * @param uneNotification appelée (thread UI) à chaque page chargée
+     */
+    public CommentairesPagines(final AsyncDAO unAsyncDAO, final int unIdArticle, final String unTexteChargement, final Runnable uneNotification) {
+        monAsyncDAO = unAsyncDAO;
+        idArticle = unIdArticle;
+        texteChargement = unTexteChargement;
+        maNotification = uneNotification;
+    }
+
+    /**
+     * Nouveau nombre total de commentaires en BDD : seules la dernière page (incomplète) et les suivantes sont à relire
+     *
+     * @param unNbOublies      nombre de commentaires les plus anciens de l'article supprimés de la BDD
+     * @param unNbCommentaires nombre de commentaires de l'article en BDD
+     */
+    public void actualiser(final int unNbOublies, final int unNbCommentaires) {
+        if (unNbOublies != nbOublies) {
+            // Premier commentaire en BDD modifié => tout relire
+            mesPages.clear();
+            mesIdFinPage.clear();
+            mesPagesSite.clear();
+            mesPagesSiteEnChargement.clear();
+        } else if (unNbCommentaires < nbCommentaires) {
+            // Commentaires supprimés => tout relire
+            mesPages.clear();
+            mesIdFinPage.clear();
+        } else if (nbCommentaires > 0) {
+            int dernierePage = (nbCommentaires - 1) / TAILLE_PAGE;
+            supprimerPagesDepuis(dernierePage);
+        }
+        nbOublies = unNbOublies;
+        nbCommentaires = unNbCommentaires;
+        mesPagesEnChargement.clear();
+        maVersion++;
+
+        maNotification.run();
+    }
+
+    /**
+     * Oublie une page et les suivantes
+     *
+     * @param unePage première page à oublier
+     */
+    private void supprimerPagesDepuis(final int unePage) {
+        Iterator<Integer> mesClefs = mesPages.keySet().iterator();
+        while (mesClefs.hasNext()) {
+            if (mesClefs.next() >= unePage) {
+                mesClefs.remove();
+            }
+        }
+        mesClefs = mesIdFinPage.keySet().iterator();
+        while (mesClefs.hasNext()) {
+            if (mesClefs.next() >= unePage) {
+                mesClefs.remove();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return nbOublies + nbCommentaires;
+    }
+
+    /**
+     * Commentaire au rang demandé. S'il n'est pas en mémoire, sa page est chargée et un commentaire "Chargement..." est fourni.
+     *
+     * @param unRang rang du commentaire (0 ... n-1)
+     * @return commentaire
+     */
+    @Override
+    public CommentaireItem get(final int unRang) {
+        if (unRang < 0 || unRang >= size()) {
+            throw new IndexOutOfBoundsException("Rang " + unRang + " / " + size());
+        }
+        if (unRang < nbOublies) {
+            return getCommentaireOublie(unRang);
+        }
+        // Rang parmi les commentaires en BDD
+        int rangBDD = unRang - nbOublies;
+        int maPage = rangBDD / TAILLE_PAGE;
+        int rangDansPage = rangBDD % TAILLE_PAGE;
+
+        // Préchargement de la page voisine
+        if (rangDansPage >= TAILLE_PAGE - MARGE_PRECHARGEMENT) {
+            chargerPage(maPage + 1);
+        } else if (rangDansPage < MARGE_PRECHARGEMENT) {
+            if (maPage == 0 && nbOublies > 0) {
+                // Dernière page du site supprimée de la BDD
+                telechargerPageSite((nbOublies - 1) / Constantes.NB_COMMENTAIRES_PAR_PAGE + 1);
+            } else {
+                chargerPage(maPage - 1);
+            }
+        }
+
+        ArrayList<CommentaireItem> mesCommentaires = mesPages.get(maPage);
+        if (mesCommentaires != null && rangDansPage < mesCommentaires.size()) {
+            return mesCommentaires.get(rangDansPage);
+        }
+        chargerPage(maPage);
+
+        return getCommentaireEnChargement(unRang);
+    }
+
+    /**
+     * Commentaire supprimé de la BDD. S'il n'est pas en mémoire, sa page du site est téléchargée.
+     *
+     * @param unRang rang du commentaire (0 ... nbOublies-1)
+     * @return commentaire
+     */
+    private CommentaireItem getCommentaireOublie(final int unRang) {
+        // Pages du site numérotées à partir de 1
+        int maPageSite = unRang / Constantes.NB_COMMENTAIRES_PAR_PAGE + 1;
+        int rangDansPage = unRang % Constantes.NB_COMMENTAIRES_PAR_PAGE;
+
+        ArrayList<CommentaireItem> mesCommentaires = mesPagesSite.get(maPageSite);
+        if (mesCommentaires != null && rangDansPage < mesCommentaires.size()) {
+            return mesCommentaires.get(rangDansPage);
+        }
+        telechargerPageSite(maPageSite);
+
+        return getCommentaireEnChargement(unRang);
+    }
+
+    /**
+     * Commentaire affiché en attendant le chargement de sa page
+     *
+     * @param unRang rang du commentaire (0 ... n-1)
+     * @return commentaire
+     */
+    private CommentaireItem getCommentaireEnChargement(final int unRang) {
+        CommentaireItem monCommentaire = new CommentaireItem();
+        monCommentaire.setIdArticle(idArticle);
+        monCommentaire.setNumeroAffichage(unRang + 1);
+        monCommentaire.setCommentaire(texteChargement);
+        return monCommentaire;
+    }
+
+    /**
+     * Lance le chargement d'une page si elle n'est ni en mémoire ni déjà en cours de chargement
+     *
+     * @param unePage numéro de la page
+     */
+    private void chargerPage(final int unePage) {
+        if (unePage < 0 || unePage * TAILLE_PAGE >= nbCommentaires || mesPages.containsKey(unePage) || mesPagesEnChargement.contains(unePage)) {
+            return;
+        }
+        mesPagesEnChargement.add(unePage);
+
+        // Clef de la page : ID du dernier commentaire de la page précédente (si connu)
+        final Integer idFinPagePrecedente = (unePage == 0 ? Integer.valueOf(0) : mesIdFinPage.get(unePage - 1));
+        final int maVersionChargement = maVersion;
+        final int rangPremier = nbOublies + unePage * TAILLE_PAGE;
+        final DAO monDAO = monAsyncDAO.getDAO();
+
+        monAsyncDAO.lire(() -> {
+            int idApres;
+            if (idFinPagePrecedente != null) {
+                idApres = idFinPagePrecedente;
+            } else {
+                // Saut direct (réouverture au dernier commentaire lu) : clef lue depuis l'index
+                idApres = monDAO.chargerIdCommentaireAuRang(idArticle, unePage * TAILLE_PAGE - 1);
+            }
+            return monDAO.chargerPageCommentaires(idArticle, idApres, rangPremier, TAILLE_PAGE);
+        }, (ArrayList<CommentaireItem> desCommentaires) -> {
+            // Données actualisées entre temps
+            if (maVersionChargement != maVersion) {
+                return;
+            }
+            mesPagesEnChargement.remove(unePage);
+            if (desCommentaires == null || desCommentaires.isEmpty()) {
+                return;
+            }
+            mesPages.put(unePage, desCommentaires);
+            mesIdFinPage.put(unePage, desCommentaires.get(desCommentaires.size() - 1).getId());
+
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.d("CommentairesPagines", "chargerPage() - page " + unePage + " : " + desCommentaires.size() + " commentaires, " + mesPages.size() + " pages en mémoire");
+            }
+            maNotification.run();
+        });
+    }
+
+    /**
+     * Lance le téléchargement d'une page du site si elle n'est pas déjà en cours de téléchargement
+     *
+     * @param unePageSite numéro de la page du site (à partir de 1)
+     */
+    private void telechargerPageSite(final int unePageSite) {
+        if (mesPagesSite.containsKey(unePageSite) || mesPagesSiteEnChargement.containsValue(unePageSite)) {
+            return;
+        }
+        String monURL = Constantes.NEXT_URL_COMMENTAIRES + idArticle + Constantes.NEXT_URL_COMMENTAIRES_PARAM_PAGE + unePageSite;
+        AsyncHTMLDownloader monAHD = new AsyncHTMLDownloader(this, Constantes.HTML_COMMENTAIRES, monURL, idArticle, null);
+        // Nouvel essai au prochain affichage si la file de téléchargement est pleine
+        if (monAHD.run()) {
+            mesPagesSiteEnChargement.put(monURL, unePageSite);
+        }
+    }
+
+    /**
+     * Page du site téléchargée : les commentaires ne sont pas enregistrés en BDD (ils en seraient à nouveau supprimés)
+     */
+    @Override
+    public void downloadHTMLFini(final String uneURL, final ArrayList<? extends Item> desItems) {
+        // Données actualisées entre temps
+        Integer maPageSite = mesPagesSiteEnChargement.remove(uneURL);
+        if (maPageSite == null) {
+            return;
+        }
+        ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>(Constantes.NB_COMMENTAIRES_PAR_PAGE);
+        for (Item unItem : desItems) {
+            if (unItem instanceof CommentaireItem) {
+                CommentaireItem monCommentaire = (CommentaireItem) unItem;
+                // Définition du numéro d'affichage (1 ... n)
+                monCommentaire.setNumeroAffichage((maPageSite - 1) * Constantes.NB_COMMENTAIRES_PAR_PAGE + mesCommentaires.size() + 1);
+                mesCommentaires.add(monCommentaire);
+            }
+        }
+        // Erreur de téléchargement : nouvel essai au prochain affichage
+        if (mesCommentaires.isEmpty()) {
+            return;
+        }
+        mesPagesSite.put(maPageSite, mesCommentaires);
+
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("CommentairesPagines", "downloadHTMLFini() - page du site " + maPageSite + " : " + mesCommentaires.size() + " commentaires, " + mesPagesSite.size() + " pages du site en mémoire");
+        }
+        maNotification.run();
+    }
+}
\ No newline at end of file
@@ -21,31 +21,69 @@ package com.pcinpact.datastorage;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import com.pcinpact.R;
 import com.pcinpact.items.ArticleItem;
 import com.pcinpact.items.CommentaireItem;
+import com.pcinpact.utils.CodecContenu;
 import com.pcinpact.utils.Constantes;
+import com.pcinpact.utils.MyDateUtils;
+import com.pcinpact.utils.Recherche;
+import com.pcinpact.utils.Statistiques;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Abstraction de la BDD sqlite
+ * Instance unique (getInstance()), utilisable depuis plusieurs threads : écritures sérialisées par la connexion d'écriture
+ * (et monVerrouEcriture pour les requêtes précompilées), lectures concurrentes sur le pool de connexions WAL.
+ * Option : commentaires dans une BDD séparée (écritures sous monVerrouCommentaires, en parallèle de celles des articles).
  *
  * @author Anael
  */
 public final class DAO extends SQLiteOpenHelper {
     /**
-     * Version de la BDD (à mettre à jour à chaque changement du schèma)
+     * Version de la BDD (à mettre à jour à chaque changement du schèma, avec une migration dans MigrationsBDD)
      */
-    private static final int BDD_VERSION = 11;
+    static final int BDD_VERSION = 17;
     /**
      * Nom de la BDD
      */
     private static final String BDD_NOM = "nxidb";
+    /**
+     * Suffixe du nom de la BDD des commentaires (option de stockage séparé)
+     */
+    private static final String BDD_SUFFIXE_COMMENTAIRES = "_commentaires";
+    /**
+     * Suffixe du nom du répertoire des fichiers du contenu des articles
+     */
+    private static final String BDD_SUFFIXE_CONTENUS = "_contenus";
+    /**
+     * Empreinte d'un article chargé dont le fichier du contenu est illisible (cf cursorToArticleItem())
+     */
+    private static final long EMPREINTE_CONTENU_ILLISIBLE = Long.MIN_VALUE;
+    /**
+     * Version de la BDD des commentaires
+     */
+    private static final int BDD_VERSION_COMMENTAIRES = 1;
 
     /**
      * Table articles
@@ -103,10 +141,50 @@ public final class DAO extends SQLiteOpenHelper {
      * Champ articles -> ID du dernier commentaire connu de l'article
      */
     private static final String ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR = "idDernierCommentaireParseur";
+    /**
+     * Champ articles => Empreinte du contenu brut de l'API
+     */
+    private static final String ARTICLE_EMPREINTE = "empreinte";
+    /**
+     * Champ articles => Contenu brut (parsage différé)
+     */
+    private static final String ARTICLE_CONTENU_BRUT = "contenubrut";
+    /**
+     * Champ articles => Date de dernière lecture
+     */
+    private static final String ARTICLE_DATE_LECTURE = "datelecture";
+    /**
+     * Champ articles => Epinglé (conservé quelle que soit la place occupée)
+     */
+    private static final String ARTICLE_IS_EPINGLE = "isepingle";
+    /**
+     * Champ articles => Nb de commentaires les plus anciens supprimés de la BDD (cf supprimerCommentairesAnciens())
+     */
+    private static final String ARTICLE_NB_COMMENTAIRES_OUBLIES = "nbcommentairesoublies";
+    /**
+     * Colonne calculée articles => Date de dernière utilisation (lecture ou, à défaut, publication)
+     */
+    private static final String ARTICLE_DATE_UTILISATION = "MAX(IFNULL(" + ARTICLE_DATE_LECTURE + ", 0), " + ARTICLE_TIMESTAMP + ")";
+    /**
+     * Colonne calculée articles => Nb de commentaires non lus (jamais négatif)
+     */
+    private static final String ARTICLE_NB_COMMENTAIRES_NON_LUS = "MAX(IFNULL(" + ARTICLE_NB_COMMS + ", 0) - IFNULL(" + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + ", 0), 0)";
     /**
      * Toutes les colonnes à charger pour un article
      */
-    private static final String[] ARTICLE__COLONNES = new String[]{ARTICLE_ID, ARTICLE_TITRE, ARTICLE_SOUS_TITRE, ARTICLE_TIMESTAMP, ARTICLE_ILLUSTRATION_URL, ARTICLE_CONTENU, ARTICLE_NB_COMMS, ARTICLE_IS_ABONNE, ARTICLE_IS_LU, ARTICLE_DL_CONTENU_ABONNE, ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, ARTICLE_URL_SEO, ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR};
+    static final String[] ARTICLE__COLONNES = new String[]{ARTICLE_ID, ARTICLE_TITRE, ARTICLE_SOUS_TITRE, ARTICLE_TIMESTAMP, ARTICLE_ILLUSTRATION_URL, ARTICLE_CONTENU, ARTICLE_NB_COMMS, ARTICLE_IS_ABONNE, ARTICLE_IS_LU, ARTICLE_DL_CONTENU_ABONNE, ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, ARTICLE_URL_SEO, ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR, ARTICLE_EMPREINTE, ARTICLE_CONTENU_BRUT, ARTICLE_NB_COMMENTAIRES_NON_LUS, ARTICLE_IS_EPINGLE};
+    /**
+     * Colonnes d'un résumé d'article (liste des articles) : sans le contenu
+     */
+    static final String[] ARTICLE__COLONNES_RESUME = new String[]{ARTICLE_ID, ARTICLE_TITRE, ARTICLE_SOUS_TITRE, ARTICLE_TIMESTAMP, ARTICLE_ILLUSTRATION_URL, ARTICLE_NB_COMMS, ARTICLE_IS_ABONNE, ARTICLE_IS_LU, ARTICLE_DL_CONTENU_ABONNE, ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, ARTICLE_URL_SEO, ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR, ARTICLE_NB_COMMENTAIRES_NON_LUS};
+    /**
+     * Nb de commentaires non lus d'un article
+     */
+    private static final String REQUETE_NB_COMMENTAIRES_NON_LUS = "SELECT " + ARTICLE_NB_COMMENTAIRES_NON_LUS + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_ID + "=?";
+    /**
+     * Nb total de commentaires non lus, sur les articles dont les commentaires ont déjà été lus (cf affichage "(+12)" de la liste)
+     */
+    private static final String REQUETE_NB_COMMENTAIRES_NON_LUS_TOTAL = "SELECT IFNULL(SUM(" + ARTICLE_NB_COMMENTAIRES_NON_LUS + "), 0) FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + ">0";
     /**
      * Table commentaires
      */
@@ -134,7 +212,7 @@ public final class DAO extends SQLiteOpenHelper {
     /**
      * Toutes les colonnes à charger pour un commentaire
      */
-    private static final String[] COMMENTAIRE__COLONNES = new String[]{COMMENTAIRE_ID, COMMENTAIRE_ARTICLE_ID, COMMENTAIRE_AUTEUR, COMMENTAIRE_TIMESTAMP, COMMENTAIRE_CONTENU};
+    static final String[] COMMENTAIRE__COLONNES = new String[]{COMMENTAIRE_ID, COMMENTAIRE_ARTICLE_ID, COMMENTAIRE_AUTEUR, COMMENTAIRE_TIMESTAMP, COMMENTAIRE_CONTENU};
     /**
      * Table refresh (date de mise à jour)
      */
@@ -153,18 +231,273 @@ public final class DAO extends SQLiteOpenHelper {
     private static final String[] REFRESH__COLONNES = new String[]{REFRESH_TIMESTAMP};
 
     /**
-     * Table cacheImage => plus utilisée (conservé pour la suppression de la table)
+     * Index des commentaires par article (MAX(id), suppression et chargement des commentaires d'un article)
+     */
+    private static final String INDEX_COMMENTAIRES_ARTICLE = "idx_commentaires_article";
+    /**
+     * Index des articles par date de publication (liste des articles)
+     */
+    private static final String INDEX_ARTICLES_TIMESTAMP = "idx_articles_timestamp";
+
+    /**
+     * Index plein texte des articles (FTS4, docid = ID de l'article) : titre, sous-titre, contenu (texte normalisé)
+     */
+    private static final String BDD_TABLE_RECHERCHE_ARTICLES = "recherche_articles";
+    /**
+     * Index plein texte des commentaires (FTS4, docid = ID du commentaire) : contenu (texte normalisé)
+     */
+    private static final String BDD_TABLE_RECHERCHE_COMMENTAIRES = "recherche_commentaires";
+    /**
+     * Poids des colonnes de l'index des articles : titre, sous-titre, contenu
+     */
+    private static final double[] RECHERCHE_POIDS_ARTICLES = new double[]{10, 4, 1};
+    /**
+     * Poids de l'index des commentaires (par commentaire)
+     */
+    private static final double[] RECHERCHE_POIDS_COMMENTAIRES = new double[]{0.5};
+    /**
+     * Nombre maximum de résultats d'une recherche
+     */
+    private static final int RECHERCHE_NB_RESULTATS = 50;
+    /**
+     * Nombre d'articles conservés en mémoire par chargerArticle() (article affiché et ses voisins dans le slider)
+     */
+    private static final int CACHE_NB_ARTICLES = 8;
+    /**
+     * Nombre maximum de paramètres par requête (SQLITE_MAX_VARIABLE_NUMBER = 999 avant SQLite 3.32)
+     */
+    private static final int NB_PARAMETRES_MAX = 500;
+    /**
+     * Nombre de commentaires conservés avant le dernier commentaire lu (cf supprimerCommentairesAnciens())
+     */
+    private static final int RETENTION_MARGE_DERNIER_LU = 50;
+    /**
+     * Mode auto_vacuum incrémental (PRAGMA auto_vacuum)
+     */
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    /*
+     * Requêtes fréquentes, compilées une seule fois (cf getRequete())
+     */
+    /**
+     * MàJ d'un article existant (paramètres : cf lierArticle())
+     */
+    private static final String REQUETE_MAJ_ARTICLE = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_TITRE + "=?, " + ARTICLE_SOUS_TITRE + "=?, " + ARTICLE_TIMESTAMP + "=?, " + ARTICLE_ILLUSTRATION_URL + "=?, " + ARTICLE_CONTENU + "=?, " + ARTICLE_IS_ABONNE + "=?, " + ARTICLE_DL_CONTENU_ABONNE + "=?, " + ARTICLE_URL_SEO + "=?, " + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + "=?, " + ARTICLE_EMPREINTE + "=?, " + ARTICLE_CONTENU_BRUT + "=? WHERE " + ARTICLE_ID + "=?";
+    /**
+     * Ajout d'un nouvel article (paramètres : cf lierArticle() puis nb commentaires, lu, indice du dernier commentaire lu)
+     */
+    private static final String REQUETE_AJOUT_ARTICLE = "INSERT OR IGNORE INTO " + BDD_TABLE_ARTICLES + " (" + ARTICLE_TITRE + ", " + ARTICLE_SOUS_TITRE + ", " + ARTICLE_TIMESTAMP + ", " + ARTICLE_ILLUSTRATION_URL + ", " + ARTICLE_CONTENU + ", " + ARTICLE_IS_ABONNE + ", " + ARTICLE_DL_CONTENU_ABONNE + ", " + ARTICLE_URL_SEO + ", " + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + ", " + ARTICLE_EMPREINTE + ", " + ARTICLE_CONTENU_BRUT + ", " + ARTICLE_ID + ", " + ARTICLE_NB_COMMS + ", " + ARTICLE_IS_LU + ", " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    /*
+     * MàJ d'une valeur d'un article (paramètres : valeur, ID de l'article)
+     * Ligne non modifiée si la valeur est identique => le nombre de lignes modifiées indique un changement réel
+     */
+    /**
+     * MàJ de l'ID du dernier commentaire connu d'un article
+     */
+    private static final String REQUETE_MAJ_ID_DERNIER_COMMENTAIRE = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + "=?1 WHERE " + ARTICLE_ID + "=?2 AND " + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + "<>?1";
+    /**
+     * MàJ de l'indice du dernier commentaire lu d'un article
+     */
+    private static final String REQUETE_MAJ_INDICE_DERNIER_COMMENTAIRE_LU = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + "=?1 WHERE " + ARTICLE_ID + "=?2 AND " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + "<>?1";
+    /**
+     * MàJ du nombre de commentaires d'un article
+     */
+    private static final String REQUETE_MAJ_NB_COMMENTAIRES = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_NB_COMMS + "=?1 WHERE " + ARTICLE_ID + "=?2 AND " + ARTICLE_NB_COMMS + "<>?1";
+    /**
+     * Article marqué comme lu
      */
-    private static final String BDD_TABLE_CACHE_IMAGE = "cacheImage";
+    private static final String REQUETE_MARQUER_LU = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_IS_LU + "=1 WHERE " + ARTICLE_ID + "=? AND " + ARTICLE_IS_LU + "=0";
+    /**
+     * Date de dernière lecture d'un article
+     */
+    private static final String REQUETE_MAJ_DATE_LECTURE = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_DATE_LECTURE + "=?1 WHERE " + ARTICLE_ID + "=?2";
+    /**
+     * Article (dés)épinglé
+     */
+    private static final String REQUETE_EPINGLER = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_IS_EPINGLE + "=?1 WHERE " + ARTICLE_ID + "=?2 AND " + ARTICLE_IS_EPINGLE + "<>?1";
+    /**
+     * Ajout au nombre de commentaires supprimés d'un article
+     */
+    private static final String REQUETE_AJOUT_COMMENTAIRES_OUBLIES = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_NB_COMMENTAIRES_OUBLIES + "=" + ARTICLE_NB_COMMENTAIRES_OUBLIES + "+?1 WHERE " + ARTICLE_ID + "=?2";
+    /**
+     * Articles pouvant être supprimés pour respecter le budget de stockage, les moins récemment utilisés en premier
+     * (ID, octets du contenu, référence vers le fichier du contenu)
+     */
+    private static final String REQUETE_ARTICLES_A_EVINCER = "SELECT " + ARTICLE_ID + ", IFNULL(length(CAST(" + ARTICLE_CONTENU + " AS BLOB)), 0) + IFNULL(length(CAST(" + ARTICLE_CONTENU_BRUT + " AS BLOB)), 0), CASE WHEN typeof(" + ARTICLE_CONTENU + ")='blob' AND length(" + ARTICLE_CONTENU + ")=9 THEN " + ARTICLE_CONTENU + " END FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_IS_EPINGLE + "=0 ORDER BY " + ARTICLE_DATE_UTILISATION;
+    /**
+     * Illustration et contenu de quelques articles, à compléter par conditionListe() (images des articles supprimés)
+     */
+    private static final String REQUETE_IMAGES_ARTICLES_LISTE = "SELECT " + listerColonnes(ARTICLE__COLONNES) + " FROM " + BDD_TABLE_ARTICLES + " WHERE ";
+    /**
+     * Illustration et contenu des articles épinglés
+     */
+    private static final String REQUETE_IMAGES_ARTICLES_EPINGLES = "SELECT " + listerColonnes(ARTICLE__COLONNES) + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_IS_EPINGLE + "=1";
+    /**
+     * Octets des commentaires, par article
+     */
+    private static final String REQUETE_TAILLE_COMMENTAIRES = "SELECT " + COMMENTAIRE_ARTICLE_ID + ", SUM(IFNULL(length(CAST(" + COMMENTAIRE_CONTENU + " AS BLOB)), 0) + IFNULL(length(CAST(" + COMMENTAIRE_AUTEUR + " AS BLOB)), 0)) FROM " + BDD_TABLE_COMMENTAIRES + " GROUP BY " + COMMENTAIRE_ARTICLE_ID;
+    /**
+     * Nombre de commentaires des articles en ayant plus qu'un maximum (index (idarticle, id) seul)
+     */
+    private static final String REQUETE_NB_COMMENTAIRES_PAR_ARTICLE = "SELECT " + COMMENTAIRE_ARTICLE_ID + ", COUNT(*) FROM " + BDD_TABLE_COMMENTAIRES + " GROUP BY " + COMMENTAIRE_ARTICLE_ID + " HAVING COUNT(*)>CAST(? AS INTEGER)";
+    /**
+     * Suppression des commentaires les plus anciens d'un article (paramètres : ID de l'article, ID du dernier commentaire supprimé)
+     */
+    private static final String REQUETE_SUPPRESSION_COMMENTAIRES_ANCIENS = "DELETE FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + COMMENTAIRE_ARTICLE_ID + "=? AND " + COMMENTAIRE_ID + "<=?";
+    /**
+     * Oubli de l'empreinte d'un article (contenu à réenregistrer lors de la prochaine synchronisation)
+     * (paramètres : ID de l'article, référence vers le fichier du contenu perdu)
+     */
+    private static final String REQUETE_OUBLIER_EMPREINTE = "UPDATE " + BDD_TABLE_ARTICLES + " SET " + ARTICLE_EMPREINTE + "=NULL WHERE " + ARTICLE_ID + "=? AND " + ARTICLE_CONTENU + "=?";
+    /**
+     * Date de refresh (remplace la date existante, seule colonne de la ligne)
+     */
+    private static final String REQUETE_ENREGISTRER_DATE_REFRESH = "INSERT OR REPLACE INTO " + BDD_TABLE_REFRESH + " (" + REFRESH_ARTICLE_ID + ", " + REFRESH_TIMESTAMP + ") VALUES (?, ?)";
+    /**
+     * Ajout d'un commentaire s'il n'existe pas déjà
+     */
+    private static final String REQUETE_AJOUT_COMMENTAIRE = "INSERT OR IGNORE INTO " + BDD_TABLE_COMMENTAIRES + " (" + COMMENTAIRE_ARTICLE_ID + ", " + COMMENTAIRE_ID + ", " + COMMENTAIRE_AUTEUR + ", " + COMMENTAIRE_TIMESTAMP + ", " + COMMENTAIRE_CONTENU + ") VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Suppression d'un article de l'index de recherche
+     */
+    private static final String REQUETE_SUPPRESSION_INDEX_ARTICLE = "DELETE FROM " + BDD_TABLE_RECHERCHE_ARTICLES + " WHERE docid=?";
+    /**
+     * Ajout d'un article dans l'index de recherche
+     */
+    private static final String REQUETE_AJOUT_INDEX_ARTICLE = "INSERT INTO " + BDD_TABLE_RECHERCHE_ARTICLES + " (docid, " + ARTICLE_TITRE + ", " + ARTICLE_SOUS_TITRE + ", " + ARTICLE_CONTENU + ") VALUES (?, ?, ?, ?)";
+    /**
+     * Ajout d'un commentaire dans l'index de recherche
+     */
+    private static final String REQUETE_AJOUT_INDEX_COMMENTAIRE = "INSERT INTO " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " (docid, " + COMMENTAIRE_CONTENU + ") VALUES (?, ?)";
 
+    /*
+     * Requêtes de lecture (également analysées par analyserPlansRequetes())
+     */
+    /**
+     * Article complet (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_ARTICLE = "SELECT " + listerColonnes(ARTICLE__COLONNES) + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_ID + "=?";
+    /**
+     * Contenu brut d'un article dont le parsage a été différé (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_CONTENU_BRUT = "SELECT " + ARTICLE_CONTENU_BRUT + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_ID + "=?";
+    /**
+     * Contenu brut d'un article inchangé (paramètres : ID de l'article, contenu brut)
+     */
+    private static final String REQUETE_CONTENU_BRUT_INCHANGE = "SELECT COUNT(*) FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_ID + "=? AND " + ARTICLE_CONTENU_BRUT + "=?";
+    /**
+     * Résumé de tous les articles, par date de publication décroissante
+     */
+    private static final String REQUETE_RESUMES_ARTICLES = "SELECT " + listerColonnes(ARTICLE__COLONNES_RESUME) + " FROM " + BDD_TABLE_ARTICLES + " ORDER BY " + ARTICLE_TIMESTAMP + " DESC";
+    /**
+     * Résumé de quelques articles (suivi de conditionListe() sur l'ID de l'article)
+     */
+    private static final String REQUETE_RESUMES_ARTICLES_LISTE = "SELECT " + listerColonnes(ARTICLE__COLONNES_RESUME) + " FROM " + BDD_TABLE_ARTICLES + " WHERE ";
+    /**
+     * Empreinte du contenu des articles (les articles sans empreinte doivent être parsés)
+     */
+    private static final String REQUETE_EMPREINTES_ARTICLES = "SELECT " + ARTICLE_ID + ", " + ARTICLE_EMPREINTE + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_EMPREINTE + " IS NOT NULL";
+    /**
+     * Articles dont le parsage a été différé, les plus récents en premier
+     */
+    private static final String REQUETE_ARTICLES_A_PARSER = "SELECT " + ARTICLE_ID + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_CONTENU_BRUT + " IS NOT NULL ORDER BY " + ARTICLE_TIMESTAMP + " DESC";
+    /**
+     * ID du dernier commentaire connu de quelques articles (suivi de conditionListe() sur l'ID de l'article)
+     */
+    private static final String REQUETE_ID_DERNIER_COMMENTAIRE_LISTE = "SELECT " + ARTICLE_ID + ", " + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + " FROM " + BDD_TABLE_ARTICLES + " WHERE ";
+    /**
+     * Articles non épinglés publiés avant une date (paramètre : date)
+     */
+    private static final String REQUETE_ARTICLES_AVANT = "SELECT " + ARTICLE_ID + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_TIMESTAMP + "<? AND " + ARTICLE_IS_EPINGLE + "=0";
+    /**
+     * Nombre de commentaires supprimés d'un article (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_NB_COMMENTAIRES_OUBLIES = "SELECT " + ARTICLE_NB_COMMENTAIRES_OUBLIES + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_ID + "=?";
+    /**
+     * Commentaires supprimés et dernier commentaire lu des articles non épinglés
+     */
+    private static final String REQUETE_ARTICLES_RETENTION = "SELECT " + ARTICLE_ID + ", " + ARTICLE_NB_COMMENTAIRES_OUBLIES + ", " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + " FROM " + BDD_TABLE_ARTICLES + " WHERE " + ARTICLE_IS_EPINGLE + "=0";
+    /**
+     * ID du dernier commentaire téléchargé d'un article (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_MAX_ID_COMMENTAIRE = "SELECT MAX(" + COMMENTAIRE_ID + ") FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + COMMENTAIRE_ARTICLE_ID + "=?";
+    /**
+     * Commentaires d'un article par ID (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_COMMENTAIRES_ARTICLE = "SELECT " + listerColonnes(COMMENTAIRE__COLONNES) + " FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + COMMENTAIRE_ARTICLE_ID + "=? ORDER BY " + COMMENTAIRE_ID;
+    /**
+     * Page de commentaires d'un article (paramètres : ID de l'article, ID du dernier commentaire de la page précédente, taille de la page)
+     */
+    private static final String REQUETE_PAGE_COMMENTAIRES = "SELECT " + listerColonnes(COMMENTAIRE__COLONNES) + " FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + COMMENTAIRE_ARTICLE_ID + "=? AND " + COMMENTAIRE_ID + ">? ORDER BY " + COMMENTAIRE_ID + " LIMIT ?";
+    /**
+     * ID du commentaire d'un article à un rang (paramètres : ID de l'article, rang)
+     */
+    private static final String REQUETE_ID_COMMENTAIRE_AU_RANG = "SELECT " + COMMENTAIRE_ID + " FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + COMMENTAIRE_ARTICLE_ID + "=? ORDER BY " + COMMENTAIRE_ID + " LIMIT 1 OFFSET ?";
+    /**
+     * Nombre de commentaires d'un article (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_NB_COMMENTAIRES = "SELECT COUNT(*) FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + COMMENTAIRE_ARTICLE_ID + "=?";
+    /**
+     * Date de refresh (paramètre : ID de l'article)
+     */
+    private static final String REQUETE_DATE_REFRESH = "SELECT " + listerColonnes(REFRESH__COLONNES) + " FROM " + BDD_TABLE_REFRESH + " WHERE " + REFRESH_ARTICLE_ID + "=?";
+    /**
+     * Recherche dans l'index des articles (paramètre : requête FTS)
+     */
+    private static final String REQUETE_RECHERCHE_ARTICLES = "SELECT docid, matchinfo(" + BDD_TABLE_RECHERCHE_ARTICLES + ", 'pcx') FROM " + BDD_TABLE_RECHERCHE_ARTICLES + " WHERE " + BDD_TABLE_RECHERCHE_ARTICLES + " MATCH ?";
     /**
-     * BDD SQLite
+     * Recherche dans l'index des commentaires, par article (paramètre : requête FTS)
      */
-    private static SQLiteDatabase maBDD = null;
+    private static final String REQUETE_RECHERCHE_COMMENTAIRES = "SELECT " + BDD_TABLE_COMMENTAIRES + "." + COMMENTAIRE_ARTICLE_ID + ", matchinfo(" + BDD_TABLE_RECHERCHE_COMMENTAIRES + ", 'pcx') FROM " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " JOIN " + BDD_TABLE_COMMENTAIRES + " ON " + BDD_TABLE_COMMENTAIRES + "." + COMMENTAIRE_ID + "=" + BDD_TABLE_RECHERCHE_COMMENTAIRES + ".docid WHERE " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " MATCH ?";
+
     /**
      * Instance de la BDD
      */
     private static DAO instanceOfDAO = null;
+    /**
+     * BDD SQLite (connexion d'écriture + pool de connexions de lecture, cf WAL)
+     */
+    private volatile SQLiteDatabase maBDD = null;
+    /**
+     * Verrou des écritures utilisant les requêtes précompilées (paramètres liés puis requête exécutée sans entrelacement)
+     */
+    private final ReentrantLock monVerrouEcriture = new ReentrantLock();
+    /**
+     * Context de l'application (options)
+     */
+    private final Context monContext;
+    /**
+     * Articles récemment chargés
+     */
+    private final CacheArticles monCacheArticles = new CacheArticles(CACHE_NB_ARTICLES);
+    /**
+     * Requêtes précompilées (SQL => requête)
+     */
+    private final HashMap<String, SQLiteStatement> mesRequetes = new HashMap<>();
+    /**
+     * Modifications des articles non encore publiées (cf AsyncDAO)
+     */
+    private final ModificationsArticles mesModifications = new ModificationsArticles();
+    /**
+     * BDD des commentaires (null si les commentaires sont dans la BDD des articles)
+     */
+    private final BDDCommentaires monStockageCommentaires;
+    /**
+     * BDD SQLite des commentaires (stockage séparé uniquement)
+     */
+    private volatile SQLiteDatabase maBDDCommentaires = null;
+    /**
+     * Verrou des écritures des commentaires (monVerrouEcriture si les commentaires sont dans la BDD des articles)
+     */
+    private final ReentrantLock monVerrouCommentaires;
+    /**
+     * Requêtes précompilées sur la BDD des commentaires (stockage séparé uniquement)
+     */
+    private final HashMap<String, SQLiteStatement> mesRequetesCommentaires = new HashMap<>();
+    /**
+     * Fichiers du contenu des articles (option idOptionContenuFichiers)
+     */
+    private final StockageContenus mesContenus;
 
     /**
      * Connexion à la BDD
@@ -172,10 +505,140 @@ public final class DAO extends SQLiteOpenHelper {
      * @param unContext context de l'application
      */
     private DAO(final Context unContext) {
-        // Je crée un lien sur la base
-        super(unContext, BDD_NOM, null, BDD_VERSION);
-        // Et l'ouvre en écriture
-        maBDD = getWritableDatabase();
+        this(unContext, BDD_NOM, Constantes.getOptionBoolean(unContext, R.string.idOptionBDDCommentairesSeparee, R.bool.defautOptionBDDCommentairesSeparee));
+    }
+
+    /**
+     * Connexion à une BDD (tests : BDD distincte de celle de l'application)
+     *
+     * @param unContext context de l'application
+     * @param unNomBDD  nom du fichier de la BDD
+     */
+    DAO(final Context unContext, final String unNomBDD) {
+        this(unContext, unNomBDD, false);
+    }
+
+    /**
+     * Connexion à une BDD, les commentaires étant éventuellement stockés dans un second fichier
+     * Un fichier séparé a son propre journal WAL et sa propre connexion d'écriture : les commentaires sont enregistrés
+     * en parallèle des écritures des articles (ATTACH n'est pas utilisé : Android désactive le WAL des BDD ayant une BDD attachée)
+     *
+     * @param unContext              context de l'application
+     * @param unNomBDD               nom du fichier de la BDD
+     * @param isCommentairesSeparees commentaires dans le fichier unNomBDD + BDD_SUFFIXE_COMMENTAIRES
+     */
+    DAO(final Context unContext, final String unNomBDD, final boolean isCommentairesSeparees) {
+        // Je crée un lien sur la base (ouverte à la première requête, hors thread UI)
+        super(unContext, unNomBDD, null, BDD_VERSION);
+        monContext = unContext;
+        // Journal WAL : une connexion d'écriture (transactions sérialisées entre threads) et un pool de connexions de lecture
+        // => les lectures ne sont pas bloquées par l'écriture en cours
+        setWriteAheadLoggingEnabled(true);
+
+        if (isCommentairesSeparees) {
+            monStockageCommentaires = new BDDCommentaires(unContext, unNomBDD + BDD_SUFFIXE_COMMENTAIRES);
+            monVerrouCommentaires = new ReentrantLock();
+        } else {
+            monStockageCommentaires = null;
+            monVerrouCommentaires = monVerrouEcriture;
+        }
+        // Répertoire créé à la première écriture d'un contenu
+        mesContenus = new StockageContenus(new File(unContext.getFilesDir(), unNomBDD + BDD_SUFFIXE_CONTENUS));
+    }
+
+    /**
+     * BDD ouverte en écriture (ouverture et éventuelle MàJ du schéma au premier appel)
+     *
+     * @return BDD
+     */
+    private SQLiteDatabase getBDD() {
+        SQLiteDatabase maBase = maBDD;
+        if (maBase == null) {
+            synchronized (this) {
+                if (maBDD == null) {
+                    maBDD = getWritableDatabase();
+                }
+                maBase = maBDD;
+            }
+        }
+        return maBase;
+    }
+
+    /**
+     * BDD des commentaires (BDD des articles si les commentaires n'y sont pas séparés)
+     *
+     * @return BDD
+     */
+    private SQLiteDatabase getBDDCommentaires() {
+        if (monStockageCommentaires == null) {
+            return getBDD();
+        }
+        SQLiteDatabase maBase = maBDDCommentaires;
+        if (maBase == null) {
+            synchronized (monStockageCommentaires) {
+                if (maBDDCommentaires == null) {
+                    maBDDCommentaires = monStockageCommentaires.getWritableDatabase();
+                }
+                maBase = maBDDCommentaires;
+            }
+        }
+        return maBase;
+    }
+
+    /**
+     * Les commentaires sont-ils dans une BDD séparée (écritures parallèles à celles des articles) ?
+     *
+     * @return true si BDD séparée
+     */
+    public boolean isBDDCommentairesSeparee() {
+        return (monStockageCommentaires != null);
+    }
+
+    /**
+     * Fermeture de la BDD et libération des requêtes précompilées (aucune requête ne doit être en cours)
+     * La BDD sera rouverte à la prochaine requête
+     */
+    @Override
+    public void close() {
+        // Verrou d'écriture puis verrou de l'instance (getBDD()) : même ordre que les écritures
+        monVerrouEcriture.lock();
+        try {
+            synchronized (mesRequetes) {
+                for (SQLiteStatement uneRequete : mesRequetes.values()) {
+                    uneRequete.close();
+                }
+                mesRequetes.clear();
+            }
+            maBDD = null;
+            super.close();
+        } finally {
+            monVerrouEcriture.unlock();
+        }
+        if (monStockageCommentaires != null) {
+            fermerBDDCommentaires();
+        }
+        monCacheArticles.vider();
+    }
+
+    /**
+     * Fermeture de la BDD séparée des commentaires (rouverte à la prochaine requête)
+     */
+    private void fermerBDDCommentaires() {
+        monVerrouCommentaires.lock();
+        try {
+            synchronized (mesRequetesCommentaires) {
+                for (SQLiteStatement uneRequete : mesRequetesCommentaires.values()) {
+                    uneRequete.close();
+                }
+                mesRequetesCommentaires.clear();
+            }
+            synchronized (monStockageCommentaires) {
+                maBDDCommentaires = null;
+                monStockageCommentaires.close();
+            }
+        } finally {
+            monVerrouCommentaires.unlock();
+        }
     }
 
     /**
@@ -184,7 +647,7 @@ public final class DAO extends SQLiteOpenHelper {
      * @param unContext context de l'application
      * @return lien sur la BDD
      */
-    public static DAO getInstance(final Context unContext) {
+    public static synchronized DAO getInstance(final Context unContext) {
         /*
          * Chargement de la BDD si non déjà présente
          */
@@ -194,13 +657,64 @@ public final class DAO extends SQLiteOpenHelper {
         return instanceOfDAO;
     }
 
+    /**
+     * Configuration de la connexion, avant création / MàJ du schéma
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // Pages libérées récupérables par maintenance() (effectif à la création de la BDD, sinon après conversion par maintenance())
+        db.execSQL("PRAGMA auto_vacuum=" + AUTO_VACUUM_INCREMENTAL);
+    }
+
+    /**
+     * Ouverture de la BDD : les commentaires enregistrés avant un changement de l'option de stockage séparé sont effacés
+     * (ils seront retéléchargés), le dernier commentaire lu des articles n'ayant plus de sens
+     */
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        boolean isCommentairesAbandonnes = false;
+        if (monStockageCommentaires != null) {
+            // Commentaires encore présents dans la BDD des articles
+            if (DatabaseUtils.queryNumEntries(db, BDD_TABLE_COMMENTAIRES) > 0) {
+                db.delete(BDD_TABLE_COMMENTAIRES, null, null);
+                isCommentairesAbandonnes = true;
+            }
+        } else {
+            // BDD séparée d'une précédente configuration
+            String monNomBDDCommentaires = getDatabaseName() + BDD_SUFFIXE_COMMENTAIRES;
+            if (monContext.getDatabasePath(monNomBDDCommentaires).exists()) {
+                monContext.deleteDatabase(monNomBDDCommentaires);
+                isCommentairesAbandonnes = true;
+            }
+        }
+        if (isCommentairesAbandonnes) {
+            ContentValues updateValues = new ContentValues();
+            updateValues.put(ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, 0);
+            updateValues.put(ARTICLE_NB_COMMENTAIRES_OUBLIES, 0);
+            db.update(BDD_TABLE_ARTICLES, updateValues, null, null);
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.i("DAO", "onOpen() - commentaires de l'ancien stockage effacés");
+            }
+        }
+    }
+
     /**
      * Création de la BDD si elle n'existe pas
      */
     @Override
     public void onCreate(SQLiteDatabase db) {
+        creerSchema(db);
+    }
+
+    /**
+     * Création du schéma complet (version BDD_VERSION) de la BDD
+     *
+     * @param db BDD vierge
+     */
+    static void creerSchema(SQLiteDatabase db) {
         // Table des articles
-        String reqCreateArticles = "CREATE TABLE " + BDD_TABLE_ARTICLES + " (" + ARTICLE_ID + " INTEGER NOT NULL PRIMARY KEY, " + ARTICLE_TITRE + " TEXT NOT NULL, " + ARTICLE_SOUS_TITRE + " TEXT, " + ARTICLE_TIMESTAMP + " INTEGER NOT NULL, " + ARTICLE_ILLUSTRATION_URL + " TEXT, " + ARTICLE_CONTENU + " TEXT, " + ARTICLE_NB_COMMS + " INTEGER, " + ARTICLE_IS_ABONNE + " BOOLEAN, " + ARTICLE_IS_LU + " BOOLEAN, " + ARTICLE_DL_CONTENU_ABONNE + " BOOLEAN, " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + " INTEGER, " + ARTICLE_URL_SEO + " TEXT," + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + " INTEGER);";
+        String reqCreateArticles = "CREATE TABLE " + BDD_TABLE_ARTICLES + " (" + ARTICLE_ID + " INTEGER NOT NULL PRIMARY KEY, " + ARTICLE_TITRE + " TEXT NOT NULL, " + ARTICLE_SOUS_TITRE + " TEXT, " + ARTICLE_TIMESTAMP + " INTEGER NOT NULL, " + ARTICLE_ILLUSTRATION_URL + " TEXT, " + ARTICLE_CONTENU + " TEXT, " + ARTICLE_NB_COMMS + " INTEGER, " + ARTICLE_IS_ABONNE + " BOOLEAN, " + ARTICLE_IS_LU + " BOOLEAN, " + ARTICLE_DL_CONTENU_ABONNE + " BOOLEAN, " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + " INTEGER, " + ARTICLE_URL_SEO + " TEXT," + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + " INTEGER, " + ARTICLE_EMPREINTE + " INTEGER, " + ARTICLE_CONTENU_BRUT + " TEXT, " + ARTICLE_DATE_LECTURE + " INTEGER, " + ARTICLE_IS_EPINGLE + " BOOLEAN NOT NULL DEFAULT 0, " + ARTICLE_NB_COMMENTAIRES_OUBLIES + " INTEGER NOT NULL DEFAULT 0);";
         db.execSQL(reqCreateArticles);
 
         // Table des commentaires
@@ -210,444 +724,1990 @@ public final class DAO extends SQLiteOpenHelper {
         // Table des refresh
         String reqCreateRefresh = "CREATE TABLE " + BDD_TABLE_REFRESH + " (" + REFRESH_ARTICLE_ID + " INTEGER PRIMARY KEY, " + REFRESH_TIMESTAMP + " INTEGER);";
         db.execSQL(reqCreateRefresh);
+
+        // Index
+        creerIndex(db);
+        // Recherche plein texte
+        creerIndexRecherche(db);
     }
 
     /**
-     * MàJ du schéma de la BDD si le BDD_VERSION ne correspond pas
+     * Création du schéma de la BDD séparée des commentaires : table, index et recherche plein texte des commentaires
+     *
+     * @param db BDD des commentaires
      */
-    @Override
-    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        switch (oldVersion) {
-            case 1:
-            case 2:
-            case 3:
-            case 4:
-            case 5:
-            case 6:
-            case 7:
-            case 8:
-            case 9:
-                // Refonte des BDD pour Next
-                // Suppression des tables existantes
-                String reqUpdateFrom9 = "DROP TABLE IF EXISTS " + BDD_TABLE_ARTICLES + ";";
-                db.execSQL(reqUpdateFrom9);
-                reqUpdateFrom9 = "DROP TABLE IF EXISTS " + BDD_TABLE_COMMENTAIRES + ";";
-                db.execSQL(reqUpdateFrom9);
-                reqUpdateFrom9 = "DROP TABLE IF EXISTS " + BDD_TABLE_REFRESH + ";";
-                db.execSQL(reqUpdateFrom9);
-                reqUpdateFrom9 = "DROP TABLE IF EXISTS " + BDD_TABLE_CACHE_IMAGE;
-                db.execSQL(reqUpdateFrom9);
-                // Recréation des tables vierges
-                this.onCreate(db);
-                // On vient de recréer la base de données de zéro => ne pas faire les upgrade (déjà effectués dans la création)
-                break;
-            case 10:
-                // Renommage du champ en BDD
-                String reqUpdateFrom10 = "ALTER TABLE " + BDD_TABLE_ARTICLES + " RENAME COLUMN dernierCommentaireLu TO " + ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU + ";";
-                db.execSQL(reqUpdateFrom10);
-                // Ajout de l'ID du dernier commentaire retourné par le parseur
-                reqUpdateFrom10 = "ALTER TABLE " + BDD_TABLE_ARTICLES + " ADD COLUMN " + ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR + " INTEGER;";
-                db.execSQL(reqUpdateFrom10);
-                break;
-            default:
-                // DEBUG
-                if (Constantes.DEBUG) {
-                    Log.e("DAO", "onUpgrade() - cas default !");
-                }
-        }
+    private static void creerSchemaCommentaires(SQLiteDatabase db) {
+        // Pas de clef étrangère : la table des articles est dans une autre BDD
+        db.execSQL("CREATE TABLE " + BDD_TABLE_COMMENTAIRES + " (" + COMMENTAIRE_ID + " INTEGER NOT NULL PRIMARY KEY, " + COMMENTAIRE_ARTICLE_ID + " INTEGER NOT NULL, " + COMMENTAIRE_AUTEUR + " TEXT, " + COMMENTAIRE_TIMESTAMP + " INTEGER, " + COMMENTAIRE_CONTENU + " TEXT);");
+        db.execSQL("CREATE INDEX " + INDEX_COMMENTAIRES_ARTICLE + " ON " + BDD_TABLE_COMMENTAIRES + " (" + COMMENTAIRE_ARTICLE_ID + ", " + COMMENTAIRE_ID + ");");
+        db.execSQL("CREATE VIRTUAL TABLE " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " USING fts4(" + COMMENTAIRE_CONTENU + ");");
+        db.execSQL("CREATE TRIGGER trg_" + BDD_TABLE_RECHERCHE_COMMENTAIRES + " AFTER DELETE ON " + BDD_TABLE_COMMENTAIRES + " BEGIN DELETE FROM " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " WHERE docid=old." + COMMENTAIRE_ID + "; END;");
     }
 
     /**
-     * Enregistre (ou MàJ) un article en BDD
+     * Création des index secondaires
      *
-     * @param unArticle ArticleItem
+     * @param db BDD
      */
-    public void enregistrerArticle(final ArticleItem unArticle) {
-        // Supprimer l'article existant
-        supprimerArticle(unArticle.getId(), false);
-
-        ContentValues insertValues = new ContentValues();
-
-        insertValues.put(ARTICLE_ID, unArticle.getId());
-        insertValues.put(ARTICLE_TITRE, unArticle.getTitre());
-        insertValues.put(ARTICLE_SOUS_TITRE, unArticle.getSousTitre());
-        insertValues.put(ARTICLE_TIMESTAMP, unArticle.getTimeStampPublication());
-        insertValues.put(ARTICLE_ILLUSTRATION_URL, unArticle.getUrlIllustration());
-        insertValues.put(ARTICLE_CONTENU, unArticle.getContenu());
-        insertValues.put(ARTICLE_NB_COMMS, unArticle.getNbCommentaires());
-        insertValues.put(ARTICLE_IS_ABONNE, unArticle.isAbonne());
-        insertValues.put(ARTICLE_IS_LU, unArticle.isLu());
-        insertValues.put(ARTICLE_DL_CONTENU_ABONNE, unArticle.isDlContenuAbonne());
-        insertValues.put(ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, unArticle.getIndiceDernierCommLu());
-        insertValues.put(ARTICLE_URL_SEO, unArticle.getURLseo());
-        insertValues.put(ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR, unArticle.getParseurLastCommentId());
-
-        try {
-            maBDD.insert(BDD_TABLE_ARTICLES, null, insertValues);
-        } catch (SQLiteException e) {
-            // DEBUG
-            if (Constantes.DEBUG) {
-                Log.e("DAO", "enregistrerArticle() - erreur SQL", e);
-            }
-        }
+    static void creerIndex(SQLiteDatabase db) {
+        // (idarticle, id) : MAX(id) par article est résolu depuis l'index seul, les commentaires sont lus dans l'ordre
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_COMMENTAIRES_ARTICLE + " ON " + BDD_TABLE_COMMENTAIRES + " (" + COMMENTAIRE_ARTICLE_ID + ", " + COMMENTAIRE_ID + ");");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_ARTICLES_TIMESTAMP + " ON " + BDD_TABLE_ARTICLES + " (" + ARTICLE_TIMESTAMP + ");");
     }
 
     /**
-     * MàJ de l'indice du dernier commentaire lu
+     * Création des tables de recherche plein texte
+     * Les suppressions sont répercutées par trigger, les ajouts sont faits par le DAO (texte extrait du HTML)
      *
-     * @param idArticle         ID de l'article
-     * @param indiceCommentaire Indice du dernier commentaire lu (position dans le listview)
+     * @param db BDD
      */
-    public void setIndiceDernierCommentaireLu(final int idArticle, final int indiceCommentaire) {
-        // Les datas à MàJ
+    static void creerIndexRecherche(SQLiteDatabase db) {
+        // FTS4 : FTS5 n'est pas disponible sur toutes les versions d'Android supportées
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + BDD_TABLE_RECHERCHE_ARTICLES + " USING fts4(" + ARTICLE_TITRE + ", " + ARTICLE_SOUS_TITRE + ", " + ARTICLE_CONTENU + ");");
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " USING fts4(" + COMMENTAIRE_CONTENU + ");");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_" + BDD_TABLE_RECHERCHE_ARTICLES + " AFTER DELETE ON " + BDD_TABLE_ARTICLES + " BEGIN DELETE FROM " + BDD_TABLE_RECHERCHE_ARTICLES + " WHERE docid=old." + ARTICLE_ID + "; END;");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_" + BDD_TABLE_RECHERCHE_COMMENTAIRES + " AFTER DELETE ON " + BDD_TABLE_COMMENTAIRES + " BEGIN DELETE FROM " + BDD_TABLE_RECHERCHE_COMMENTAIRES + " WHERE docid=old." + COMMENTAIRE_ID + "; END;");
+    }
+
+    /**
+     * Indexe les articles et commentaires déjà présents en BDD (MàJ de la BDD)
+     *
+     * @param db BDD
+     */
+    static void indexerRecherche(SQLiteDatabase db) {
+        SQLiteStatement monIndexArticle = db.compileStatement(REQUETE_AJOUT_INDEX_ARTICLE);
+        Cursor monCursor = db.query(BDD_TABLE_ARTICLES, new String[]{ARTICLE_ID, ARTICLE_TITRE, ARTICLE_SOUS_TITRE, ARTICLE_CONTENU, ARTICLE_CONTENU_BRUT}, null, null, null, null, null);
+        while (monCursor.moveToNext()) {
+            String monContenu;
+            if (!monCursor.isNull(4)) {
+                monContenu = monCursor.getString(4);
+            } else if (monCursor.getType(3) == Cursor.FIELD_TYPE_BLOB) {
+                monContenu = CodecContenu.decoder(monCursor.getBlob(3));
+            } else {
+                monContenu = monCursor.getString(3);
+            }
+            monIndexArticle.bindLong(1, monCursor.getInt(0));
+            monIndexArticle.bindString(2, Recherche.normaliser(monCursor.getString(1)));
+            monIndexArticle.bindString(3, Recherche.normaliser(monCursor.getString(2)));
+            monIndexArticle.bindString(4, Recherche.normaliserHTML(monContenu));
+            monIndexArticle.executeInsert();
+        }
+        monCursor.close();
+        monIndexArticle.close();
+
+        SQLiteStatement monIndexCommentaire = db.compileStatement(REQUETE_AJOUT_INDEX_COMMENTAIRE);
+        monCursor = db.query(BDD_TABLE_COMMENTAIRES, new String[]{COMMENTAIRE_ID, COMMENTAIRE_CONTENU}, null, null, null, null, null);
+        while (monCursor.moveToNext()) {
+            monIndexCommentaire.bindLong(1, monCursor.getInt(0));
+            monIndexCommentaire.bindString(2, Recherche.normaliserHTML(monCursor.getString(1)));
+            monIndexCommentaire.executeInsert();
+        }
+        monCursor.close();
+        monIndexCommentaire.close();
+    }
+
+    /**
+     * MàJ du schéma de la BDD si le BDD_VERSION ne correspond pas (cf MigrationsBDD)
+     */
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        MigrationsBDD.migrer(db, oldVersion, newVersion);
+    }
+
+    /**
+     * Enregistre (ou MàJ) un article en BDD
+     *
+     * @param unArticle ArticleItem
+     */
+    public void enregistrerArticle(final ArticleItem unArticle) {
+        ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+        mesArticles.add(unArticle);
+        enregistrerArticles(mesArticles);
+    }
+
+    /**
+     * Enregistre (ou MàJ) une liste d'articles en BDD, dans une unique transaction
+     * Un article existant est MàJ sur place : son état de lecture et son nombre de commentaires sont conservés
+     * Les articles dont le contenu est inchangé ne voient que leur ID du dernier commentaire MàJ
+     *
+     * @param desArticles articles à enregistrer
+     */
+    public void enregistrerArticles(final ArrayList<ArticleItem> desArticles) {
+        if (desArticles.isEmpty()) {
+            return;
+        }
+        long debut = System.nanoTime();
+        boolean compresser = isCompressionContenu();
+        boolean fichier = isContenuFichiers();
+
+        // Encodage des contenus (compression, écriture des fichiers) hors du verrou d'écriture
+        Object[] desContenusEncodes = new Object[desArticles.size()];
+        for (int i = 0; i < desArticles.size(); i++) {
+            ArticleItem unArticle = desArticles.get(i);
+            if (!unArticle.isContenuInchange()) {
+                desContenusEncodes[i] = encoderContenu(unArticle.getId(), unArticle.getContenu(), compresser, fichier);
+            }
+        }
+
+        // Pas de "INSERT ... ON CONFLICT DO UPDATE" (SQLite 3.24+, non disponible avant Android 11) => UPDATE puis INSERT si absent
+        SQLiteStatement maMaj = getRequete(REQUETE_MAJ_ARTICLE);
+        SQLiteStatement monInsert = getRequete(REQUETE_AJOUT_ARTICLE);
+        SQLiteStatement maMajCommentaire = getRequete(REQUETE_MAJ_ID_DERNIER_COMMENTAIRE);
+        SQLiteStatement maSuppressionIndex = getRequete(REQUETE_SUPPRESSION_INDEX_ARTICLE);
+        SQLiteStatement monAjoutIndex = getRequete(REQUETE_AJOUT_INDEX_ARTICLE);
+
+        // Articles réellement ajoutés ou modifiés
+        ArrayList<Integer> mesIdModifies = new ArrayList<>();
+        boolean isEnregistre = false;
+        monVerrouEcriture.lock();
+        getBDD().beginTransaction();
+        try {
+            for (int i = 0; i < desArticles.size(); i++) {
+                ArticleItem unArticle = desArticles.get(i);
+                if (unArticle.isContenuInchange()) {
+                    // Article identique (cf empreinte : contenu, date, illustration, lien) => seule l'information sur les commentaires est à MàJ
+                    maMajCommentaire.bindLong(1, unArticle.getParseurLastCommentId());
+                    maMajCommentaire.bindLong(2, unArticle.getId());
+                    if (maMajCommentaire.executeUpdateDelete() > 0) {
+                        mesIdModifies.add(unArticle.getId());
+                    }
+                    continue;
+                }
+
+                // Article déjà connu
+                lierArticle(maMaj, unArticle, desContenusEncodes[i]);
+                if (maMaj.executeUpdateDelete() == 0) {
+                    // Nouvel article
+                    lierArticle(monInsert, unArticle, desContenusEncodes[i]);
+                    monInsert.bindLong(13, unArticle.getNbCommentaires());
+                    monInsert.bindLong(14, unArticle.isLu() ? 1 : 0);
+                    monInsert.bindLong(15, unArticle.getIndiceDernierCommLu());
+                    monInsert.executeInsert();
+                }
+                mesIdModifies.add(unArticle.getId());
+
+                // Index de recherche
+                maSuppressionIndex.bindLong(1, unArticle.getId());
+                maSuppressionIndex.executeUpdateDelete();
+                monAjoutIndex.bindLong(1, unArticle.getId());
+                monAjoutIndex.bindString(2, Recherche.normaliser(unArticle.getTitre()));
+                monAjoutIndex.bindString(3, Recherche.normaliser(unArticle.getSousTitre()));
+                monAjoutIndex.bindString(4, Recherche.normaliserHTML(unArticle.isParsageRequis() ? unArticle.getContenuBrut() : unArticle.getContenu()));
+                monAjoutIndex.executeInsert();
+            }
+            getBDD().setTransactionSuccessful();
+            isEnregistre = true;
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "enregistrerArticles() - erreur SQL", e);
+            }
+        } finally {
+            getBDD().endTransaction();
+            monVerrouEcriture.unlock();
+        }
+        for (ArticleItem unArticle : desArticles) {
+            monCacheArticles.invalider(unArticle.getId());
+        }
+        if (isEnregistre) {
+            for (int idArticle : mesIdModifies) {
+                mesModifications.noterModification(idArticle);
+            }
+        }
+
+        Statistiques.ajouter(Statistiques.LIGNES_ENREGISTREES, desArticles.size());
+        Statistiques.ajouter(Statistiques.TEMPS_ENREGISTREMENT, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut));
+    }
+
+    /**
+     * Lie les informations issues du parseur aux 12 premiers paramètres d'une requête (l'ID en dernier)
+     *
+     * @param uneRequete requête d'enregistrement d'un article
+     * @param unArticle  article
+     * @param unContenu  contenu à stocker (cf encoderContenu())
+     */
+    private static void lierArticle(final SQLiteStatement uneRequete, final ArticleItem unArticle, final Object unContenu) {
+        lierTexte(uneRequete, 1, unArticle.getTitre());
+        lierTexte(uneRequete, 2, unArticle.getSousTitre());
+        uneRequete.bindLong(3, unArticle.getTimeStampPublication());
+        lierTexte(uneRequete, 4, unArticle.getUrlIllustration());
+        if (unContenu instanceof byte[]) {
+            uneRequete.bindBlob(5, (byte[]) unContenu);
+        } else {
+            lierTexte(uneRequete, 5, (String) unContenu);
+        }
+        uneRequete.bindLong(6, unArticle.isAbonne() ? 1 : 0);
+        uneRequete.bindLong(7, unArticle.isDlContenuAbonne() ? 1 : 0);
+        lierTexte(uneRequete, 8, unArticle.getURLseo());
+        uneRequete.bindLong(9, unArticle.getParseurLastCommentId());
+        uneRequete.bindLong(10, unArticle.getEmpreinteContenu());
+        lierTexte(uneRequete, 11, (unArticle.isParsageRequis() ? unArticle.getContenuBrut() : null));
+        uneRequete.bindLong(12, unArticle.getId());
+    }
+
+    /**
+     * Le contenu des articles doit-il être stocké compressé ? (option utilisateur)
+     *
+     * @return compression active
+     */
+    private boolean isCompressionContenu() {
+        return Constantes.getOptionBoolean(monContext, R.string.idOptionCompressionContenu, R.bool.defautOptionCompressionContenu);
+    }
+
+    /**
+     * Le contenu des articles doit-il être stocké dans des fichiers ? (option utilisateur)
+     *
+     * @return stockage dans des fichiers actif
+     */
+    private boolean isContenuFichiers() {
+        return Constantes.getOptionBoolean(monContext, R.string.idOptionContenuFichiers, R.bool.defautOptionContenuFichiers);
+    }
+
+    /**
+     * Valeur à stocker en BDD pour le contenu d'un article
+     * Si le fichier ne peut être écrit, le contenu est stocké en BDD
+     *
+     * @param idArticle  ID de l'article
+     * @param unContenu  contenu de l'article
+     * @param compresser stocker le contenu compressé
+     * @param fichier    stocker le contenu dans un fichier
+     * @return texte, contenu compressé (byte[]) ou référence vers un fichier (byte[])
+     */
+    private Object encoderContenu(final int idArticle, final String unContenu, final boolean compresser, final boolean fichier) {
+        // Pas de contenu (parsage différé) => rien à encoder
+        if (unContenu == null || unContenu.isEmpty()) {
+            return unContenu;
+        }
+        if (fichier) {
+            try {
+                return mesContenus.ecrire(idArticle, CodecContenu.encoderFichier(unContenu, compresser));
+            } catch (IOException e) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("DAO", "encoderContenu() - écriture impossible du fichier de l'article " + idArticle, e);
+                }
+            }
+        }
+        if (compresser) {
+            return CodecContenu.encoder(unContenu);
+        }
+        return unContenu;
+    }
+
+    /**
+     * (Dé)compresse le contenu des articles déjà enregistrés selon l'option utilisateur
+     *
+     * @return nombre d'articles convertis
+     */
+    public int recompresserContenus() {
+        boolean compresser = isCompressionContenu();
+        // Articles à convertir : texte si compression demandée, BLOB compressé sinon (les contenus stockés dans un fichier ne sont pas concernés)
+        String maCondition = "typeof(" + ARTICLE_CONTENU + ")=? AND (typeof(" + ARTICLE_CONTENU + ")='text' OR substr(" + ARTICLE_CONTENU + ", 1, 1)=X'0" + CodecContenu.CODEC_DEFLATE + "')";
+        String[] mesParametres = new String[]{(compresser ? "text" : "blob")};
+
+        ArrayList<Integer> mesIds = new ArrayList<>();
+        Cursor monCursor = getBDD().query(BDD_TABLE_ARTICLES, new String[]{ARTICLE_ID}, maCondition, mesParametres, null, null, null);
+        while (monCursor.moveToNext()) {
+            mesIds.add(monCursor.getInt(0));
+        }
+        monCursor.close();
+
+        int nbConvertis = 0;
+        getBDD().beginTransaction();
+        try {
+            for (int idArticle : mesIds) {
+                // Un article à la fois (CursorWindow)
+                monCursor = getBDD().query(BDD_TABLE_ARTICLES, new String[]{ARTICLE_CONTENU}, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)}, null, null, null);
+                if (monCursor.moveToNext()) {
+                    ContentValues updateValues = new ContentValues();
+                    if (compresser) {
+                        updateValues.put(ARTICLE_CONTENU, CodecContenu.encoder(monCursor.getString(0)));
+                    } else {
+                        updateValues.put(ARTICLE_CONTENU, CodecContenu.decoder(monCursor.getBlob(0)));
+                    }
+                    nbConvertis += getBDD().update(BDD_TABLE_ARTICLES, updateValues, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
+                }
+                monCursor.close();
+            }
+            getBDD().setTransactionSuccessful();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "recompresserContenus() - erreur SQL", e);
+            }
+        } finally {
+            getBDD().endTransaction();
+        }
+        monCacheArticles.vider();
+
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "recompresserContenus() - " + (compresser ? "compression" : "décompression") + " de " + nbConvertis + " articles");
+        }
+        return nbConvertis;
+    }
+
+    /**
+     * Enregistre le contenu nettoyé par le parseur (parsage différé)
+     * Ignoré si le contenu brut a changé depuis sa lecture (nouvelle version enregistrée par une synchronisation)
+     * A appeler depuis le thread d'écriture
+     *
+     * @param idArticle     ID de l'article
+     * @param unContenuBrut contenu brut qui a été parsé
+     * @param unContenu     contenu nettoyé
+     */
+    public void enregistrerContenuParse(final int idArticle, final String unContenuBrut, final String unContenu) {
+        // Vérification avant l'écriture du fichier du contenu (qui ne serait référencé par aucun article)
+        // Thread d'écriture : le contenu brut ne peut plus changer jusqu'à la MàJ
+        try {
+            if (DatabaseUtils.longForQuery(getBDD(), REQUETE_CONTENU_BRUT_INCHANGE, new String[]{String.valueOf(idArticle), unContenuBrut}) == 0) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.d("DAO", "enregistrerContenuParse() - " + idArticle + " : contenu brut modifié entre temps");
+                }
+                return;
+            }
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "enregistrerContenuParse() - erreur SQL", e);
+            }
+            return;
+        }
+
+        // Les datas à MàJ
         ContentValues updateValues = new ContentValues();
-        updateValues.put(ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, indiceCommentaire);
+        Object monContenu = encoderContenu(idArticle, unContenu, isCompressionContenu(), isContenuFichiers());
+        if (monContenu instanceof byte[]) {
+            updateValues.put(ARTICLE_CONTENU, (byte[]) monContenu);
+        } else {
+            updateValues.put(ARTICLE_CONTENU, (String) monContenu);
+        }
+        updateValues.putNull(ARTICLE_CONTENU_BRUT);
+        // Index de recherche
+        ContentValues indexValues = new ContentValues();
+        indexValues.put(ARTICLE_CONTENU, Recherche.normaliserHTML(unContenu));
+
+        getBDD().beginTransaction();
+        try {
+            if (getBDD().update(BDD_TABLE_ARTICLES, updateValues, ARTICLE_ID + "=? AND " + ARTICLE_CONTENU_BRUT + "=?", new String[]{String.valueOf(idArticle), unContenuBrut}) > 0) {
+                getBDD().update(BDD_TABLE_RECHERCHE_ARTICLES, indexValues, "docid=?", new String[]{String.valueOf(idArticle)});
+            } else {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.d("DAO", "enregistrerContenuParse() - " + idArticle + " : contenu brut modifié entre temps");
+                }
+            }
+            getBDD().setTransactionSuccessful();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "enregistrerContenuParse() - erreur SQL", e);
+            }
+        } finally {
+            getBDD().endTransaction();
+        }
+        monCacheArticles.invalider(idArticle);
+    }
+
+    /**
+     * Charge les ID des articles dont le contenu n'a pas encore été parsé (plus récents en premier)
+     *
+     * @return liste d'ID d'articles
+     */
+    public ArrayList<Integer> chargerIdArticlesAParser() {
+        ArrayList<Integer> mesId = new ArrayList<>();
+        try {
+            // Requête sur la BDD
+            Cursor monCursor = getBDD().rawQuery(REQUETE_ARTICLES_A_PARSER, null);
+
+            // Je passe tous les résultats
+            while (monCursor.moveToNext()) {
+                mesId.add(monCursor.getInt(0));
+            }
+
+            // Fermeture du curseur
+            monCursor.close();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "chargerIdArticlesAParser() - erreur SQL", e);
+            }
+        }
+
+        return mesId;
+    }
+
+    /**
+     * MàJ de l'indice du dernier commentaire lu
+     *
+     * @param idArticle         ID de l'article
+     * @param indiceCommentaire Indice du dernier commentaire lu (position dans le listview)
+     */
+    public void setIndiceDernierCommentaireLu(final int idArticle, final int indiceCommentaire) {
+        try {
+            if (executer(REQUETE_MAJ_INDICE_DERNIER_COMMENTAIRE_LU, indiceCommentaire, idArticle) > 0) {
+                mesModifications.noterModification(idArticle);
+            }
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "setDernierCommentaireLu() - erreur SQL", e);
+            }
+        }
+        monCacheArticles.invalider(idArticle);
+    }
+
+    /**
+     * MàJ de l'ID du dernier commentaire connu pour l'article
+     *
+     * @param idArticle        ID de l'article
+     * @param idDernierCommentaireParseur ID du dernier commentaire connu pour l'article
+     */
+    public void setIdDernierCommentaireParseur(final int idArticle, final int idDernierCommentaireParseur) {
+        try {
+            if (executer(REQUETE_MAJ_ID_DERNIER_COMMENTAIRE, idDernierCommentaireParseur, idArticle) > 0) {
+                mesModifications.noterModification(idArticle);
+            }
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "setIdDernierCommentaireParseur() - erreur SQL", e);
+            }
+        }
+        monCacheArticles.invalider(idArticle);
+    }
+
+    /**
+     * Récupération de l'ID du dernier commentaire téléchargé (en BDD)
+     *
+     * @param idArticle ID de l'article
+     * @return int ID du dernier commentaire téléchargé (en BDD)
+     */
+    public int getMaxIdCommentaireTelecharge(final int idArticle) {
+        // Requête sur la BDD
+        Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_MAX_ID_COMMENTAIRE, new String[]{String.valueOf(idArticle)});
+
+        int retour = 0;
+
+        // Je vais au premier (et unique) résultat
+        if (monCursor.moveToNext()) {
+            retour = monCursor.getInt(0);
+        }
+        // Fermeture du curseur
+        monCursor.close();
+
+        // Valeur par défaut...
+        if (retour < 1) {
+            retour = 0;
+        }
+
+        return retour;
+    }
+
+    /**
+     * MàJ du nb de commentaires d'un article déjà synchronisé
+     *
+     * @param idArticle      ID de l'article
+     * @param nbCommentaires Nb de commentaires
+     */
+    public void updateNbCommentairesArticle(final int idArticle, final int nbCommentaires) {
+        try {
+            if (executer(REQUETE_MAJ_NB_COMMENTAIRES, nbCommentaires, idArticle) > 0) {
+                mesModifications.noterModification(idArticle);
+            }
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "updateNbCommentairesArticle() - erreur SQL", e);
+            }
+        }
+        monCacheArticles.invalider(idArticle);
+    }
+
+    /**
+     * Marque un article comme étant lu
+     *
+     * @param idArticle ID de l'article
+     */
+    public void marquerArticleLu(final int idArticle) {
+        try {
+            if (executer(REQUETE_MARQUER_LU, idArticle) > 0) {
+                mesModifications.noterModification(idArticle);
+            }
+            // Date de dernière lecture (budget de stockage)
+            executer(REQUETE_MAJ_DATE_LECTURE, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()), idArticle);
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "marquerArticleLu() - erreur SQL", e);
+            }
+        }
+        monCacheArticles.invalider(idArticle);
+    }
+
+    /**
+     * (Dés)épingle un article : un article épinglé n'est jamais supprimé pour libérer de la place
+     *
+     * @param idArticle ID de l'article
+     * @param isEpingle article épinglé
+     */
+    public void epinglerArticle(final int idArticle, final boolean isEpingle) {
+        try {
+            executer(REQUETE_EPINGLER, (isEpingle ? 1 : 0), idArticle);
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "epinglerArticle() - erreur SQL", e);
+            }
+        }
+        monCacheArticles.invalider(idArticle);
+    }
+
+    /**
+     * Supprime les articles publiés avant une date (sauf articles épinglés), ainsi que leurs commentaires et dates de refresh
+     *
+     * @param unTimestamp date de publication minimale des articles conservés
+     * @return nombre de lignes supprimées (articles + commentaires + refresh)
+     */
+    public int supprimerArticlesAvant(final long unTimestamp) {
+        // Articles obsolètes (index sur la date de publication)
+        ArrayList<Integer> mesIdArticles = new ArrayList<>();
+        try {
+            Cursor monCursor = getBDD().rawQuery(REQUETE_ARTICLES_AVANT, new String[]{String.valueOf(unTimestamp)});
+            while (monCursor.moveToNext()) {
+                mesIdArticles.add(monCursor.getInt(0));
+            }
+            monCursor.close();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "supprimerArticlesAvant() - erreur SQL", e);
+            }
+            return 0;
+        }
+        return supprimerArticles(mesIdArticles);
+    }
+
+    /**
+     * Supprime des articles, ainsi que leurs commentaires et dates de refresh, dans une unique transaction, puis leurs
+     * images du cache des images (une image également affichée par un autre article sera téléchargée à nouveau)
+     *
+     * @param desIdArticles ID des articles
+     * @return nombre de lignes supprimées (articles + commentaires + refresh)
+     */
+    private int supprimerArticles(final ArrayList<Integer> desIdArticles) {
+        if (desIdArticles.isEmpty()) {
+            return 0;
+        }
+        long debut = System.nanoTime();
+
+        // Images des articles, supprimées du cache des images avec les articles
+        ArrayList<String> mesUrlsImages = chargerUrlsImages(desIdArticles);
+
+        int nbCommentaires = 0;
+        int nbRefresh = 0;
+        int nbArticles = 0;
+        boolean isSupprime = false;
+        getBDD().beginTransaction();
+        try {
+            // Nombre de paramètres d'une requête limité par SQLite
+            for (int debutLot = 0; debutLot < desIdArticles.size(); debutLot += NB_PARAMETRES_MAX) {
+                int finLot = Math.min(debutLot + NB_PARAMETRES_MAX, desIdArticles.size());
+                String[] mesValeurs = new String[finLot - debutLot];
+                for (int i = debutLot; i < finLot; i++) {
+                    mesValeurs[i - debutLot] = String.valueOf(desIdArticles.get(i));
+                }
+
+                if (monStockageCommentaires == null) {
+                    nbCommentaires += getBDD().delete(BDD_TABLE_COMMENTAIRES, conditionListe(COMMENTAIRE_ARTICLE_ID, mesValeurs.length), mesValeurs);
+                }
+                nbRefresh += getBDD().delete(BDD_TABLE_REFRESH, conditionListe(REFRESH_ARTICLE_ID, mesValeurs.length), mesValeurs);
+                nbArticles += getBDD().delete(BDD_TABLE_ARTICLES, conditionListe(ARTICLE_ID, mesValeurs.length), mesValeurs);
+            }
+            getBDD().setTransactionSuccessful();
+            isSupprime = true;
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "supprimerArticles() - erreur SQL", e);
+            }
+            nbCommentaires = 0;
+            nbRefresh = 0;
+            nbArticles = 0;
+        } finally {
+            getBDD().endTransaction();
+        }
+        if (isSupprime) {
+            // BDD séparée : commentaires des articles supprimés
+            if (monStockageCommentaires != null) {
+                nbCommentaires = supprimerCommentairesArticles(desIdArticles);
+            }
+            for (int idArticle : desIdArticles) {
+                mesModifications.noterSuppression(idArticle);
+            }
+            CacheImages.getInstance(monContext).supprimer(mesUrlsImages);
+        }
+        monCacheArticles.vider();
+        long duree = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut);
+        int nbLignes = nbArticles + nbCommentaires + nbRefresh;
+
+        Statistiques.ajouter(Statistiques.LIGNES_PURGEES, nbLignes);
+        Statistiques.ajouter(Statistiques.TEMPS_PURGE, duree);
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "supprimerArticles() - " + nbArticles + " articles, " + nbCommentaires + " commentaires, " + nbRefresh + " refresh supprimés en " + duree + " µs");
+        }
+        return nbLignes;
+    }
+
+    /**
+     * URL des images (illustration et images du contenu) de quelques articles
+     *
+     * @param desIdArticles ID des articles
+     * @return URL des images
+     */
+    private ArrayList<String> chargerUrlsImages(final ArrayList<Integer> desIdArticles) {
+        ArrayList<String> mesUrls = new ArrayList<>();
+        try {
+            // Nombre de paramètres d'une requête limité par SQLite
+            for (int debut = 0; debut < desIdArticles.size(); debut += NB_PARAMETRES_MAX) {
+                int fin = Math.min(debut + NB_PARAMETRES_MAX, desIdArticles.size());
+                String[] mesValeurs = new String[fin - debut];
+                for (int i = debut; i < fin; i++) {
+                    mesValeurs[i - debut] = String.valueOf(desIdArticles.get(i));
+                }
+                ajouterUrlsImages(getBDD().rawQuery(REQUETE_IMAGES_ARTICLES_LISTE + conditionListe(ARTICLE_ID, mesValeurs.length), mesValeurs), mesUrls);
+            }
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "chargerUrlsImages() - erreur SQL", e);
+            }
+        }
+        return mesUrls;
+    }
+
+    /**
+     * URL des images (illustration et images du contenu) des articles épinglés
+     *
+     * @return URL des images
+     */
+    public ArrayList<String> chargerUrlsImagesEpingles() {
+        ArrayList<String> mesUrls = new ArrayList<>();
+        try {
+            ajouterUrlsImages(getBDD().rawQuery(REQUETE_IMAGES_ARTICLES_EPINGLES, null), mesUrls);
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "chargerUrlsImagesEpingles() - erreur SQL", e);
+            }
+        }
+        return mesUrls;
+    }
+
+    /**
+     * Ajoute les URL des images des articles d'un cursor sur ARTICLE__COLONNES, puis ferme le cursor
+     *
+     * @param unCursor cursor
+     * @param desUrls  URL des images
+     */
+    private void ajouterUrlsImages(final Cursor unCursor, final ArrayList<String> desUrls) {
+        try {
+            while (unCursor.moveToNext()) {
+                ArticleItem monArticle = cursorToArticleItem(unCursor, mesContenus);
+                if (monArticle.getUrlIllustration() != null && !"".equals(monArticle.getUrlIllustration())) {
+                    desUrls.add(monArticle.getUrlIllustration());
+                }
+                desUrls.addAll(CacheImages.extraireUrlsImages(monArticle.getContenu()));
+            }
+        } finally {
+            unCursor.close();
+        }
+    }
+
+    /**
+     * Supprime les articles les moins récemment lus (ou publiés, s'ils n'ont pas été lus) jusqu'à ce que la place occupée
+     * par les articles ne dépasse plus le budget. Les articles épinglés ne sont jamais supprimés.
+     * La place occupée est celle des pages utilisées des BDD (les pages libérées sont réutilisées ou rendues au système
+     * par la maintenance) et des fichiers du contenu des articles.
+     * A appeler depuis le thread d'écriture (cf nettoyerContenus())
+     *
+     * @param uneTailleMax place maximale occupée par les articles (octets)
+     * @return nombre d'articles supprimés
+     */
+    public int supprimerArticlesHorsBudget(final long uneTailleMax) {
+        int nbSupprimes = 0;
+        long maTaille = getTailleUtilisee();
+        // Estimation de la place libérée => nouvelle mesure après chaque lot de suppressions
+        while (maTaille > uneTailleMax) {
+            ArrayList<Integer> mesIdArticles = new ArrayList<>();
+            try {
+                HashMap<Integer, Long> mesTaillesCommentaires = new HashMap<>();
+                Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_TAILLE_COMMENTAIRES, null);
+                while (monCursor.moveToNext()) {
+                    mesTaillesCommentaires.put(monCursor.getInt(0), monCursor.getLong(1));
+                }
+                monCursor.close();
+
+                long tailleLiberee = 0;
+                monCursor = getBDD().rawQuery(REQUETE_ARTICLES_A_EVINCER, null);
+                while (maTaille - tailleLiberee > uneTailleMax && monCursor.moveToNext()) {
+                    int idArticle = monCursor.getInt(0);
+                    Long tailleCommentaires = mesTaillesCommentaires.get(idArticle);
+                    tailleLiberee += monCursor.getLong(1) + (tailleCommentaires == null ? 0 : tailleCommentaires);
+                    if (!monCursor.isNull(2)) {
+                        tailleLiberee += StockageContenus.getTailleFichier(monCursor.getBlob(2));
+                    }
+                    mesIdArticles.add(idArticle);
+                }
+                monCursor.close();
+            } catch (SQLiteException e) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("DAO", "supprimerArticlesHorsBudget() - erreur SQL", e);
+                }
+            }
+            // Plus rien à supprimer (articles épinglés)
+            if (mesIdArticles.isEmpty() || supprimerArticles(mesIdArticles) == 0) {
+                break;
+            }
+            nbSupprimes += mesIdArticles.size();
+            // Place des articles supprimés dans les index de recherche et fichiers du contenu
+            try {
+                if (monStockageCommentaires == null) {
+                    optimiserIndexRecherche(getBDD(), BDD_TABLE_RECHERCHE_ARTICLES, BDD_TABLE_RECHERCHE_COMMENTAIRES);
+                } else {
+                    optimiserIndexRecherche(getBDD(), BDD_TABLE_RECHERCHE_ARTICLES);
+                    monVerrouCommentaires.lock();
+                    try {
+                        optimiserIndexRecherche(getBDDCommentaires(), BDD_TABLE_RECHERCHE_COMMENTAIRES);
+                    } finally {
+                        monVerrouCommentaires.unlock();
+                    }
+                }
+            } catch (SQLiteException e) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("DAO", "supprimerArticlesHorsBudget() - erreur SQL", e);
+                }
+            }
+            nettoyerContenus();
+            maTaille = getTailleUtilisee();
+        }
+
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "supprimerArticlesHorsBudget() - " + nbSupprimes + " articles supprimés, " + maTaille + " / " + uneTailleMax + " octets");
+        }
+        return nbSupprimes;
+    }
+
+    /**
+     * Place occupée par les articles : pages utilisées des BDD (hors pages libres) et fichiers du contenu des articles
+     *
+     * @return taille en octets
+     */
+    public long getTailleUtilisee() {
+        long maTaille = getTaillePagesUtilisees(getBDD()) + mesContenus.getTaille();
+        if (monStockageCommentaires != null) {
+            maTaille += getTaillePagesUtilisees(getBDDCommentaires());
+        }
+        return maTaille;
+    }
+
+    /**
+     * Taille des pages utilisées d'une BDD
+     *
+     * @param uneBDD BDD
+     * @return taille en octets
+     */
+    private static long getTaillePagesUtilisees(final SQLiteDatabase uneBDD) {
+        return (lirePragma(uneBDD, "page_count") - lirePragma(uneBDD, "freelist_count")) * lirePragma(uneBDD, "page_size");
+    }
+
+    /**
+     * Supprime les commentaires d'articles de la BDD séparée des commentaires, dans une unique transaction
+     *
+     * @param desIdArticles ID des articles
+     * @return nombre de commentaires supprimés
+     */
+    private int supprimerCommentairesArticles(final ArrayList<Integer> desIdArticles) {
+        int nbCommentaires = 0;
+        SQLiteDatabase maBase = getBDDCommentaires();
+        monVerrouCommentaires.lock();
+        maBase.beginTransaction();
+        try {
+            // Nombre de paramètres d'une requête limité par SQLite
+            for (int debut = 0; debut < desIdArticles.size(); debut += NB_PARAMETRES_MAX) {
+                int fin = Math.min(debut + NB_PARAMETRES_MAX, desIdArticles.size());
+                String[] mesValeurs = new String[fin - debut];
+                for (int i = debut; i < fin; i++) {
+                    mesValeurs[i - debut] = String.valueOf(desIdArticles.get(i));
+                }
+                nbCommentaires += maBase.delete(BDD_TABLE_COMMENTAIRES, conditionListe(COMMENTAIRE_ARTICLE_ID, mesValeurs.length), mesValeurs);
+            }
+            maBase.setTransactionSuccessful();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "supprimerCommentairesArticles() - erreur SQL", e);
+            }
+            nbCommentaires = 0;
+        } finally {
+            maBase.endTransaction();
+            monVerrouCommentaires.unlock();
+        }
+        return nbCommentaires;
+    }
+
+    /**
+     * Charger un article depuis la BDD (ou depuis le cache des articles récemment chargés)
+     * L'article retourné est partagé : il ne doit pas être modifié
+     *
+     * @param idArticle ID de l'article
+     * @return ArticleItem de l'article
+     */
+    public ArticleItem chargerArticle(final int idArticle) {
+        ArticleItem monArticleEnCache = monCacheArticles.get(idArticle);
+        if (monArticleEnCache != null) {
+            return monArticleEnCache;
+        }
+        int maVersionCache = monCacheArticles.getVersion();
+
+        ArticleItem monArticle = new ArticleItem();
+        // Le fichier du contenu peut être supprimé entre la lecture de l'article et celle du fichier (nouvelle version
+        // enregistrée puis ancien fichier supprimé par nettoyerContenus()) => seconde lecture de l'article
+        byte[] maReferenceIllisible = null;
+        for (int nbLectures = 0; nbLectures < 2; nbLectures++) {
+            // Requête sur la BDD
+            Cursor monCursor = getBDD().rawQuery(REQUETE_ARTICLE, new String[]{String.valueOf(idArticle)});
+
+            // Je vais au premier (et unique) résultat
+            if (!monCursor.moveToNext()) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.i("DAO", "chargerArticle() - ID article inconnu : " + idArticle);
+                }
+                monCursor.close();
+                monArticle = new ArticleItem();
+                break;
+            }
+            // Je charge les données de l'objet
+            monArticle = cursorToArticleItem(monCursor, mesContenus);
+            if (monArticle.getEmpreinteContenu() != EMPREINTE_CONTENU_ILLISIBLE) {
+                monCursor.close();
+                monCacheArticles.mettre(idArticle, monArticle, maVersionCache);
+                break;
+            }
+            final byte[] maReference = monCursor.getBlob(5);
+            // Fermeture du curseur
+            monCursor.close();
+
+            if (Arrays.equals(maReference, maReferenceIllisible)) {
+                // Fichier du contenu perdu => contenu retéléchargé à la prochaine synchronisation (via le thread d'écriture)
+                AsyncDAO.getInstance(monContext).ecrire(() -> oublierEmpreinte(idArticle, maReference));
+            }
+            maReferenceIllisible = maReference;
+        }
+
+        return monArticle;
+    }
+
+    /**
+     * Charge le contenu brut d'un article (parsage différé), sans passer par le cache des articles récemment chargés
+     *
+     * @param idArticle ID de l'article
+     * @return contenu brut, null si l'article est inconnu ou déjà parsé
+     */
+    public String chargerContenuBrut(final int idArticle) {
+        String monRetour = null;
+        try {
+            Cursor monCursor = getBDD().rawQuery(REQUETE_CONTENU_BRUT, new String[]{String.valueOf(idArticle)});
+            if (monCursor.moveToNext()) {
+                monRetour = monCursor.getString(0);
+            }
+            monCursor.close();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "chargerContenuBrut() - erreur SQL", e);
+            }
+        }
+        return monRetour;
+    }
+
+    /**
+     * Charge les résumés des articles de la BDD triés par date de publication
+     * Le contenu n'est pas chargé (cf chargerArticle() pour l'article affiché)
+     *
+     * @return liste d'ArticleItem sans contenu
+     */
+    public ArrayList<ArticleItem> chargerResumesArticlesTriParDate() {
+        // Requête sur la BDD
+        Cursor monCursor = getBDD().rawQuery(REQUETE_RESUMES_ARTICLES, null);
+
+        ArrayList<ArticleItem> mesArticles = new ArrayList<>(monCursor.getCount());
+        // Je passe tous les résultats
+        while (monCursor.moveToNext()) {
+            mesArticles.add(cursorToArticleResume(monCursor));
+        }
+
+        // Fermeture du curseur
+        monCursor.close();
+
+        return mesArticles;
+    }
+
+    /**
+     * Nb de commentaires non lus d'un article (sans chargement de l'article)
+     *
+     * @param idArticle ID de l'article
+     * @return nb de commentaires non lus (0 si article inconnu)
+     */
+    public int compterCommentairesNonLus(final int idArticle) {
+        Cursor monCursor = getBDD().rawQuery(REQUETE_NB_COMMENTAIRES_NON_LUS, new String[]{String.valueOf(idArticle)});
+        int monRetour = 0;
+        if (monCursor.moveToNext()) {
+            monRetour = monCursor.getInt(0);
+        }
+        monCursor.close();
+
+        return monRetour;
+    }
+
+    /**
+     * Nb total de commentaires non lus (articles dont les commentaires ont déjà été ouverts)
+     *
+     * @return nb de commentaires non lus
+     */
+    public int compterCommentairesNonLusTotal() {
+        return (int) DatabaseUtils.longForQuery(getBDD(), REQUETE_NB_COMMENTAIRES_NON_LUS_TOTAL, null);
+    }
+
+    /**
+     * Charge le résumé de quelques articles
+     *
+     * @param desIdArticles ID des articles
+     * @return ID de l'article => résumé (articles existants uniquement)
+     */
+    private HashMap<Integer, ArticleItem> chargerResumesArticles(final Collection<Integer> desIdArticles) {
+        HashMap<Integer, ArticleItem> mesArticles = new HashMap<>();
+        ArrayList<Integer> mesIds = new ArrayList<>(desIdArticles);
+        // Nombre de paramètres d'une requête limité par SQLite
+        for (int debut = 0; debut < mesIds.size(); debut += NB_PARAMETRES_MAX) {
+            int fin = Math.min(debut + NB_PARAMETRES_MAX, mesIds.size());
+            String[] mesValeurs = new String[fin - debut];
+            for (int i = debut; i < fin; i++) {
+                mesValeurs[i - debut] = String.valueOf(mesIds.get(i));
+            }
+
+            Cursor monCursor = getBDD().rawQuery(REQUETE_RESUMES_ARTICLES_LISTE + conditionListe(ARTICLE_ID, mesValeurs.length), mesValeurs);
+            while (monCursor.moveToNext()) {
+                ArticleItem monArticle = cursorToArticleResume(monCursor);
+                mesArticles.put(monArticle.getId(), monArticle);
+            }
+            monCursor.close();
+        }
+        return mesArticles;
+    }
+
+    /**
+     * Extrait les modifications des articles notées depuis le dernier appel (cf AsyncDAO)
+     *
+     * @return modifications, null si aucune
+     */
+    ModificationsArticles extraireModifications() {
+        return mesModifications.extraire();
+    }
+
+    /**
+     * Joint aux modifications le résumé à jour des articles ajoutés ou modifiés
+     *
+     * @param desModifications modifications extraites par extraireModifications()
+     */
+    void chargerModifications(final ModificationsArticles desModifications) {
+        ArrayList<ArticleItem> mesArticles = new ArrayList<>();
+        if (!desModifications.isRechargementComplet()) {
+            HashMap<Integer, ArticleItem> mesResumes = chargerResumesArticles(desModifications.getIdModifies());
+            for (int idArticle : new ArrayList<>(desModifications.getIdModifies())) {
+                ArticleItem monArticle = mesResumes.get(idArticle);
+                if (monArticle == null) {
+                    // Supprimé depuis
+                    desModifications.noterSuppression(idArticle);
+                } else {
+                    mesArticles.add(monArticle);
+                }
+            }
+        }
+        desModifications.setArticles(mesArticles);
+    }
+
+    /**
+     * Charge les empreintes du contenu de tous les articles de la BDD
+     *
+     * @return ID de l'article => empreinte
+     */
+    public HashMap<Integer, Long> chargerEmpreintesArticles() {
+        HashMap<Integer, Long> mesEmpreintes = new HashMap<>();
+        try {
+            // Requête sur la BDD (les articles sans empreinte doivent être parsés)
+            Cursor monCursor = getBDD().rawQuery(REQUETE_EMPREINTES_ARTICLES, null);
+
+            // Je passe tous les résultats
+            while (monCursor.moveToNext()) {
+                mesEmpreintes.put(monCursor.getInt(0), monCursor.getLong(1));
+            }
+
+            // Fermeture du curseur
+            monCursor.close();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "chargerEmpreintesArticles() - erreur SQL", e);
+            }
+        }
+
+        return mesEmpreintes;
+    }
+
+    /**
+     * Charge l'ID du dernier commentaire connu par le parseur pour une liste d'articles (en une seule requête)
+     *
+     * @param desArticles articles concernés
+     * @return ID article => ID du dernier commentaire connu (absent si article inconnu)
+     */
+    public HashMap<Integer, Integer> chargerIdDernierCommentaireParseur(final ArrayList<ArticleItem> desArticles) {
+        HashMap<Integer, Integer> mesIds = new HashMap<>();
+        if (desArticles.isEmpty()) {
+            return mesIds;
+        }
+
+        // WHERE id IN (?, ?, ...)
+        String[] mesParametres = new String[desArticles.size()];
+        for (int i = 0; i < desArticles.size(); i++) {
+            mesParametres[i] = String.valueOf(desArticles.get(i).getId());
+        }
+
+        try {
+            Cursor monCursor = getBDD().rawQuery(REQUETE_ID_DERNIER_COMMENTAIRE_LISTE + conditionListe(ARTICLE_ID, mesParametres.length), mesParametres);
+
+            // Je passe tous les résultats
+            while (monCursor.moveToNext()) {
+                mesIds.put(monCursor.getInt(0), monCursor.getInt(1));
+            }
+
+            // Fermeture du curseur
+            monCursor.close();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "chargerIdDernierCommentaireParseur() - erreur SQL", e);
+            }
+        }
+
+        return mesIds;
+    }
+
+    /**
+     * Enregistre une liste de commentaires en BDD (ceux déjà présents sont ignorés), dans une unique transaction
+     *
+     * @param desCommentaires commentaires à enregistrer
+     */
+    public void enregistrerCommentairesSiNouveaux(final ArrayList<CommentaireItem> desCommentaires) {
+        if (desCommentaires.isEmpty()) {
+            return;
+        }
+        long debut = System.nanoTime();
+
+        SQLiteStatement monInsert = getRequeteCommentaires(REQUETE_AJOUT_COMMENTAIRE);
+        SQLiteStatement monAjoutIndex = getRequeteCommentaires(REQUETE_AJOUT_INDEX_COMMENTAIRE);
+        SQLiteDatabase maBase = getBDDCommentaires();
+        monVerrouCommentaires.lock();
+        maBase.beginTransaction();
+        try {
+            // Commentaires supprimés par supprimerCommentairesAnciens() (retéléchargés avec la 1ère page) : non réenregistrés
+            HashMap<Integer, Integer> mesIdPremiersConserves = chargerIdPremiersCommentairesConserves(desCommentaires);
+            for (CommentaireItem unCommentaire : desCommentaires) {
+                Integer idPremierConserve = mesIdPremiersConserves.get(unCommentaire.getIdArticle());
+                if (idPremierConserve != null && unCommentaire.getId() < idPremierConserve) {
+                    continue;
+                }
+                monInsert.bindLong(1, unCommentaire.getIdArticle());
+                monInsert.bindLong(2, unCommentaire.getId());
+                lierTexte(monInsert, 3, unCommentaire.getAuteur());
+                monInsert.bindLong(4, unCommentaire.getTimeStampPublication());
+                lierTexte(monInsert, 5, unCommentaire.getCommentaire());
+                // Index de recherche (nouveaux commentaires uniquement)
+                if (monInsert.executeInsert() != -1) {
+                    monAjoutIndex.bindLong(1, unCommentaire.getId());
+                    monAjoutIndex.bindString(2, Recherche.normaliserHTML(unCommentaire.getCommentaire()));
+                    monAjoutIndex.executeInsert();
+                }
+            }
+            maBase.setTransactionSuccessful();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "enregistrerCommentairesSiNouveaux() - erreur SQL", e);
+            }
+        } finally {
+            maBase.endTransaction();
+            monVerrouCommentaires.unlock();
+        }
+
+        Statistiques.ajouter(Statistiques.LIGNES_ENREGISTREES, desCommentaires.size());
+        Statistiques.ajouter(Statistiques.TEMPS_ENREGISTREMENT, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut));
+    }
+
+    /**
+     * ID du premier commentaire conservé des articles dont les commentaires les plus anciens ont été supprimés
+     * A appeler sous monVerrouCommentaires (cf supprimerCommentairesAnciens())
+     *
+     * @param desCommentaires commentaires à enregistrer
+     * @return ID de l'article => ID du premier commentaire en BDD (articles sans commentaire supprimé absents)
+     */
+    private HashMap<Integer, Integer> chargerIdPremiersCommentairesConserves(final ArrayList<CommentaireItem> desCommentaires) {
+        HashMap<Integer, Integer> mesIds = new HashMap<>();
+        HashSet<Integer> mesIdArticles = new HashSet<>();
+        for (CommentaireItem unCommentaire : desCommentaires) {
+            if (mesIdArticles.add(unCommentaire.getIdArticle()) && compterCommentairesOublies(unCommentaire.getIdArticle()) > 0) {
+                int idPremier = chargerIdCommentaireAuRang(unCommentaire.getIdArticle(), 0);
+                if (idPremier != 0) {
+                    mesIds.put(unCommentaire.getIdArticle(), idPremier);
+                }
+            }
+        }
+        return mesIds;
+    }
+
+    /**
+     * Lie une chaîne (éventuellement nulle) à une requête précompilée
+     *
+     * @param uneRequete requête
+     * @param unIndex    index du paramètre (à partir de 1)
+     * @param uneValeur  valeur
+     */
+    private static void lierTexte(final SQLiteStatement uneRequete, final int unIndex, final String uneValeur) {
+        if (uneValeur == null) {
+            uneRequete.bindNull(unIndex);
+        } else {
+            uneRequete.bindString(unIndex, uneValeur);
+        }
+    }
+
+    /**
+     * Liste de colonnes d'un SELECT
+     *
+     * @param desColonnes colonnes
+     * @return "col1, col2, ..."
+     */
+    private static String listerColonnes(final String[] desColonnes) {
+        StringBuilder monRetour = new StringBuilder();
+        for (String uneColonne : desColonnes) {
+            if (monRetour.length() > 0) {
+                monRetour.append(", ");
+            }
+            monRetour.append(uneColonne);
+        }
+        return monRetour.toString();
+    }
+
+    /**
+     * Condition sur une liste de valeurs, un paramètre par valeur (cf NB_PARAMETRES_MAX)
+     *
+     * @param uneColonne colonne concernée
+     * @param nbValeurs  nombre de valeurs
+     * @return "colonne IN (?, ?, ...)"
+     */
+    private static String conditionListe(final String uneColonne, final int nbValeurs) {
+        StringBuilder monRetour = new StringBuilder(uneColonne).append(" IN (");
+        for (int i = 0; i < nbValeurs; i++) {
+            monRetour.append(i == 0 ? "?" : ", ?");
+        }
+        return monRetour.append(")").toString();
+    }
+
+    /**
+     * Requête précompilée (compilée à la première utilisation puis réutilisée : seuls les paramètres sont liés à chaque exécution)
+     * A utiliser sous monVerrouEcriture : une requête n'est jamais liée par deux threads à la fois
+     *
+     * @param unSQL requête SQL (constante REQUETE_*)
+     * @return requête précompilée
+     */
+    private SQLiteStatement getRequete(final String unSQL) {
+        synchronized (mesRequetes) {
+            SQLiteStatement maRequete = mesRequetes.get(unSQL);
+            if (maRequete == null) {
+                maRequete = getBDD().compileStatement(unSQL);
+                mesRequetes.put(unSQL, maRequete);
+            }
+            return maRequete;
+        }
+    }
+
+    /**
+     * Requête précompilée sur la BDD des commentaires (cf getRequete()), à utiliser sous monVerrouCommentaires
+     *
+     * @param unSQL requête SQL (constante REQUETE_*)
+     * @return requête précompilée
+     */
+    private SQLiteStatement getRequeteCommentaires(final String unSQL) {
+        if (monStockageCommentaires == null) {
+            return getRequete(unSQL);
+        }
+        synchronized (mesRequetesCommentaires) {
+            SQLiteStatement maRequete = mesRequetesCommentaires.get(unSQL);
+            if (maRequete == null) {
+                maRequete = getBDDCommentaires().compileStatement(unSQL);
+                mesRequetesCommentaires.put(unSQL, maRequete);
+            }
+            return maRequete;
+        }
+    }
+
+    /**
+     * Oublie l'empreinte d'un article dont le fichier du contenu est perdu, s'il y fait toujours référence
+     * A appeler depuis le thread d'écriture
+     *
+     * @param idArticle    ID de l'article
+     * @param uneReference référence vers le fichier perdu
+     */
+    private void oublierEmpreinte(final int idArticle, final byte[] uneReference) {
+        SQLiteStatement maRequete = getRequete(REQUETE_OUBLIER_EMPREINTE);
+        monVerrouEcriture.lock();
+        try {
+            maRequete.bindLong(1, idArticle);
+            maRequete.bindBlob(2, uneReference);
+            maRequete.executeUpdateDelete();
+        } catch (SQLiteException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("DAO", "oublierEmpreinte() - erreur SQL", e);
+            }
+        } finally {
+            monVerrouEcriture.unlock();
+        }
+    }
+
+    /**
+     * Exécute une requête précompilée d'écriture à paramètres entiers
+     *
+     * @param unSQL         requête SQL (constante REQUETE_*)
+     * @param desParametres paramètres, dans l'ordre des "?"
+     * @return nombre de lignes modifiées
+     */
+    private int executer(final String unSQL, final long... desParametres) {
+        SQLiteStatement maRequete = getRequete(unSQL);
+        monVerrouEcriture.lock();
+        try {
+            for (int i = 0; i < desParametres.length; i++) {
+                maRequete.bindLong(i + 1, desParametres[i]);
+            }
+            return maRequete.executeUpdateDelete();
+        } finally {
+            monVerrouEcriture.unlock();
+        }
+    }
+
+    /**
+     * Charge tous les commentaires d'un article
+     *
+     * @param idArticle ID de l'article concerné
+     * @return liste des commentaires
+     */
+    public ArrayList<CommentaireItem> chargerCommentairesTriParID(final int idArticle) {
+        // Requête sur la BDD
+        Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_COMMENTAIRES_ARTICLE, new String[]{String.valueOf(idArticle)});
+
+        ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
+        CommentaireItem monCommentaire;
+        // Je passe tous les résultats
+        while (monCursor.moveToNext()) {
+            // Je charge les données de l'objet
+            monCommentaire = cursorToCommentaireItem(monCursor);
+            // Définition du numéro d'affichage (0 ... n-1)
+            monCommentaire.setNumeroAffichage(monCursor.getPosition() + 1);
+
+            // Et l'enregistre
+            mesCommentaires.add(monCommentaire);
+        }
+        // Fermeture du curseur
+        monCursor.close();
+
+        return mesCommentaires;
+    }
+
+    /**
+     * Charge une page de commentaires d'un article (pagination par clef sur l'index (idarticle, id))
+     *
+     * @param idArticle      ID de l'article concerné
+     * @param idApres        ID du dernier commentaire de la page précédente (0 pour la première page)
+     * @param rangPremier    rang (0 ... n-1) du premier commentaire de la page
+     * @param nbCommentaires taille de la page
+     * @return commentaires de la page
+     */
+    public ArrayList<CommentaireItem> chargerPageCommentaires(final int idArticle, final int idApres, final int rangPremier, final int nbCommentaires) {
+        // Requête sur la BDD
+        Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_PAGE_COMMENTAIRES, new String[]{String.valueOf(idArticle), String.valueOf(idApres), String.valueOf(nbCommentaires)});
+
+        ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>(nbCommentaires);
+        while (monCursor.moveToNext()) {
+            CommentaireItem monCommentaire = cursorToCommentaireItem(monCursor);
+            // Définition du numéro d'affichage (1 ... n)
+            monCommentaire.setNumeroAffichage(rangPremier + monCursor.getPosition() + 1);
+            mesCommentaires.add(monCommentaire);
+        }
+        monCursor.close();
+
+        return mesCommentaires;
+    }
+
+    /**
+     * ID du commentaire d'un article à un rang donné (clef d'une page atteinte sans passer par les précédentes)
+     * Seul l'index (idarticle, id) est parcouru
+     *
+     * @param idArticle ID de l'article concerné
+     * @param unRang    rang (0 ... n-1) du commentaire
+     * @return ID du commentaire (0 si inexistant)
+     */
+    public int chargerIdCommentaireAuRang(final int idArticle, final int unRang) {
+        if (unRang < 0) {
+            return 0;
+        }
+        Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_ID_COMMENTAIRE_AU_RANG, new String[]{String.valueOf(idArticle), String.valueOf(unRang)});
+
+        int retour = 0;
+        if (monCursor.moveToNext()) {
+            retour = monCursor.getInt(0);
+        }
+        monCursor.close();
+
+        return retour;
+    }
+
+    /**
+     * Nombre de commentaires d'un article présents en BDD
+     *
+     * @param idArticle ID de l'article concerné
+     * @return nombre de commentaires
+     */
+    public int compterCommentaires(final int idArticle) {
+        Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_NB_COMMENTAIRES, new String[]{String.valueOf(idArticle)});
+
+        int retour = 0;
+        if (monCursor.moveToNext()) {
+            retour = monCursor.getInt(0);
+        }
+        monCursor.close();
+
+        return retour;
+    }
+
+    /**
+     * Nombre de commentaires les plus anciens d'un article supprimés de la BDD (rang du premier commentaire en BDD)
+     *
+     * @param idArticle ID de l'article concerné
+     * @return nombre de commentaires
+     */
+    public int compterCommentairesOublies(final int idArticle) {
+        Cursor monCursor = getBDD().rawQuery(REQUETE_NB_COMMENTAIRES_OUBLIES, new String[]{String.valueOf(idArticle)});
+
+        int retour = 0;
+        if (monCursor.moveToNext()) {
+            retour = monCursor.getInt(0);
+        }
+        monCursor.close();
+
+        return retour;
+    }
+
+    /**
+     * Limite le nombre de commentaires conservés par article : les plus anciens sont supprimés, sauf ceux précédant de peu
+     * le dernier commentaire lu. Les commentaires conservés restent consécutifs et le nombre de commentaires supprimés est
+     * enregistré : les rangs affichés ne changent pas et les commentaires supprimés sont retéléchargés s'ils sont affichés
+     * (cf CommentairesPagines). Les commentaires des articles épinglés sont tous conservés.
+     * A appeler depuis le thread d'écriture
+     *
+     * @param nbCommentairesMax nombre de commentaires conservés par article (0 : tous)
+     * @return nombre de commentaires supprimés
+     */
+    public int supprimerCommentairesAnciens(final int nbCommentairesMax) {
+        if (nbCommentairesMax <= 0) {
+            return 0;
+        }
+        long debut = System.nanoTime();
+
+        // ID de l'article => ID du dernier commentaire à supprimer
+        HashMap<Integer, Integer> mesIdLimites = new HashMap<>();
+        try {
+            HashMap<Integer, Integer> mesNbCommentaires = new HashMap<>();
+            Cursor monCursor = getBDDCommentaires().rawQuery(REQUETE_NB_COMMENTAIRES_PAR_ARTICLE, new String[]{String.valueOf(nbCommentairesMax)});
+            while (monCursor.moveToNext()) {
+                mesNbCommentaires.put(monCursor.getInt(0), monCursor.getInt(1));
+            }
+            monCursor.close();
+            if (mesNbCommentaires.isEmpty()) {
+                return 0;
+            }
 
-        try {
-            maBDD.update(BDD_TABLE_ARTICLES, updateValues, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
+            monCursor = getBDD().rawQuery(REQUETE_ARTICLES_RETENTION, null);
+            while (monCursor.moveToNext()) {
+                Integer nbEnBDD = mesNbCommentaires.get(monCursor.getInt(0));
+                if (nbEnBDD == null) {
+                    continue;
+                }
+                int nbOublies = monCursor.getInt(1);
+                int indiceDernierLu = monCursor.getInt(2);
+                // Rang du premier commentaire conservé : les plus récents, ou à partir du dernier commentaire lu
+                int rangPremierConserve = nbOublies + nbEnBDD - nbCommentairesMax;
+                if (indiceDernierLu > 0) {
+                    rangPremierConserve = Math.min(rangPremierConserve, indiceDernierLu - RETENTION_MARGE_DERNIER_LU);
+                }
+                int nbASupprimer = rangPremierConserve - nbOublies;
+                if (nbASupprimer > 0) {
+                    mesIdLimites.put(monCursor.getInt(0), chargerIdCommentaireAuRang(monCursor.getInt(0), nbASupprimer - 1));
+                }
+            }
+            monCursor.close();
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.e("DAO", "setDernierCommentaireLu() - erreur SQL", e);
+                Log.e("DAO", "supprimerCommentairesAnciens() - erreur SQL", e);
             }
+            return 0;
+        }
+        if (mesIdLimites.isEmpty()) {
+            return 0;
         }
-    }
-
-    /**
-     * MàJ de l'ID du dernier commentaire connu pour l'article
-     *
-     * @param idArticle        ID de l'article
-     * @param idDernierCommentaireParseur ID du dernier commentaire connu pour l'article
-     */
-    public void setIdDernierCommentaireParseur(final int idArticle, final int idDernierCommentaireParseur) {
-        // Les datas à MàJ
-        ContentValues updateValues = new ContentValues();
-        updateValues.put(ARTICLE_ID_DERNIER_COMMENTAIRE_PARSEUR, idDernierCommentaireParseur);
 
+        // Suppression des commentaires et MàJ du nombre de commentaires supprimés (transaction des articles) avant la
+        // validation de la suppression : BDD séparée, les commentaires ne sont supprimés que si leur nombre est enregistré
+        // Verrous dans l'ordre des autres écritures : verrou d'écriture, transaction des articles, verrou des commentaires
+        // (conservé jusqu'à la validation des articles, cf chargerIdPremiersCommentairesConserves())
+        int nbSupprimes = 0;
+        boolean isCommentairesValides = false;
+        SQLiteDatabase maBaseCommentaires = getBDDCommentaires();
+        monVerrouEcriture.lock();
+        getBDD().beginTransaction();
+        monVerrouCommentaires.lock();
         try {
-            maBDD.update(BDD_TABLE_ARTICLES, updateValues, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
+            try {
+                maBaseCommentaires.beginTransaction();
+                try {
+                    SQLiteStatement maSuppression = getRequeteCommentaires(REQUETE_SUPPRESSION_COMMENTAIRES_ANCIENS);
+                    for (Map.Entry<Integer, Integer> uneLimite : mesIdLimites.entrySet()) {
+                        maSuppression.bindLong(1, uneLimite.getKey());
+                        maSuppression.bindLong(2, uneLimite.getValue());
+                        int nb = maSuppression.executeUpdateDelete();
+                        if (nb > 0) {
+                            executer(REQUETE_AJOUT_COMMENTAIRES_OUBLIES, nb, uneLimite.getKey());
+                            nbSupprimes += nb;
+                        }
+                    }
+                    maBaseCommentaires.setTransactionSuccessful();
+                } finally {
+                    maBaseCommentaires.endTransaction();
+                }
+                isCommentairesValides = true;
+                getBDD().setTransactionSuccessful();
+            } catch (SQLiteException e) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("DAO", "supprimerCommentairesAnciens() - erreur SQL", e);
+                }
+                nbSupprimes = 0;
+            } finally {
+                getBDD().endTransaction();
+            }
         } catch (SQLiteException e) {
+            // Validation des articles impossible : BDD séparée, les commentaires sont supprimés sans que leur nombre soit enregistré
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.e("DAO", "setIdDernierCommentaireParseur() - erreur SQL", e);
+                Log.e("DAO", "supprimerCommentairesAnciens() - nombre de commentaires supprimés non enregistré" + (monStockageCommentaires != null && isCommentairesValides ? " (commentaires supprimés)" : ""), e);
             }
+            nbSupprimes = 0;
+        } finally {
+            monVerrouCommentaires.unlock();
+            monVerrouEcriture.unlock();
         }
+        long duree = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut);
+
+        Statistiques.ajouter(Statistiques.LIGNES_PURGEES, nbSupprimes);
+        Statistiques.ajouter(Statistiques.TEMPS_PURGE, duree);
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "supprimerCommentairesAnciens() - " + nbSupprimes + " commentaires de " + mesIdLimites.size() + " articles supprimés en " + duree + " µs");
+        }
+        return nbSupprimes;
     }
 
     /**
-     * Récupération de l'ID du dernier commentaire téléchargé (en BDD)
+     * Fournit la date de dernière MàJ
      *
      * @param idArticle ID de l'article
-     * @return int ID du dernier commentaire téléchargé (en BDD)
+     * @return timestamp
      */
-    public int getMaxIdCommentaireTelecharge(final int idArticle) {
-        // Les colonnes à récupérer
-        String[] mesColonnes = new String[]{"MAX(" + COMMENTAIRE_ID + ")"};
-
+    public long chargerDateRefresh(final int idArticle) {
         // Requête sur la BDD
-        Cursor monCursor = maBDD.query(BDD_TABLE_COMMENTAIRES, mesColonnes, COMMENTAIRE_ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)}, null, null, null);
+        Cursor monCursor = getBDD().rawQuery(REQUETE_DATE_REFRESH, new String[]{String.valueOf(idArticle)});
 
-        int retour = 0;
+        long retour = 0;
 
         // Je vais au premier (et unique) résultat
         if (monCursor.moveToNext()) {
-            retour = monCursor.getInt(0);
+            retour = monCursor.getLong(0);
         }
         // Fermeture du curseur
         monCursor.close();
 
-        // Valeur par défaut...
-        if (retour < 1) {
-            retour = 0;
-        }
-
         return retour;
     }
 
     /**
-     * MàJ du nb de commentaires d'un article déjà synchronisé
+     * Définit la date de dernière MàJ
      *
-     * @param idArticle      ID de l'article
-     * @param nbCommentaires Nb de commentaires
+     * @param idArticle   ID de l'article
+     * @param dateRefresh date de MàJ
      */
-    public void updateNbCommentairesArticle(final int idArticle, final int nbCommentaires) {
-        // Les datas à MàJ
-        ContentValues updateValues = new ContentValues();
-        updateValues.put(ARTICLE_NB_COMMS, nbCommentaires);
-
+    public void enregistrerDateRefresh(final int idArticle, final long dateRefresh) {
         try {
-            maBDD.update(BDD_TABLE_ARTICLES, updateValues, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
+            executer(REQUETE_ENREGISTRER_DATE_REFRESH, idArticle, dateRefresh);
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.e("DAO", "updateNbCommentairesArticle() - erreur SQL", e);
+                Log.e("DAO", "enregistrerDateRefresh() - erreur SQL", e);
             }
         }
     }
 
     /**
-     * Marque un article comme étant lu
+     * Recherche plein texte dans les articles (titre, sous-titre, contenu) et leurs commentaires
+     * Chaque mot est recherché par préfixe, les articles sont triés par pertinence
      *
-     * @param idArticle ID de l'article
+     * @param uneSaisie saisie de l'utilisateur
+     * @return articles (résumés) les plus pertinents
      */
-    public void marquerArticleLu(final int idArticle) {
-        // Les datas à MàJ
-        ContentValues updateValues = new ContentValues();
-        updateValues.put(ARTICLE_IS_LU, true);
+    public ArrayList<ArticleItem> rechercher(final String uneSaisie) {
+        ArrayList<ArticleItem> monRetour = new ArrayList<>();
+        String maRequete = Recherche.construireRequete(uneSaisie);
+        if (maRequete == null) {
+            return monRetour;
+        }
+        long debut = System.nanoTime();
 
+        // Pertinence par article : article lui-même + ses commentaires
+        HashMap<Integer, Double> mesScores = new HashMap<>();
         try {
-            maBDD.update(BDD_TABLE_ARTICLES, updateValues, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
+            Cursor monCursor = getBDD().rawQuery(REQUETE_RECHERCHE_ARTICLES, new String[]{maRequete});
+            while (monCursor.moveToNext()) {
+                ajouterScore(mesScores, monCursor.getInt(0), Recherche.score(monCursor.getBlob(1), RECHERCHE_POIDS_ARTICLES));
+            }
+            monCursor.close();
+
+            monCursor = getBDDCommentaires().rawQuery(REQUETE_RECHERCHE_COMMENTAIRES, new String[]{maRequete});
+            while (monCursor.moveToNext()) {
+                ajouterScore(mesScores, monCursor.getInt(0), Recherche.score(monCursor.getBlob(1), RECHERCHE_POIDS_COMMENTAIRES));
+            }
+            monCursor.close();
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.e("DAO", "marquerArticleLu() - erreur SQL", e);
+                Log.e("DAO", "rechercher() - erreur SQL", e);
+            }
+            return monRetour;
+        }
+
+        // Les plus pertinents (à pertinence égale : les plus récents, ID décroissants)
+        ArrayList<Map.Entry<Integer, Double>> mesResultats = new ArrayList<>(mesScores.entrySet());
+        Collections.sort(mesResultats, (a, b) -> {
+            int comparaison = Double.compare(b.getValue(), a.getValue());
+            return (comparaison != 0 ? comparaison : Integer.compare(b.getKey(), a.getKey()));
+        });
+        if (mesResultats.size() > RECHERCHE_NB_RESULTATS) {
+            mesResultats = new ArrayList<>(mesResultats.subList(0, RECHERCHE_NB_RESULTATS));
+        }
+
+        // Chargement des articles trouvés
+        ArrayList<Integer> mesIds = new ArrayList<>(mesResultats.size());
+        for (Map.Entry<Integer, Double> unResultat : mesResultats) {
+            mesIds.add(unResultat.getKey());
+        }
+        HashMap<Integer, ArticleItem> mesArticles = chargerResumesArticles(mesIds);
+        for (int idArticle : mesIds) {
+            // Commentaires d'un article supprimé
+            if (mesArticles.containsKey(idArticle)) {
+                monRetour.add(mesArticles.get(idArticle));
             }
         }
+
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "rechercher() - " + maRequete + " => " + monRetour.size() + " articles en " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut) + " ms");
+        }
+        return monRetour;
     }
 
     /**
-     * Supprime un article de la BDD
+     * Cumule la pertinence d'un article
      *
-     * @param idArticle             ID de l'article
-     * @param supprimerCommentaires Faut-il supprimer les commentaires & refresh associés ?
+     * @param desScores pertinence par ID d'article
+     * @param idArticle ID de l'article
+     * @param unScore   pertinence à ajouter
      */
-    public void supprimerArticle(final int idArticle, final boolean supprimerCommentaires) {
-        if (Constantes.DEBUG) {
-            if (supprimerCommentaires) {
-                Log.d("DAO", "supprimerArticle() - Suppression article + commentaires " + idArticle);
-            } else {
-                Log.d("DAO", "supprimerArticle() - Suppression article (sans les commentaires) " + idArticle);
+    private static void ajouterScore(final HashMap<Integer, Double> desScores, final int idArticle, final double unScore) {
+        Double monScore = desScores.get(idArticle);
+        desScores.put(idArticle, (monScore == null ? unScore : monScore + unScore));
+    }
+
+    /**
+     * Maintenance de la BDD (thread d'écriture, hors transaction) : récupération des pages libérées par les suppressions,
+     * fusion des segments des index de recherche et statistiques de l'optimiseur (ANALYZE)
+     *
+     * @return nombre de pages rendues au système de fichiers
+     */
+    public long maintenance() {
+        long debut = System.nanoTime();
+        long nbPagesLiberees = maintenance(getBDD(), BDD_TABLE_RECHERCHE_ARTICLES, BDD_TABLE_RECHERCHE_COMMENTAIRES);
+        if (monStockageCommentaires != null) {
+            // BDD séparée des commentaires : maintenance indépendante, sous le verrou des commentaires
+            monVerrouCommentaires.lock();
+            try {
+                nbPagesLiberees += maintenance(getBDDCommentaires(), BDD_TABLE_RECHERCHE_COMMENTAIRES);
+            } finally {
+                monVerrouCommentaires.unlock();
             }
         }
+        nettoyerContenus();
+        enregistrerDateRefresh(Constantes.DB_REFRESH_ID_MAINTENANCE, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+
+        long duree = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut);
+        Statistiques.incrementer(Statistiques.MAINTENANCES_BDD);
+        Statistiques.ajouter(Statistiques.PAGES_LIBEREES, nbPagesLiberees);
+        Statistiques.ajouter(Statistiques.TEMPS_MAINTENANCE, duree);
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "maintenance() - " + nbPagesLiberees + " pages libérées en " + duree + " µs");
+        }
+        return nbPagesLiberees;
+    }
+
+    /**
+     * Maintenance d'une BDD
+     *
+     * @param uneBDD            BDD
+     * @param desIndexRecherche tables de recherche plein texte de la BDD
+     * @return nombre de pages rendues au système de fichiers
+     */
+    private long maintenance(final SQLiteDatabase uneBDD, final String... desIndexRecherche) {
+        long nbPagesAvant = lirePragma(uneBDD, "page_count");
         try {
-            // Article
-            maBDD.delete(BDD_TABLE_ARTICLES, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
-            if (supprimerCommentaires) {
-                // Commentaires
-                maBDD.delete(BDD_TABLE_COMMENTAIRES, COMMENTAIRE_ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
-                // Date de refresh
-                this.supprimerDateRefresh(idArticle);
+            if (lirePragma(uneBDD, "auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                // BDD créée avant l'activation de l'auto_vacuum : conversion par reconstruction complète (une seule fois)
+                uneBDD.execSQL("PRAGMA auto_vacuum=" + AUTO_VACUUM_INCREMENTAL);
+                uneBDD.execSQL("VACUUM");
+            } else if (lirePragma(uneBDD, "freelist_count") > 0) {
+                // Une page libérée par étape : parcours complet du résultat (execSQL() n'exécuterait qu'une étape)
+                Cursor monCursor = uneBDD.rawQuery("PRAGMA incremental_vacuum", null);
+                monCursor.getCount();
+                monCursor.close();
             }
+            // Index de recherche : fusion des segments créés par les écritures successives
+            optimiserIndexRecherche(uneBDD, desIndexRecherche);
+            // Statistiques des index pour l'optimiseur de requêtes
+            uneBDD.execSQL("ANALYZE");
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.e("DAO", "supprimerArticle() - erreur SQL", e);
+                Log.e("DAO", "maintenance() - erreur SQL", e);
             }
         }
+        return Math.max(0, nbPagesAvant - lirePragma(uneBDD, "page_count"));
     }
 
     /**
-     * Charger un article depuis la BDD
-     *
-     * @param idArticle ID de l'article
-     * @return ArticleItem de l'article
+     * Supprime les fichiers du contenu des articles qui ne sont plus référencés (articles supprimés ou modifiés)
+     * A appeler depuis le thread d'écriture (cf StockageContenus.nettoyer())
      */
-    public ArticleItem chargerArticle(final int idArticle) {
-        // Requête sur la BDD
-        Cursor monCursor = maBDD.query(BDD_TABLE_ARTICLES, ARTICLE__COLONNES, ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)}, null, null, null);
-
-        ArticleItem monArticle = new ArticleItem();
-
-        // Je vais au premier (et unique) résultat
-        if (monCursor.moveToNext()) {
-            // Je charge les données de l'objet
-            monArticle = cursorToArticleItem(monCursor);
-        } else {
+    private void nettoyerContenus() {
+        HashSet<String> mesNoms = new HashSet<>();
+        try {
+            Cursor monCursor = getBDD().query(BDD_TABLE_ARTICLES, new String[]{ARTICLE_ID, ARTICLE_CONTENU}, "typeof(" + ARTICLE_CONTENU + ")='blob' AND substr(" + ARTICLE_CONTENU + ", 1, 1)=X'0" + CodecContenu.CODEC_FICHIER + "'", null, null, null, null);
+            while (monCursor.moveToNext()) {
+                byte[] maReference = monCursor.getBlob(1);
+                if (StockageContenus.isReference(maReference)) {
+                    mesNoms.add(StockageContenus.getNomFichier(monCursor.getInt(0), maReference));
+                }
+            }
+            monCursor.close();
+        } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.i("DAO", "chargerArticle() - ID article inconnu : " + idArticle);
+                Log.e("DAO", "nettoyerContenus() - erreur SQL", e);
             }
+            // Références inconnues => aucun fichier supprimé
+            return;
         }
-        // Fermeture du curseur
-        monCursor.close();
+        int nbSupprimes = mesContenus.nettoyer(mesNoms);
 
-        return monArticle;
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "nettoyerContenus() - " + nbSupprimes + " fichiers supprimés, " + mesNoms.size() + " référencés");
+        }
     }
 
     /**
-     * Charge les articles de la BDD triés par date de publication
+     * Fusion des segments des index de recherche (FTS4 ne libère la place des lignes supprimées qu'à la fusion)
      *
-     * @return ArrayList<ArticleItem> les articles demandés
+     * @param uneBDD            BDD
+     * @param desIndexRecherche tables de recherche plein texte de la BDD
      */
-    public ArrayList<ArticleItem> chargerArticlesTriParDate() {
-        // Requête sur la BDD
-        Cursor monCursor = maBDD.query(BDD_TABLE_ARTICLES, ARTICLE__COLONNES, null, null, null, null, ARTICLE_TIMESTAMP + " DESC");
-
-        ArrayList<ArticleItem> mesArticles = new ArrayList<>();
-        ArticleItem monArticle;
-        // Je passe tous les résultats
-        while (monCursor.moveToNext()) {
-            // Je charge les données de l'objet
-            monArticle = cursorToArticleItem(monCursor);
-            // Et l'enregistre
-            mesArticles.add(monArticle);
+    private static void optimiserIndexRecherche(final SQLiteDatabase uneBDD, final String... desIndexRecherche) {
+        for (String unIndex : desIndexRecherche) {
+            uneBDD.execSQL("INSERT INTO " + unIndex + "(" + unIndex + ") VALUES('optimize')");
         }
-
-        // Fermeture du curseur
-        monCursor.close();
-
-        return mesArticles;
     }
 
     /**
-     * Enregistrer un commentaire en BDD.
+     * Valeur numérique d'un PRAGMA
      *
-     * @param unCommentaire CommentaireItem
+     * @param uneBDD   BDD
+     * @param unPragma nom du PRAGMA
+     * @return valeur
      */
-    private void enregistrerCommentaire(final CommentaireItem unCommentaire) {
-        ContentValues insertValues = new ContentValues();
-        insertValues.put(COMMENTAIRE_ARTICLE_ID, unCommentaire.getIdArticle());
-        insertValues.put(COMMENTAIRE_ID, unCommentaire.getId());
-        insertValues.put(COMMENTAIRE_AUTEUR, unCommentaire.getAuteur());
-        insertValues.put(COMMENTAIRE_TIMESTAMP, unCommentaire.getTimeStampPublication());
-        insertValues.put(COMMENTAIRE_CONTENU, unCommentaire.getCommentaire());
+    private static long lirePragma(final SQLiteDatabase uneBDD, final String unPragma) {
+        return DatabaseUtils.longForQuery(uneBDD, "PRAGMA " + unPragma, null);
+    }
 
+    /**
+     * Répartition de la place occupée par les articles : contenus, commentaires, fichiers du contenu des articles
+     *
+     * @return une ligne par métrique
+     */
+    public String chargerRepartitionStockage() {
+        StringBuilder monRetour = new StringBuilder();
         try {
-            maBDD.insert(BDD_TABLE_COMMENTAIRES, null, insertValues);
+            Cursor monCursor = getBDD().rawQuery("SELECT COUNT(*), IFNULL(SUM(" + ARTICLE_IS_EPINGLE + "), 0), IFNULL(SUM(IFNULL(length(CAST(" + ARTICLE_CONTENU + " AS BLOB)), 0) + IFNULL(length(CAST(" + ARTICLE_CONTENU_BRUT + " AS BLOB)), 0)), 0) FROM " + BDD_TABLE_ARTICLES, null);
+            if (monCursor.moveToNext()) {
+                monRetour.append(String.format(Constantes.LOCALE, "Articles : %d (dont %d épinglés) - contenus en BDD : %d Ko\n", monCursor.getInt(0), monCursor.getInt(1), monCursor.getLong(2) / 1024));
+            }
+            monCursor.close();
+            monCursor = getBDDCommentaires().rawQuery("SELECT COUNT(*), IFNULL(SUM(IFNULL(length(CAST(" + COMMENTAIRE_CONTENU + " AS BLOB)), 0) + IFNULL(length(CAST(" + COMMENTAIRE_AUTEUR + " AS BLOB)), 0)), 0) FROM " + BDD_TABLE_COMMENTAIRES, null);
+            if (monCursor.moveToNext()) {
+                monRetour.append(String.format(Constantes.LOCALE, "Commentaires : %d - %d Ko\n", monCursor.getInt(0), monCursor.getLong(1) / 1024));
+            }
+            monCursor.close();
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
-                Log.e("DAO", "enregistrerCommentaire() - erreur SQL", e);
+                Log.e("DAO", "chargerRepartitionStockage() - erreur SQL", e);
             }
         }
+        monRetour.append(String.format(Constantes.LOCALE, "Fichiers du contenu des articles : %d Ko\n", mesContenus.getTaille() / 1024));
+        monRetour.append(String.format(Constantes.LOCALE, "Total articles (pages utilisées + fichiers) : %d Ko\n", getTailleUtilisee() / 1024));
+        return monRetour.toString();
     }
 
     /**
-     * Enregistre un commentaire en BDD uniquement s'il n'existe pas déjà.
+     * Diagnostic de l'occupation de la BDD : taille des fichiers, pages, pages libres, dernière maintenance
      *
-     * @param unCommentaire CommentaireItem
+     * @return une ligne par métrique
      */
-    public void enregistrerCommentaireSiNouveau(final CommentaireItem unCommentaire) {
-        // J'essaye de charger le commentaire depuis la BDD
-        CommentaireItem testItem = this.chargerCommentaire(unCommentaire.getIdArticle(), unCommentaire.getId());
-
-        // Si je ne l'ai pas récupéré c'est que je peux l'enregistrer en BDD !
-        if (testItem.getId() == 0) {
-            this.enregistrerCommentaire(unCommentaire);
+    public String chargerDiagnostic() {
+        long dateMaintenance = chargerDateRefresh(Constantes.DB_REFRESH_ID_MAINTENANCE);
+
+        StringBuilder monRetour = new StringBuilder();
+        diagnostic(monRetour, getBDD(), getDatabaseName());
+        if (monStockageCommentaires != null) {
+            monRetour.append("Commentaires (BDD séparée) :\n");
+            diagnostic(monRetour, getBDDCommentaires(), monStockageCommentaires.getDatabaseName());
         }
+        monRetour.append(String.format(Constantes.LOCALE, "Fichiers du contenu des articles : %d Ko\n", mesContenus.getTaille() / 1024));
+        monRetour.append("Dernière maintenance : ").append(dateMaintenance == 0 ? "jamais" : MyDateUtils.formatDate(Constantes.FORMAT_DATE_DERNIER_REFRESH, dateMaintenance));
+        return monRetour.toString();
     }
 
     /**
-     * Charge un commentaire depuis la BDD
+     * Diagnostic de l'occupation d'un fichier de BDD
      *
-     * @param idArticle     ID de l'article
-     * @param idCommentaire ID du commentaire
-     * @return le commentaire
+     * @param unRetour diagnostic à compléter
+     * @param uneBDD   BDD
+     * @param unNom    nom du fichier de la BDD
      */
-    private CommentaireItem chargerCommentaire(final int idArticle, final int idCommentaire) {
-        // Requête sur la BDD
-        Cursor monCursor = maBDD.query(BDD_TABLE_COMMENTAIRES, COMMENTAIRE__COLONNES, COMMENTAIRE_ARTICLE_ID + "=? AND " + COMMENTAIRE_ID + "=?", new String[]{String.valueOf(idArticle), String.valueOf(idCommentaire)}, null, null, null);
-
-        CommentaireItem monCommentaire = new CommentaireItem();
-
-        // Je vais au premier (et unique) résultat
-        if (monCursor.moveToNext()) {
-            // Je charge les données de l'objet
-            monCommentaire = cursorToCommentaireItem(monCursor);
-        }
-
-        // Fermeture du curseur
-        monCursor.close();
-
-        return monCommentaire;
+    private void diagnostic(final StringBuilder unRetour, final SQLiteDatabase uneBDD, final String unNom) {
+        File maBDDFichier = monContext.getDatabasePath(unNom);
+        File monJournal = new File(maBDDFichier.getPath() + "-wal");
+        long tailleFichier = maBDDFichier.length();
+        long tailleJournal = monJournal.length();
+
+        long taillePage = lirePragma(uneBDD, "page_size");
+        long nbPages = lirePragma(uneBDD, "page_count");
+        long nbPagesLibres = lirePragma(uneBDD, "freelist_count");
+        boolean isIncremental = lirePragma(uneBDD, "auto_vacuum") == AUTO_VACUUM_INCREMENTAL;
+
+        unRetour.append(String.format(Constantes.LOCALE, "Fichier : %d Ko (journal WAL : %d Ko)\n", tailleFichier / 1024, tailleJournal / 1024));
+        unRetour.append(String.format(Constantes.LOCALE, "Pages : %d x %d octets\n", nbPages, taillePage));
+        unRetour.append(String.format(Constantes.LOCALE, "Pages libres : %d (%d Ko)\n", nbPagesLibres, nbPagesLibres * taillePage / 1024));
+        unRetour.append(String.format(Constantes.LOCALE, "Fragmentation (pages libres / pages) : %.1f %%\n", (nbPages == 0 ? 0 : 100.0 * nbPagesLibres / nbPages)));
+        unRetour.append("Récupération de l'espace libre : ").append(isIncremental ? "incrémentale" : "à activer (prochaine maintenance)").append("\n");
     }
 
     /**
-     * Charge tous les commentaires d'un article
+     * Plan d'exécution (EXPLAIN QUERY PLAN) des requêtes du DAO, les parcours complets de table et tris sans index étant signalés
      *
-     * @param idArticle ID de l'article concerné
-     * @return liste des commentaires
+     * @return une ligne par étape de chaque requête
      */
-    public ArrayList<CommentaireItem> chargerCommentairesTriParID(final int idArticle) {
-        // Requête sur la BDD
-        Cursor monCursor = maBDD.query(BDD_TABLE_COMMENTAIRES, COMMENTAIRE__COLONNES, COMMENTAIRE_ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)}, null, null, "1");
-
-        ArrayList<CommentaireItem> mesCommentaires = new ArrayList<>();
-        CommentaireItem monCommentaire;
-        // Je passe tous les résultats
-        while (monCursor.moveToNext()) {
-            // Je charge les données de l'objet
-            monCommentaire = cursorToCommentaireItem(monCursor);
-            // Définition du numéro d'affichage (0 ... n-1)
-            monCommentaire.setNumeroAffichage(monCursor.getPosition() + 1);
+    public String analyserPlansRequetes() {
+        // Requêtes effectuées par le DAO (paramètres "?" valorisés à 0, listes de deux valeurs)
+        LinkedHashMap<String, String> mesRequetes = new LinkedHashMap<>();
+        mesRequetes.put("chargerArticle", REQUETE_ARTICLE);
+        mesRequetes.put("chargerContenuBrut", REQUETE_CONTENU_BRUT);
+        mesRequetes.put("enregistrerContenuParse", REQUETE_CONTENU_BRUT_INCHANGE);
+        mesRequetes.put("chargerResumesArticlesTriParDate", REQUETE_RESUMES_ARTICLES);
+        mesRequetes.put("chargerModifications", REQUETE_RESUMES_ARTICLES_LISTE + conditionListe(ARTICLE_ID, 2));
+        mesRequetes.put("compterCommentairesNonLus", REQUETE_NB_COMMENTAIRES_NON_LUS);
+        mesRequetes.put("compterCommentairesNonLusTotal", REQUETE_NB_COMMENTAIRES_NON_LUS_TOTAL);
+        mesRequetes.put("chargerEmpreintesArticles", REQUETE_EMPREINTES_ARTICLES);
+        mesRequetes.put("chargerIdArticlesAParser", REQUETE_ARTICLES_A_PARSER);
+        mesRequetes.put("chargerIdDernierCommentaireParseur", REQUETE_ID_DERNIER_COMMENTAIRE_LISTE + conditionListe(ARTICLE_ID, 2));
+        mesRequetes.put("enregistrerArticles (MàJ)", REQUETE_MAJ_ARTICLE);
+        mesRequetes.put("compterCommentairesOublies", REQUETE_NB_COMMENTAIRES_OUBLIES);
+        mesRequetes.put("getMaxIdCommentaireTelecharge", REQUETE_MAX_ID_COMMENTAIRE);
+        mesRequetes.put("chargerCommentairesTriParID", REQUETE_COMMENTAIRES_ARTICLE);
+        mesRequetes.put("chargerPageCommentaires", REQUETE_PAGE_COMMENTAIRES);
+        mesRequetes.put("chargerIdCommentaireAuRang", REQUETE_ID_COMMENTAIRE_AU_RANG);
+        mesRequetes.put("compterCommentaires", REQUETE_NB_COMMENTAIRES);
+        mesRequetes.put("supprimerCommentairesAnciens (commentaires)", REQUETE_NB_COMMENTAIRES_PAR_ARTICLE);
+        mesRequetes.put("supprimerCommentairesAnciens (articles)", REQUETE_ARTICLES_RETENTION);
+        mesRequetes.put("supprimerCommentairesAnciens (suppression)", REQUETE_SUPPRESSION_COMMENTAIRES_ANCIENS);
+        mesRequetes.put("supprimerArticlesAvant", REQUETE_ARTICLES_AVANT);
+        // Suppressions de supprimerArticles() (requêtes construites par SQLiteDatabase.delete())
+        mesRequetes.put("supprimerArticles (commentaires)", "DELETE FROM " + BDD_TABLE_COMMENTAIRES + " WHERE " + conditionListe(COMMENTAIRE_ARTICLE_ID, 2));
+        mesRequetes.put("supprimerArticles (refresh)", "DELETE FROM " + BDD_TABLE_REFRESH + " WHERE " + conditionListe(REFRESH_ARTICLE_ID, 2));
+        mesRequetes.put("supprimerArticles (articles)", "DELETE FROM " + BDD_TABLE_ARTICLES + " WHERE " + conditionListe(ARTICLE_ID, 2));
+        mesRequetes.put("supprimerArticles (images)", REQUETE_IMAGES_ARTICLES_LISTE + conditionListe(ARTICLE_ID, 2));
+        mesRequetes.put("chargerUrlsImagesEpingles", REQUETE_IMAGES_ARTICLES_EPINGLES);
+        mesRequetes.put("supprimerArticlesHorsBudget (articles)", REQUETE_ARTICLES_A_EVINCER);
+        mesRequetes.put("supprimerArticlesHorsBudget (commentaires)", REQUETE_TAILLE_COMMENTAIRES);
+        mesRequetes.put("rechercher (articles)", REQUETE_RECHERCHE_ARTICLES);
+        mesRequetes.put("rechercher (commentaires)", REQUETE_RECHERCHE_COMMENTAIRES);
+        mesRequetes.put("chargerDateRefresh", REQUETE_DATE_REFRESH);
+        // Requêtes sur les commentaires (exécutées sur la BDD des commentaires)
+        HashSet<String> mesRequetesCommentaires = new HashSet<>(Arrays.asList("getMaxIdCommentaireTelecharge", "chargerCommentairesTriParID", "chargerPageCommentaires", "chargerIdCommentaireAuRang", "compterCommentaires", "supprimerCommentairesAnciens (commentaires)", "supprimerCommentairesAnciens (suppression)", "supprimerArticles (commentaires)", "supprimerArticlesHorsBudget (commentaires)", "rechercher (commentaires)"));
+
+        StringBuilder monRapport = new StringBuilder();
+        int nbSignales = 0;
+        for (Map.Entry<String, String> uneRequete : mesRequetes.entrySet()) {
+            monRapport.append(uneRequete.getKey());
+            monRapport.append("\n");
+
+            // Un paramètre par "?"
+            String[] mesParametres = new String[uneRequete.getValue().split("\\?", -1).length - 1];
+            Arrays.fill(mesParametres, "0");
+
+            try {
+                SQLiteDatabase maBase = (mesRequetesCommentaires.contains(uneRequete.getKey()) ? getBDDCommentaires() : getBDD());
+                Cursor monCursor = maBase.rawQuery("EXPLAIN QUERY PLAN " + uneRequete.getValue(), mesParametres);
+                // Colonne "detail" : 4ème colonne quelle que soit la version de SQLite
+                while (monCursor.moveToNext()) {
+                    String monDetail = monCursor.getString(3);
+                    // "SCAN TABLE x" (parcours complet, contrairement à "SEARCH" ou "SCAN ... USING INDEX") ou tri sans index
+                    boolean isSignale = (monDetail.startsWith("SCAN") && !monDetail.contains("INDEX")) || monDetail.contains("TEMP B-TREE");
+                    if (isSignale) {
+                        nbSignales++;
+                    }
+                    monRapport.append(isSignale ? "  /!\\ " : "  ");
+                    monRapport.append(monDetail);
+                    monRapport.append("\n");
+                }
+                monCursor.close();
+            } catch (SQLiteException e) {
+                monRapport.append("  erreur : ");
+                monRapport.append(e.getMessage());
+                monRapport.append("\n");
+            }
+        }
+        monRapport.append("Parcours complets ou tris sans index : ");
+        monRapport.append(nbSignales);
 
-            // Et l'enregistre
-            mesCommentaires.add(monCommentaire);
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("DAO", "analyserPlansRequetes() - " + monRapport);
         }
-        // Fermeture du curseur
-        monCursor.close();
 
-        return mesCommentaires;
+        return monRapport.toString();
     }
 
     /**
-     * Fournit la date de dernière MàJ
+     * Charge un ArticleItem depuis un cursor
      *
-     * @param idArticle ID de l'article
-     * @return timestamp
+     * Package-private pour être mesuré par le module benchmark
+     *
+     * @param unCursor tel retourné par une requête
+     * @return un ArticleItem
      */
-    public long chargerDateRefresh(final int idArticle) {
-        // Requête sur la BDD
-        Cursor monCursor = maBDD.query(BDD_TABLE_REFRESH, REFRESH__COLONNES, REFRESH_ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)}, null, null, null);
-
-        long retour = 0;
-
-        // Je vais au premier (et unique) résultat
-        if (monCursor.moveToNext()) {
-            retour = monCursor.getLong(0);
-        }
-        // Fermeture du curseur
-        monCursor.close();
-
-        return retour;
+    static ArticleItem cursorToArticleItem(final Cursor unCursor) {
+        return cursorToArticleItem(unCursor, null);
     }
 
     /**
-     * Définit la date de dernière MàJ
+     * Charge un ArticleItem depuis un cursor, le contenu stocké dans un fichier étant projeté en mémoire
+     * Si le fichier est illisible, le contenu est vide et l'empreinte vaut EMPREINTE_CONTENU_ILLISIBLE
      *
-     * @param idArticle   ID de l'article
-     * @param dateRefresh date de MàJ
+     * @param unCursor    tel retourné par une requête
+     * @param desContenus fichiers du contenu des articles (null : contenus stockés en BDD uniquement)
+     * @return un ArticleItem
      */
-    public void enregistrerDateRefresh(final int idArticle, final long dateRefresh) {
-        this.supprimerDateRefresh(idArticle);
-
-        ContentValues insertValues = new ContentValues();
-        insertValues.put(REFRESH_ARTICLE_ID, idArticle);
-        insertValues.put(REFRESH_TIMESTAMP, dateRefresh);
+    static ArticleItem cursorToArticleItem(final Cursor unCursor, final StockageContenus desContenus) {
+        ArticleItem monArticle = new ArticleItem();
 
-        try {
-            maBDD.insert(BDD_TABLE_REFRESH, null, insertValues);
-        } catch (SQLiteException e) {
-            // DEBUG
-            if (Constantes.DEBUG) {
-                Log.e("DAO", "enregistrerDateRefresh() - erreur SQL", e);
+        monArticle.setId(unCursor.getInt(0));
+        monArticle.setTitre(unCursor.getString(1));
+        monArticle.setSousTitre(unCursor.getString(2));
+        monArticle.setTimeStampPublication(unCursor.getLong(3));
+        monArticle.setUrlIllustration(unCursor.getString(4));
+        // Contenu compressé (BLOB), référence vers un fichier (BLOB) ou texte (articles enregistrés sans compression)
+        boolean isContenuIllisible = false;
+        if (unCursor.getType(5) == Cursor.FIELD_TYPE_BLOB) {
+            byte[] monContenu = unCursor.getBlob(5);
+            if (StockageContenus.isReference(monContenu)) {
+                ByteBuffer monFichier = (desContenus == null ? null : desContenus.lire(monArticle.getId(), monContenu));
+                if (monFichier == null) {
+                    isContenuIllisible = true;
+                    monArticle.setContenu("");
+                } else {
+                    monArticle.setContenuFichier(monFichier);
+                }
+            } else {
+                monArticle.setContenuCompresse(monContenu);
             }
+        } else {
+            monArticle.setContenu(unCursor.getString(5));
         }
-    }
+        monArticle.setNbCommentaires(unCursor.getInt(6));
+        monArticle.setAbonne((unCursor.getInt(7) > 0));
+        monArticle.setLu((unCursor.getInt(8) > 0));
+        monArticle.setDlContenuAbonne((unCursor.getInt(9) > 0));
+        monArticle.setIndiceDernierCommLu(unCursor.getInt(10));
+        monArticle.setURLseo(unCursor.getString(11));
+        monArticle.setParseurLastCommentId(unCursor.getInt(12));
+        monArticle.setEmpreinteContenu(isContenuIllisible ? EMPREINTE_CONTENU_ILLISIBLE : unCursor.getLong(13));
+        monArticle.setContenuBrut(unCursor.getString(14));
+        monArticle.setNbCommentairesNonLus(unCursor.getInt(15));
+        monArticle.setEpingle((unCursor.getInt(16) > 0));
 
-    /**
-     * Supprime la date de derniàre MàJ
-     *
-     * @param idArticle ID de l'article
-     */
-    private void supprimerDateRefresh(final int idArticle) {
-        try {
-            maBDD.delete(BDD_TABLE_REFRESH, REFRESH_ARTICLE_ID + "=?", new String[]{String.valueOf(idArticle)});
-        } catch (SQLiteException e) {
-            // DEBUG
-            if (Constantes.DEBUG) {
-                Log.e("DAO", "supprimerDateRefresh() - erreur SQL", e);
-            }
-        }
+        return monArticle;
     }
 
     /**
-     * Charge un ArticleItem depuis un cursor
+     * Charge un résumé d'ArticleItem (sans contenu) depuis un cursor sur ARTICLE__COLONNES_RESUME
+     *
+     * Package-private pour être mesuré par le module benchmark
      *
      * @param unCursor tel retourné par une requête
      * @return un ArticleItem
      */
-    private ArticleItem cursorToArticleItem(final Cursor unCursor) {
+    static ArticleItem cursorToArticleResume(final Cursor unCursor) {
         ArticleItem monArticle = new ArticleItem();
 
         monArticle.setId(unCursor.getInt(0));
@@ -655,14 +2715,14 @@ public final class DAO extends SQLiteOpenHelper {
         monArticle.setSousTitre(unCursor.getString(2));
         monArticle.setTimeStampPublication(unCursor.getLong(3));
         monArticle.setUrlIllustration(unCursor.getString(4));
-        monArticle.setContenu(unCursor.getString(5));
-        monArticle.setNbCommentaires(unCursor.getInt(6));
-        monArticle.setAbonne((unCursor.getInt(7) > 0));
-        monArticle.setLu((unCursor.getInt(8) > 0));
-        monArticle.setDlContenuAbonne((unCursor.getInt(9) > 0));
-        monArticle.setIndiceDernierCommLu(unCursor.getInt(10));
-        monArticle.setURLseo(unCursor.getString(11));
-        monArticle.setParseurLastCommentId(unCursor.getInt(12));
+        monArticle.setNbCommentaires(unCursor.getInt(5));
+        monArticle.setAbonne((unCursor.getInt(6) > 0));
+        monArticle.setLu((unCursor.getInt(7) > 0));
+        monArticle.setDlContenuAbonne((unCursor.getInt(8) > 0));
+        monArticle.setIndiceDernierCommLu(unCursor.getInt(9));
+        monArticle.setURLseo(unCursor.getString(10));
+        monArticle.setParseurLastCommentId(unCursor.getInt(11));
+        monArticle.setNbCommentairesNonLus(unCursor.getInt(12));
 
         return monArticle;
     }
@@ -670,10 +2730,12 @@ public final class DAO extends SQLiteOpenHelper {
     /**
      * Charge un CommentaireItem depuis un cursor
      *
+     * Package-private pour être mesuré par le module benchmark
+     *
      * @param unCursor tel retourné par une requête
      * @return un CommentaireItem
      */
-    private CommentaireItem cursorToCommentaireItem(final Cursor unCursor) {
+    static CommentaireItem cursorToCommentaireItem(final Cursor unCursor) {
         CommentaireItem monCommentaire = new CommentaireItem();
 
         monCommentaire.setId(unCursor.getInt(0));
@@ -691,17 +2753,21 @@ public final class DAO extends SQLiteOpenHelper {
     public void vider() {
         try {
             // Les articles
-            maBDD.delete(BDD_TABLE_ARTICLES, null, null);
+            getBDD().delete(BDD_TABLE_ARTICLES, null, null);
             // Les commentaires
-            maBDD.delete(BDD_TABLE_COMMENTAIRES, null, null);
+            viderTableCommentaires();
             // Date de refresh
-            maBDD.delete(BDD_TABLE_REFRESH, null, null);
+            getBDD().delete(BDD_TABLE_REFRESH, null, null);
+            // Les fichiers du contenu des articles
+            mesContenus.vider();
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
                 Log.e("DAO", "vider() - erreur SQL", e);
             }
         }
+        monCacheArticles.vider();
+        mesModifications.noterRechargement();
     }
 
     /**
@@ -710,16 +2776,69 @@ public final class DAO extends SQLiteOpenHelper {
     public void viderCommentaires() {
         try {
             // Les commentaires
-            maBDD.delete(BDD_TABLE_COMMENTAIRES, null, null);
+            viderTableCommentaires();
             // Dernier commentaire lu des articles
             ContentValues updateValues = new ContentValues();
             updateValues.put(ARTICLE_INDICE_DERNIER_COMMENTAIRE_LU, 0);
-            maBDD.update(BDD_TABLE_ARTICLES, updateValues, null, null);
+            updateValues.put(ARTICLE_NB_COMMENTAIRES_OUBLIES, 0);
+            getBDD().update(BDD_TABLE_ARTICLES, updateValues, null, null);
         } catch (SQLiteException e) {
             // DEBUG
             if (Constantes.DEBUG) {
                 Log.e("DAO", "viderCommentaires() - erreur SQL", e);
             }
         }
+        monCacheArticles.vider();
+        // Nombre de commentaires non lus de tous les articles
+        mesModifications.noterRechargement();
+    }
+
+    /**
+     * Suppression de tous les commentaires
+     * BDD séparée : le fichier est supprimé (pas de pages libres à récupérer) puis recréé à la prochaine requête
+     */
+    private void viderTableCommentaires() {
+        if (monStockageCommentaires == null) {
+            getBDD().delete(BDD_TABLE_COMMENTAIRES, null, null);
+        } else {
+            monVerrouCommentaires.lock();
+            try {
+                fermerBDDCommentaires();
+                monContext.deleteDatabase(monStockageCommentaires.getDatabaseName());
+            } finally {
+                monVerrouCommentaires.unlock();
+            }
+        }
+    }
+
+    /**
+     * BDD séparée des commentaires (fichier, journal WAL et connexion d'écriture propres)
+     */
+    private static final class BDDCommentaires extends SQLiteOpenHelper {
+        /**
+         * Lien sur la BDD des commentaires
+         *
+         * @param unContext context de l'application
+         * @param unNomBDD  nom du fichier de la BDD
+         */
+        BDDCommentaires(final Context unContext, final String unNomBDD) {
+            super(unContext, unNomBDD, null, BDD_VERSION_COMMENTAIRES);
+            setWriteAheadLoggingEnabled(true);
+        }
+
+        @Override
+        public void onConfigure(SQLiteDatabase db) {
+            db.execSQL("PRAGMA auto_vacuum=" + AUTO_VACUUM_INCREMENTAL);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            creerSchemaCommentaires(db);
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // Première version du schéma
+        }
     }
 }
\ No newline at end of file
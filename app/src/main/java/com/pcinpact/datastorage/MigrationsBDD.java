@@ -0,0 +1,250 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.pcinpact.utils.Constantes;
+import com.pcinpact.utils.Statistiques;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migrations du schéma de la BDD des articles : une classe par version, exécutées dans l'ordre depuis la version
+ * de la BDD existante, chacune dans sa transaction.
+ * Le SQL d'une migration décrit le schéma de sa version : il n'utilise pas les constantes actuelles du DAO,
+ * seules les fonctions idempotentes du DAO (création des index) sont réutilisées.
+ *
+ * @author Anael
+ */
+final class MigrationsBDD {
+    /**
+     * Première version migrée (les BDD antérieures, de PC INpact, sont recréées vierges)
+     */
+    static final int VERSION_MIN = 10;
+    /**
+     * Migrations, dans l'ordre des versions (de VERSION_MIN + 1 à DAO.BDD_VERSION)
+     */
+    static final Migration[] MIGRATIONS = new Migration[]{new MigrationVersion11(), new MigrationVersion12(), new MigrationVersion13(), new MigrationVersion14(), new MigrationVersion15(), new MigrationVersion16(), new MigrationVersion17()};
+
+    private MigrationsBDD() {
+    }
+
+    /**
+     * MàJ du schéma de la BDD (cf DAO.onUpgrade())
+     *
+     * @param db              BDD
+     * @param uneVersion      version actuelle de la BDD
+     * @param uneVersionCible version à atteindre
+     */
+    static void migrer(final SQLiteDatabase db, final int uneVersion, final int uneVersionCible) {
+        if (uneVersion < VERSION_MIN) {
+            executer(db, new Recreation());
+            return;
+        }
+        for (Migration uneMigration : MIGRATIONS) {
+            if (uneMigration.getVersion() > uneVersion && uneMigration.getVersion() <= uneVersionCible) {
+                executer(db, uneMigration);
+            }
+        }
+    }
+
+    /**
+     * Exécution d'une migration dans une transaction (imbriquée dans celle de SQLiteOpenHelper lors de l'ouverture
+     * de la BDD : un échec annule l'ensemble de la MàJ)
+     *
+     * @param db           BDD
+     * @param uneMigration migration
+     */
+    private static void executer(final SQLiteDatabase db, final Migration uneMigration) {
+        long debut = System.nanoTime();
+
+        db.beginTransaction();
+        try {
+            uneMigration.migrer(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        long duree = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut);
+
+        Statistiques.incrementer(Statistiques.MIGRATIONS_BDD);
+        Statistiques.ajouter(Statistiques.TEMPS_MIGRATION, duree);
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.i("MigrationsBDD", "executer() - " + uneMigration.getClass().getSimpleName() + " en " + duree + " µs");
+        }
+    }
+
+    /**
+     * Etape de MàJ du schéma
+     */
+    abstract static class Migration {
+        /**
+         * Version du schéma après la migration
+         */
+        private final int maVersion;
+
+        /**
+         * @param uneVersion version du schéma après la migration
+         */
+        Migration(final int uneVersion) {
+            maVersion = uneVersion;
+        }
+
+        /**
+         * Version du schéma après la migration
+         *
+         * @return version
+         */
+        int getVersion() {
+            return maVersion;
+        }
+
+        /**
+         * MàJ du schéma depuis la version précédente
+         *
+         * @param db BDD
+         */
+        abstract void migrer(SQLiteDatabase db);
+    }
+
+    /**
+     * Versions antérieures à VERSION_MIN (PC INpact) : suppression des tables et création du schéma actuel
+     */
+    static final class Recreation extends Migration {
+        Recreation() {
+            super(DAO.BDD_VERSION);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            db.execSQL("DROP TABLE IF EXISTS articles;");
+            db.execSQL("DROP TABLE IF EXISTS commentaires;");
+            db.execSQL("DROP TABLE IF EXISTS refresh;");
+            // Table plus utilisée
+            db.execSQL("DROP TABLE IF EXISTS cacheImage;");
+            DAO.creerSchema(db);
+        }
+    }
+
+    /**
+     * Indice du dernier commentaire lu et ID du dernier commentaire connu
+     */
+    static final class MigrationVersion11 extends Migration {
+        MigrationVersion11() {
+            super(11);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            // Nouvelle colonne plutôt que RENAME COLUMN (SQLite 3.25, Android 11) : l'ancienne colonne n'est plus utilisée
+            db.execSQL("ALTER TABLE articles ADD COLUMN indiceDernierCommentaireLu INTEGER;");
+            db.execSQL("UPDATE articles SET indiceDernierCommentaireLu=dernierCommentaireLu;");
+            db.execSQL("ALTER TABLE articles ADD COLUMN idDernierCommentaireParseur INTEGER;");
+        }
+    }
+
+    /**
+     * Empreinte du contenu (les articles existants seront parsés à nouveau une fois)
+     */
+    static final class MigrationVersion12 extends Migration {
+        MigrationVersion12() {
+            super(12);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            db.execSQL("ALTER TABLE articles ADD COLUMN empreinte INTEGER;");
+        }
+    }
+
+    /**
+     * Contenu brut (parsage différé)
+     */
+    static final class MigrationVersion13 extends Migration {
+        MigrationVersion13() {
+            super(13);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            db.execSQL("ALTER TABLE articles ADD COLUMN contenubrut TEXT;");
+        }
+    }
+
+    /**
+     * Index secondaires
+     */
+    static final class MigrationVersion14 extends Migration {
+        MigrationVersion14() {
+            super(14);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            DAO.creerIndex(db);
+        }
+    }
+
+    /**
+     * Recherche plein texte (indexation de l'existant)
+     */
+    static final class MigrationVersion15 extends Migration {
+        MigrationVersion15() {
+            super(15);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            DAO.creerIndexRecherche(db);
+            DAO.indexerRecherche(db);
+        }
+    }
+
+    /**
+     * Budget de stockage : date de dernière lecture et articles épinglés
+     */
+    static final class MigrationVersion16 extends Migration {
+        MigrationVersion16() {
+            super(16);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            db.execSQL("ALTER TABLE articles ADD COLUMN datelecture INTEGER;");
+            db.execSQL("ALTER TABLE articles ADD COLUMN isepingle BOOLEAN NOT NULL DEFAULT 0;");
+        }
+    }
+
+    /**
+     * Rétention des commentaires : nombre de commentaires les plus anciens supprimés
+     */
+    static final class MigrationVersion17 extends Migration {
+        MigrationVersion17() {
+            super(17);
+        }
+
+        @Override
+        void migrer(SQLiteDatabase db) {
+            db.execSQL("ALTER TABLE articles ADD COLUMN nbcommentairesoublies INTEGER NOT NULL DEFAULT 0;");
+        }
+    }
+}
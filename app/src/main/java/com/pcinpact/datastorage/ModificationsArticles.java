@@ -0,0 +1,135 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import com.pcinpact.items.ArticleItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Modifications des articles effectuées par les écritures en BDD, publiées aux observateurs par AsyncDAO.
+ * Les écritures du DAO notent les ID concernés, AsyncDAO y joint les résumés à jour des articles avant publication.
+ *
+ * @author Anael
+ */
+public final class ModificationsArticles {
+    /**
+     * ID des articles ajoutés ou modifiés
+     */
+    private final LinkedHashSet<Integer> mesIdModifies = new LinkedHashSet<>();
+    /**
+     * ID des articles supprimés
+     */
+    private final LinkedHashSet<Integer> mesIdSupprimes = new LinkedHashSet<>();
+    /**
+     * Modification globale (ID non connus) => liste à recharger entièrement
+     */
+    private boolean rechargementComplet = false;
+    /**
+     * Résumés à jour des articles ajoutés ou modifiés
+     */
+    private List<ArticleItem> mesArticles = Collections.emptyList();
+
+    /**
+     * Article ajouté ou modifié
+     *
+     * @param idArticle ID de l'article
+     */
+    synchronized void noterModification(final int idArticle) {
+        mesIdSupprimes.remove(idArticle);
+        mesIdModifies.add(idArticle);
+    }
+
+    /**
+     * Article supprimé
+     *
+     * @param idArticle ID de l'article
+     */
+    synchronized void noterSuppression(final int idArticle) {
+        mesIdModifies.remove(idArticle);
+        mesIdSupprimes.add(idArticle);
+    }
+
+    /**
+     * Modification de tous les articles
+     */
+    synchronized void noterRechargement() {
+        rechargementComplet = true;
+    }
+
+    /**
+     * Extrait les modifications notées et les oublie
+     *
+     * @return modifications, null si aucune
+     */
+    synchronized ModificationsArticles extraire() {
+        if (!rechargementComplet && mesIdModifies.isEmpty() && mesIdSupprimes.isEmpty()) {
+            return null;
+        }
+        ModificationsArticles monRetour = new ModificationsArticles();
+        monRetour.rechargementComplet = rechargementComplet;
+        if (!rechargementComplet) {
+            monRetour.mesIdModifies.addAll(mesIdModifies);
+            monRetour.mesIdSupprimes.addAll(mesIdSupprimes);
+        }
+        rechargementComplet = false;
+        mesIdModifies.clear();
+        mesIdSupprimes.clear();
+        return monRetour;
+    }
+
+    /**
+     * @return ID des articles ajoutés ou modifiés
+     */
+    Set<Integer> getIdModifies() {
+        return mesIdModifies;
+    }
+
+    /**
+     * @param desArticles résumés à jour des articles ajoutés ou modifiés
+     */
+    void setArticles(final ArrayList<ArticleItem> desArticles) {
+        mesArticles = Collections.unmodifiableList(desArticles);
+    }
+
+    /**
+     * @return la liste doit être rechargée entièrement
+     */
+    public boolean isRechargementComplet() {
+        return rechargementComplet;
+    }
+
+    /**
+     * @return ID des articles supprimés
+     */
+    public Set<Integer> getIdSupprimes() {
+        return Collections.unmodifiableSet(mesIdSupprimes);
+    }
+
+    /**
+     * @return résumés à jour des articles ajoutés ou modifiés
+     */
+    public List<ArticleItem> getArticles() {
+        return mesArticles;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+/**
+ * Observateur des modifications des articles en BDD (cf AsyncDAO.ajouterObservateur()).
+ *
+ * @author Anael
+ */
+public interface ModificationsDAOInterface {
+    /**
+     * Articles ajoutés, modifiés ou supprimés par une écriture (appelé sur le thread UI)
+     *
+     * @param desModifications modifications (ne pas modifier : partagées entre les observateurs)
+     */
+    void modificationsArticles(ModificationsArticles desModifications);
+}
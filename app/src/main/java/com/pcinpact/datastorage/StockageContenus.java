@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.util.Log;
+
+import com.pcinpact.utils.CodecContenu;
+import com.pcinpact.utils.Constantes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Stockage du contenu des articles dans des fichiers (un par version du contenu d'un article), lus par projection mémoire.
+ * La BDD ne conserve qu'une référence : marqueur CodecContenu.CODEC_FICHIER, CRC32 et taille du fichier.
+ * Le fichier n'est jamais modifié : un nouveau contenu est écrit dans un nouveau fichier, les fichiers non référencés
+ * sont supprimés par nettoyer().
+ *
+ * @author Anael
+ */
+final class StockageContenus {
+    /**
+     * Taille d'une référence : marqueur + CRC32 + taille
+     */
+    private static final int TAILLE_REFERENCE = 9;
+    /**
+     * Taille du buffer de calcul du CRC32 (CRC32.update(ByteBuffer) : API 26)
+     */
+    private static final int TAILLE_BUFFER = 8192;
+    /**
+     * Extension des fichiers en cours d'écriture
+     */
+    private static final String EXTENSION_TEMPORAIRE = ".tmp";
+
+    /**
+     * Répertoire des fichiers
+     */
+    private final File monRepertoire;
+
+    /**
+     * Stockage dans un répertoire (créé à la première écriture)
+     *
+     * @param unRepertoire répertoire des fichiers
+     */
+    StockageContenus(final File unRepertoire) {
+        monRepertoire = unRepertoire;
+    }
+
+    /**
+     * La valeur stockée en BDD est-elle une référence vers un fichier ?
+     *
+     * @param desDonnees valeur BLOB de la BDD
+     * @return true si référence
+     */
+    static boolean isReference(final byte[] desDonnees) {
+        return (desDonnees != null && desDonnees.length == TAILLE_REFERENCE && desDonnees[0] == CodecContenu.CODEC_FICHIER);
+    }
+
+    /**
+     * Taille du fichier désigné par une référence
+     *
+     * @param uneReference référence stockée en BDD
+     * @return taille en octets (0 si pas une référence)
+     */
+    static long getTailleFichier(final byte[] uneReference) {
+        if (!isReference(uneReference)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(uneReference).getInt(5);
+    }
+
+    /**
+     * Nom du fichier désigné par une référence
+     *
+     * @param idArticle    ID de l'article
+     * @param uneReference référence stockée en BDD
+     * @return nom du fichier
+     */
+    static String getNomFichier(final int idArticle, final byte[] uneReference) {
+        return getNomFichier(idArticle, ByteBuffer.wrap(uneReference).getInt(1));
+    }
+
+    /**
+     * Nom du fichier d'une version du contenu d'un article
+     *
+     * @param idArticle ID de l'article
+     * @param unCRC     CRC32 du contenu
+     * @return nom du fichier
+     */
+    private static String getNomFichier(final int idArticle, final int unCRC) {
+        return idArticle + "_" + Integer.toHexString(unCRC);
+    }
+
+    /**
+     * Enregistre un contenu (écriture dans un fichier temporaire, synchronisée sur le disque, puis renommage)
+     * A appeler avant l'enregistrement de la référence en BDD : une référence désigne toujours un fichier complet
+     *
+     * @param idArticle  ID de l'article
+     * @param desDonnees contenu encodé (cf CodecContenu)
+     * @return référence à stocker en BDD
+     * @throws IOException erreur d'écriture
+     */
+    byte[] ecrire(final int idArticle, final byte[] desDonnees) throws IOException {
+        CRC32 monCRC = new CRC32();
+        monCRC.update(desDonnees);
+        int valeurCRC = (int) monCRC.getValue();
+
+        File monFichier = new File(monRepertoire, getNomFichier(idArticle, valeurCRC));
+        // Même contenu déjà enregistré
+        if (!monFichier.exists() || monFichier.length() != desDonnees.length) {
+            if (!monRepertoire.isDirectory() && !monRepertoire.mkdirs()) {
+                throw new IOException("Création impossible de " + monRepertoire);
+            }
+            File monTemporaire = new File(monRepertoire, monFichier.getName() + EXTENSION_TEMPORAIRE);
+            try (FileOutputStream monFlux = new FileOutputStream(monTemporaire)) {
+                monFlux.write(desDonnees);
+                monFlux.getFD().sync();
+            }
+            if (!monTemporaire.renameTo(monFichier)) {
+                monTemporaire.delete();
+                throw new IOException("Renommage impossible de " + monTemporaire);
+            }
+        }
+
+        return ByteBuffer.allocate(TAILLE_REFERENCE).put(CodecContenu.CODEC_FICHIER).putInt(valeurCRC).putInt(desDonnees.length).array();
+    }
+
+    /**
+     * Projection mémoire du fichier désigné par une référence (lecture seule), après contrôle de sa taille et de son CRC32
+     * Le contenu n'est copié dans le tas Java qu'à son décodage (cf CodecContenu.decoderFichier())
+     *
+     * @param idArticle    ID de l'article
+     * @param uneReference référence stockée en BDD
+     * @return contenu encodé, null si fichier absent ou corrompu
+     */
+    ByteBuffer lire(final int idArticle, final byte[] uneReference) {
+        ByteBuffer maReference = ByteBuffer.wrap(uneReference);
+        int valeurCRC = maReference.getInt(1);
+        int taille = maReference.getInt(5);
+
+        File monFichier = new File(monRepertoire, getNomFichier(idArticle, valeurCRC));
+        try (RandomAccessFile monAcces = new RandomAccessFile(monFichier, "r"); FileChannel monCanal = monAcces.getChannel()) {
+            if (monCanal.size() != taille) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("StockageContenus", "lire() - taille incorrecte : " + monFichier);
+                }
+                return null;
+            }
+            // La projection reste valide après la fermeture du fichier
+            ByteBuffer monContenu = monCanal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+            if (calculerCRC(monContenu) != valeurCRC) {
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("StockageContenus", "lire() - CRC incorrect : " + monFichier);
+                }
+                return null;
+            }
+            return monContenu;
+        } catch (IOException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("StockageContenus", "lire() - lecture impossible : " + monFichier, e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CRC32 d'un buffer, calculé par blocs (sans copie complète dans le tas Java)
+     *
+     * @param unContenu contenu
+     * @return CRC32
+     */
+    private static int calculerCRC(final ByteBuffer unContenu) {
+        ByteBuffer maLecture = unContenu.duplicate();
+        CRC32 monCRC = new CRC32();
+        byte[] monBuffer = new byte[TAILLE_BUFFER];
+        while (maLecture.hasRemaining()) {
+            int nbOctets = Math.min(monBuffer.length, maLecture.remaining());
+            maLecture.get(monBuffer, 0, nbOctets);
+            monCRC.update(monBuffer, 0, nbOctets);
+        }
+        return (int) monCRC.getValue();
+    }
+
+    /**
+     * Supprime les fichiers non référencés par la BDD (contenus remplacés, articles supprimés, écritures interrompues)
+     * A appeler depuis le thread d'écriture : aucun fichier ne doit être en attente de l'enregistrement de sa référence
+     *
+     * @param desNomsReferences noms des fichiers référencés (cf getNomFichier())
+     * @return nombre de fichiers supprimés
+     */
+    int nettoyer(final Set<String> desNomsReferences) {
+        int nbSupprimes = 0;
+        File[] mesFichiers = monRepertoire.listFiles();
+        if (mesFichiers == null) {
+            return 0;
+        }
+        for (File unFichier : mesFichiers) {
+            if (!desNomsReferences.contains(unFichier.getName()) && unFichier.delete()) {
+                nbSupprimes++;
+            }
+        }
+        return nbSupprimes;
+    }
+
+    /**
+     * Taille totale des fichiers
+     *
+     * @return taille en octets
+     */
+    long getTaille() {
+        long taille = 0;
+        File[] mesFichiers = monRepertoire.listFiles();
+        if (mesFichiers != null) {
+            for (File unFichier : mesFichiers) {
+                taille += unFichier.length();
+            }
+        }
+        return taille;
+    }
+
+    /**
+     * Suppression de tous les fichiers
+     */
+    void vider() {
+        nettoyer(Collections.<String>emptySet());
+    }
+}
@@ -18,9 +18,11 @@
  */
 package com.pcinpact.items;
 
-import com.pcinpact.utils.Constantes;
+import com.pcinpact.utils.CodecContenu;
 import com.pcinpact.utils.MyDateUtils;
 
+import java.nio.ByteBuffer;
+
 /**
  * Objet Article.
  *
@@ -55,6 +57,18 @@ public class ArticleItem implements Item {
      * Contenu de l'article
      */
     private String contenu = "";
+    /**
+     * Contenu compressé tel que stocké en BDD (décompressé au premier getContenu(), l'article pouvant être partagé entre threads via le cache du DAO)
+     */
+    private byte[] contenuCompresse = null;
+    /**
+     * Contenu stocké dans un fichier, projeté en mémoire (décodé au premier getContenu())
+     */
+    private ByteBuffer contenuFichier = null;
+    /**
+     * Contenu brut de l'article (en attente de nettoyage par le parseur)
+     */
+    private String contenuBrut = "";
     /**
      * Timestamp de publication de l'article
      */
@@ -71,6 +85,14 @@ public class ArticleItem implements Item {
      * Indice du dernier commentaire lu
      */
     private int indiceDernierCommLu = 0;
+    /**
+     * Nb de commentaires non lus (calculé par la BDD)
+     */
+    private int nbCommentairesNonLus = 0;
+    /**
+     * Article épinglé (jamais supprimé pour libérer de la place)
+     */
+    private boolean isEpingle = false;
     /**
      * URL SEO de l'article
      */
@@ -79,6 +101,14 @@ public class ArticleItem implements Item {
      * Dernier ID de commentaire lors du parsage
      */
     private int parseurLastCommentId = 0;
+    /**
+     * Empreinte du contenu brut de l'API (titre, sous-titre, contenu)
+     */
+    private long empreinteContenu = 0;
+    /**
+     * Le contenu est-il identique à celui en BDD ? (parsage non effectué => contenu vide)
+     */
+    private boolean isContenuInchange = false;
 
     @Override
     public int getType() {
@@ -91,7 +121,7 @@ public class ArticleItem implements Item {
      * @return Heure & minute de la publication
      */
     public String getHeureMinutePublication() {
-        return MyDateUtils.formatDate(Constantes.FORMAT_AFFICHAGE_ARTICLE_HEURE, this.getTimeStampPublication());
+        return MyDateUtils.formatHeureMinute(this.getTimeStampPublication());
     }
 
     /**
@@ -100,9 +130,16 @@ public class ArticleItem implements Item {
      * @return Date de la publication
      */
     public String getDatePublication() {
-        String laDate = MyDateUtils.formatDate(Constantes.FORMAT_AFFICHAGE_SECTION_DATE, this.getTimeStampPublication());
-        // Première lettre en majuscule
-        return String.valueOf(laDate.charAt(0)).toUpperCase(Constantes.LOCALE) + laDate.substring(1);
+        return MyDateUtils.formatSection(this.getTimeStampPublication());
+    }
+
+    /**
+     * Jour de la publication (permet de comparer deux articles sans formater leur date)
+     *
+     * @return Numéro du jour de publication
+     */
+    public long getJourPublication() {
+        return MyDateUtils.getJourLocal(this.getTimeStampPublication());
     }
 
     /**
@@ -190,17 +227,35 @@ public class ArticleItem implements Item {
     }
 
     /**
-     * Nb de commentaires non lus
+     * Nb de commentaires non lus (articles chargés depuis la BDD uniquement)
      *
      * @return int
      */
     public int getNbCommentairesNonLus() {
-        int nbComms = this.getNbCommentaires() - this.getIndiceDernierCommLu();
-        // Prévenir un cas négatif
-        if (nbComms < 0) {
-            nbComms = 0;
-        }
-        return nbComms;
+        return nbCommentairesNonLus;
+    }
+
+    /**
+     * @param nbCommentairesNonLus Nb de commentaires non lus
+     */
+    public void setNbCommentairesNonLus(int nbCommentairesNonLus) {
+        this.nbCommentairesNonLus = nbCommentairesNonLus;
+    }
+
+    /**
+     * Article épinglé ?
+     *
+     * @return boolean
+     */
+    public boolean isEpingle() {
+        return isEpingle;
+    }
+
+    /**
+     * @param isEpingle Article épinglé
+     */
+    public void setEpingle(boolean isEpingle) {
+        this.isEpingle = isEpingle;
     }
 
     /**
@@ -220,15 +275,38 @@ public class ArticleItem implements Item {
     /**
      * @return contenu
      */
-    public String getContenu() {
+    public synchronized String getContenu() {
+        if (contenuCompresse != null) {
+            contenu = CodecContenu.decoder(contenuCompresse);
+            contenuCompresse = null;
+        } else if (contenuFichier != null) {
+            contenu = CodecContenu.decoderFichier(contenuFichier);
+            contenuFichier = null;
+        }
         return contenu;
     }
 
     /**
      * @param contenu contenu
      */
-    public void setContenu(String contenu) {
+    public synchronized void setContenu(String contenu) {
         this.contenu = contenu;
+        this.contenuCompresse = null;
+        this.contenuFichier = null;
+    }
+
+    /**
+     * @param contenuCompresse contenu compressé (cf CodecContenu)
+     */
+    public synchronized void setContenuCompresse(byte[] contenuCompresse) {
+        this.contenuCompresse = contenuCompresse;
+    }
+
+    /**
+     * @param contenuFichier contenu projeté en mémoire depuis son fichier (cf CodecContenu.encoderFichier())
+     */
+    public synchronized void setContenuFichier(ByteBuffer contenuFichier) {
+        this.contenuFichier = contenuFichier;
     }
 
     /**
@@ -300,4 +378,55 @@ public class ArticleItem implements Item {
     public void setParseurLastCommentId(int parseurLastCommentId) {
         this.parseurLastCommentId = parseurLastCommentId;
     }
+
+    /**
+     * @return Empreinte du contenu brut de l'API
+     */
+    public long getEmpreinteContenu() {
+        return empreinteContenu;
+    }
+
+    /**
+     * @param empreinteContenu Empreinte du contenu brut de l'API
+     */
+    public void setEmpreinteContenu(long empreinteContenu) {
+        this.empreinteContenu = empreinteContenu;
+    }
+
+    /**
+     * @return Le contenu est-il identique à celui en BDD ? (contenu non parsé)
+     */
+    public boolean isContenuInchange() {
+        return isContenuInchange;
+    }
+
+    /**
+     * @param isContenuInchange Le contenu est-il identique à celui en BDD ? (contenu non parsé)
+     */
+    public void setContenuInchange(boolean isContenuInchange) {
+        this.isContenuInchange = isContenuInchange;
+    }
+
+    /**
+     * @return Contenu brut de l'article (en attente de nettoyage par le parseur)
+     */
+    public String getContenuBrut() {
+        return contenuBrut;
+    }
+
+    /**
+     * @param contenuBrut Contenu brut de l'article (en attente de nettoyage par le parseur)
+     */
+    public void setContenuBrut(String contenuBrut) {
+        this.contenuBrut = contenuBrut;
+    }
+
+    /**
+     * Le contenu de l'article doit-il encore être nettoyé par le parseur ?
+     *
+     * @return true si le contenu est brut
+     */
+    public boolean isParsageRequis() {
+        return (contenuBrut != null && !"".equals(contenuBrut));
+    }
 }
\ No newline at end of file
@@ -20,12 +20,7 @@ package com.pcinpact.items;
 
 import androidx.annotation.NonNull;
 
-import com.pcinpact.utils.Constantes;
-
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import com.pcinpact.utils.MyDateUtils;
 
 /**
  * Objet Commentaire
@@ -69,11 +64,7 @@ public class CommentaireItem implements Item, Comparable<CommentaireItem> {
      * @return Auteur et date
      */
     public String getAuteurDateCommentaire() {
-        Date maDate = new Date(TimeUnit.SECONDS.toMillis(this.getTimeStampPublication()));
-        // Format souhaité
-        DateFormat dfm = new SimpleDateFormat(Constantes.FORMAT_AFFICHAGE_COMMENTAIRE_DATE_HEURE, Constantes.LOCALE);
-
-        return this.getAuteur() + " " + dfm.format(maDate);
+        return this.getAuteur() + " " + MyDateUtils.formatDateHeureCommentaire(this.getTimeStampPublication());
     }
 
     /**
@@ -27,6 +27,7 @@ import com.pcinpact.utils.Constantes;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.concurrent.RejectedExecutionException;
 
 /**
@@ -55,6 +56,14 @@ public class AsyncHTMLDownloader extends AsyncTask<String, Void, ArrayList<? ext
      * Token du compte Next
      */
     private final String token;
+    /**
+     * Empreintes des articles déjà en BDD (ID article => empreinte)
+     */
+    private final Map<Integer, Long> empreintesConnues;
+    /**
+     * Parsage du contenu des articles différé à leur lecture
+     */
+    private final boolean parsageDiffere;
 
     /**
      * Téléchargement d'une ressource
@@ -66,6 +75,21 @@ public class AsyncHTMLDownloader extends AsyncTask<String, Void, ArrayList<? ext
      * @param unToken     token de connexion
      */
     public AsyncHTMLDownloader(final RefreshDisplayInterface parent, final int unType, final String uneURL, final int unIdArticle, final String unToken) {
+        this(parent, unType, uneURL, unIdArticle, unToken, null, false);
+    }
+
+    /**
+     * Téléchargement d'une ressource
+     *
+     * @param parent               parent à callback à la fin
+     * @param unType               type de la ressource (Cf Constantes.TYPE_)
+     * @param uneURL               URL de la ressource à télécharger
+     * @param unIdArticle          ID de l'article
+     * @param unToken              token de connexion
+     * @param desEmpreintesConnues empreintes des articles en BDD (le contenu des articles inchangés n'est pas parsé)
+     * @param unParsageDiffere     contenu des articles stocké brut, parsé à leur lecture
+     */
+    public AsyncHTMLDownloader(final RefreshDisplayInterface parent, final int unType, final String uneURL, final int unIdArticle, final String unToken, final Map<Integer, Long> desEmpreintesConnues, final boolean unParsageDiffere) {
         // Mappage des attributs de cette requête
         // On peut se permettre de perdre le parent
         monParent = new WeakReference<>(parent);
@@ -73,6 +97,8 @@ public class AsyncHTMLDownloader extends AsyncTask<String, Void, ArrayList<? ext
         typeHTML = unType;
         idArticle = unIdArticle;
         token = unToken;
+        empreintesConnues = desEmpreintesConnues;
+        parsageDiffere = unParsageDiffere;
     }
 
     @Override
@@ -85,7 +111,7 @@ public class AsyncHTMLDownloader extends AsyncTask<String, Void, ArrayList<? ext
         if (!"".equals(datas[Downloader.CONTENT_BODY])) {
             switch (typeHTML) {
                 case Constantes.HTML_LISTE_ARTICLES:
-                    monRetour = ParseurHTML.getListeArticles(datas[Downloader.CONTENT_BODY]);
+                    monRetour = ParseurHTML.getListeArticles(datas[Downloader.CONTENT_BODY], empreintesConnues, parsageDiffere);
                     break;
 
                 case Constantes.HTML_COMMENTAIRES:
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.parseur;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.pcinpact.datastorage.AsyncDAO;
+import com.pcinpact.datastorage.DAO;
+import com.pcinpact.utils.Constantes;
+import com.pcinpact.utils.Statistiques;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsage différé du contenu des articles (stocké brut lors de la synchronisation).
+ *
+ * @author Anael
+ */
+public class AsyncContenuParseur extends AsyncTask<Void, Void, String> {
+    /**
+     * Parent qui sera rappelé à la fin (peut être null).
+     */
+    private final WeakReference<ParsageContenuInterface> monParent;
+    /**
+     * Accès BDD (lectures)
+     */
+    private final DAO monDAO;
+    /**
+     * Accès asynchrone à la BDD (écritures)
+     */
+    private final AsyncDAO monAsyncDAO;
+    /**
+     * ID des articles à parser
+     */
+    private final ArrayList<Integer> idArticles;
+
+    /**
+     * Parsage du contenu d'articles
+     *
+     * @param unContext    context de l'application
+     * @param desIdArticle ID des articles à parser
+     * @param parent       parent à callback à la fin (contenu du dernier article), peut être null
+     */
+    public AsyncContenuParseur(final Context unContext, final ArrayList<Integer> desIdArticle, final ParsageContenuInterface parent) {
+        monParent = new WeakReference<>(parent);
+        monAsyncDAO = AsyncDAO.getInstance(unContext);
+        monDAO = monAsyncDAO.getDAO();
+        idArticles = desIdArticle;
+    }
+
+    @Override
+    protected String doInBackground(Void... params) {
+        String monContenu = "";
+
+        for (int i = 0; i < idArticles.size(); i++) {
+            // Abandon demandé
+            if (isCancelled()) {
+                break;
+            }
+
+            final int idArticle = idArticles.get(i);
+            // Contenu brut seul, hors cache (articles parsés en tâche de fond, a priori non affichés)
+            final String leContenuBrut = monDAO.chargerContenuBrut(idArticle);
+            if (leContenuBrut != null) {
+                long debut = System.nanoTime();
+                monContenu = ParseurHTML.nettoyerContenu(leContenuBrut, idArticle);
+                // Enregistrement via le thread d'écriture (si le contenu brut n'a pas changé entre temps)
+                final String leContenu = monContenu;
+                monAsyncDAO.ecrire(() -> monDAO.enregistrerContenuParse(idArticle, leContenuBrut, leContenu));
+
+                Statistiques.incrementer(Statistiques.ARTICLES_PARSES_DIFFERES);
+                Statistiques.ajouter(Statistiques.TEMPS_PARSAGE_DIFFERE, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut));
+            } else if (i == idArticles.size() - 1 && monParent.get() != null) {
+                // Déjà parsé entre-temps : contenu à fournir au parent (article affiché)
+                monContenu = monDAO.chargerArticle(idArticle).getContenu();
+            }
+        }
+        return monContenu;
+    }
+
+    @Override
+    protected void onPostExecute(String unContenu) {
+        ParsageContenuInterface parent = monParent.get();
+        // Pas de parent ou parent garbage collecté
+        if (parent != null && idArticles.size() > 0) {
+            parent.parsageContenuFini(idArticles.get(idArticles.size() - 1), unContenu);
+        }
+    }
+
+    /**
+     * Lancement du parsage asynchrone
+     *
+     * @param prioritaire ne pas attendre la fin des autres tâches de fond (article affiché à l'utilisateur)
+     * @return résultat de la commande
+     */
+    public boolean run(final boolean prioritaire) {
+        boolean monRetour = true;
+
+        try {
+            if (prioritaire) {
+                this.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+            } else {
+                this.execute();
+            }
+        } catch (RejectedExecutionException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("AsyncContenuParseur", "run() - RejectedExecutionException (trop de monde en queue)", e);
+            }
+
+            // Je note l'erreur
+            monRetour = false;
+        }
+
+        return monRetour;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.parseur;
+
+import com.pcinpact.utils.Constantes;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Nettoyage du HTML par liste blanche : seuls les éléments rendus par Html.fromHtml() et TagHandler sont conservés.
+ * Le HTML est écrit en un seul parcours de l'arbre, sans modification du document Jsoup.
+ *
+ * @author Anael
+ */
+public class NettoyeurHTML implements NodeVisitor {
+    /**
+     * Balises conservées telles quelles
+     */
+    private static final HashSet<String> BALISES_AUTORISEES = new HashSet<>();
+    /**
+     * Balises remplacées par un équivalent (plus court ou rendu par Html.fromHtml())
+     */
+    private static final HashMap<String, String> BALISES_REMPLACEES = new HashMap<>();
+    /**
+     * Balises supprimées avec tout leur contenu
+     */
+    private static final HashSet<String> BALISES_SUPPRIMEES = new HashSet<>();
+    /**
+     * Balises sans contenu
+     */
+    private static final HashSet<String> BALISES_VIDES = new HashSet<>();
+    /**
+     * Balises de type bloc (les espaces à leurs bornes sont inutiles)
+     */
+    private static final HashSet<String> BALISES_BLOCS = new HashSet<>();
+
+    static {
+        String[] autorisees = {"article", "p", "div", "br", "h1", "h2", "h3", "h4", "h5", "h6", "blockquote", "ul", "ol", "li", "a", "b", "i", "u", "s", "strike", "del", "sup", "sub", "big", "small", "tt", "cite", "dfn", "img", Constantes.TAG_HTML_QUOTE};
+        for (String uneBalise : autorisees) {
+            BALISES_AUTORISEES.add(uneBalise);
+        }
+
+        // Equivalents pour Html.fromHtml()
+        BALISES_REMPLACEES.put("strong", "b");
+        BALISES_REMPLACEES.put("em", "i");
+        BALISES_REMPLACEES.put("ins", "u");
+        // Blocs (conserver le retour à la ligne)
+        String[] blocs = {"figure", "figcaption", "footer", "header", "section", "aside", "main", "nav", "table", "tr", "pre", "dl", "dt", "dd", "address", "details", "summary", "hgroup"};
+        for (String uneBalise : blocs) {
+            BALISES_REMPLACEES.put(uneBalise, "div");
+        }
+
+        String[] supprimees = {"script", "style", "noscript", "svg", "math", "iframe", "object", "embed", "template", "form", "button", "input", "select", "textarea", "head", "meta", "link", "canvas", "video", "audio", "source", "picture", "map"};
+        for (String uneBalise : supprimees) {
+            BALISES_SUPPRIMEES.add(uneBalise);
+        }
+
+        BALISES_VIDES.add("br");
+        BALISES_VIDES.add("img");
+
+        String[] blocsAutorises = {"article", "p", "div", "h1", "h2", "h3", "h4", "h5", "h6", "blockquote", "ul", "ol", "li", Constantes.TAG_HTML_QUOTE};
+        for (String uneBalise : blocsAutorises) {
+            BALISES_BLOCS.add(uneBalise);
+        }
+    }
+
+    /**
+     * HTML produit
+     */
+    private final StringBuilder monHTML;
+    /**
+     * Balises ouvertes (null pour un élément non conservé)
+     */
+    private final ArrayList<String> mesBalises = new ArrayList<>();
+    /**
+     * Balises ouvertes dont le code HTML d'ouverture n'a pas encore été écrit (supprimées si elles restent vides)
+     */
+    private final ArrayList<String> mesOuverturesEnAttente = new ArrayList<>();
+    /**
+     * Profondeur dans un élément supprimé (0 si aucun)
+     */
+    private int profondeurSupprimee = 0;
+    /**
+     * Un espace est-il à écrire avant le prochain contenu ?
+     */
+    private boolean espaceEnAttente = false;
+    /**
+     * Est-on en début de ligne (espaces ignorés) ?
+     */
+    private boolean debutLigne = true;
+
+    private NettoyeurHTML(final int uneTaille) {
+        monHTML = new StringBuilder(uneTaille);
+    }
+
+    /**
+     * Nettoie un élément (et ses enfants)
+     *
+     * @param unElement élément racine
+     * @return HTML nettoyé
+     */
+    public static String nettoyer(final Element unElement) {
+        NettoyeurHTML monNettoyeur = new NettoyeurHTML(1024);
+        NodeTraversor.traverse(monNettoyeur, unElement);
+        return monNettoyeur.monHTML.toString();
+    }
+
+    /**
+     * Nombre d'octets d'une chaîne encodée en UTF-8 (sans allocation)
+     *
+     * @param uneChaine chaîne
+     * @return nombre d'octets
+     */
+    public static long tailleUTF8(final CharSequence uneChaine) {
+        long taille = 0;
+        for (int i = 0; i < uneChaine.length(); i++) {
+            char unChar = uneChaine.charAt(i);
+            if (unChar < 0x80) {
+                taille++;
+            } else if (unChar < 0x800) {
+                taille += 2;
+            } else if (Character.isHighSurrogate(unChar)) {
+                // Paire de substitution => 4 octets
+                taille += 4;
+                i++;
+            } else {
+                taille += 3;
+            }
+        }
+        return taille;
+    }
+
+    @Override
+    public void head(Node unNode, int depth) {
+        if (unNode instanceof Element) {
+            String nomBalise = ((Element) unNode).normalName();
+            // Elément (et enfants) à supprimer
+            if (profondeurSupprimee > 0 || BALISES_SUPPRIMEES.contains(nomBalise)) {
+                profondeurSupprimee++;
+                return;
+            }
+
+            String maBalise = BALISES_REMPLACEES.get(nomBalise);
+            if (maBalise == null && BALISES_AUTORISEES.contains(nomBalise)) {
+                maBalise = nomBalise;
+            }
+            // Balise identique à la balise parente (<b><b>...</b></b>) => inutile
+            if (maBalise != null && !mesBalises.isEmpty() && maBalise.equals(mesBalises.get(mesBalises.size() - 1)) && !"div".equals(maBalise) && !"li".equals(maBalise) && !"ul".equals(maBalise) && !"ol".equals(maBalise) && !Constantes.TAG_HTML_QUOTE.equals(maBalise) && !"blockquote".equals(maBalise)) {
+                maBalise = null;
+            }
+            mesBalises.add(maBalise);
+
+            if (BALISES_BLOCS.contains(maBalise)) {
+                debutDeLigne();
+            }
+
+            if (maBalise != null) {
+                String ouverture = ouverture(maBalise, (Element) unNode);
+                if (ouverture == null) {
+                    // Attribut obligatoire absent (img sans src) => élément ignoré
+                    mesBalises.set(mesBalises.size() - 1, null);
+                } else if ("br".equals(maBalise)) {
+                    // Retour à la ligne => toujours écrit
+                    debutDeLigne();
+                    ecrireOuverturesEnAttente();
+                    monHTML.append(ouverture);
+                } else if (BALISES_VIDES.contains(maBalise)) {
+                    // Image => toujours écrite
+                    ecrireContenu();
+                    monHTML.append(ouverture);
+                } else {
+                    // Ecrite uniquement si l'élément a un contenu
+                    mesOuverturesEnAttente.add(ouverture);
+                }
+            }
+        } else if (unNode instanceof TextNode && profondeurSupprimee == 0) {
+            ecrireTexte(((TextNode) unNode).getWholeText());
+        }
+        // Commentaires, doctype, ... => ignorés
+    }
+
+    @Override
+    public void tail(Node unNode, int depth) {
+        if (!(unNode instanceof Element)) {
+            return;
+        }
+        if (profondeurSupprimee > 0) {
+            profondeurSupprimee--;
+            return;
+        }
+
+        String maBalise = mesBalises.remove(mesBalises.size() - 1);
+        if (BALISES_BLOCS.contains(maBalise)) {
+            debutDeLigne();
+        } else if (!debutLigne && ("td".equals(((Element) unNode).normalName()) || "th".equals(((Element) unNode).normalName()))) {
+            // Séparer le contenu des cellules d'un tableau
+            espaceEnAttente = true;
+        }
+        if (maBalise != null && !BALISES_VIDES.contains(maBalise)) {
+            int derniere = mesOuverturesEnAttente.size() - 1;
+            if (derniere >= 0 && mesOuverturesEnAttente.get(derniere) != null) {
+                // Elément vide => rien n'est écrit
+                mesOuverturesEnAttente.remove(derniere);
+            } else {
+                if (derniere >= 0) {
+                    mesOuverturesEnAttente.remove(derniere);
+                }
+                monHTML.append("</").append(maBalise).append('>');
+            }
+        }
+    }
+
+    /**
+     * Code HTML d'ouverture d'une balise, avec les seuls attributs utiles
+     *
+     * @param uneBalise balise à écrire
+     * @param unElement élément d'origine
+     * @return code HTML (null si l'élément est inutilisable)
+     */
+    private static String ouverture(final String uneBalise, final Element unElement) {
+        if ("a".equals(uneBalise)) {
+            String href = unElement.attr("href");
+            if ("".equals(href)) {
+                return "<a>";
+            }
+            return "<a href=\"" + echapperAttribut(href) + "\">";
+        } else if ("img".equals(uneBalise)) {
+            String src = unElement.attr("src");
+            if ("".equals(src)) {
+                return null;
+            }
+            return "<img src=\"" + echapperAttribut(src) + "\" />";
+        } else if ("br".equals(uneBalise)) {
+            return "<br />";
+        }
+        return "<" + uneBalise + ">";
+    }
+
+    /**
+     * Ecrit les balises ouvrantes en attente (l'élément courant a un contenu)
+     */
+    private void ecrireOuverturesEnAttente() {
+        for (int i = 0; i < mesOuverturesEnAttente.size(); i++) {
+            String ouverture = mesOuverturesEnAttente.get(i);
+            if (ouverture != null) {
+                monHTML.append(ouverture);
+                // Marquer comme écrite
+                mesOuverturesEnAttente.set(i, null);
+            }
+        }
+    }
+
+    /**
+     * Début d'une nouvelle ligne (bloc ou retour à la ligne) : les espaces en attente sont inutiles
+     */
+    private void debutDeLigne() {
+        espaceEnAttente = false;
+        debutLigne = true;
+    }
+
+    /**
+     * Du contenu va être écrit : écriture de l'espace et des balises ouvrantes en attente
+     */
+    private void ecrireContenu() {
+        if (espaceEnAttente) {
+            monHTML.append(' ');
+            espaceEnAttente = false;
+        }
+        ecrireOuverturesEnAttente();
+        debutLigne = false;
+    }
+
+    /**
+     * Ecrit un texte : espaces consécutifs fusionnés (comme le fait Html.fromHtml()) et caractères spéciaux échappés
+     *
+     * @param unTexte texte brut
+     */
+    private void ecrireTexte(final String unTexte) {
+        for (int i = 0; i < unTexte.length(); i++) {
+            char unChar = unTexte.charAt(i);
+            if (unChar == ' ' || unChar == '\n' || unChar == '\t' || unChar == '\r' || unChar == '\f') {
+                // Un seul espace, écrit uniquement s'il est suivi d'un contenu
+                if (!debutLigne) {
+                    espaceEnAttente = true;
+                }
+                continue;
+            }
+
+            ecrireContenu();
+            switch (unChar) {
+                case '&':
+                    monHTML.append("&amp;");
+                    break;
+                case '<':
+                    monHTML.append("&lt;");
+                    break;
+                case '>':
+                    monHTML.append("&gt;");
+                    break;
+                default:
+                    monHTML.append(unChar);
+            }
+        }
+    }
+
+    /**
+     * Echappement d'une valeur d'attribut
+     *
+     * @param uneValeur valeur brute
+     * @return valeur échappée
+     */
+    private static String echapperAttribut(final String uneValeur) {
+        return uneValeur.replace("&", "&amp;").replace("\"", "&quot;");
+    }
+}
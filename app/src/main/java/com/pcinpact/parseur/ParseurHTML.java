@@ -26,6 +26,7 @@ import com.pcinpact.items.CommentaireItem;
 import com.pcinpact.items.Item;
 import com.pcinpact.utils.Constantes;
 import com.pcinpact.utils.MyDateUtils;
+import com.pcinpact.utils.Statistiques;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -36,6 +37,8 @@ import org.jsoup.parser.Parser;
 import org.jsoup.select.Elements;
 
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -52,6 +55,18 @@ public class ParseurHTML {
      * @return liste d'articleItem
      */
     public static ArrayList<ArticleItem> getListeArticles(final String unContenu) {
+        return getListeArticles(unContenu, null, false);
+    }
+
+    /**
+     * Parse la liste des articles, sans reparser le contenu des articles déjà connus à l'identique
+     *
+     * @param unContenu            contenu JSON brut
+     * @param desEmpreintesConnues empreintes des articles en BDD (ID article => empreinte), peut être null
+     * @param parsageDiffere       ne pas nettoyer le contenu (fourni brut via getContenuBrut(), à passer dans nettoyerContenu())
+     * @return liste d'articleItem (isContenuInchange() => contenu non parsé)
+     */
+    public static ArrayList<ArticleItem> getListeArticles(final String unContenu, final Map<Integer, Long> desEmpreintesConnues, final boolean parsageDiffere) {
         ArrayList<ArticleItem> mesArticlesItem = new ArrayList<>();
 
         try {
@@ -107,6 +122,40 @@ public class ParseurHTML {
                 // URL Seo
                 monArticleItem.setURLseo(unArticle.getString("link"));
 
+                // ID du dernier commentaire (sert à piloter la vérification du # de commentaires)
+                int lastComment = -1;
+                if (unArticle.getJSONObject("_embedded").has("replies")) {
+                    lastComment = unArticle.getJSONObject("_embedded").getJSONArray("replies").getJSONArray(0).getJSONObject(0).getInt("id");
+                }
+                monArticleItem.setParseurLastCommentId(lastComment);
+
+                // Auteur de l'article
+                String auteur;
+                if (Constantes.NEXT_TYPE_ARTICLES_BRIEF.equals(unArticle.getString("type"))) {
+                    // Pas d'auteur pour le brief
+                    auteur = "l'équipe Next";
+                } else {
+                    auteur = unArticle.getJSONObject("_embedded").getJSONArray("author").getJSONObject(0).getString("name");
+                }
+
+                // Empreinte de tout ce qui est enregistré en BDD (le contenu inclut aussi l'auteur, le lien et la date)
+                String contenuBrut = unArticle.getJSONObject("content").getString("rendered");
+                long empreinte = calculerEmpreinte(unArticle.getJSONObject("title").getString("rendered"), monArticleItem.getSousTitre(), contenuBrut, laDate, monArticleItem.getUrlIllustration(), monArticleItem.getURLseo(), auteur);
+                monArticleItem.setEmpreinteContenu(empreinte);
+
+                // Contenu identique à celui déjà en BDD => pas besoin de le parser à nouveau
+                Long empreinteConnue = (desEmpreintesConnues == null ? null : desEmpreintesConnues.get(monArticleItem.getId()));
+                if (empreinteConnue != null && empreinteConnue == empreinte) {
+                    // DEBUG
+                    if (Constantes.DEBUG) {
+                        Log.d("ParseurHTML", "getListeArticles() - " + monArticleItem.getId() + " : contenu inchangé");
+                    }
+                    monArticleItem.setContenuInchange(true);
+                    Statistiques.incrementer(Statistiques.ARTICLES_INCHANGES);
+                    mesArticlesItem.add(monArticleItem);
+                    continue;
+                }
+
                 // TODO - https://github.com/NextINpact/Next/issues/100
                 /*
                 // Certains articles ont du contenu en privateText mais ne sont pas paywalled... #281
@@ -130,219 +179,30 @@ public class ParseurHTML {
                     contenu += monArticleItem.getSousTitre();
                     contenu += "</span>";
                 }
-                contenu += unArticle.getJSONObject("content").getString("rendered");
+                contenu += contenuBrut;
                 contenu += "<footer>";
                 // Auteur de l'article
-                String auteur;
-                if (Constantes.NEXT_TYPE_ARTICLES_BRIEF.equals(unArticle.getString("type"))) {
-                    // Pas d'auteur pour le brief
-                    auteur = "l'équipe Next";
-                } else {
-                    auteur = unArticle.getJSONObject("_embedded").getJSONArray("author").getJSONObject(0).getString("name");
-                }
                 contenu += "Par " + auteur + " - actu" + "@" + "nextinpact.com";
 
                 // Lien vers l'article
                 contenu += "<br /><br />Article publié sur <a href=\"" + monArticleItem.getURLseo() + "\">" + monArticleItem.getURLseo() + "</a>";
                 // Date de publication
-                laDate = MyDateUtils.formatDate(Constantes.FORMAT_AFFICHAGE_SECTION_DATE, monArticleItem.getTimeStampPublication());
+                laDate = MyDateUtils.formatJour(monArticleItem.getTimeStampPublication());
                 contenu += " le " + laDate;
                 contenu += "</footer>";
                 contenu += "</article>";
 
-                // L'article
-                Elements lArticle = Jsoup.parse(contenu).select("article");
-
-                // NETTOYAGE DU CONTENU
-                // Gestion des iframe
-                Elements lesIframes = lArticle.select("iframe");
-                // généralisation de l'URL en dehors du scheme
-                String[] schemes = {"https://", "http://", "//"};
-                // Pour chaque iframe
-                for (Element uneIframe : lesIframes) {
-                    // URL du lecteur
-                    String urlLecteurBrute = uneIframe.attr("src");
-                    String urlLecteur = urlLecteurBrute.toLowerCase(Constantes.LOCALE);
-
-                    for (String unScheme : schemes) {
-                        if (urlLecteur.startsWith(unScheme)) {
-                            // Suppression du scheme
-                            urlLecteur = urlLecteur.substring(unScheme.length());
-                            // DEBUG
-                            if (Constantes.DEBUG) {
-                                Log.w("ParseurHTML", "getArticle() - Iframe : utilisation du scheme " + unScheme + " => " + urlLecteur);
-                            }
-                        }
-                    }
-
-                    // ID de la vidéo - sur l'URL brute pour gérer les ID de vidéo avec des majuscules
-                    String idVideo = urlLecteurBrute.substring(urlLecteur.lastIndexOf("/") + 1).split("\\?")[0].split("#")[0];
-
-                    // Ma substitution
-                    String monRemplacement;
-
-                    // Gestion des lecteurs vidéos
-                    if (urlLecteur.startsWith("www.youtube.com/embed/videoseries")) {
-                        /*
-                         * Liste de lecture Youtube
-                         */
-                        // Recalcul de l'ID de la vidéo (cas particulier)
-                        idVideo = urlLecteur.substring(urlLecteur.lastIndexOf("list=") + "list=".length()).split("\\?")[0].split("#")[0];
-                        monRemplacement = "<a href=\"http://www.youtube.com/playlist?list=" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_liste_youtube + "\" /></a>";
-                    } else if (urlLecteur.startsWith("www.youtube.com/embed/") || urlLecteur.startsWith("www.youtube-nocookie.com/embed/")) {
-                        /*
-                         * Youtube
-                         */
-                        monRemplacement = "<a href=\"http://www.youtube.com/watch?v=" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_youtube + "\" /></a>";
-                    } else if (urlLecteur.startsWith("www.dailymotion.com/embed/video/")) {
-                        /*
-                         * Dailymotion
-                         */
-                        monRemplacement = "<a href=\"http://www.dailymotion.com/video/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_dailymotion + "\" /></a>";
-                    } else if (urlLecteur.startsWith("player.vimeo.com/video/")) {
-                        /*
-                         * VIMEO
-                         */
-                        monRemplacement = "<a href=\"http://www.vimeo.com/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_vimeo + "\" /></a>";
-                    } else if (urlLecteur.startsWith("static.videos.gouv.fr/player/video/")) {
-                        /*
-                         * Videos.gouv.fr
-                         */
-                        monRemplacement = "<a href=\"http://static.videos.gouv.fr/player/video/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_videos_gouv_fr + "\" /></a>";
-                    } else if (urlLecteur.startsWith("vid.me")) {
-                        /*
-                         * Vidme
-                         */
-                        monRemplacement = "<a href=\"https://vid.me/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_vidme + "\" /></a>";
-                    } else if (urlLecteur.startsWith("w.soundcloud.com/player/")) {
-                        /*
-                         * Soundcloud (l'URL commence bien par w.soundcloud !)
-                         */
-                        monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_soundcloud + "\" /></a>";
-                    } else if (urlLecteur.startsWith("www.scribd.com/embeds/")) {
-                        /*
-                         * Scribd
-                         */
-                        monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_scribd + "\" /></a>";
-                    } else if (urlLecteur.startsWith("player.canalplus.fr/embed/")) {
-                        /*
-                         * Canal+
-                         */
-                        monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_canalplus + "\" /></a>";
-                    } else if (urlLecteur.startsWith("www.arte.tv/")) {
-                        /*
-                         * Arte
-                         */
-                        monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_arte + "\" /></a>";
-                    } else {
-                        /*
-                         * Déchet (catch all)
-                         */
-                        monRemplacement = "<a href=\"" + uneIframe.absUrl("src") + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_non_supportee + "\" /></a>";
-
-                        // DEBUG
-                        if (Constantes.DEBUG) {
-                            Log.e("ParseurHTML", "getArticle() - Iframe non gérée dans " + monArticleItem.getId() + " : " + uneIframe.absUrl("src"));
-                        }
-                    }
-
-
-                    // Je remplace l'iframe par mon contenu
-                    uneIframe.before(monRemplacement);
-                    uneIframe.remove();
-
-                    // DEBUG
-                    if (Constantes.DEBUG) {
-                        Log.i("ParseurHTML", "Remplacement par une iframe : " + monRemplacement);
-                    }
-                }
-
-                // Gestion des videos HTML5
-                Elements lesVideos = lArticle.select("video");
-                for (Element uneVideo : lesVideos) {
-                    String monRemplacement = "<a href=\"" + uneVideo.absUrl("src") + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_non_supportee + "\" /></a>";
-                    // Je remplace la vidéo par mon contenu
-                    uneVideo.before(monRemplacement);
-                    uneVideo.remove();
-                }
-
-                /*
-                 * Gestion des images
-                 */
-                // fancyimg - Articles migrés à priori
-                /*
-                 *<figure class="content-img" style="text-align: center;" data-imageid="174190"><a class="fancyimg" href="https://cdnx.nextinpact.com/data-next/image/bd/174190.png" rel="group-fancy"> <img style="display:block;max-width: 100%;"  class="lazyload" data-sizes="auto" data-srcset="https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=75&resize=75 75w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=100&resize=100 100w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=150&resize=150 150w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=240&resize=240 240w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=320&resize=320 320w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=500&resize=500 500w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=640&resize=640 640w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=800&resize=800 800w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=1024&resize=1024 1024w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=1280&resize=1280 1280w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=1600&resize=1600 1600w" data-src="https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png" alt="Threadripper Pro 7000" /></a></figure>
-                 */
-                Elements liensImagesFancy = lArticle.select("a[class=fancyimg]:has(img)");
-                // Pour chaque <a>
-                for (Element lienImageFancy : liensImagesFancy) {
-                    // Pour chaque image...
-                    for (Element lImage : lienImageFancy.select("img")) {
-                        // Passage à l'image pleine taille
-                        lImage.attr("src", lienImageFancy.attr("href"));
-                        // Injection de l'image pleine taille...
-                        lienImageFancy.before(lImage.outerHtml());
-                    }
-                    // Suppression du lien (et ses enfants)
-                    lienImageFancy.remove();
-                }
-
-                // data-srcset (Jetpack i*.wp.com) AVEC srcset
-                /*
-                 * <img width="1024" height="535" style="display:block" class="lazyload" data-sizes="auto" data-srcset="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=75&resize=75 75w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=100&resize=100 100w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=150&resize=150 150w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=240&resize=240 240w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=320&resize=320 320w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=500&resize=500 500w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=640&resize=640 640w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=800&resize=800 800w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=1024&resize=1024 1024w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=1280&resize=1280 1280w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=1600&resize=1600 1600w" data-src="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png" alt="Trois missions Apollo : 11, 13 et 17 " class="wp-image-117815" srcset="https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png 1024w, https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-300x157.png 300w, https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-768x402.png 768w, https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704.png 1492w" sizes="(max-width: 1024px) 100vw, 1024px" />
-                 */
-                Elements lesImages = lArticle.select("img[srcset]");
-                // Pour chaque image
-                for (Element uneImage : lesImages) {
-                    // Récupération du premier lien du srcset (1024w)
-                    String srcset = uneImage.attr("srcset");
-                    Pattern p = Pattern.compile("^(.+?) [0-9]+w");
-                    Matcher m = p.matcher(srcset);
-                    while (m.find()) {
-                        uneImage.attr("src", m.group(1));
-                        // DEBUG
-                        if (Constantes.DEBUG) {
-                            Log.d("ParseurHTML", "getListeArticles() - Regex img : " + m.group(1) + " (srcset : " + srcset + ")");
-                        }
-                    }
-                    // Ne pas rentrer dans le nettoyage suivant
-                    uneImage.removeAttr("data-src");
-                }
-
-                // data-srcset (Jetpack i*.wp.com) SANS srcset ("slideshow-container")
-                /*
-                <img style="display:block" class="lazyload" data-sizes="auto" data-srcset="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=75&resize=75 75w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=100&resize=100 100w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=150&resize=150 150w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=240&resize=240 240w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=320&resize=320 320w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=500&resize=500 500w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=640&resize=640 640w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=800&resize=800 800w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=1024&resize=1024 1024w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=1280&resize=1280 1280w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=1600&resize=1600 1600w" data-src="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png" width="400px" height="300px" />
-                 */
-                lesImages = lArticle.select("img[data-src]");
-                // Pour chaque image
-                for (Element uneImage : lesImages) {
-                    uneImage.attr("src", uneImage.attr("data-src"));
-                }
-
-                // Suppression des attributs sans intérêt pour l'application
-                Elements elements = lArticle.select("*");
-                for (Element element : elements) {
-                    element.removeAttr("target");
-                    element.removeAttr("rel");
-                    element.removeAttr("class");
-                    element.removeAttr("style");
-                    element.removeAttr("alt");
-                    element.removeAttr("data-sizes");
-                    element.removeAttr("srcset");
-                    element.removeAttr("data-srcset");
-                    element.removeAttr("data-src");
-                }
-
-                // Elimination des htmlentities (beaucoup de &nbsp;)
-                contenu = Parser.unescapeEntities(lArticle.toString(), true);
-                monArticleItem.setContenu(contenu);
-
-                // ID du dernier commentaire (sert à piloter la vérification du # de commentaires)
-                int lastComment = -1;
-                if (unArticle.getJSONObject("_embedded").has("replies")) {
-                    lastComment = unArticle.getJSONObject("_embedded").getJSONArray("replies").getJSONArray(0).getJSONObject(0).getInt("id");
+                if (parsageDiffere) {
+                    // Le nettoyage sera fait à la première lecture de l'article (ou en tâche de fond)
+                    monArticleItem.setContenuBrut(contenu);
+                    Statistiques.incrementer(Statistiques.ARTICLES_PARSAGE_DIFFERE);
+                } else {
+                    // Nettoyage du contenu
+                    long debut = System.nanoTime();
+                    monArticleItem.setContenu(nettoyerContenu(contenu, monArticleItem.getId()));
+                    Statistiques.incrementer(Statistiques.ARTICLES_PARSES);
+                    Statistiques.ajouter(Statistiques.TEMPS_PARSAGE_SYNCHRO, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut));
                 }
-                monArticleItem.setParseurLastCommentId(lastComment);
 
                 // Et je le stocke
                 mesArticlesItem.add(monArticleItem);
@@ -604,4 +464,222 @@ public class ParseurHTML {
 
         return monRetour;
     }
+
+    /**
+     * Nettoyage du contenu HTML d'un article (iframes, vidéos, images, attributs inutiles)
+     *
+     * @param unContenu contenu HTML brut (<article>...</article>)
+     * @param idArticle ID de l'article (debug)
+     * @return contenu HTML nettoyé
+     */
+    public static String nettoyerContenu(final String unContenu, final int idArticle) {
+        // L'article
+        Elements lArticle = Jsoup.parse(unContenu).select("article");
+
+        // NETTOYAGE DU CONTENU
+        // Gestion des iframe
+        Elements lesIframes = lArticle.select("iframe");
+        // généralisation de l'URL en dehors du scheme
+        String[] schemes = {"https://", "http://", "//"};
+        // Pour chaque iframe
+        for (Element uneIframe : lesIframes) {
+            // URL du lecteur
+            String urlLecteurBrute = uneIframe.attr("src");
+            String urlLecteur = urlLecteurBrute.toLowerCase(Constantes.LOCALE);
+
+            for (String unScheme : schemes) {
+                if (urlLecteur.startsWith(unScheme)) {
+                    // Suppression du scheme
+                    urlLecteur = urlLecteur.substring(unScheme.length());
+                    // DEBUG
+                    if (Constantes.DEBUG) {
+                        Log.w("ParseurHTML", "nettoyerContenu() - Iframe : utilisation du scheme " + unScheme + " => " + urlLecteur);
+                    }
+                }
+            }
+
+            // ID de la vidéo - sur l'URL brute pour gérer les ID de vidéo avec des majuscules
+            String idVideo = urlLecteurBrute.substring(urlLecteur.lastIndexOf("/") + 1).split("\\?")[0].split("#")[0];
+
+            // Ma substitution
+            String monRemplacement;
+
+            // Gestion des lecteurs vidéos
+            if (urlLecteur.startsWith("www.youtube.com/embed/videoseries")) {
+                /*
+                 * Liste de lecture Youtube
+                 */
+                // Recalcul de l'ID de la vidéo (cas particulier)
+                idVideo = urlLecteur.substring(urlLecteur.lastIndexOf("list=") + "list=".length()).split("\\?")[0].split("#")[0];
+                monRemplacement = "<a href=\"http://www.youtube.com/playlist?list=" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_liste_youtube + "\" /></a>";
+            } else if (urlLecteur.startsWith("www.youtube.com/embed/") || urlLecteur.startsWith("www.youtube-nocookie.com/embed/")) {
+                /*
+                 * Youtube
+                 */
+                monRemplacement = "<a href=\"http://www.youtube.com/watch?v=" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_youtube + "\" /></a>";
+            } else if (urlLecteur.startsWith("www.dailymotion.com/embed/video/")) {
+                /*
+                 * Dailymotion
+                 */
+                monRemplacement = "<a href=\"http://www.dailymotion.com/video/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_dailymotion + "\" /></a>";
+            } else if (urlLecteur.startsWith("player.vimeo.com/video/")) {
+                /*
+                 * VIMEO
+                 */
+                monRemplacement = "<a href=\"http://www.vimeo.com/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_vimeo + "\" /></a>";
+            } else if (urlLecteur.startsWith("static.videos.gouv.fr/player/video/")) {
+                /*
+                 * Videos.gouv.fr
+                 */
+                monRemplacement = "<a href=\"http://static.videos.gouv.fr/player/video/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_videos_gouv_fr + "\" /></a>";
+            } else if (urlLecteur.startsWith("vid.me")) {
+                /*
+                 * Vidme
+                 */
+                monRemplacement = "<a href=\"https://vid.me/" + idVideo + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_vidme + "\" /></a>";
+            } else if (urlLecteur.startsWith("w.soundcloud.com/player/")) {
+                /*
+                 * Soundcloud (l'URL commence bien par w.soundcloud !)
+                 */
+                monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_soundcloud + "\" /></a>";
+            } else if (urlLecteur.startsWith("www.scribd.com/embeds/")) {
+                /*
+                 * Scribd
+                 */
+                monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_scribd + "\" /></a>";
+            } else if (urlLecteur.startsWith("player.canalplus.fr/embed/")) {
+                /*
+                 * Canal+
+                 */
+                monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_canalplus + "\" /></a>";
+            } else if (urlLecteur.startsWith("www.arte.tv/")) {
+                /*
+                 * Arte
+                 */
+                monRemplacement = "<a href=\"" + urlLecteur + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_arte + "\" /></a>";
+            } else {
+                /*
+                 * Déchet (catch all)
+                 */
+                monRemplacement = "<a href=\"" + uneIframe.absUrl("src") + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_non_supportee + "\" /></a>";
+
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.e("ParseurHTML", "nettoyerContenu() - Iframe non gérée dans " + idArticle + " : " + uneIframe.absUrl("src"));
+                }
+            }
+
+
+            // Je remplace l'iframe par mon contenu
+            uneIframe.before(monRemplacement);
+            uneIframe.remove();
+
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.i("ParseurHTML", "Remplacement par une iframe : " + monRemplacement);
+            }
+        }
+
+        // Gestion des videos HTML5
+        Elements lesVideos = lArticle.select("video");
+        for (Element uneVideo : lesVideos) {
+            String monRemplacement = "<a href=\"" + uneVideo.absUrl("src") + "\"><img src=\"android.resource://com.pcinpact/drawable/" + R.drawable.iframe_non_supportee + "\" /></a>";
+            // Je remplace la vidéo par mon contenu
+            uneVideo.before(monRemplacement);
+            uneVideo.remove();
+        }
+
+        /*
+         * Gestion des images
+         */
+        // fancyimg - Articles migrés à priori
+        /*
+         *<figure class="content-img" style="text-align: center;" data-imageid="174190"><a class="fancyimg" href="https://cdnx.nextinpact.com/data-next/image/bd/174190.png" rel="group-fancy"> <img style="display:block;max-width: 100%;"  class="lazyload" data-sizes="auto" data-srcset="https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=75&resize=75 75w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=100&resize=100 100w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=150&resize=150 150w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=240&resize=240 240w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=320&resize=320 320w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=500&resize=500 500w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=640&resize=640 640w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=800&resize=800 800w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=1024&resize=1024 1024w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=1280&resize=1280 1280w, https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png?w=1600&resize=1600 1600w" data-src="https://i0.wp.com/cdnx.nextinpact.com/data-next/image/bd/174190.png" alt="Threadripper Pro 7000" /></a></figure>
+         */
+        Elements liensImagesFancy = lArticle.select("a[class=fancyimg]:has(img)");
+        // Pour chaque <a>
+        for (Element lienImageFancy : liensImagesFancy) {
+            // Pour chaque image...
+            for (Element lImage : lienImageFancy.select("img")) {
+                // Passage à l'image pleine taille
+                lImage.attr("src", lienImageFancy.attr("href"));
+                // Injection de l'image pleine taille...
+                lienImageFancy.before(lImage.outerHtml());
+            }
+            // Suppression du lien (et ses enfants)
+            lienImageFancy.remove();
+        }
+
+        // data-srcset (Jetpack i*.wp.com) AVEC srcset
+        /*
+         * <img width="1024" height="535" style="display:block" class="lazyload" data-sizes="auto" data-srcset="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=75&resize=75 75w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=100&resize=100 100w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=150&resize=150 150w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=240&resize=240 240w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=320&resize=320 320w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=500&resize=500 500w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=640&resize=640 640w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=800&resize=800 800w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=1024&resize=1024 1024w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=1280&resize=1280 1280w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png?w=1600&resize=1600 1600w" data-src="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png" alt="Trois missions Apollo : 11, 13 et 17 " class="wp-image-117815" srcset="https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-1024x535.png 1024w, https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-300x157.png 300w, https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704-768x402.png 768w, https://next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-25-235704.png 1492w" sizes="(max-width: 1024px) 100vw, 1024px" />
+         */
+        Elements lesImages = lArticle.select("img[srcset]");
+        // Pour chaque image
+        for (Element uneImage : lesImages) {
+            // Récupération du premier lien du srcset (1024w)
+            String srcset = uneImage.attr("srcset");
+            Pattern p = Pattern.compile("^(.+?) [0-9]+w");
+            Matcher m = p.matcher(srcset);
+            while (m.find()) {
+                uneImage.attr("src", m.group(1));
+                // DEBUG
+                if (Constantes.DEBUG) {
+                    Log.d("ParseurHTML", "nettoyerContenu() - Regex img : " + m.group(1) + " (srcset : " + srcset + ")");
+                }
+            }
+            // Ne pas rentrer dans le nettoyage suivant
+            uneImage.removeAttr("data-src");
+        }
+
+        // data-srcset (Jetpack i*.wp.com) SANS srcset ("slideshow-container")
+        /*
+        <img style="display:block" class="lazyload" data-sizes="auto" data-srcset="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=75&resize=75 75w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=100&resize=100 100w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=150&resize=150 150w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=240&resize=240 240w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=320&resize=320 320w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=500&resize=500 500w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=640&resize=640 640w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=800&resize=800 800w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=1024&resize=1024 1024w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=1280&resize=1280 1280w, https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png?w=1600&resize=1600 1600w" data-src="https://i1.wp.com/next.ink/wp-content/uploads/2023/11/Capture-decran-2023-11-30-121406.png" width="400px" height="300px" />
+         */
+        lesImages = lArticle.select("img[data-src]");
+        // Pour chaque image
+        for (Element uneImage : lesImages) {
+            uneImage.attr("src", uneImage.attr("data-src"));
+        }
+
+        // Conservation des seuls éléments et attributs affichés par l'application (les htmlentities sont décodées par Jsoup)
+        StringBuilder monContenu = new StringBuilder();
+        for (Element unElement : lArticle) {
+            monContenu.append(NettoyeurHTML.nettoyer(unElement));
+        }
+
+        // Gain de place
+        long tailleAvant = NettoyeurHTML.tailleUTF8(unContenu);
+        long tailleApres = NettoyeurHTML.tailleUTF8(monContenu);
+        Statistiques.ajouter(Statistiques.OCTETS_AVANT_NETTOYAGE, tailleAvant);
+        Statistiques.ajouter(Statistiques.OCTETS_APRES_NETTOYAGE, tailleApres);
+        // DEBUG
+        if (Constantes.DEBUG) {
+            Log.d("ParseurHTML", "nettoyerContenu() - " + idArticle + " : " + tailleAvant + " octets => " + tailleApres + " octets");
+        }
+
+        return monContenu.toString();
+    }
+
+    /**
+     * Empreinte (FNV-1a 64 bits) de valeurs textuelles
+     *
+     * @param desValeurs valeurs à prendre en compte
+     * @return empreinte
+     */
+    public static long calculerEmpreinte(final String... desValeurs) {
+        long empreinte = 0xcbf29ce484222325L;
+        for (String uneValeur : desValeurs) {
+            if (uneValeur != null) {
+                for (int i = 0; i < uneValeur.length(); i++) {
+                    empreinte ^= uneValeur.charAt(i);
+                    empreinte *= 0x100000001b3L;
+                }
+            }
+            // Séparateur (distingue "ab" + "c" de "a" + "bc")
+            empreinte ^= 0xffff;
+            empreinte *= 0x100000001b3L;
+        }
+        return empreinte;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression du contenu des articles stocké en BDD.
+ * Format : 1 octet de marqueur du codec puis les données compressées.
+ * Un contenu stocké dans un fichier (cf StockageContenus) est soit compressé, soit du texte UTF-8 sans marqueur.
+ *
+ * @author Anael
+ */
+public final class CodecContenu {
+    /**
+     * Marqueur : deflate brut (sans entête zlib) du texte UTF-8
+     */
+    public static final byte CODEC_DEFLATE = 1;
+    /**
+     * Marqueur : référence vers un fichier contenant le contenu (valeur stockée en BDD, cf StockageContenus)
+     */
+    public static final byte CODEC_FICHIER = 2;
+    /**
+     * Encodage du texte
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    /**
+     * Taille du buffer de (dé)compression
+     */
+    private static final int TAILLE_BUFFER = 8192;
+
+    private CodecContenu() {
+    }
+
+    /**
+     * Compresse un contenu
+     *
+     * @param unContenu contenu texte
+     * @return marqueur + données compressées
+     */
+    public static byte[] encoder(final String unContenu) {
+        byte[] mesDonnees = unContenu.getBytes(UTF8);
+
+        Deflater monDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        monDeflater.setInput(mesDonnees);
+        monDeflater.finish();
+
+        ByteArrayOutputStream monRetour = new ByteArrayOutputStream(mesDonnees.length / 3 + 16);
+        monRetour.write(CODEC_DEFLATE);
+        byte[] monBuffer = new byte[TAILLE_BUFFER];
+        while (!monDeflater.finished()) {
+            int nbOctets = monDeflater.deflate(monBuffer);
+            monRetour.write(monBuffer, 0, nbOctets);
+        }
+        monDeflater.end();
+
+        return monRetour.toByteArray();
+    }
+
+    /**
+     * Décompresse un contenu
+     *
+     * @param desDonnees marqueur + données compressées
+     * @return contenu texte ("" si illisible)
+     */
+    public static String decoder(final byte[] desDonnees) {
+        if (desDonnees == null || desDonnees.length == 0) {
+            return "";
+        }
+        if (desDonnees[0] != CODEC_DEFLATE) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CodecContenu", "decoder() - codec inconnu : " + desDonnees[0]);
+            }
+            return "";
+        }
+
+        Inflater monInflater = new Inflater(true);
+        monInflater.setInput(desDonnees, 1, desDonnees.length - 1);
+
+        ByteArrayOutputStream monRetour = new ByteArrayOutputStream(desDonnees.length * 3);
+        byte[] monBuffer = new byte[TAILLE_BUFFER];
+        try {
+            while (!monInflater.finished()) {
+                int nbOctets = monInflater.inflate(monBuffer);
+                if (nbOctets == 0 && (monInflater.needsInput() || monInflater.needsDictionary())) {
+                    // Données tronquées
+                    // DEBUG
+                    if (Constantes.DEBUG) {
+                        Log.e("CodecContenu", "decoder() - données tronquées");
+                    }
+                    return "";
+                }
+                monRetour.write(monBuffer, 0, nbOctets);
+            }
+        } catch (DataFormatException e) {
+            // DEBUG
+            if (Constantes.DEBUG) {
+                Log.e("CodecContenu", "decoder() - données corrompues", e);
+            }
+            return "";
+        } finally {
+            monInflater.end();
+        }
+
+        return new String(monRetour.toByteArray(), UTF8);
+    }
+
+    /**
+     * Encode un contenu pour son stockage dans un fichier
+     *
+     * @param unContenu  contenu texte
+     * @param compresser compresser le contenu
+     * @return marqueur + données compressées, ou texte UTF-8
+     */
+    public static byte[] encoderFichier(final String unContenu, final boolean compresser) {
+        return (compresser ? encoder(unContenu) : unContenu.getBytes(UTF8));
+    }
+
+    /**
+     * Décode un contenu stocké dans un fichier (cf encoderFichier())
+     *
+     * @param desDonnees contenu (la position du buffer n'est pas modifiée)
+     * @return contenu texte ("" si illisible)
+     */
+    public static String decoderFichier(final ByteBuffer desDonnees) {
+        if (desDonnees == null || !desDonnees.hasRemaining()) {
+            return "";
+        }
+        if (desDonnees.get(desDonnees.position()) == CODEC_DEFLATE) {
+            // Inflater n'accepte un ByteBuffer qu'à partir de Java 11
+            byte[] mesDonnees = new byte[desDonnees.remaining()];
+            desDonnees.duplicate().get(mesDonnees);
+            return decoder(mesDonnees);
+        }
+        // Texte : décodé directement depuis le buffer
+        return UTF8.decode(desDonnees.duplicate()).toString();
+    }
+}
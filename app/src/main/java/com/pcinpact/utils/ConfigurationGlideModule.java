@@ -24,8 +24,8 @@ import androidx.annotation.NonNull;
 
 import com.bumptech.glide.GlideBuilder;
 import com.bumptech.glide.annotation.GlideModule;
-import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
 import com.bumptech.glide.module.AppGlideModule;
+import com.pcinpact.datastorage.CacheImages;
 
 
 /**
@@ -35,15 +35,15 @@ import com.bumptech.glide.module.AppGlideModule;
 @GlideModule
 public class ConfigurationGlideModule extends AppGlideModule {
     /**
-     * 50 Mo de cache
+     * Cache des images : CacheImages, dont la taille suit le budget de stockage (cf CacheManager.nettoyerCache())
      *
      * @param context contexte
      * @param builder GlideBuilder
      */
     @Override
     public void applyOptions(@NonNull Context context, GlideBuilder builder) {
-        int diskCacheSizeBytes = 1024 * 1024 * Constantes.TAILLE_CACHE; // 50 Mo de cache
-        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, diskCacheSizeBytes));
+        // Ouvert par Glide hors thread UI
+        builder.setDiskCache(() -> CacheImages.getInstance(context));
     }
 
     /**
@@ -98,9 +98,9 @@ public class Constantes {
     public static final String TAG_HTML_QUOTE = "myquote";
 
     /**
-     * Taille (en Mo) du cache sur le disque
+     * Part minimale du budget de stockage (1/x) garantie aux articles comme aux images
      */
-    public static final int TAILLE_CACHE = 50;
+    public static final int PART_MIN_STOCKAGE = 4;
 
     /*
      * TYPES DE TELECHARGEMENTS.
@@ -167,6 +167,14 @@ public class Constantes {
      * ID du refresh de la liste des articles.
      */
     public static final int DB_REFRESH_ID_LISTE_ARTICLES = 0;
+    /**
+     * ID de la date de dernière maintenance de la BDD.
+     */
+    public static final int DB_REFRESH_ID_MAINTENANCE = -1;
+    /**
+     * Délai minimum entre deux maintenances de la BDD (secondes).
+     */
+    public static final long DELAI_MAINTENANCE_BDD = 24 * 3600;
 
 
     /*
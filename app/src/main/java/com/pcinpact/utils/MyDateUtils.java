@@ -25,6 +25,9 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
@@ -34,6 +37,45 @@ import java.util.concurrent.TimeUnit;
  * @author Anael
  */
 public class MyDateUtils {
+    /**
+     * Fuseau horaire de Next (les dates de l'API sont exprimées dans ce fuseau)
+     */
+    private static final TimeZone FUSEAU_NEXT = TimeZone.getTimeZone("Europe/Paris");
+    /**
+     * Nombre de libellés de jours conservés en mémoire
+     */
+    private static final int TAILLE_CACHE_JOURS = 128;
+    /**
+     * Millisecondes dans une journée
+     */
+    private static final long MS_PAR_JOUR = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Formateurs par thread (SimpleDateFormat n'est pas thread-safe)
+     */
+    private static final ThreadLocal<HashMap<String, DateFormat>> mesFormateurs = new ThreadLocal<HashMap<String, DateFormat>>() {
+        @Override
+        protected HashMap<String, DateFormat> initialValue() {
+            return new HashMap<>();
+        }
+    };
+    /**
+     * Date réutilisée par thread pour le formatage
+     */
+    private static final ThreadLocal<Date> maDate = new ThreadLocal<Date>() {
+        @Override
+        protected Date initialValue() {
+            return new Date();
+        }
+    };
+    /**
+     * Libellés des jours (FORMAT_AFFICHAGE_SECTION_DATE), indexés par jour local
+     */
+    private static final Map<Long, String> cacheJours = creerCacheJours();
+    /**
+     * Libellés des sections (première lettre en majuscule), indexés par jour local
+     */
+    private static final Map<Long, String> cacheSections = creerCacheJours();
 
     /**
      * Convertit une date texte en timestamp au format Next
@@ -43,18 +85,43 @@ public class MyDateUtils {
      */
     public static long convertToTimestamp(String uneDate) {
         // Ex de dates : 2020-11-13T15:52:42.0216538 / 2020-11-05T14:00:18.239 / 2020-11-04T07:30:08.4
-        // => Suppression à partir du ".XXX" (millisecondes)
-        int posPoint = uneDate.indexOf(".");
-        if (posPoint != -1) {
-            uneDate = uneDate.substring(0, posPoint);
+        // => Les millisecondes ne sont pas prises en compte
+        if (uneDate != null && uneDate.length() >= 19 && uneDate.charAt(4) == '-' && uneDate.charAt(7) == '-' && uneDate.charAt(10) == 'T' && uneDate.charAt(13) == ':' && uneDate.charAt(16) == ':') {
+            int annee = lireNombre(uneDate, 0, 4);
+            int mois = lireNombre(uneDate, 5, 2);
+            int jour = lireNombre(uneDate, 8, 2);
+            int heure = lireNombre(uneDate, 11, 2);
+            int minute = lireNombre(uneDate, 14, 2);
+            int seconde = lireNombre(uneDate, 17, 2);
+
+            if (annee >= 0 && mois >= 1 && mois <= 12 && jour >= 1 && jour <= 31 && heure >= 0 && heure <= 23 && minute >= 0 && minute <= 59 && seconde >= 0 && seconde <= 59 && (uneDate.length() == 19 || uneDate.charAt(19) == '.')) {
+                // Heure locale (Europe/Paris) exprimée en ms
+                long dateLocale = ((((joursDepuisEpoch(annee, mois, jour) * 24 + heure) * 60 + minute) * 60) + seconde) * 1000;
+                return TimeUnit.MILLISECONDS.toSeconds(localVersUTC(dateLocale));
+            }
         }
 
-        DateFormat dfm = new SimpleDateFormat(Constantes.FORMAT_DATE, Constantes.LOCALE);
-        dfm.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
+        // Format inattendu : on laisse faire SimpleDateFormat
+        return convertToTimestampSimpleDateFormat(uneDate);
+    }
+
+    /**
+     * Conversion d'une date texte via SimpleDateFormat (formats non standards)
+     *
+     * @param uneDate date au format textuel
+     * @return timestamp
+     */
+    private static long convertToTimestampSimpleDateFormat(String uneDate) {
         long laDateTS = 0;
         try {
+            // => Suppression à partir du ".XXX" (millisecondes)
+            int posPoint = uneDate.indexOf(".");
+            if (posPoint != -1) {
+                uneDate = uneDate.substring(0, posPoint);
+            }
+
             // Récupération du timestamp
-            laDateTS = TimeUnit.MILLISECONDS.toSeconds(dfm.parse(uneDate).getTime());
+            laDateTS = TimeUnit.MILLISECONDS.toSeconds(getFormateur(Constantes.FORMAT_DATE).parse(uneDate).getTime());
         } catch (ParseException | NullPointerException e) {
             if (Constantes.DEBUG) {
                 Log.e("ParseurHTML", "convertToTimeStamp() - erreur parsage date : " + uneDate, e);
@@ -82,11 +149,110 @@ public class MyDateUtils {
      * @return String
      */
     public static String formatDate(final String format, final long unTimestamp) {
-        Date maDate = new Date(TimeUnit.SECONDS.toMillis(unTimestamp));
-        // Format souhaité
-        DateFormat dfm = new SimpleDateFormat(format, Constantes.LOCALE);
-        dfm.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
-        return dfm.format(maDate);
+        Date laDate = maDate.get();
+        laDate.setTime(TimeUnit.SECONDS.toMillis(unTimestamp));
+        return getFormateur(format).format(laDate);
+    }
+
+    /**
+     * Heure de publication d'un article (FORMAT_AFFICHAGE_ARTICLE_HEURE)
+     *
+     * @param unTimestamp un timestamp
+     * @return HH:mm
+     */
+    public static String formatHeureMinute(final long unTimestamp) {
+        int secondesJour = getSecondesDansJourLocal(unTimestamp);
+
+        char[] monRetour = new char[5];
+        ecrireNombre(monRetour, 0, secondesJour / 3600, 2);
+        monRetour[2] = ':';
+        ecrireNombre(monRetour, 3, (secondesJour / 60) % 60, 2);
+
+        return new String(monRetour);
+    }
+
+    /**
+     * Date et heure de publication d'un commentaire (FORMAT_AFFICHAGE_COMMENTAIRE_DATE_HEURE)
+     *
+     * @param unTimestamp un timestamp
+     * @return le dd/MM/yyyy à HH:mm:ss
+     */
+    public static String formatDateHeureCommentaire(final long unTimestamp) {
+        long jourLocal = getJourLocal(unTimestamp);
+        int secondesJour = getSecondesDansJourLocal(unTimestamp);
+        int[] maDateCivile = dateCivile(jourLocal);
+
+        // "le dd/MM/yyyy à HH:mm:ss"
+        char[] monRetour = "le 00/00/0000 à 00:00:00".toCharArray();
+        ecrireNombre(monRetour, 3, maDateCivile[2], 2);
+        ecrireNombre(monRetour, 6, maDateCivile[1], 2);
+        ecrireNombre(monRetour, 9, maDateCivile[0], 4);
+        ecrireNombre(monRetour, 16, secondesJour / 3600, 2);
+        ecrireNombre(monRetour, 19, (secondesJour / 60) % 60, 2);
+        ecrireNombre(monRetour, 22, secondesJour % 60, 2);
+
+        return new String(monRetour);
+    }
+
+    /**
+     * Jour de publication (FORMAT_AFFICHAGE_SECTION_DATE) - mémorisé par jour
+     *
+     * @param unTimestamp un timestamp
+     * @return ex : lundi 13 novembre 2023
+     */
+    public static String formatJour(final long unTimestamp) {
+        Long leJour = getJourLocal(unTimestamp);
+        String monRetour;
+        synchronized (cacheJours) {
+            monRetour = cacheJours.get(leJour);
+        }
+        if (monRetour == null) {
+            monRetour = formatDate(Constantes.FORMAT_AFFICHAGE_SECTION_DATE, unTimestamp);
+            synchronized (cacheJours) {
+                cacheJours.put(leJour, monRetour);
+            }
+        }
+        return monRetour;
+    }
+
+    /**
+     * Titre de section de la liste des articles (jour de publication, première lettre en majuscule) - mémorisé par jour
+     *
+     * @param unTimestamp un timestamp
+     * @return ex : Lundi 13 novembre 2023
+     */
+    public static String formatSection(final long unTimestamp) {
+        Long leJour = getJourLocal(unTimestamp);
+        String monRetour;
+        synchronized (cacheSections) {
+            monRetour = cacheSections.get(leJour);
+        }
+        if (monRetour == null) {
+            String laDate = formatJour(unTimestamp);
+            // Première lettre en majuscule
+            monRetour = String.valueOf(laDate.charAt(0)).toUpperCase(Constantes.LOCALE) + laDate.substring(1);
+            synchronized (cacheSections) {
+                cacheSections.put(leJour, monRetour);
+            }
+        }
+        return monRetour;
+    }
+
+    /**
+     * Jour local (fuseau de Next) d'un timestamp, en nombre de jours depuis le 01/01/1970.
+     * Deux timestamps du même jour calendaire retournent la même valeur.
+     *
+     * @param unTimestamp un timestamp
+     * @return numéro du jour
+     */
+    public static long getJourLocal(final long unTimestamp) {
+        long dateLocale = utcVersLocal(TimeUnit.SECONDS.toMillis(unTimestamp));
+        long monJour = dateLocale / MS_PAR_JOUR;
+        // Arrondi inférieur pour les dates avant 1970
+        if (dateLocale < 0 && dateLocale % MS_PAR_JOUR != 0) {
+            monJour--;
+        }
+        return monJour;
     }
 
     /**
@@ -112,4 +278,151 @@ public class MyDateUtils {
         }
         return monRetour;
     }
+
+    /**
+     * Formateur (fuseau de Next) propre au thread courant
+     *
+     * @param format format souhaité (SimpleDateFormat)
+     * @return DateFormat
+     */
+    private static DateFormat getFormateur(final String format) {
+        HashMap<String, DateFormat> lesFormateurs = mesFormateurs.get();
+        DateFormat dfm = lesFormateurs.get(format);
+        if (dfm == null) {
+            dfm = new SimpleDateFormat(format, Constantes.LOCALE);
+            dfm.setTimeZone(FUSEAU_NEXT);
+            lesFormateurs.put(format, dfm);
+        }
+        return dfm;
+    }
+
+    /**
+     * Cache LRU des libellés de jours
+     *
+     * @return Map
+     */
+    private static Map<Long, String> creerCacheJours() {
+        return new LinkedHashMap<Long, String>(TAILLE_CACHE_JOURS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > TAILLE_CACHE_JOURS;
+            }
+        };
+    }
+
+    /**
+     * Heure UTC -> heure locale (fuseau de Next)
+     *
+     * @param uneDateUTC date UTC en ms
+     * @return date locale en ms
+     */
+    private static long utcVersLocal(final long uneDateUTC) {
+        return uneDateUTC + FUSEAU_NEXT.getOffset(uneDateUTC);
+    }
+
+    /**
+     * Heure locale (fuseau de Next) -> heure UTC
+     *
+     * @param uneDateLocale date locale en ms
+     * @return date UTC en ms
+     */
+    private static long localVersUTC(final long uneDateLocale) {
+        // Première approximation avec le décalage standard, puis correction heure d'été / heure d'hiver
+        int decalage = FUSEAU_NEXT.getOffset(uneDateLocale - FUSEAU_NEXT.getRawOffset());
+        int decalageCorrige = FUSEAU_NEXT.getOffset(uneDateLocale - decalage);
+        if (decalageCorrige != decalage) {
+            decalage = FUSEAU_NEXT.getOffset(uneDateLocale - decalageCorrige);
+        }
+        return uneDateLocale - decalage;
+    }
+
+    /**
+     * Nombre de secondes écoulées dans le jour local
+     *
+     * @param unTimestamp un timestamp
+     * @return secondes [0 ; 86400[
+     */
+    private static int getSecondesDansJourLocal(final long unTimestamp) {
+        long dateLocale = utcVersLocal(TimeUnit.SECONDS.toMillis(unTimestamp));
+        long reste = dateLocale % MS_PAR_JOUR;
+        if (reste < 0) {
+            reste += MS_PAR_JOUR;
+        }
+        return (int) (reste / 1000);
+    }
+
+    /**
+     * Nombre de jours depuis le 01/01/1970 d'une date du calendrier grégorien
+     * Cf http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+     *
+     * @param annee annee
+     * @param mois  mois (1-12)
+     * @param jour  jour (1-31)
+     * @return nombre de jours
+     */
+    private static long joursDepuisEpoch(int annee, final int mois, final int jour) {
+        if (mois <= 2) {
+            annee--;
+        }
+        long ere = (annee >= 0 ? annee : annee - 399) / 400;
+        long anneeEre = annee - ere * 400;
+        long jourAnnee = (153 * (mois > 2 ? mois - 3 : mois + 9) + 2) / 5 + jour - 1;
+        long jourEre = anneeEre * 365 + anneeEre / 4 - anneeEre / 100 + jourAnnee;
+        return ere * 146097 + jourEre - 719468;
+    }
+
+    /**
+     * Date du calendrier grégorien à partir du nombre de jours depuis le 01/01/1970
+     * Cf http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+     *
+     * @param unJour nombre de jours
+     * @return [annee, mois (1-12), jour (1-31)]
+     */
+    private static int[] dateCivile(long unJour) {
+        unJour += 719468;
+        long ere = (unJour >= 0 ? unJour : unJour - 146096) / 146097;
+        long jourEre = unJour - ere * 146097;
+        long anneeEre = (jourEre - jourEre / 1460 + jourEre / 36524 - jourEre / 146096) / 365;
+        long jourAnnee = jourEre - (365 * anneeEre + anneeEre / 4 - anneeEre / 100);
+        long moisDecale = (5 * jourAnnee + 2) / 153;
+        int jour = (int) (jourAnnee - (153 * moisDecale + 2) / 5 + 1);
+        int mois = (int) (moisDecale < 10 ? moisDecale + 3 : moisDecale - 9);
+        int annee = (int) (anneeEre + ere * 400 + (mois <= 2 ? 1 : 0));
+        return new int[]{annee, mois, jour};
+    }
+
+    /**
+     * Lecture d'un nombre positif dans une chaîne
+     *
+     * @param uneChaine chaîne
+     * @param debut     position du premier chiffre
+     * @param longueur  nombre de chiffres
+     * @return nombre lu, -1 si un caractère n'est pas un chiffre
+     */
+    private static int lireNombre(final String uneChaine, final int debut, final int longueur) {
+        int monRetour = 0;
+        for (int i = debut; i < debut + longueur; i++) {
+            char unChar = uneChaine.charAt(i);
+            if (unChar < '0' || unChar > '9') {
+                return -1;
+            }
+            monRetour = monRetour * 10 + (unChar - '0');
+        }
+        return monRetour;
+    }
+
+    /**
+     * Ecriture d'un nombre positif (complété avec des 0) dans un tableau de caractères
+     *
+     * @param unTableau tableau de destination
+     * @param debut     position du premier chiffre
+     * @param unNombre  nombre à écrire
+     * @param longueur  nombre de chiffres
+     */
+    private static void ecrireNombre(final char[] unTableau, final int debut, int unNombre, final int longueur) {
+        for (int i = debut + longueur - 1; i >= debut; i--) {
+            unTableau[i] = (char) ('0' + unNombre % 10);
+            unNombre /= 10;
+        }
+    }
 }
\ No newline at end of file
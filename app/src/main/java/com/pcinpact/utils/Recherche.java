@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import org.jsoup.Jsoup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Outils de la recherche plein texte (index FTS4 de la BDD).
+ * Le texte indexé et la saisie de l'utilisateur sont normalisés de la même façon (minuscules, sans accents).
+ *
+ * @author Anael
+ */
+public final class Recherche {
+    /**
+     * Nombre maximum de mots pris en compte dans une saisie
+     */
+    private static final int NB_MOTS_MAX = 8;
+    /**
+     * Séparateurs de mots (tout ce qui n'est ni une lettre ni un chiffre)
+     */
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    /**
+     * Signes diacritiques (accents, cédilles, ...) une fois le texte décomposé
+     */
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+
+    private Recherche() {
+    }
+
+    /**
+     * Normalise un texte : minuscules, sans accents
+     *
+     * @param unTexte texte
+     * @return texte normalisé ("" si null)
+     */
+    public static String normaliser(final String unTexte) {
+        if (unTexte == null) {
+            return "";
+        }
+        String monTexte = Normalizer.normalize(unTexte, Normalizer.Form.NFD);
+        monTexte = DIACRITIQUES.matcher(monTexte).replaceAll("");
+        return monTexte.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Texte d'un contenu HTML, normalisé pour l'index
+     *
+     * @param unHTML contenu HTML
+     * @return texte normalisé ("" si null)
+     */
+    public static String normaliserHTML(final String unHTML) {
+        if (unHTML == null || "".equals(unHTML)) {
+            return "";
+        }
+        return normaliser(Jsoup.parse(unHTML).text());
+    }
+
+    /**
+     * Construit l'expression MATCH d'une saisie utilisateur : tous les mots, chacun en recherche par préfixe
+     * Seuls les lettres et chiffres sont conservés => pas d'opérateur FTS injecté par l'utilisateur
+     *
+     * @param uneSaisie saisie de l'utilisateur
+     * @return expression MATCH, null si aucun mot
+     */
+    public static String construireRequete(final String uneSaisie) {
+        StringBuilder maRequete = new StringBuilder();
+        int nbMots = 0;
+        for (String unMot : SEPARATEURS.split(normaliser(uneSaisie))) {
+            if ("".equals(unMot)) {
+                continue;
+            }
+            if (nbMots > 0) {
+                maRequete.append(" ");
+            }
+            maRequete.append(unMot);
+            maRequete.append("*");
+
+            nbMots++;
+            if (nbMots == NB_MOTS_MAX) {
+                break;
+            }
+        }
+        if (nbMots == 0) {
+            return null;
+        }
+        return maRequete.toString();
+    }
+
+    /**
+     * Pertinence d'un résultat à partir de matchinfo(table, 'pcx')
+     * Pour chaque mot et chaque colonne : occurrences dans la ligne / occurrences dans toute la table, pondéré par colonne
+     * Un mot fréquent dans la ligne mais rare dans la table pèse donc plus lourd.
+     *
+     * @param unMatchinfo retour de matchinfo() (entiers 32 bits, ordre natif)
+     * @param desPoids    poids de chaque colonne de la table
+     * @return score (0 si illisible)
+     */
+    public static double score(final byte[] unMatchinfo, final double[] desPoids) {
+        if (unMatchinfo == null || unMatchinfo.length < 8) {
+            return 0;
+        }
+        ByteBuffer monBuffer = ByteBuffer.wrap(unMatchinfo).order(ByteOrder.nativeOrder());
+        int nbMots = monBuffer.getInt(0);
+        int nbColonnes = monBuffer.getInt(4);
+        if (unMatchinfo.length < 4 * (2 + 3 * nbMots * nbColonnes)) {
+            return 0;
+        }
+
+        double monScore = 0;
+        for (int mot = 0; mot < nbMots; mot++) {
+            for (int colonne = 0; colonne < nbColonnes && colonne < desPoids.length; colonne++) {
+                int position = 4 * (2 + 3 * (mot * nbColonnes + colonne));
+                int occurrencesLigne = monBuffer.getInt(position);
+                int occurrencesTable = monBuffer.getInt(position + 4);
+                if (occurrencesLigne > 0) {
+                    monScore += desPoids[colonne] * occurrencesLigne / occurrencesTable;
+                }
+            }
+        }
+        return monScore;
+    }
+}
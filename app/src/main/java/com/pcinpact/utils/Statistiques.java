@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compteurs de performance (depuis le lancement de l'application), affichés dans DebugActivity.
+ *
+ * @author Anael
+ */
+public final class Statistiques {
+    /**
+     * Articles passés dans le parseur Jsoup
+     */
+    public static final String ARTICLES_PARSES = "Articles parsés";
+    /**
+     * Articles dont l'empreinte est identique à celle en BDD (ni parsés ni réenregistrés)
+     */
+    public static final String ARTICLES_INCHANGES = "Articles inchangés (parsage évité)";
+    /**
+     * Temps passé dans le parseur Jsoup pendant les synchronisations
+     */
+    public static final String TEMPS_PARSAGE_SYNCHRO = "Temps de parsage pendant les synchronisations (µs)";
+    /**
+     * Articles enregistrés bruts lors de la synchronisation (parsage différé)
+     */
+    public static final String ARTICLES_PARSAGE_DIFFERE = "Articles enregistrés bruts (parsage différé)";
+    /**
+     * Articles parsés après la synchronisation (première lecture ou tâche de fond)
+     */
+    public static final String ARTICLES_PARSES_DIFFERES = "Articles parsés hors synchronisation";
+    /**
+     * Temps de parsage sorti des synchronisations
+     */
+    public static final String TEMPS_PARSAGE_DIFFERE = "Temps de parsage hors synchronisation (µs)";
+    /**
+     * Taille du contenu des articles avant nettoyage
+     */
+    public static final String OCTETS_AVANT_NETTOYAGE = "Contenu des articles avant nettoyage (octets)";
+    /**
+     * Taille du contenu des articles après nettoyage
+     */
+    public static final String OCTETS_APRES_NETTOYAGE = "Contenu des articles après nettoyage (octets)";
+    /**
+     * Lignes écrites en BDD par les enregistrements groupés
+     */
+    public static final String LIGNES_ENREGISTREES = "Lignes enregistrées en BDD";
+    /**
+     * Temps passé dans les enregistrements groupés
+     */
+    public static final String TEMPS_ENREGISTREMENT = "Temps d'enregistrement en BDD (µs)";
+    /**
+     * Lignes supprimées par le nettoyage du cache (articles, commentaires, refresh)
+     */
+    public static final String LIGNES_PURGEES = "Lignes supprimées par le nettoyage du cache";
+    /**
+     * Temps passé dans le nettoyage du cache
+     */
+    public static final String TEMPS_PURGE = "Temps de nettoyage du cache (µs)";
+    /**
+     * Articles fournis par le cache mémoire de DAO.chargerArticle()
+     */
+    public static final String CACHE_ARTICLES_SUCCES = "Articles lus depuis le cache mémoire";
+    /**
+     * Articles absents du cache mémoire (lus en BDD)
+     */
+    public static final String CACHE_ARTICLES_ECHECS = "Articles lus en BDD (absents du cache mémoire)";
+    /**
+     * Maintenances de la BDD
+     */
+    public static final String MAINTENANCES_BDD = "Maintenances de la BDD";
+    /**
+     * Pages rendues au système de fichiers par la maintenance de la BDD
+     */
+    public static final String PAGES_LIBEREES = "Pages libérées par la maintenance de la BDD";
+    /**
+     * Temps de maintenance de la BDD (µs)
+     */
+    public static final String TEMPS_MAINTENANCE = "Temps de maintenance de la BDD (µs)";
+    /**
+     * Etapes de migration du schéma de la BDD
+     */
+    public static final String MIGRATIONS_BDD = "Etapes de migration de la BDD";
+    /**
+     * Temps de migration du schéma de la BDD (µs)
+     */
+    public static final String TEMPS_MIGRATION = "Temps de migration de la BDD (µs)";
+
+    /**
+     * Compteurs (ordre d'affichage = ordre de création)
+     */
+    private static final Map<String, Long> mesCompteurs = new LinkedHashMap<>();
+
+    private Statistiques() {
+    }
+
+    /**
+     * Ajoute une valeur à un compteur
+     *
+     * @param unCompteur nom du compteur
+     * @param uneValeur  valeur à ajouter
+     */
+    public static synchronized void ajouter(final String unCompteur, final long uneValeur) {
+        mesCompteurs.put(unCompteur, get(unCompteur) + uneValeur);
+    }
+
+    /**
+     * Incrémente un compteur
+     *
+     * @param unCompteur nom du compteur
+     */
+    public static void incrementer(final String unCompteur) {
+        ajouter(unCompteur, 1);
+    }
+
+    /**
+     * Valeur d'un compteur
+     *
+     * @param unCompteur nom du compteur
+     * @return valeur (0 si jamais utilisé)
+     */
+    public static synchronized long get(final String unCompteur) {
+        Long maValeur = mesCompteurs.get(unCompteur);
+        return (maValeur == null ? 0 : maValeur);
+    }
+
+    /**
+     * Pourcentage d'un compteur par rapport à la somme de plusieurs autres
+     *
+     * @param unCompteur   nom du compteur
+     * @param desCompteurs compteurs formant le total
+     * @return pourcentage (0 si total nul)
+     */
+    public static synchronized double getPourcentage(final String unCompteur, final String... desCompteurs) {
+        long total = 0;
+        for (String unTotal : desCompteurs) {
+            total += get(unTotal);
+        }
+        return (total == 0 ? 0 : 100d * get(unCompteur) / total);
+    }
+
+    /**
+     * Remise à zéro des compteurs
+     */
+    public static synchronized void reinitialiser() {
+        mesCompteurs.clear();
+    }
+
+    /**
+     * Rapport textuel de l'ensemble des compteurs
+     *
+     * @return une ligne par compteur
+     */
+    public static synchronized String getRapport() {
+        StringBuilder monRapport = new StringBuilder();
+        for (Map.Entry<String, Long> unCompteur : mesCompteurs.entrySet()) {
+            monRapport.append(unCompteur.getKey());
+            monRapport.append(" : ");
+            monRapport.append(unCompteur.getValue());
+            monRapport.append("\n");
+        }
+        // Taux de parsage évité grâce à l'empreinte
+        monRapport.append(String.format(Constantes.LOCALE, "Taux d'articles inchangés : %.1f %%", getPourcentage(ARTICLES_INCHANGES, ARTICLES_PARSES, ARTICLES_INCHANGES, ARTICLES_PARSAGE_DIFFERE)));
+        // Gain du nettoyage du contenu
+        monRapport.append("\n");
+        monRapport.append(String.format(Constantes.LOCALE, "Taille après nettoyage : %.1f %%", getPourcentage(OCTETS_APRES_NETTOYAGE, OCTETS_AVANT_NETTOYAGE)));
+        // Débit d'écriture en BDD
+        monRapport.append("\n");
+        long tempsEnregistrement = get(TEMPS_ENREGISTREMENT);
+        monRapport.append(String.format(Constantes.LOCALE, "Débit d'enregistrement : %d lignes/s", (tempsEnregistrement == 0 ? 0 : get(LIGNES_ENREGISTREES) * 1000000 / tempsEnregistrement)));
+        // Efficacité du cache des articles
+        monRapport.append("\n");
+        monRapport.append(String.format(Constantes.LOCALE, "Taux de succès du cache des articles : %.1f %%", getPourcentage(CACHE_ARTICLES_SUCCES, CACHE_ARTICLES_SUCCES, CACHE_ARTICLES_ECHECS)));
+        return monRapport.toString();
+    }
+}
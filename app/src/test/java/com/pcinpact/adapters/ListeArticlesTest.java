@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.adapters;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.Item;
+import com.pcinpact.items.SectionItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ListeArticlesTest {
+    /**
+     * Un jour en secondes
+     */
+    private static final long JOUR = 86400;
+    /**
+     * Midi UTC : les articles d'un même jour UTC restent dans le même jour local
+     */
+    private static final long MIDI = 1700000000L - (1700000000L % JOUR) + JOUR / 2;
+
+    /**
+     * Modification sans changement de date => remplacement de la ligne, sans décalage
+     */
+    @Test
+    public void testModificationSurPlace() {
+        ArrayList<Item> mesItems = ListeArticles.construire(Arrays.asList(article(3, MIDI + 60), article(2, MIDI), article(1, MIDI - JOUR)));
+        ArticleItem maMaj = article(2, MIDI);
+        maMaj.setNbCommentaires(12);
+        ArrayList<Integer> mesPositions = new ArrayList<>();
+
+        assertFalse(ListeArticles.appliquer(mesItems, Collections.emptyList(), Collections.singletonList(maMaj), mesPositions));
+        assertEquals(Collections.singletonList(2), mesPositions);
+        assertSame(maMaj, mesItems.get(2));
+        assertEquals(5, mesItems.size());
+    }
+
+    /**
+     * Ajouts dans une section existante, avant, entre et après les sections => identique à une construction complète
+     */
+    @Test
+    public void testAjouts() {
+        List<ArticleItem> mesArticles = new ArrayList<>(Arrays.asList(article(5, MIDI + 120), article(4, MIDI), article(2, MIDI - 2 * JOUR)));
+        ArrayList<Item> mesItems = ListeArticles.construire(mesArticles);
+
+        List<ArticleItem> mesAjouts = Arrays.asList(article(9, MIDI + JOUR), article(6, MIDI + 60), article(7, MIDI + 180), article(3, MIDI - JOUR), article(1, MIDI - 3 * JOUR));
+        assertTrue(ListeArticles.appliquer(mesItems, Collections.emptyList(), mesAjouts, new ArrayList<>()));
+
+        mesArticles.addAll(mesAjouts);
+        Collections.sort(mesArticles, (a, b) -> Long.compare(b.getTimeStampPublication(), a.getTimeStampPublication()));
+        assertEquals(signature(ListeArticles.construire(mesArticles)), signature(mesItems));
+    }
+
+    /**
+     * Suppressions : les sections vidées disparaissent
+     */
+    @Test
+    public void testSuppressions() {
+        ArrayList<Item> mesItems = ListeArticles.construire(Arrays.asList(article(4, MIDI + 60), article(3, MIDI), article(2, MIDI - JOUR), article(1, MIDI - 2 * JOUR)));
+
+        assertTrue(ListeArticles.appliquer(mesItems, Arrays.asList(3, 2, 42), Collections.emptyList(), new ArrayList<>()));
+
+        assertEquals(signature(ListeArticles.construire(Arrays.asList(article(4, MIDI + 60), article(1, MIDI - 2 * JOUR)))), signature(mesItems));
+    }
+
+    /**
+     * Date de publication modifiée => article déplacé
+     */
+    @Test
+    public void testDeplacement() {
+        ArrayList<Item> mesItems = ListeArticles.construire(Arrays.asList(article(3, MIDI), article(2, MIDI - JOUR), article(1, MIDI - 2 * JOUR)));
+
+        assertTrue(ListeArticles.appliquer(mesItems, Collections.emptyList(), Collections.singletonList(article(1, MIDI + 60)), new ArrayList<>()));
+
+        assertEquals(signature(ListeArticles.construire(Arrays.asList(article(1, MIDI + 60), article(3, MIDI), article(2, MIDI - JOUR)))), signature(mesItems));
+        assertEquals(1, ListeArticles.getPosition(mesItems, 1));
+    }
+
+    private static ArticleItem article(final int unId, final long unTimestamp) {
+        ArticleItem monArticle = new ArticleItem();
+        monArticle.setId(unId);
+        monArticle.setTimeStampPublication(unTimestamp);
+        return monArticle;
+    }
+
+    /**
+     * Représentation comparable d'une liste : "[jour]" pour une section, ID pour un article
+     */
+    private static String signature(final List<Item> desItems) {
+        StringBuilder monRetour = new StringBuilder();
+        for (Item unItem : desItems) {
+            if (unItem instanceof SectionItem) {
+                monRetour.append('[').append(((SectionItem) unItem).getTitre()).append(']');
+            } else {
+                monRetour.append(((ArticleItem) unItem).getId()).append(' ');
+            }
+        }
+        return monRetour.toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.utils.Statistiques;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CacheArticlesTest {
+    private CacheArticles monCache;
+
+    @Before
+    public void initialiser() {
+        Statistiques.reinitialiser();
+        monCache = new CacheArticles(2);
+    }
+
+    /**
+     * Le moins récemment utilisé est remplacé
+     */
+    @Test
+    public void testLRU() {
+        ArticleItem a1 = article(1);
+        ArticleItem a2 = article(2);
+        monCache.mettre(1, a1, monCache.getVersion());
+        monCache.mettre(2, a2, monCache.getVersion());
+        // 1 est utilisé => 2 est le moins récent
+        assertSame(a1, monCache.get(1));
+        monCache.mettre(3, article(3), monCache.getVersion());
+
+        assertNull(monCache.get(2));
+        assertSame(a1, monCache.get(1));
+        assertEquals(3, monCache.get(3).getId());
+
+        assertEquals(3, Statistiques.get(Statistiques.CACHE_ARTICLES_SUCCES));
+        assertEquals(1, Statistiques.get(Statistiques.CACHE_ARTICLES_ECHECS));
+    }
+
+    /**
+     * Une écriture invalide l'article
+     */
+    @Test
+    public void testInvalidation() {
+        monCache.mettre(1, article(1), monCache.getVersion());
+        monCache.mettre(2, article(2), monCache.getVersion());
+        monCache.invalider(1);
+        assertNull(monCache.get(1));
+        assertEquals(2, monCache.get(2).getId());
+
+        monCache.vider();
+        assertNull(monCache.get(2));
+    }
+
+    /**
+     * Un article lu avant une écriture n'est pas mis en cache
+     */
+    @Test
+    public void testLectureConcurrente() {
+        int maVersion = monCache.getVersion();
+        // Ecriture pendant la lecture en BDD
+        monCache.invalider(1);
+        monCache.mettre(1, article(1), maVersion);
+        assertNull(monCache.get(1));
+    }
+
+    private static ArticleItem article(int unId) {
+        ArticleItem monArticle = new ArticleItem();
+        monArticle.setId(unId);
+        return monArticle;
+    }
+}
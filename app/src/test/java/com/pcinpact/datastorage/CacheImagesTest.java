@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.cache.SafeKeyGenerator;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.signature.EmptySignature;
+import com.pcinpact.parseur.NettoyeurHTML;
+
+import org.jsoup.Jsoup;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CacheImagesTest {
+    private static final String URL_IMAGE = "https://next.ink/wp-content/uploads/a.png?w=1&h=2";
+
+    @Rule
+    public final TemporaryFolder monDossier = new TemporaryFolder();
+
+    /**
+     * Clef d'une image téléchargée telle qu'enregistrée par Glide (DiskCacheStrategy.AUTOMATIC : DataCacheKey)
+     */
+    private static Key clefGlide(final String uneUrl) throws ReflectiveOperationException {
+        Constructor<?> monConstructeur = Class.forName("com.bumptech.glide.load.engine.DataCacheKey").getDeclaredConstructor(Key.class, Key.class);
+        monConstructeur.setAccessible(true);
+        return (Key) monConstructeur.newInstance(new GlideUrl(uneUrl), EmptySignature.obtain());
+    }
+
+    /**
+     * URL des images d'un contenu nettoyé, entités décodées comme par Html.fromHtml()
+     */
+    @Test
+    public void testExtraireUrlsImages() {
+        String monContenu = NettoyeurHTML.nettoyer(Jsoup.parse("<article><p>texte</p><img class=\"x\" src=\"" + URL_IMAGE.replace("&", "&amp;") + "\"><p><img src=\"https://next.ink/b.png\" alt=\"b\"></p></article>").selectFirst("article"));
+
+        assertEquals(Arrays.asList(URL_IMAGE, "https://next.ink/b.png"), CacheImages.extraireUrlsImages(monContenu));
+        assertEquals(Collections.emptyList(), CacheImages.extraireUrlsImages("<p>aucune image</p>"));
+        assertEquals(Collections.emptyList(), CacheImages.extraireUrlsImages(null));
+    }
+
+    /**
+     * Une image enregistrée par Glide est supprimée à partir de son URL
+     */
+    @Test
+    public void testSupprimer() throws IOException, ReflectiveOperationException {
+        CacheImages monCache = new CacheImages(new File(monDossier.getRoot(), "images"), 1024 * 1024);
+        Key maClefGlide = clefGlide(URL_IMAGE);
+        assertEquals(new SafeKeyGenerator().getSafeKey(maClefGlide), monCache.getClef(URL_IMAGE));
+
+        monCache.put(maClefGlide, unFichier -> {
+            try (FileOutputStream monFlux = new FileOutputStream(unFichier)) {
+                monFlux.write(new byte[100]);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        });
+        assertNotNull(monCache.get(maClefGlide));
+        assertEquals(100, monCache.getTaille());
+
+        // Autre image : rien à supprimer
+        assertEquals(0, monCache.supprimer(Collections.singletonList("https://next.ink/b.png")));
+        assertEquals(1, monCache.supprimer(Collections.singletonList(URL_IMAGE)));
+        assertNull(monCache.get(maClefGlide));
+        assertEquals(0, monCache.getTaille());
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MigrationsBDDTest {
+
+    /**
+     * Une migration par version, sans trou, jusqu'à la version actuelle de la BDD
+     */
+    @Test
+    public void testVersionsConsecutives() {
+        for (int i = 0; i < MigrationsBDD.MIGRATIONS.length; i++) {
+            assertEquals(MigrationsBDD.VERSION_MIN + 1 + i, MigrationsBDD.MIGRATIONS[i].getVersion());
+        }
+        assertEquals(DAO.BDD_VERSION, MigrationsBDD.VERSION_MIN + MigrationsBDD.MIGRATIONS.length);
+    }
+}
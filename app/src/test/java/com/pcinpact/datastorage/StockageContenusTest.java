@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import com.pcinpact.utils.CodecContenu;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StockageContenusTest {
+    private static final String CONTENU = "<p>Éléphant à l'œil vif — « citation » 😀</p><p>Un paragraphe d'article assez classique.</p>";
+
+    @Rule
+    public final TemporaryFolder monDossier = new TemporaryFolder();
+
+    /**
+     * Un contenu (compressé ou non) écrit puis relu par projection mémoire redonne le contenu d'origine
+     */
+    @Test
+    public void testAllerRetour() throws IOException {
+        StockageContenus mesContenus = new StockageContenus(new File(monDossier.getRoot(), "contenus"));
+        for (boolean compresser : new boolean[]{true, false}) {
+            byte[] maReference = mesContenus.ecrire(42, CodecContenu.encoderFichier(CONTENU, compresser));
+            assertTrue(StockageContenus.isReference(maReference));
+
+            ByteBuffer monContenu = mesContenus.lire(42, maReference);
+            assertNotNull(monContenu);
+            assertEquals(CONTENU, CodecContenu.decoderFichier(monContenu));
+            // Buffer non consommé par le décodage
+            assertEquals(CONTENU, CodecContenu.decoderFichier(monContenu));
+        }
+        // Contenu compressé : ni texte, ni référence
+        assertFalse(StockageContenus.isReference(CodecContenu.encoder(CONTENU)));
+    }
+
+    /**
+     * Fichier absent, tronqué ou modifié => pas de contenu
+     */
+    @Test
+    public void testFichierInvalide() throws IOException {
+        File monRepertoire = new File(monDossier.getRoot(), "contenus");
+        StockageContenus mesContenus = new StockageContenus(monRepertoire);
+        byte[] maReference = mesContenus.ecrire(42, CodecContenu.encoderFichier(CONTENU, true));
+        File monFichier = new File(monRepertoire, StockageContenus.getNomFichier(42, maReference));
+
+        // Autre article
+        assertNull(mesContenus.lire(43, maReference));
+
+        // Octet modifié
+        try (RandomAccessFile monAcces = new RandomAccessFile(monFichier, "rw")) {
+            monAcces.seek(monAcces.length() - 1);
+            int monOctet = monAcces.read();
+            monAcces.seek(monAcces.length() - 1);
+            monAcces.write(monOctet ^ 0xFF);
+        }
+        assertNull(mesContenus.lire(42, maReference));
+
+        // Fichier tronqué
+        try (RandomAccessFile monAcces = new RandomAccessFile(monFichier, "rw")) {
+            monAcces.setLength(monAcces.length() / 2);
+        }
+        assertNull(mesContenus.lire(42, maReference));
+
+        // Fichier supprimé
+        assertTrue(monFichier.delete());
+        assertNull(mesContenus.lire(42, maReference));
+    }
+
+    /**
+     * Seuls les fichiers référencés sont conservés par le nettoyage
+     */
+    @Test
+    public void testNettoyer() throws IOException {
+        StockageContenus mesContenus = new StockageContenus(new File(monDossier.getRoot(), "contenus"));
+        byte[] maReference = mesContenus.ecrire(1, CodecContenu.encoderFichier(CONTENU, true));
+        byte[] maReferenceRemplacee = mesContenus.ecrire(2, CodecContenu.encoderFichier(CONTENU, true));
+        byte[] maNouvelleReference = mesContenus.ecrire(2, CodecContenu.encoderFichier(CONTENU + "MàJ", true));
+        assertTrue(mesContenus.getTaille() > 0);
+
+        HashSet<String> mesNoms = new HashSet<>();
+        mesNoms.add(StockageContenus.getNomFichier(1, maReference));
+        mesNoms.add(StockageContenus.getNomFichier(2, maNouvelleReference));
+        assertEquals(1, mesContenus.nettoyer(mesNoms));
+
+        assertNotNull(mesContenus.lire(1, maReference));
+        assertNull(mesContenus.lire(2, maReferenceRemplacee));
+        assertNotNull(mesContenus.lire(2, maNouvelleReference));
+
+        mesContenus.vider();
+        assertEquals(0, mesContenus.getTaille());
+        assertEquals(0, mesContenus.nettoyer(Collections.<String>emptySet()));
+    }
+}
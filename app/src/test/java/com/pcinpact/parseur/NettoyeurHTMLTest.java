@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.parseur;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NettoyeurHTMLTest {
+    /**
+     * Nettoie le contenu de la balise article
+     */
+    private static String nettoyer(String unHTML) {
+        Element monArticle = Jsoup.parse(unHTML).selectFirst("article");
+        return NettoyeurHTML.nettoyer(monArticle);
+    }
+
+    /**
+     * Eléments non affichés supprimés avec leur contenu
+     */
+    @Test
+    public void testSuppression() {
+        assertEquals("<article><p>texte</p></article>", nettoyer("<article><script>alert(1)</script><style>p{}</style><p>texte</p><noscript><img src=\"a.png\" /></noscript><svg><path d=\"M0\"/></svg></article>"));
+    }
+
+    /**
+     * Attributs et balises inutiles supprimés, balises remplacées
+     */
+    @Test
+    public void testListeBlanche() {
+        assertEquals("<article><div><img src=\"https://next.ink/a.png\" /><div>Légende</div></div><p><b>gras</b> <i>italique</i> <a href=\"https://next.ink/?a=1&amp;b=2\">lien</a></p></article>",
+                nettoyer("<article><figure class=\"wp-block-image\"><img class=\"x\" style=\"y\" alt=\"z\" src=\"https://next.ink/a.png\"><figcaption class=\"c\">Légende</figcaption></figure><p class=\"p\"><strong>gras</strong> <em>italique</em> <a target=\"_blank\" rel=\"noopener\" href=\"https://next.ink/?a=1&amp;b=2\">lien</a></p></article>"));
+    }
+
+    /**
+     * Eléments vides, enveloppes redondantes et espaces
+     */
+    @Test
+    public void testCompactage() {
+        assertEquals("<article><p>un deux <b>trois</b></p><p>quatre</p></article>",
+                nettoyer("<article>\n  <div class=\"vide\"> <span> </span> </div>\n  <p>  un \n\n deux  <b><b>trois</b></b>  </p>\n<p><span>quatre</span></p><p></p>\n</article>"));
+    }
+
+    /**
+     * Entités décodées, caractères spéciaux échappés
+     */
+    @Test
+    public void testEntites() {
+        assertEquals("<article><p>«\u00a0citation\u00a0» &lt;balise&gt; &amp;</p></article>", nettoyer("<article><p>&laquo;&nbsp;citation&nbsp;&raquo; &lt;balise&gt; &amp;</p></article>"));
+    }
+
+    /**
+     * Taille UTF-8
+     */
+    @Test
+    public void testTailleUTF8() {
+        assertEquals(0, NettoyeurHTML.tailleUTF8(""));
+        assertEquals(5, NettoyeurHTML.tailleUTF8("abcde"));
+        assertEquals(2, NettoyeurHTML.tailleUTF8("é"));
+        assertEquals(3, NettoyeurHTML.tailleUTF8("€"));
+        assertEquals(4, NettoyeurHTML.tailleUTF8("😀"));
+    }
+}
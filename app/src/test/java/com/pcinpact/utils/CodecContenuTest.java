@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CodecContenuTest {
+    /**
+     * Compression puis décompression redonnent le contenu d'origine
+     */
+    @Test
+    public void testAllerRetour() {
+        String[] mesContenus = {"", "a", "<p>Éléphant à l'œil vif — « citation » 😀</p>", repeter("<p>Un paragraphe d'article assez classique.</p>", 500)};
+        for (String unContenu : mesContenus) {
+            byte[] mesDonnees = CodecContenu.encoder(unContenu);
+            assertEquals(CodecContenu.CODEC_DEFLATE, mesDonnees[0]);
+            assertEquals(unContenu, CodecContenu.decoder(mesDonnees));
+        }
+    }
+
+    /**
+     * Un article HTML répétitif doit être nettement plus petit une fois compressé
+     */
+    @Test
+    public void testTaille() {
+        String monContenu = repeter("<p>Un paragraphe d'article assez classique.</p>", 500);
+        assertTrue(CodecContenu.encoder(monContenu).length * 10 < monContenu.length());
+    }
+
+    /**
+     * Données absentes, codec inconnu ou données corrompues
+     */
+    @Test
+    public void testDonneesInvalides() {
+        assertEquals("", CodecContenu.decoder(null));
+        assertEquals("", CodecContenu.decoder(new byte[0]));
+
+        byte[] mesDonnees = CodecContenu.encoder("contenu");
+        mesDonnees[0] = 42;
+        assertEquals("", CodecContenu.decoder(mesDonnees));
+
+        byte[] mesDonneesCorrompues = {CodecContenu.CODEC_DEFLATE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        assertEquals("", CodecContenu.decoder(mesDonneesCorrompues));
+
+        // Données tronquées
+        byte[] mesDonneesTronquees = CodecContenu.encoder(repeter("tronqué ", 200));
+        mesDonneesTronquees = Arrays.copyOf(mesDonneesTronquees, mesDonneesTronquees.length / 2);
+        assertEquals("", CodecContenu.decoder(mesDonneesTronquees));
+    }
+
+    private static String repeter(String unTexte, int nb) {
+        StringBuilder monRetour = new StringBuilder();
+        for (int i = 0; i < nb; i++) {
+            monRetour.append(unTexte);
+        }
+        return monRetour.toString();
+    }
+}
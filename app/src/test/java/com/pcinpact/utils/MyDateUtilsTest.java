@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MyDateUtilsTest {
+    /**
+     * Dates de l'API (dont changements d'heure été / hiver)
+     */
+    private static final String[] DATES = {"2020-11-13T15:52:42.0216538", "2020-11-05T14:00:18.239", "2020-11-04T07:30:08.4", "2023-11-13T00:00:00", "2023-03-26T01:59:59", "2023-03-26T03:00:00", "2023-10-29T02:30:00", "2023-10-29T03:00:00", "2024-02-29T23:59:59", "1999-12-31T23:00:00"};
+
+    /**
+     * Vérifie que le parseur ISO8601 donne le même résultat que SimpleDateFormat
+     */
+    @Test
+    public void testConvertToTimestamp() {
+        for (String uneDate : DATES) {
+            assertEquals(uneDate, convertToTimestampSimpleDateFormat(uneDate), MyDateUtils.convertToTimestamp(uneDate));
+        }
+        // Valeurs invalides
+        assertEquals(0, MyDateUtils.convertToTimestamp(null));
+        assertEquals(0, MyDateUtils.convertToTimestamp("n'importe quoi"));
+    }
+
+    /**
+     * Vérifie que les formatages manuels correspondent aux formats de Constantes
+     */
+    @Test
+    public void testFormatage() {
+        for (String uneDate : DATES) {
+            long unTimestamp = MyDateUtils.convertToTimestamp(uneDate);
+            assertEquals(uneDate, formatSimpleDateFormat(Constantes.FORMAT_AFFICHAGE_ARTICLE_HEURE, unTimestamp), MyDateUtils.formatHeureMinute(unTimestamp));
+            assertEquals(uneDate, formatSimpleDateFormat(Constantes.FORMAT_AFFICHAGE_COMMENTAIRE_DATE_HEURE, unTimestamp), MyDateUtils.formatDateHeureCommentaire(unTimestamp));
+            assertEquals(uneDate, formatSimpleDateFormat(Constantes.FORMAT_AFFICHAGE_SECTION_DATE, unTimestamp), MyDateUtils.formatJour(unTimestamp));
+            assertEquals(uneDate, formatSimpleDateFormat(Constantes.FORMAT_DATE, unTimestamp), MyDateUtils.convertToDateISO8601(unTimestamp));
+        }
+    }
+
+    /**
+     * Vérifie le découpage par jour (sections de la liste des articles)
+     */
+    @Test
+    public void testGetJourLocal() {
+        long minuit = MyDateUtils.convertToTimestamp("2023-11-13T00:00:00");
+        assertEquals(MyDateUtils.getJourLocal(minuit), MyDateUtils.getJourLocal(MyDateUtils.convertToTimestamp("2023-11-13T23:59:59")));
+        assertEquals(MyDateUtils.getJourLocal(minuit) - 1, MyDateUtils.getJourLocal(minuit - 1));
+        assertEquals("Lundi 13 novembre 2023", MyDateUtils.formatSection(minuit));
+    }
+
+    /**
+     * Implémentation historique de MyDateUtils.convertToTimestamp()
+     */
+    private static long convertToTimestampSimpleDateFormat(String uneDate) {
+        try {
+            int posPoint = uneDate.indexOf(".");
+            if (posPoint != -1) {
+                uneDate = uneDate.substring(0, posPoint);
+            }
+            DateFormat dfm = new SimpleDateFormat(Constantes.FORMAT_DATE, Locale.FRANCE);
+            dfm.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
+            return TimeUnit.MILLISECONDS.toSeconds(dfm.parse(uneDate).getTime());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Implémentation historique de MyDateUtils.formatDate()
+     */
+    private static String formatSimpleDateFormat(String format, long unTimestamp) {
+        DateFormat dfm = new SimpleDateFormat(format, Constantes.LOCALE);
+        dfm.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
+        return dfm.format(new Date(TimeUnit.SECONDS.toMillis(unTimestamp)));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RechercheTest {
+    /**
+     * Minuscules et accents supprimés
+     */
+    @Test
+    public void testNormaliser() {
+        assertEquals("securite de l'etat : ca va ?", Recherche.normaliser("Sécurité de l'État : ça va ?"));
+        assertEquals("", Recherche.normaliser(null));
+        assertEquals("un lien et du gras", Recherche.normaliserHTML("<p>Un <a href=\"https://next.ink\">lien</a> et du <b>gras</b></p>"));
+    }
+
+    /**
+     * Chaque mot devient une recherche par préfixe, sans opérateur FTS possible
+     */
+    @Test
+    public void testConstruireRequete() {
+        assertEquals("regl* europ*", Recherche.construireRequete("  Règl. Europ "));
+        // "OR" en minuscules n'est plus un opérateur FTS
+        assertEquals("a* or* b*", Recherche.construireRequete("\"a\" OR -b*"));
+        assertNull(Recherche.construireRequete(null));
+        assertNull(Recherche.construireRequete(" ?! "));
+        assertEquals(8, Recherche.construireRequete("a b c d e f g h i j").split(" ").length);
+    }
+
+    /**
+     * Un mot présent dans le titre pèse plus lourd que dans le contenu
+     */
+    @Test
+    public void testScore() {
+        double[] mesPoids = new double[]{10, 1};
+        // 1 mot, 2 colonnes : titre (1 occurrence sur 2 dans la table), contenu (0 sur 5)
+        double scoreTitre = Recherche.score(matchinfo(1, 2, 1, 2, 1, 0, 5, 3), mesPoids);
+        // Contenu uniquement (3 occurrences sur 5)
+        double scoreContenu = Recherche.score(matchinfo(1, 2, 0, 2, 1, 3, 5, 3), mesPoids);
+        assertEquals(5, scoreTitre, 0.0001);
+        assertEquals(0.6, scoreContenu, 0.0001);
+        assertTrue(scoreTitre > scoreContenu);
+
+        // Données invalides
+        assertEquals(0, Recherche.score(null, mesPoids), 0);
+        assertEquals(0, Recherche.score(matchinfo(2, 2, 1, 2, 1), mesPoids), 0);
+    }
+
+    private static byte[] matchinfo(int... desEntiers) {
+        ByteBuffer monBuffer = ByteBuffer.allocate(4 * desEntiers.length).order(ByteOrder.nativeOrder());
+        for (int unEntier : desEntiers) {
+            monBuffer.putInt(unEntier);
+        }
+        return monBuffer.array();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Données de référence au format de l'API WordPress de next.ink (src/jmh/resources/fixtures)
+ *
+ * @author Anael
+ */
+public final class Fixtures {
+    /**
+     * Liste de 20 articles (wp/v2/posts avec _embed)
+     */
+    public static final String LISTE_ARTICLES = "liste_articles.json";
+    /**
+     * Liste de 10 brief (wp/v2/brief_article avec _embed)
+     */
+    public static final String LISTE_BRIEF = "liste_brief.json";
+    /**
+     * Page de 10 commentaires (wp/v2/comments)
+     */
+    public static final String COMMENTAIRES = "commentaires.json";
+    /**
+     * Entêtes HTTP de la page de commentaires
+     */
+    public static final String COMMENTAIRES_HEADERS = "commentaires_headers.txt";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Charge une fixture
+     *
+     * @param nom nom du fichier
+     * @return contenu brut
+     */
+    public static String charger(final String nom) {
+        try (InputStream monIS = Fixtures.class.getResourceAsStream("/fixtures/" + nom)) {
+            if (monIS == null) {
+                throw new IllegalStateException("Fixture introuvable : " + nom);
+            }
+            ByteArrayOutputStream monBAOS = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int nbLus;
+            while ((nbLus = monIS.read(buffer)) != -1) {
+                monBAOS.write(buffer, 0, nbLus);
+            }
+            return new String(monBAOS.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Fixture illisible : " + nom, e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import android.database.MatrixCursor;
+
+import com.pcinpact.benchmark.Fixtures;
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.CommentaireItem;
+import com.pcinpact.items.Item;
+import com.pcinpact.parseur.ParseurHTML;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+
+/**
+ * Mapping Cursor -> Items (une opération = lecture de tout le cursor)
+ * Le cursor est en mémoire : seul le coût du mapping est mesuré, pas celui de SQLite
+ *
+ * @author Anael
+ */
+@State(Scope.Thread)
+public class DAOBenchmark {
+    @Param({"100"})
+    private int nbLignes;
+
+    private MatrixCursor cursorArticles;
+    private MatrixCursor cursorResumesArticles;
+    private MatrixCursor cursorCommentaires;
+
+    @Setup
+    public void setup() {
+        ArrayList<ArticleItem> mesArticles = ParseurHTML.getListeArticles(Fixtures.charger(Fixtures.LISTE_ARTICLES));
+        cursorArticles = new MatrixCursor(DAO.ARTICLE__COLONNES, nbLignes);
+        for (int i = 0; i < nbLignes; i++) {
+            ArticleItem unArticle = mesArticles.get(i % mesArticles.size());
+            cursorArticles.addRow(new Object[]{unArticle.getId() + i, unArticle.getTitre(), unArticle.getSousTitre(), unArticle.getTimeStampPublication(), unArticle.getUrlIllustration(), unArticle.getContenu(), 42, 0, i % 2, 0, 12, unArticle.getURLseo(), unArticle.getParseurLastCommentId(), unArticle.getEmpreinteContenu(), null, 30, 0});
+        }
+        cursorResumesArticles = new MatrixCursor(DAO.ARTICLE__COLONNES_RESUME, nbLignes);
+        for (int i = 0; i < nbLignes; i++) {
+            ArticleItem unArticle = mesArticles.get(i % mesArticles.size());
+            cursorResumesArticles.addRow(new Object[]{unArticle.getId() + i, unArticle.getTitre(), unArticle.getSousTitre(), unArticle.getTimeStampPublication(), unArticle.getUrlIllustration(), 42, 0, i % 2, 0, 12, unArticle.getURLseo(), unArticle.getParseurLastCommentId(), 30});
+        }
+
+        ArrayList<Item> mesCommentaires = ParseurHTML.getCommentaires(Fixtures.charger(Fixtures.COMMENTAIRES), Fixtures.charger(Fixtures.COMMENTAIRES_HEADERS), 130000);
+        // Le premier item est l'article (nombre de commentaires)
+        mesCommentaires.remove(0);
+        cursorCommentaires = new MatrixCursor(DAO.COMMENTAIRE__COLONNES, nbLignes);
+        for (int i = 0; i < nbLignes; i++) {
+            CommentaireItem unCommentaire = (CommentaireItem) mesCommentaires.get(i % mesCommentaires.size());
+            cursorCommentaires.addRow(new Object[]{unCommentaire.getId() + i, 130000, unCommentaire.getAuteur(), unCommentaire.getTimeStampPublication(), unCommentaire.getCommentaire()});
+        }
+    }
+
+    @Benchmark
+    public void cursorToArticleItem(final Blackhole bh) {
+        cursorArticles.moveToPosition(-1);
+        while (cursorArticles.moveToNext()) {
+            bh.consume(DAO.cursorToArticleItem(cursorArticles));
+        }
+    }
+
+    @Benchmark
+    public void cursorToArticleResume(final Blackhole bh) {
+        cursorResumesArticles.moveToPosition(-1);
+        while (cursorResumesArticles.moveToNext()) {
+            bh.consume(DAO.cursorToArticleResume(cursorResumesArticles));
+        }
+    }
+
+    @Benchmark
+    public void cursorToCommentaireItem(final Blackhole bh) {
+        cursorCommentaires.moveToPosition(-1);
+        while (cursorCommentaires.moveToNext()) {
+            bh.consume(DAO.cursorToCommentaireItem(cursorCommentaires));
+        }
+    }
+}
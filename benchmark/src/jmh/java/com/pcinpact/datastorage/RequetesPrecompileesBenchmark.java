@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * MàJ unitaires d'articles (une opération = nbArticles UPDATE dans une transaction) :
+ * requête compilée à chaque appel (ancien DAO) / requête compilée une fois puis réutilisée (DAO.getRequete())
+ * SQLiteDatabase ne fonctionne pas sur la JVM : même moteur SQLite via JDBC
+ *
+ * @author Anael
+ */
+@State(Scope.Thread)
+public class RequetesPrecompileesBenchmark {
+    private static final String REQUETE = "UPDATE articles SET nbcomms=? WHERE id=?";
+
+    @Param({"100"})
+    private int nbArticles;
+
+    private Connection maConnexion;
+    private PreparedStatement maRequete;
+    private int nbCommentaires;
+
+    @Setup
+    public void setup() throws SQLException {
+        maConnexion = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement monStatement = maConnexion.createStatement()) {
+            monStatement.execute("CREATE TABLE articles (id INTEGER PRIMARY KEY, nbcomms INTEGER)");
+            for (int i = 0; i < nbArticles; i++) {
+                monStatement.execute("INSERT INTO articles VALUES (" + i + ", 0)");
+            }
+        }
+        maConnexion.setAutoCommit(false);
+        maRequete = maConnexion.prepareStatement(REQUETE);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        maRequete.close();
+        maConnexion.close();
+    }
+
+    @Benchmark
+    public int compilationParAppel() throws SQLException {
+        int nbLignes = 0;
+        nbCommentaires++;
+        for (int i = 0; i < nbArticles; i++) {
+            // Requête recompilée à chaque appel
+            try (PreparedStatement uneRequete = maConnexion.prepareStatement("UPDATE articles SET nbcomms=? WHERE id=?")) {
+                uneRequete.setInt(1, nbCommentaires);
+                uneRequete.setInt(2, i);
+                nbLignes += uneRequete.executeUpdate();
+            }
+        }
+        maConnexion.commit();
+        return nbLignes;
+    }
+
+    @Benchmark
+    public int requetePrecompilee() throws SQLException {
+        int nbLignes = 0;
+        nbCommentaires++;
+        for (int i = 0; i < nbArticles; i++) {
+            maRequete.setInt(1, nbCommentaires);
+            maRequete.setInt(2, i);
+            nbLignes += maRequete.executeUpdate();
+        }
+        maConnexion.commit();
+        return nbLignes;
+    }
+}
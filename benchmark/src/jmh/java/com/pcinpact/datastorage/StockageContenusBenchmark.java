@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.datastorage;
+
+import com.pcinpact.benchmark.Fixtures;
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.parseur.ParseurHTML;
+import com.pcinpact.utils.CodecContenu;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+
+/**
+ * Lecture du contenu d'un article (une opération = chargement et décodage d'un contenu) :
+ * texte en BDD / compressé en BDD / fichier projeté en mémoire (texte ou compressé), cf StockageContenus
+ * Les allocations (profiler gc) montrent la copie du contenu par le curseur SQLite, évitée par la projection mémoire
+ * SQLiteDatabase ne fonctionne pas sur la JVM : même moteur SQLite via JDBC, BDD dans un fichier
+ *
+ * @author Anael
+ */
+@State(Scope.Thread)
+public class StockageContenusBenchmark {
+    private static final String REQUETE = "SELECT contenu FROM articles WHERE id=?";
+    private static final int ID_TEXTE = 1;
+    private static final int ID_COMPRESSE = 2;
+
+    /**
+     * Taille du contenu (caractères)
+     */
+    @Param({"20000", "200000"})
+    private int taille;
+
+    private File monRepertoire;
+    private Connection maConnexion;
+    private PreparedStatement maRequete;
+    private StockageContenus mesContenus;
+    private byte[] maReferenceTexte;
+    private byte[] maReferenceCompresse;
+
+    @Setup
+    public void setup() throws SQLException, IOException {
+        // Contenu : articles de la fixture concaténés jusqu'à la taille voulue
+        ArrayList<ArticleItem> mesArticles = ParseurHTML.getListeArticles(Fixtures.charger(Fixtures.LISTE_ARTICLES));
+        StringBuilder monContenu = new StringBuilder();
+        for (int i = 0; monContenu.length() < taille; i++) {
+            ArticleItem unArticle = mesArticles.get(i % mesArticles.size());
+            monContenu.append(unArticle.isParsageRequis() ? unArticle.getContenuBrut() : unArticle.getContenu());
+        }
+        monContenu.setLength(taille);
+        String unContenu = monContenu.toString();
+
+        monRepertoire = Files.createTempDirectory("StockageContenusBenchmark").toFile();
+        maConnexion = DriverManager.getConnection("jdbc:sqlite:" + new File(monRepertoire, "bdd").getPath());
+        try (Statement monStatement = maConnexion.createStatement()) {
+            monStatement.execute("CREATE TABLE articles (id INTEGER PRIMARY KEY, contenu TEXT)");
+        }
+        try (PreparedStatement monInsert = maConnexion.prepareStatement("INSERT INTO articles VALUES (?, ?)")) {
+            monInsert.setInt(1, ID_TEXTE);
+            monInsert.setString(2, unContenu);
+            monInsert.executeUpdate();
+            monInsert.setInt(1, ID_COMPRESSE);
+            monInsert.setBytes(2, CodecContenu.encoder(unContenu));
+            monInsert.executeUpdate();
+        }
+        maRequete = maConnexion.prepareStatement(REQUETE);
+
+        mesContenus = new StockageContenus(new File(monRepertoire, "contenus"));
+        maReferenceTexte = mesContenus.ecrire(ID_TEXTE, CodecContenu.encoderFichier(unContenu, false));
+        maReferenceCompresse = mesContenus.ecrire(ID_COMPRESSE, CodecContenu.encoderFichier(unContenu, true));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        maRequete.close();
+        maConnexion.close();
+        mesContenus.vider();
+        new File(monRepertoire, "bdd").delete();
+        new File(monRepertoire, "contenus").delete();
+        monRepertoire.delete();
+    }
+
+    @Benchmark
+    public String bddTexte() throws SQLException {
+        maRequete.setInt(1, ID_TEXTE);
+        try (ResultSet monResultat = maRequete.executeQuery()) {
+            monResultat.next();
+            return monResultat.getString(1);
+        }
+    }
+
+    @Benchmark
+    public String bddCompresse() throws SQLException {
+        maRequete.setInt(1, ID_COMPRESSE);
+        try (ResultSet monResultat = maRequete.executeQuery()) {
+            monResultat.next();
+            return CodecContenu.decoder(monResultat.getBytes(1));
+        }
+    }
+
+    @Benchmark
+    public String fichierTexte() {
+        return CodecContenu.decoderFichier(mesContenus.lire(ID_TEXTE, maReferenceTexte));
+    }
+
+    @Benchmark
+    public String fichierCompresse() {
+        return CodecContenu.decoderFichier(mesContenus.lire(ID_COMPRESSE, maReferenceCompresse));
+    }
+}
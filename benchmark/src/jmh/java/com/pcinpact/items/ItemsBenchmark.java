@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.items;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Construction des items et calcul des valeurs affichées par ItemsAdapter (une opération = un item)
+ *
+ * @author Anael
+ */
+@State(Scope.Thread)
+public class ItemsBenchmark {
+    private static final long TIMESTAMP = 1703093223L;
+
+    private int compteur;
+
+    @Benchmark
+    public ArticleItem constructionArticle() {
+        compteur++;
+        ArticleItem monArticle = new ArticleItem();
+        monArticle.setId(130000 + compteur);
+        monArticle.setTitre("Titre de l'article");
+        monArticle.setSousTitre("Sous-titre de l'article");
+        monArticle.setTimeStampPublication(TIMESTAMP + compteur);
+        monArticle.setUrlIllustration("https://next.ink/wp-content/uploads/2023/12/illustration-300x169.jpg");
+        monArticle.setContenu("<article></article>");
+        monArticle.setNbCommentaires(compteur & 0xff);
+        monArticle.setIndiceDernierCommLu(compteur & 0x0f);
+        monArticle.setURLseo("https://next.ink/130000/titre-de-l-article/");
+        monArticle.setParseurLastCommentId(2200000 + compteur);
+        return monArticle;
+    }
+
+    @Benchmark
+    public void affichageArticle(final Blackhole bh) {
+        ArticleItem monArticle = constructionArticle();
+        bh.consume(monArticle.getHeureMinutePublication());
+        bh.consume(monArticle.getDatePublication());
+        bh.consume(monArticle.getNbCommentairesNonLus());
+    }
+
+    @Benchmark
+    public CommentaireItem constructionCommentaire() {
+        compteur++;
+        CommentaireItem monCommentaire = new CommentaireItem();
+        monCommentaire.setId(2200000 + compteur);
+        monCommentaire.setIdArticle(130000);
+        monCommentaire.setAuteur("lecteur");
+        monCommentaire.setTimeStampPublication(TIMESTAMP + compteur);
+        monCommentaire.setCommentaire("<p>Contenu du commentaire</p>");
+        return monCommentaire;
+    }
+
+    @Benchmark
+    public String affichageCommentaire() {
+        return constructionCommentaire().getAuteurDateCommentaire();
+    }
+}
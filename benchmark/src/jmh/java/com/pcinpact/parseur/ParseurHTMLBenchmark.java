@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.parseur;
+
+import com.pcinpact.benchmark.Fixtures;
+import com.pcinpact.items.ArticleItem;
+import com.pcinpact.items.Item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Parsage des réponses de l'API (une opération = une page complète)
+ *
+ * @author Anael
+ */
+@State(Scope.Benchmark)
+public class ParseurHTMLBenchmark {
+    private String listeArticles;
+    private String listeBrief;
+    private String commentaires;
+    private String commentairesHeaders;
+    private HashMap<Integer, Long> empreintes;
+
+    @Setup
+    public void setup() {
+        listeArticles = Fixtures.charger(Fixtures.LISTE_ARTICLES);
+        listeBrief = Fixtures.charger(Fixtures.LISTE_BRIEF);
+        commentaires = Fixtures.charger(Fixtures.COMMENTAIRES);
+        commentairesHeaders = Fixtures.charger(Fixtures.COMMENTAIRES_HEADERS);
+
+        // Vérification des fixtures (un parsage en échec renvoie une liste vide)
+        if (ParseurHTML.getListeArticles(listeArticles).size() != 20 || ParseurHTML.getListeArticles(listeBrief).size() != 10 || ParseurHTML.getCommentaires(commentaires, commentairesHeaders, 130000).size() != 11) {
+            throw new IllegalStateException("Fixtures non parsées");
+        }
+
+        // Empreintes telles qu'en BDD après une première synchronisation
+        empreintes = new HashMap<>();
+        for (ArticleItem unArticle : ParseurHTML.getListeArticles(listeArticles)) {
+            empreintes.put(unArticle.getId(), unArticle.getEmpreinteContenu());
+        }
+    }
+
+    @Benchmark
+    public ArrayList<ArticleItem> getListeArticles() {
+        return ParseurHTML.getListeArticles(listeArticles);
+    }
+
+    /**
+     * Synchronisation sans modification côté serveur (contenu non parsé)
+     */
+    @Benchmark
+    public ArrayList<ArticleItem> getListeArticlesInchanges() {
+        return ParseurHTML.getListeArticles(listeArticles, empreintes, false);
+    }
+
+    /**
+     * Synchronisation avec parsage différé (contenu stocké brut)
+     */
+    @Benchmark
+    public ArrayList<ArticleItem> getListeArticlesParsageDiffere() {
+        return ParseurHTML.getListeArticles(listeArticles, null, true);
+    }
+
+    @Benchmark
+    public ArrayList<ArticleItem> getListeArticlesBrief() {
+        return ParseurHTML.getListeArticles(listeBrief);
+    }
+
+    @Benchmark
+    public ArrayList<Item> getCommentaires() {
+        return ParseurHTML.getCommentaires(commentaires, commentairesHeaders, 130000);
+    }
+}
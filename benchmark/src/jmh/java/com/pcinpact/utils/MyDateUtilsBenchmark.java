@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 - 2023 Anael Mobilia and contributors
+ *
+ * This file is part of NextINpact-Unofficial.
+ *
+ * NextINpact-Unofficial is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * NextINpact-Unofficial is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NextINpact-Unofficial. If not, see <http://www.gnu.org/licenses/>
+ */
+package com.pcinpact.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Conversion et formatage des dates (une opération = un appel)
+ *
+ * @author Anael
+ */
+@State(Scope.Thread)
+public class MyDateUtilsBenchmark {
+    /**
+     * Formats de dates renvoyés par l'API
+     */
+    private static final String[] DATES = {"2023-12-20T18:27:03", "2023-12-19T07:30:08.4", "2020-11-13T15:52:42.0216538", "2023-10-29T02:30:00"};
+
+    private long[] timestamps;
+    private int index;
+
+    @Setup
+    public void setup() {
+        timestamps = new long[DATES.length];
+        for (int i = 0; i < DATES.length; i++) {
+            timestamps[i] = MyDateUtils.convertToTimestamp(DATES[i]);
+        }
+    }
+
+    private int suivant() {
+        index = (index + 1) % DATES.length;
+        return index;
+    }
+
+    @Benchmark
+    public long convertToTimestamp() {
+        return MyDateUtils.convertToTimestamp(DATES[suivant()]);
+    }
+
+    @Benchmark
+    public String convertToDateISO8601() {
+        return MyDateUtils.convertToDateISO8601(timestamps[suivant()]);
+    }
+
+    @Benchmark
+    public String formatHeureMinute() {
+        return MyDateUtils.formatHeureMinute(timestamps[suivant()]);
+    }
+
+    @Benchmark
+    public String formatSection() {
+        return MyDateUtils.formatSection(timestamps[suivant()]);
+    }
+
+    @Benchmark
+    public String formatDateHeureCommentaire() {
+        return MyDateUtils.formatDateHeureCommentaire(timestamps[suivant()]);
+    }
+
+    @Benchmark
+    public long getJourLocal() {
+        return MyDateUtils.getJourLocal(timestamps[suivant()]);
+    }
+}